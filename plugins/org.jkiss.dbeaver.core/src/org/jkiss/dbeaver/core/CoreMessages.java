@@ -272,6 +272,7 @@ public class CoreMessages extends NLS {
 	public static String controls_resultset_grouping_edit;
 	public static String controls_resultset_grouping_remove_column;
 	public static String controls_resultset_grouping_clear;
+	public static String controls_resultset_grouping_show_totals;
 
 	public static String controls_resultset_viewer_action_edit;
 	public static String controls_resultset_viewer_action_order_filter;
@@ -299,6 +300,10 @@ public class CoreMessages extends NLS {
 	public static String controls_resultset_viewer_status_rows;
 	public static String controls_resultset_viewer_status_rows_fetched;
 	public static String controls_resultset_viewer_status_rows_size;
+	public static String controls_resultset_viewer_status_rows_fetching;
+	public static String controls_resultset_viewer_status_find_progress;
+	public static String controls_resultset_viewer_status_find_result;
+	public static String controls_resultset_viewer_status_find_not_found;
 	public static String controls_resultset_viewer_value;
 
 	public static String controls_resultset_ref_menu_no_references;
@@ -786,6 +791,10 @@ public class CoreMessages extends NLS {
     public static String pref_page_database_resultsets_label_auto_fetch_segment;
     public static String pref_page_database_resultsets_label_use_sql;
     public static String pref_page_database_resultsets_label_server_side_order;
+    public static String pref_page_database_resultsets_label_keyset_paging;
+    public static String pref_page_database_resultsets_label_keyset_paging_tip;
+    public static String pref_page_database_resultsets_label_virtual_scroll;
+    public static String pref_page_database_resultsets_label_virtual_scroll_tip;
 	public static String pref_page_database_resultsets_label_fetch_size;
 	public static String pref_page_database_resultsets_label_read_metadata;
 	public static String pref_page_database_resultsets_label_read_references;
@@ -992,6 +1001,8 @@ public class CoreMessages extends NLS {
 	public static String pref_page_database_resultsets_label_read_metadata_tip;
 	public static String pref_page_database_resultsets_label_read_references_tip;
 	public static String pref_page_database_resultsets_label_fetch_size_tip;
+	public static String pref_page_database_resultsets_label_memory_limit;
+	public static String pref_page_database_resultsets_label_memory_limit_tip;
 	// ResultSetPresentation
 	public static String pref_page_database_resultsets_group_common;
 	public static String pref_page_database_resultsets_label_switch_mode_on_rows;
@@ -1098,6 +1109,8 @@ public class CoreMessages extends NLS {
 	public static String pref_page_database_general_checkbox_show_row_count_tip;
 	public static String pref_page_database_general_server_side_object_filters;
 	public static String pref_page_database_general_server_side_object_filters_tip;
+	public static String pref_page_database_general_metadata_disk_cache;
+	public static String pref_page_database_general_metadata_disk_cache_tip;
 	public static String pref_page_database_general_group_query_metadata;
 	public static String pref_page_database_general_use_column_names;
 	public static String pref_page_database_general_use_column_names_tip;
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * DataFormatterProfile
@@ -45,6 +46,9 @@ public class DataFormatterProfile implements DBDDataFormatterProfile, DBPPrefere
     private DBPPreferenceStore store;
     private String name;
     private Locale locale;
+    // Formatters are thread safe, so they are shared between all callers.
+    // Key is type id and type scale (number formatter may depend on it)
+    private final Map<String, DBDDataFormatter> formatterCache = new ConcurrentHashMap<>();
 
     public DataFormatterProfile(String profileName, DBPPreferenceStore store)
     {
@@ -55,6 +59,7 @@ public class DataFormatterProfile implements DBDDataFormatterProfile, DBPPrefere
 
     private void loadProfile()
     {
+        formatterCache.clear();
         {
             String language = store.getString(PROP_LANGUAGE);
             String country = store.getString(PROP_COUNTRY);
@@ -109,6 +114,7 @@ public class DataFormatterProfile implements DBDDataFormatterProfile, DBPPrefere
     public void setLocale(Locale locale)
     {
         this.locale = locale;
+        formatterCache.clear();
     }
 
     @Override
@@ -132,6 +138,7 @@ public class DataFormatterProfile implements DBDDataFormatterProfile, DBPPrefere
     @Override
     public void setFormatterProperties(String typeId, Map<Object, Object> formatterProps)
     {
+        formatterCache.clear();
         DataFormatterDescriptor formatter = DataFormatterRegistry.getInstance().getDataFormatter(typeId);
         for (DBPPropertyDescriptor prop : formatter.getProperties()) {
             Object propValue = formatterProps == null ? null : formatterProps.get(prop.getId());
@@ -188,11 +195,16 @@ public class DataFormatterProfile implements DBDDataFormatterProfile, DBPPrefere
     public DBDDataFormatter createFormatter(String typeId, DBSTypedObject type)
         throws IllegalAccessException, InstantiationException, IllegalArgumentException
     {
+        String cacheKey = typeId + ":" + (type == null ? "" : type.getScale());
+        DBDDataFormatter formatter = formatterCache.get(cacheKey);
+        if (formatter != null) {
+            return formatter;
+        }
         DataFormatterDescriptor descriptor = DataFormatterRegistry.getInstance().getDataFormatter(typeId);
         if (descriptor == null) {
             throw new IllegalArgumentException("Formatter '" + typeId + "' not found");
         }
-        DBDDataFormatter formatter = descriptor.createFormatter();
+        formatter = descriptor.createFormatter();
 
         Map<Object, Object> defProps = descriptor.getSample().getDefaultProperties(locale);
         Map<Object, Object> props = getFormatterProperties(typeId);
@@ -204,6 +216,7 @@ public class DataFormatterProfile implements DBDDataFormatterProfile, DBPPrefere
             formatterProps.putAll(props);
         }
         formatter.init(type, locale, formatterProps);
+        formatterCache.put(cacheKey, formatter);
         return formatter;
     }
 
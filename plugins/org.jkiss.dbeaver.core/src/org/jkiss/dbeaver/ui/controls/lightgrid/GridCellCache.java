@@ -0,0 +1,102 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.jkiss.code.NotNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Cache of rendered cell info (text, state and shortened display text).
+ *
+ * Cell text formatting, link state detection and text measuring are the most expensive parts of grid paint.
+ * Painted cells are cached by row and column elements. Cache keeps two generations of rows:
+ * when current generation is full it becomes previous and the oldest one is dropped.
+ * So rows scrolled out of view are evicted while visible rows stay in cache.
+ * Cache must be reset on any data change.
+ */
+class GridCellCache {
+
+    private static final int MIN_GENERATION_SIZE = 200;
+
+    static class CellInfo {
+        final String text;
+        final int state;
+        // Single line text shortened to fit the column
+        String displayText;
+        int displayWidth = -1;
+        int displayTextExtent = -1;
+
+        CellInfo(String text, int state) {
+            this.text = text;
+            this.state = state;
+        }
+    }
+
+    private final LightGrid grid;
+    private Map<Object, Map<Object, CellInfo>> curRows = new IdentityHashMap<>();
+    private Map<Object, Map<Object, CellInfo>> prevRows = new IdentityHashMap<>();
+    private int version;
+
+    GridCellCache(LightGrid grid) {
+        this.grid = grid;
+    }
+
+    @NotNull
+    CellInfo getCellInfo(Object col, Object row) {
+        Map<Object, CellInfo> rowCells = curRows.get(row);
+        if (rowCells == null) {
+            rowCells = prevRows.remove(row);
+            if (rowCells == null) {
+                rowCells = new IdentityHashMap<>();
+            }
+            if (curRows.size() >= getGenerationSize()) {
+                prevRows = curRows;
+                curRows = new IdentityHashMap<>();
+            }
+            curRows.put(row, rowCells);
+        }
+        CellInfo info = rowCells.get(col);
+        if (info == null) {
+            String text = grid.getCellText(col, row);
+            info = new CellInfo(text, grid.getContentProvider().getCellState(col, row, text));
+            rowCells.put(col, info);
+        }
+        return info;
+    }
+
+    void reset() {
+        curRows.clear();
+        prevRows.clear();
+        version++;
+    }
+
+    /**
+     * Incremented on each reset
+     */
+    int getVersion() {
+        return version;
+    }
+
+    private int getGenerationSize() {
+        // Enough to keep couple of screens
+        return Math.max(MIN_GENERATION_SIZE, (grid.getBottomIndex() - grid.getTopIndex() + 1) * 2);
+    }
+
+}
@@ -71,8 +71,9 @@ class GridCellRenderer extends AbstractRenderer
             gc.fillRectangle(bounds.x, bounds.y, bounds.width, bounds.height);
         }
 
-        String text = grid.getCellText(col, row);
-        final int state = grid.getContentProvider().getCellState(col, row, text);
+        final GridCellCache.CellInfo cellInfo = grid.getCellCache().getCellInfo(col, row);
+        String text = cellInfo.text;
+        final int state = cellInfo.state;
         int x = LEFT_MARGIN;
 
         Image image;
@@ -104,10 +105,15 @@ class GridCellRenderer extends AbstractRenderer
 
         // Get cell text
         if (text != null && !text.isEmpty()) {
-            // Get shortern version of string
-            text = TextUtils.getShortString(grid.fontMetrics, text, width);
-            // Replace linefeeds with space
-            text = TextUtils.getSingleLineString(text);
+            if (cellInfo.displayWidth != width) {
+                // Get shortern version of string
+                text = TextUtils.getShortString(grid.fontMetrics, text, width);
+                // Replace linefeeds with space
+                cellInfo.displayText = TextUtils.getSingleLineString(text);
+                cellInfo.displayWidth = width;
+                cellInfo.displayTextExtent = -1;
+            }
+            text = cellInfo.displayText;
 
             gc.setFont(grid.normalFont);
 
@@ -125,10 +131,12 @@ class GridCellRenderer extends AbstractRenderer
                     } else {
                         gc.setClipping(bounds);
                     }
-                    Point textSize = gc.textExtent(text);
+                    if (cellInfo.displayTextExtent < 0) {
+                        cellInfo.displayTextExtent = gc.textExtent(text).x;
+                    }
                     gc.drawString(
                             text,
-                            bounds.x + bounds.width - (textSize.x + RIGHT_MARGIN + imageMargin),
+                            bounds.x + bounds.width - (cellInfo.displayTextExtent + RIGHT_MARGIN + imageMargin),
                             bounds.y + TEXT_TOP_MARGIN + TOP_MARGIN,
                             true);
                     gc.setClipping((Rectangle) null);
@@ -178,7 +186,7 @@ class GridCellRenderer extends AbstractRenderer
     }
 
     public boolean isOverLink(GridColumn column, int row, int x, int y) {
-        int state = grid.getContentProvider().getCellState(column.getElement(), grid.getRowElement(row), null);
+        int state = grid.getCellCache().getCellInfo(column.getElement(), grid.getRowElement(row)).state;
 
         if (isLinkState(state)) {
             Point origin = grid.getOrigin(column, row);
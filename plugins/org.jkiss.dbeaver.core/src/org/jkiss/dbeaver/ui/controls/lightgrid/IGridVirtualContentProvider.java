@@ -0,0 +1,56 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Content provider with virtual rows.
+ * Grid doesn't keep elements of virtual rows, it asks for elements of painted rows by index.
+ * Virtual rows can't have nested rows.
+ */
+public interface IGridVirtualContentProvider extends IGridContentProvider {
+
+    /**
+     * Returns count of virtual rows or -1 if rows are provided by {@link #getElements(boolean)}
+     */
+    int getVirtualRowCount();
+
+    /**
+     * Returns row element. Must not block: if row isn't available yet then some placeholder element is returned.
+     */
+    @NotNull
+    Object getVirtualRowElement(int index);
+
+    /**
+     * Returns index of row element or -1
+     */
+    int getVirtualRowIndex(@NotNull Object element);
+
+    /**
+     * Called before rows paint. Provider may start reading of rows in the specified range (inclusive).
+     */
+    void prepareVirtualRows(int fromIndex, int toIndex);
+
+    /**
+     * Count of first rows which are selected by select all (or by column selection).
+     * Selection is kept per cell, so it can't cover all virtual rows.
+     */
+    int getSelectableRowCount();
+
+}
@@ -182,6 +182,8 @@ public abstract class LightGrid extends Canvas {
     protected Object[] columnElements = new Object[0];
     protected Object[] rowElements = new Object[0];
     private GridNode[] parentNodes = new GridNode[0];
+    // Count of virtual rows (see IGridVirtualContentProvider) or -1 if rows are kept in rowElements
+    private int virtualRowCount = -1;
     private final Map<Object, GridNode> rowNodes = new IdentityHashMap<>();
 
     private int maxColumnDefWidth = 1000;
@@ -189,6 +191,7 @@ public abstract class LightGrid extends Canvas {
     private GridColumnRenderer columnHeaderRenderer;
     private GridRowRenderer rowHeaderRenderer;
     private GridCellRenderer cellRenderer;
+    private final GridCellCache cellCache = new GridCellCache(this);
 
     /**
      * Are row headers visible?
@@ -497,6 +500,7 @@ public abstract class LightGrid extends Canvas {
         IGridContentProvider contentProvider = getContentProvider();
         refreshRowsData();
         this.displayedToolTipText = null;
+        this.cellCache.reset();
 
         if (refreshColumns) {
             this.maxColumnDepth = 0;
@@ -599,9 +603,17 @@ public abstract class LightGrid extends Canvas {
     }
 
     public void refreshRowsData() {
-        // Prepare rows
-        Object[] initialElements = getContentProvider().getElements(false);
         this.rowNodes.clear();
+        IGridContentProvider contentProvider = getContentProvider();
+        this.virtualRowCount = contentProvider instanceof IGridVirtualContentProvider ?
+            ((IGridVirtualContentProvider) contentProvider).getVirtualRowCount() : -1;
+        if (virtualRowCount >= 0) {
+            this.rowElements = new Object[0];
+            this.parentNodes = new GridNode[0];
+            return;
+        }
+        // Prepare rows
+        Object[] initialElements = contentProvider.getElements(false);
         List<Object> realRows = new ArrayList<>(initialElements.length);
         List<GridNode> parents = new ArrayList<>(initialElements.length);
         collectRows(realRows, parents, null, initialElements, 0);
@@ -643,14 +655,16 @@ public abstract class LightGrid extends Canvas {
         if (pos.col < 0 || pos.row < 0) {
             return null;
         }
-        return new GridCell(columnElements[pos.col], rowElements[pos.row]);
+        return new GridCell(columnElements[pos.col], getRowElement(pos.row));
     }
 
     @NotNull
     public GridPos cellToPos(GridCell cell)
     {
         int colIndex = ArrayUtils.indexOf(columnElements, cell.col);
-        int rowIndex = ArrayUtils.indexOf(rowElements, cell.row);
+        int rowIndex = isVirtualRows() ?
+            getVirtualContentProvider().getVirtualRowIndex(cell.row) :
+            ArrayUtils.indexOf(rowElements, cell.row);
         return new GridPos(colIndex, rowIndex);
     }
 
@@ -663,7 +677,32 @@ public abstract class LightGrid extends Canvas {
     }
 
     public Object getRowElement(int row) {
-        return rowElements[row];
+        return isVirtualRows() ? getVirtualContentProvider().getVirtualRowElement(row) : rowElements[row];
+    }
+
+    /**
+     * Rows are provided by {@link IGridVirtualContentProvider}
+     */
+    public boolean isVirtualRows() {
+        return virtualRowCount >= 0;
+    }
+
+    private IGridVirtualContentProvider getVirtualContentProvider() {
+        return (IGridVirtualContentProvider) getContentProvider();
+    }
+
+    @Nullable
+    private GridNode getParentNode(int row) {
+        return isVirtualRows() ? null : parentNodes[row];
+    }
+
+    /**
+     * Count of rows covered by select all
+     */
+    private int getSelectableItemCount() {
+        return isVirtualRows() ?
+            Math.min(virtualRowCount, getVirtualContentProvider().getSelectableRowCount()) :
+            rowElements.length;
     }
 
     @Override
@@ -936,7 +975,7 @@ public abstract class LightGrid extends Canvas {
      */
     public int getItemCount()
     {
-        return rowElements.length;
+        return isVirtualRows() ? virtualRowCount : rowElements.length;
     }
 
     /**
@@ -1355,6 +1394,7 @@ public abstract class LightGrid extends Canvas {
         columns.clear();
         columnElements = new Object[0];
         rowElements = new Object[0];
+        virtualRowCount = -1;
     }
 
     /**
@@ -1800,6 +1840,14 @@ public abstract class LightGrid extends Canvas {
 
         // Row header width
         rowHeaderWidth = DEFAULT_ROW_HEADER_WIDTH;
+        if (isVirtualRows()) {
+            // Virtual rows have no nodes. Check the first and the last rows only (headers are row numbers)
+            for (int i : new int[] { 0, virtualRowCount - 1 }) {
+                if (i >= 0) {
+                    rowHeaderWidth = Math.max(rowHeaderWidth, rowHeaderRenderer.computeHeaderWidth(getRowElement(i), 0));
+                }
+            }
+        }
         for (int i = 0; i < rowElements.length; i++) {
             Object row = rowElements[i];
             GridNode parentNode = parentNodes[i];
@@ -2122,6 +2170,9 @@ public abstract class LightGrid extends Canvas {
         }
 
         int firstVisibleIndex = getTopIndex();
+        if (isVirtualRows() && firstVisibleIndex >= 0) {
+            getVirtualContentProvider().prepareVirtualRows(firstVisibleIndex, Math.min(firstVisibleIndex + visibleRows, getItemCount()) - 1);
+        }
 
         int row = firstVisibleIndex;
         final int hScrollSelectionInPixels = getHScrollSelectionInPixels();
@@ -2166,7 +2217,7 @@ public abstract class LightGrid extends Canvas {
                             selectedCells.contains(testPos),
                             focusItem == row && focusColumn == column,
                             column.getElement(),
-                            rowElements[row]);
+                            getRowElement(row));
 
                         //gc.setClipping((Rectangle) null);
                     }
@@ -2180,8 +2231,8 @@ public abstract class LightGrid extends Canvas {
 
                 x = 0;
 
-                GridNode rowNode = this.rowNodes.get(rowElements[row]);
-                GridNode parentNode = this.parentNodes[row];
+                GridNode rowNode = this.rowNodes.get(getRowElement(row));
+                GridNode parentNode = getParentNode(row);
                 if (rowHeaderVisible) {
 
                     if (y >= headerHeight) {
@@ -2198,7 +2249,7 @@ public abstract class LightGrid extends Canvas {
                                 cellInRowSelected,
                                 parentNode == null ? 0 : parentNode.level,
                                 rowNode == null ? IGridContentProvider.ElementState.NONE : rowNode.state,
-                                rowElements[row]);
+                                getRowElement(row));
                         } finally {
                             gc.setClipping((Rectangle)null);
                         }
@@ -2816,8 +2867,8 @@ public abstract class LightGrid extends Canvas {
                 }
 
                 if (e.button == 1 && !shift && !ctrl) {
-                    GridNode node = rowNodes.get(rowElements[row]);
-                    GridNode parentNode = parentNodes[row];
+                    GridNode node = rowNodes.get(getRowElement(row));
+                    GridNode parentNode = getParentNode(row);
                     if (node != null && node.state != IGridContentProvider.ElementState.NONE) {
                         if (GridRowRenderer.isOverExpander(e.x, parentNode == null ? 0 : parentNode.level))
                         {
@@ -2915,7 +2966,7 @@ public abstract class LightGrid extends Canvas {
         if (selectionEvent != null) {
             selectionEvent.stateMask = e.stateMask;
             selectionEvent.button = e.button;
-            selectionEvent.data = new GridCell(col == null ? null : col.getElement(), row < 0 ? null : rowElements[row]);
+            selectionEvent.data = new GridCell(col == null ? null : col.getElement(), row < 0 ? null : getRowElement(row));
             selectionEvent.x = e.x;
             selectionEvent.y = e.y;
             notifyListeners(SWT.Selection, selectionEvent);
@@ -2925,7 +2976,7 @@ public abstract class LightGrid extends Canvas {
     }
 
     private void toggleRowState(int row) {
-        GridNode node = rowNodes.get(rowElements[row]);
+        GridNode node = rowNodes.get(getRowElement(row));
         if (node == null || node.state == IGridContentProvider.ElementState.NONE) {
             log.error("Row [" + row + "] state can't be toggled");
             return;
@@ -2985,13 +3036,13 @@ public abstract class LightGrid extends Canvas {
                 if (col != null) {
                     if (isListening(SWT.DefaultSelection)) {
                         Event newEvent = new Event();
-                        newEvent.data = new GridCell(col.getElement(), rowElements[row]);
+                        newEvent.data = new GridCell(col.getElement(), getRowElement(row));
 
                         notifyListeners(SWT.DefaultSelection, newEvent);
                     }
                 } else {
-                    GridNode node = rowNodes.get(rowElements[row]);
-                    GridNode parentNode = parentNodes[row];
+                    GridNode node = rowNodes.get(getRowElement(row));
+                    GridNode parentNode = getParentNode(row);
                     if (node != null && node.state != IGridContentProvider.ElementState.NONE) {
                         if (!GridRowRenderer.isOverExpander(e.x, parentNode == null ? 0 : parentNode.level))
                         {
@@ -3017,7 +3068,7 @@ public abstract class LightGrid extends Canvas {
                 event.x = e.x;
                 event.y = e.y;
                 event.stateMask = e.stateMask;
-                event.data = new GridCell(focusColumn.getElement(), rowElements[focusItem]);
+                event.data = new GridCell(focusColumn.getElement(), getRowElement(focusItem));
                 notifyListeners(Event_NavigateLink, event);
                 return;
             }
@@ -3076,7 +3127,7 @@ public abstract class LightGrid extends Canvas {
                 GridColumn column = getColumn(point);
                 int rowIndex = getRow(point);
                 if (column != null && rowIndex >= 0) {
-                    se.data = new GridCell(column.getElement(), rowElements[rowIndex]);
+                    se.data = new GridCell(column.getElement(), getRowElement(rowIndex));
                 }
                 se.stateMask = e.stateMask;
                 se.x = e.x;
@@ -3246,7 +3297,7 @@ public abstract class LightGrid extends Canvas {
             GridColumn column = getColumn(point);
             int rowIndex = getRow(point);
             if (column != null && rowIndex >= 0) {
-                selectionEvent.data = new GridCell(column.getElement(), rowElements[rowIndex]);
+                selectionEvent.data = new GridCell(column.getElement(), getRowElement(rowIndex));
             }
             selectionEvent.x = e.x;
             selectionEvent.y = e.y;
@@ -3350,9 +3401,9 @@ public abstract class LightGrid extends Canvas {
             focusColumn = getColumn(0);
         }
 
-        if (e.character == '\r' && focusItem >= 0 && focusItem < rowElements.length) {
+        if (e.character == '\r' && focusItem >= 0 && focusItem < getItemCount()) {
             Event newEvent = new Event();
-            newEvent.data = new GridCell(focusColumn.getElement(), rowElements[focusItem]);
+            newEvent.data = new GridCell(focusColumn.getElement(), getRowElement(focusItem));
 
             notifyListeners(SWT.DefaultSelection, newEvent);
             return;
@@ -3485,7 +3536,7 @@ public abstract class LightGrid extends Canvas {
             case SWT.KEYPAD_ADD:
             case SWT.KEYPAD_SUBTRACT:
                 if (focusItem >= 0) {
-                    GridNode node = rowNodes.get(rowElements[focusItem]);
+                    GridNode node = rowNodes.get(getRowElement(focusItem));
                     if (node != null) {
                         boolean isPlus = (e.keyCode == '+' || e.keyCode == '=' || e.keyCode == SWT.KEYPAD_ADD);
                         if ((node.state == IGridContentProvider.ElementState.EXPANDED && !isPlus) ||
@@ -3528,8 +3579,8 @@ public abstract class LightGrid extends Canvas {
             showItem(newSelection);
 
             GridCell newPos;
-            if (newSelection >= 0 && newSelection < rowElements.length) {
-                newPos = new GridCell(newColumnFocus.getElement(), rowElements[newSelection]);
+            if (newSelection >= 0 && newSelection < getItemCount()) {
+                newPos = new GridCell(newColumnFocus.getElement(), getRowElement(newSelection));
             } else {
                 newPos = null;
             }
@@ -3801,10 +3852,10 @@ public abstract class LightGrid extends Canvas {
 
     @Nullable
     public Object getFocusRowElement() {
-        if (focusItem < 0 || focusItem >= rowElements.length) {
+        if (focusItem < 0 || focusItem >= getItemCount()) {
             return null;
         }
-        return rowElements[focusItem];
+        return getRowElement(focusItem);
     }
 
     @Nullable
@@ -4030,7 +4081,7 @@ public abstract class LightGrid extends Canvas {
             // Get cells for all leafs
             for (int i = 0; i < columns.size(); i++) {
                 if (columns.get(i).isParent(col)) {
-                    for (int k = 0; k < getItemCount(); k++) {
+                    for (int k = 0; k < getSelectableItemCount(); k++) {
                         cells.add(new GridPos(i, k));
                     }
                 }
@@ -4038,7 +4089,7 @@ public abstract class LightGrid extends Canvas {
         } else {
             int colIndex = col.getIndex();
 
-            for (int i = 0; i < getItemCount(); i++) {
+            for (int i = 0; i < getSelectableItemCount(); i++) {
                 cells.add(new GridPos(colIndex, i));
             }
         }
@@ -4053,7 +4104,7 @@ public abstract class LightGrid extends Canvas {
 
     private void getAllCells(List<GridPos> cells)
     {
-        for (int i = 0; i < getItemCount(); i++) {
+        for (int i = 0; i < getSelectableItemCount(); i++) {
             for (int k = 0; k < columns.size(); k++) {
                 cells.add(new GridPos(k, i));
             }
@@ -4171,6 +4222,28 @@ public abstract class LightGrid extends Canvas {
         sizingGC.setFont(font);
         fontMetrics = sizingGC.getFontMetrics();
         normalFont = font;
+        cellCache.reset();
+    }
+
+    GridCellCache getCellCache()
+    {
+        return cellCache;
+    }
+
+    /**
+     * Resets cached cell texts. Must be called after cell values change.
+     */
+    public void resetCellCache()
+    {
+        cellCache.reset();
+    }
+
+    /**
+     * Grid data version. Changes after each data refresh or cell cache reset.
+     */
+    public int getDataVersion()
+    {
+        return cellCache.getVersion();
     }
 
     public String getCellText(Object colElement, Object rowElement)
@@ -4187,7 +4260,7 @@ public abstract class LightGrid extends Canvas {
     @Nullable
     private String getCellToolTip(GridColumn col, int row)
     {
-        String toolTip = getCellText(columnElements[col.getIndex()], rowElements[row]);
+        String toolTip = getCellText(columnElements[col.getIndex()], getRowElement(row));
         if (toolTip == null) {
             return null;
         }
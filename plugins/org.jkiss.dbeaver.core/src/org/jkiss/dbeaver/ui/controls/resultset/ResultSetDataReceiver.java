@@ -16,7 +16,10 @@
  */
 package org.jkiss.dbeaver.ui.controls.resultset;
 
+import org.eclipse.osgi.util.NLS;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.CoreMessages;
+import org.jkiss.dbeaver.model.DBPMessageType;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBindingMeta;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
@@ -38,6 +41,11 @@ class ResultSetDataReceiver implements DBDDataReceiver {
 
     private static final Log log = Log.getLog(ResultSetDataReceiver.class);
 
+    // Fetched rows are pushed into the viewer by chunks, so long fetches show results progressively.
+    // Chunk is flushed when it reaches max size or after flush period (whatever comes first)
+    private static final int PROGRESSIVE_CHUNK_SIZE = 10000;
+    private static final long PROGRESSIVE_FLUSH_PERIOD = 500;
+
     private ResultSetViewer resultSetViewer;
     private int columnsCount;
     private DBDAttributeBindingMeta[] metaColumns;
@@ -47,6 +55,15 @@ class ResultSetDataReceiver implements DBDDataReceiver {
     private long offset;
     private long maxRows;
 
+    // Rows flushed by fetch thread but not yet pushed into the viewer
+    private final List<Object[]> pendingRows = new ArrayList<>();
+    private boolean deliveryScheduled;
+    private volatile boolean dataDelivered;
+    private boolean attributesBound;
+    private long fetchedCount;
+    private long fetchStartTime;
+    private long lastFlushTime;
+
     // Attribute fetching errors. Collect them to avoid tons of similar error in log
     private Map<DBCAttributeMetaData, List<String>> attrErrors = new HashMap<>();
     // All (unique) errors happened during fetch
@@ -83,6 +100,13 @@ class ResultSetDataReceiver implements DBDDataReceiver {
         return errorList;
     }
 
+    /**
+     * Attribute bindings of the last read result set (null if nothing was read)
+     */
+    DBDAttributeBindingMeta[] getMetaColumns() {
+        return metaColumns;
+    }
+
     @Override
     public void fetchStart(DBCSession session, final DBCResultSet resultSet, long offset, long maxRows)
         throws DBCException
@@ -91,6 +115,14 @@ class ResultSetDataReceiver implements DBDDataReceiver {
         this.rows.clear();
         this.offset = offset;
         this.maxRows = maxRows;
+        synchronized (pendingRows) {
+            this.pendingRows.clear();
+            this.deliveryScheduled = false;
+        }
+        this.dataDelivered = false;
+        this.attributesBound = false;
+        this.fetchedCount = 0;
+        this.fetchStartTime = this.lastFlushTime = System.currentTimeMillis();
 
         if (!nextSegmentRead) {
             // Get columns metadata
@@ -149,42 +181,108 @@ class ResultSetDataReceiver implements DBDDataReceiver {
             }
         }
         rows.add(row);
+
+        if (rows.size() >= PROGRESSIVE_CHUNK_SIZE ||
+            ((rows.size() & 0x3F) == 0 && System.currentTimeMillis() - lastFlushTime >= PROGRESSIVE_FLUSH_PERIOD))
+        {
+            flushRows(session, resultSet);
+        }
+    }
+
+    /**
+     * Passes fetched rows to the UI thread. Deliveries are coalesced: if UI is busy then all rows
+     * flushed meanwhile are pushed into the viewer at once.
+     */
+    private void flushRows(DBCSession session, DBCResultSet resultSet) {
+        bindAttributes(session, resultSet);
+        fetchedCount += rows.size();
+        lastFlushTime = System.currentTimeMillis();
+        synchronized (pendingRows) {
+            pendingRows.addAll(rows);
+            if (!deliveryScheduled) {
+                deliveryScheduled = true;
+                UIUtils.asyncExec(() -> deliverRows(resultSet, false));
+            }
+        }
+        rows = new ArrayList<>();
+
+        long elapsedTime = lastFlushTime - fetchStartTime;
+        String progressMessage = NLS.bind(CoreMessages.controls_resultset_viewer_status_rows_fetching,
+            fetchedCount,
+            elapsedTime <= 0 ? fetchedCount : fetchedCount * 1000 / elapsedTime);
+        session.getProgressMonitor().subTask(progressMessage);
+    }
+
+    /**
+     * Reads attributes metadata (once per query, before the first rows are shown)
+     */
+    private void bindAttributes(DBCSession session, DBCResultSet resultSet) {
+        if (nextSegmentRead || attributesBound) {
+            return;
+        }
+        attributesBound = true;
+        try {
+            // Read locators' metadata
+            DBSEntity entity = null;
+            DBSDataContainer dataContainer = targetDataContainer != null ? targetDataContainer : resultSetViewer.getDataContainer();
+            if (dataContainer instanceof DBSEntity) {
+                entity = (DBSEntity) dataContainer;
+            }
+            ResultSetUtils.bindAttributes(session, entity, resultSet, metaColumns, rows);
+        } catch (Throwable e) {
+            errorList.add(e);
+        }
+    }
+
+    /**
+     * Pushes pending rows into the viewer. Must be called in UI thread.
+     */
+    private void deliverRows(DBCResultSet resultSet, boolean fetchComplete) {
+        final List<Object[]> chunk;
+        synchronized (pendingRows) {
+            chunk = new ArrayList<>(pendingRows);
+            pendingRows.clear();
+            deliveryScheduled = false;
+        }
+        if (resultSetViewer.getControl().isDisposed() || (chunk.isEmpty() && (dataDelivered || !fetchComplete))) {
+            return;
+        }
+        if (!dataDelivered && !nextSegmentRead) {
+            resultSetViewer.updatePresentation(resultSet);
+            resultSetViewer.setData(chunk, focusRow);
+            resultSetViewer.getActivePresentation().refreshData(true, false, !resultSetViewer.getModel().isMetadataChanged());
+            resultSetViewer.updateStatusMessage();
+        } else {
+            resultSetViewer.appendData(chunk);
+            resultSetViewer.getActivePresentation().refreshData(false, true, true);
+        }
+        dataDelivered = true;
+        if (!fetchComplete) {
+            long elapsedTime = System.currentTimeMillis() - fetchStartTime;
+            long rowCount = resultSetViewer.getModel().getRowCount();
+            resultSetViewer.setStatus(NLS.bind(CoreMessages.controls_resultset_viewer_status_rows_fetching,
+                rowCount,
+                elapsedTime <= 0 ? rowCount : rowCount * 1000 / elapsedTime), DBPMessageType.INFORMATION);
+        }
     }
 
     @Override
     public void fetchEnd(DBCSession session, final DBCResultSet resultSet)
         throws DBCException
     {
-        if (!nextSegmentRead) {
-            try {
-                // Read locators' metadata
-                DBSEntity entity = null;
-                DBSDataContainer dataContainer = targetDataContainer != null ? targetDataContainer : resultSetViewer.getDataContainer();
-                if (dataContainer instanceof DBSEntity) {
-                    entity = (DBSEntity) dataContainer;
-                }
-                ResultSetUtils.bindAttributes(session, entity, resultSet, metaColumns, rows);
-            } catch (Throwable e) {
-                errorList.add(e);
-            }
+        bindAttributes(session, resultSet);
+        fetchedCount += rows.size();
+        synchronized (pendingRows) {
+            pendingRows.addAll(rows);
         }
+        rows = new ArrayList<>();
 
-        final List<Object[]> tmpRows = rows;
-
-        final boolean nextSegmentRead = this.nextSegmentRead;
+        final long totalRows = fetchedCount;
         UIUtils.syncExec(() -> {
-            // Push data into viewer
-            if (!nextSegmentRead) {
-                resultSetViewer.updatePresentation(resultSet);
-                resultSetViewer.setData(tmpRows, focusRow);
-                resultSetViewer.getActivePresentation().refreshData(true, false, !resultSetViewer.getModel().isMetadataChanged());
-                resultSetViewer.updateStatusMessage();
-            } else {
-                resultSetViewer.appendData(tmpRows);
-                resultSetViewer.getActivePresentation().refreshData(false, true, true);
-            }
+            // Push the rest of data into viewer
+            deliverRows(resultSet, true);
             // Check for more data
-            hasMoreData = maxRows > 0 && tmpRows.size() >= maxRows;
+            hasMoreData = maxRows > 0 && totalRows >= maxRows;
         });
     }
 
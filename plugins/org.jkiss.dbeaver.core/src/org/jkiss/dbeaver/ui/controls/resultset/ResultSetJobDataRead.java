@@ -34,10 +34,12 @@ import org.jkiss.dbeaver.model.exec.DBCStatistics;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.load.ILoadService;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.ProgressLoaderVisualizer;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.List;
 
 class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoadService<Object> {
 
@@ -45,6 +47,8 @@ class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoadService<
     private Composite progressControl;
     private int offset;
     private int maxRows;
+    private boolean keysetPaging;
+    private List<DBSEntityAttribute> implicitOrderKey;
     private Throwable error;
     private DBCStatistics statistics;
 
@@ -64,6 +68,19 @@ class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoadService<
         this.maxRows = maxRows;
     }
 
+    void setKeysetPaging(boolean keysetPaging)
+    {
+        this.keysetPaging = keysetPaging;
+    }
+
+    /**
+     * Unique key which was used to order table data (if data filter has no explicit ordering)
+     */
+    List<DBSEntityAttribute> getImplicitOrderKey()
+    {
+        return implicitOrderKey;
+    }
+
     public Throwable getError()
     {
         return error;
@@ -83,6 +100,17 @@ class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoadService<
 
         new PumpVisualizer(visualizer).schedule(PROGRESS_VISUALIZE_PERIOD * 2);
 
+        DBDDataFilter readFilter = dataFilter;
+        implicitOrderKey = null;
+        if (keysetPaging) {
+            // Order table by unique key so next segments can be read by keyset instead of offset
+            implicitOrderKey = ResultSetKeysetPaging.getImplicitOrderKey(progressMonitor, dataContainer, dataFilter);
+            if (implicitOrderKey != null) {
+                readFilter = ResultSetKeysetPaging.makeOrderedFilter(dataFilter, implicitOrderKey);
+            }
+        }
+        final DBDDataFilter useDataFilter = readFilter;
+
         try (DBCSession session = getExecutionContext().openSession(
             progressMonitor,
             purpose,
@@ -94,7 +122,7 @@ class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoadService<
                         ResultSetJobDataRead.this,
                         session,
                         controller.getDataReceiver(),
-                        dataFilter,
+                        useDataFilter,
                         offset,
                         maxRows,
                         DBSDataContainer.FLAG_READ_PSEUDO
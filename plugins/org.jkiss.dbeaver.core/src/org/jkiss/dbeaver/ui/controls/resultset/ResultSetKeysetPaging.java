@@ -0,0 +1,288 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDRowIdentifier;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination of table data.
+ * Next segment is read with a condition on the ordering key values of the last fetched row
+ * instead of OFFSET. So database doesn't have to scan and skip all previously read rows.
+ *
+ * Keyset is used only when ordering is unique (contains all columns of the entity unique key)
+ * and all ordering columns are mandatory. Otherwise segments are read with offsets.
+ */
+class ResultSetKeysetPaging {
+
+    private static final Log log = Log.getLog(ResultSetKeysetPaging.class);
+
+    /**
+     * Returns unique key attributes of the table. Table data without explicit ordering is ordered by this key,
+     * so next segments can be read by keyset.
+     * Returns null if data container is not a table, filter has explicit ordering or table has no suitable key.
+     */
+    @Nullable
+    static List<DBSEntityAttribute> getImplicitOrderKey(@NotNull DBRProgressMonitor monitor, @NotNull DBSDataContainer dataContainer, @Nullable DBDDataFilter dataFilter) {
+        if (!(dataContainer instanceof DBSEntity) || (dataFilter != null && dataFilter.hasOrdering())) {
+            return null;
+        }
+        try {
+            Collection<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, (DBSEntity) dataContainer);
+            if (CommonUtils.isEmpty(identifier)) {
+                return null;
+            }
+            for (DBSEntityAttribute attr : identifier) {
+                if (!isKeysetAttribute(attr)) {
+                    return null;
+                }
+            }
+            return new ArrayList<>(identifier);
+        } catch (DBException e) {
+            log.debug("Can't read table unique key", e);
+            return null;
+        }
+    }
+
+    /**
+     * Makes copy of data filter ordered by specified key
+     */
+    @NotNull
+    static DBDDataFilter makeOrderedFilter(@Nullable DBDDataFilter dataFilter, @NotNull List<DBSEntityAttribute> key) {
+        DBDDataFilter orderedFilter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        StringBuilder order = new StringBuilder();
+        for (DBSEntityAttribute attr : key) {
+            if (order.length() > 0) order.append(',');
+            order.append(DBUtils.getQuotedIdentifier(attr));
+        }
+        orderedFilter.setOrder(order.toString());
+        return orderedFilter;
+    }
+
+    /**
+     * Ordering of data filter as a string. Used to check that the ordering of fetched rows is still the same
+     * (e.g. ordering may be changed without refresh in client-side ordering mode).
+     */
+    @NotNull
+    static String getOrderSignature(@Nullable DBDDataFilter dataFilter) {
+        if (dataFilter == null) {
+            return "";
+        }
+        StringBuilder signature = new StringBuilder();
+        for (DBDAttributeConstraint constraint : dataFilter.getOrderConstraints()) {
+            signature.append(constraint.getAttribute().getName());
+            if (constraint.isOrderDescending()) {
+                signature.append(" DESC");
+            }
+            signature.append(',');
+        }
+        if (!CommonUtils.isEmpty(dataFilter.getOrder())) {
+            signature.append(dataFilter.getOrder());
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Makes data filter for the next segment read.
+     * Returns null if keyset can't be used for this data and segment must be read with offset.
+     *
+     * @param implicitKey key used for implicit ordering of the previous read (see {@link #getImplicitOrderKey})
+     */
+    @Nullable
+    static DBDDataFilter makeNextSegmentFilter(
+        @NotNull ResultSetModel model,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBDDataFilter dataFilter,
+        @Nullable List<DBSEntityAttribute> implicitKey)
+    {
+        ResultSetRow lastRow = getLastFetchedRow(model);
+        if (lastRow == null) {
+            return null;
+        }
+        return makeNextSegmentFilter(model, dataContainer, dataFilter, implicitKey, lastRow);
+    }
+
+    /**
+     * Makes data filter for read of rows which follow the specified row.
+     * Returns null if keyset can't be used for this data.
+     */
+    @Nullable
+    static DBDDataFilter makeNextSegmentFilter(
+        @NotNull ResultSetModel model,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBDDataFilter dataFilter,
+        @Nullable List<DBSEntityAttribute> implicitKey,
+        @NotNull ResultSetRow lastRow)
+    {
+        if (!(dataContainer instanceof DBSEntity) || !CommonUtils.isEmpty(dataFilter.getOrder())) {
+            return null;
+        }
+        if (dataFilter.isAnyConstraint()) {
+            // Keyset condition would be OR-ed with other conditions
+            for (DBDAttributeConstraint constraint : dataFilter.getConstraints()) {
+                if (constraint.hasCondition()) {
+                    return null;
+                }
+            }
+        }
+
+        List<DBDAttributeBinding> keyBindings = new ArrayList<>();
+        List<Boolean> keyDescending = new ArrayList<>();
+        if (dataFilter.hasOrdering()) {
+            for (DBDAttributeConstraint constraint : dataFilter.getOrderConstraints()) {
+                DBDAttributeBinding binding = model.getAttributeBinding(constraint.getAttribute());
+                if (binding == null || !isKeysetAttribute(binding)) {
+                    return null;
+                }
+                keyBindings.add(binding);
+                keyDescending.add(constraint.isOrderDescending());
+            }
+            if (!isUniqueOrdering((DBSEntity) dataContainer, keyBindings)) {
+                return null;
+            }
+        } else if (implicitKey != null) {
+            for (DBSEntityAttribute attr : implicitKey) {
+                DBDAttributeBinding binding = model.getAttributeBinding(attr);
+                if (binding == null) {
+                    return null;
+                }
+                keyBindings.add(binding);
+                keyDescending.add(false);
+            }
+        } else {
+            return null;
+        }
+
+        DBPDataSource dataSource = dataContainer.getDataSource();
+        if (dataSource == null) {
+            return null;
+        }
+        List<String> keyNames = new ArrayList<>(keyBindings.size());
+        List<String> keyValues = new ArrayList<>(keyBindings.size());
+        for (DBDAttributeBinding binding : keyBindings) {
+            Object value = lastRow.changes != null && lastRow.changes.containsKey(binding) ?
+                lastRow.changes.get(binding) : // Original value of modified cell
+                model.getCellValue(binding, lastRow);
+            if (DBUtils.isNullValue(value)) {
+                return null;
+            }
+            keyNames.add(DBUtils.getObjectFullName(dataSource, binding, DBPEvaluationContext.DML));
+            keyValues.add(SQLUtils.convertValueToSQL(dataSource, binding, value));
+        }
+
+        // k1 >= v1 AND ((k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...)
+        // Row value comparison (k1, k2) > (v1, v2) is not supported by all databases and doesn't work with mixed directions.
+        // Redundant leading condition lets database use index range scan on the first key column instead of full scan.
+        StringBuilder condition = new StringBuilder();
+        if (keyNames.size() > 1) {
+            condition.append(keyNames.get(0)).append(keyDescending.get(0) ? " <= " : " >= ").append(keyValues.get(0)).append(" AND ");
+        }
+        condition.append('(');
+        for (int i = 0; i < keyNames.size(); i++) {
+            if (i > 0) condition.append(" OR ");
+            condition.append('(');
+            for (int k = 0; k < i; k++) {
+                condition.append(keyNames.get(k)).append(" = ").append(keyValues.get(k)).append(" AND ");
+            }
+            condition.append(keyNames.get(i)).append(keyDescending.get(i) ? " < " : " > ").append(keyValues.get(i));
+            condition.append(')');
+        }
+        condition.append(')');
+
+        DBDDataFilter segmentFilter = new DBDDataFilter(dataFilter);
+        if (CommonUtils.isEmpty(dataFilter.getWhere())) {
+            segmentFilter.setWhere(condition.toString());
+        } else {
+            segmentFilter.setWhere("(" + dataFilter.getWhere() + ") AND " + condition);
+        }
+        return segmentFilter;
+    }
+
+    /**
+     * Checks that ordering columns contain all columns of the row identifier (so ordering is unique)
+     */
+    private static boolean isUniqueOrdering(@NotNull DBSEntity entity, @NotNull List<DBDAttributeBinding> orderBindings) {
+        DBDRowIdentifier rowIdentifier = null;
+        for (DBDAttributeBinding binding : orderBindings) {
+            rowIdentifier = binding.getRowIdentifier();
+            if (rowIdentifier == null || rowIdentifier.getEntity() != entity) {
+                return false;
+            }
+        }
+        if (rowIdentifier == null || rowIdentifier.getAttributes().isEmpty()) {
+            return false;
+        }
+        for (DBDAttributeBinding keyAttr : rowIdentifier.getAttributes()) {
+            if (!orderBindings.contains(keyAttr)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Nulls are ordered differently in different databases and can't be compared.
+     * Only numbers and strings are used because their literals are exact.
+     */
+    private static boolean isKeysetAttribute(@NotNull DBSAttributeBase attr) {
+        if (!attr.isRequired()) {
+            return false;
+        }
+        switch (attr.getDataKind()) {
+            case NUMERIC:
+            case STRING:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Last row read from the database. Rows may be sorted locally or added by user, so we look for the max row number.
+     */
+    @Nullable
+    static ResultSetRow getLastFetchedRow(@NotNull ResultSetModel model) {
+        ResultSetRow lastRow = null;
+        for (ResultSetRow row : model.getAllRows()) {
+            if (row.getState() != ResultSetRow.STATE_ADDED && (lastRow == null || row.getRowNumber() > lastRow.getRowNumber())) {
+                lastRow = row;
+            }
+        }
+        return lastRow;
+    }
+
+}
@@ -29,6 +29,7 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.trace.DBCTrace;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
@@ -59,6 +60,16 @@ public class ResultSetModel {
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
     private Long totalRowCount = null;
+    // Virtual rows after fetched rows (see ResultSetRowWindow)
+    @Nullable
+    private ResultSetRowWindow rowWindow;
+    // Rows which exceed memory limit are moved to the row store
+    private long rowsMemoryLimit;
+    private long rowsMemorySize;
+    @Nullable
+    private ResultSetRowStore rowStore;
+    // Cached sort keys for client-side ordering
+    private final ResultSetSortIndex sortIndex = new ResultSetSortIndex(this);
     private int changesCount = 0;
     private volatile boolean hasData = false;
     // Flag saying that edited values update is in progress
@@ -290,7 +301,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -306,19 +317,35 @@ public class ResultSetModel {
         this.totalRowCount = totalRowCount;
     }
 
+    /**
+     * Virtual rows which follow fetched rows. Null if virtual scroll is not active.
+     */
+    @Nullable
+    public ResultSetRowWindow getRowWindow() {
+        return rowWindow;
+    }
+
+    void setRowWindow(@Nullable ResultSetRowWindow rowWindow) {
+        if (this.rowWindow != null) {
+            this.rowWindow.dispose();
+        }
+        this.rowWindow = rowWindow;
+    }
+
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
         int depth = attribute.getLevel();
         if (depth == 0) {
             final int index = attribute.getOrdinalPosition();
-            if (index >= row.values.length) {
+            final Object[] values = row.getValues();
+            if (index >= values.length) {
                 log.debug("Bad attribute - index out of row values' bounds");
                 return null;
             } else {
-                return row.values[index];
+                return values[index];
             }
         }
-        Object curValue = row.values[attribute.getTopParent().getOrdinalPosition()];
+        Object curValue = row.getValues()[attribute.getTopParent().getOrdinalPosition()];
 
         for (int i = 0; i < depth; i++) {
             if (curValue == null) {
@@ -351,6 +378,10 @@ public class ResultSetModel {
     }
 
     public boolean updateCellValue(@NotNull DBDAttributeBinding attr, @NotNull ResultSetRow row, @Nullable Object value, boolean updateChanges) {
+        if (ResultSetRowWindow.isWindowRow(row)) {
+            // Window rows are read-only
+            return false;
+        }
         int depth = attr.getLevel();
         int rootIndex;
         if (depth == 0) {
@@ -358,7 +389,7 @@ public class ResultSetModel {
         } else {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValues()[rootIndex];
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -426,8 +457,9 @@ public class ResultSetModel {
             if (ownerValue != null) {
                 ((DBDComposite) ownerValue).setAttributeValue(attr.getAttribute(), value);
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
+            sortIndex.reset();
             return true;
         }
         return false;
@@ -461,6 +493,8 @@ public class ResultSetModel {
         } else {
             this.trace = null;
         }
+        DBPPreferenceStore prefStore = resultSet.getSession().getDataSource().getContainer().getPreferenceStore();
+        this.rowsMemoryLimit = prefStore.getLong(DBeaverPreferences.RESULT_SET_MEMORY_LIMIT) * 1024 * 1024;
 
         if (this.attributes == null || this.attributes.length == 0 || this.attributes.length != newAttributes.length || isDynamicMetadata()) {
             update = true;
@@ -645,6 +679,29 @@ public class ResultSetModel {
         }
         curRows.addAll(newRows);
         updateRowColors(newRows);
+        storeRows(newRows);
+        sortIndex.reset();
+    }
+
+    /**
+     * Moves rows which exceed memory limit to the row store.
+     * Rows with complex values (LOBs, collections, structures) always stay in memory.
+     */
+    private void storeRows(@NotNull List<ResultSetRow> rows) {
+        if (rowsMemoryLimit <= 0) {
+            return;
+        }
+        for (ResultSetRow row : rows) {
+            if (rowsMemorySize >= rowsMemoryLimit) {
+                if (rowStore == null) {
+                    rowStore = new ResultSetRowStore();
+                }
+                if (row.moveToStore(rowStore)) {
+                    continue;
+                }
+            }
+            rowsMemorySize += ResultSetRowStore.estimateSize(row.getValues());
+        }
     }
 
     void clearData() {
@@ -693,6 +750,7 @@ public class ResultSetModel {
         shiftRows(newRow, 1);
         curRows.add(rowNum, newRow);
         changesCount++;
+        sortIndex.reset();
         return newRow;
     }
 
@@ -719,6 +777,7 @@ public class ResultSetModel {
         row.release();
         this.curRows.remove(row.getVisualNumber());
         this.shiftRows(row, -1);
+        sortIndex.reset();
     }
 
     boolean cleanupRows(Collection<ResultSetRow> rows) {
@@ -748,8 +807,13 @@ public class ResultSetModel {
 
     private void releaseAll() {
         final List<ResultSetRow> oldRows = curRows;
+        final ResultSetRowStore oldRowStore = rowStore;
         this.curRows = new ArrayList<>();
         this.totalRowCount = null;
+        setRowWindow(null);
+        this.rowStore = null;
+        this.rowsMemorySize = 0;
+        this.sortIndex.reset();
 
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
@@ -763,6 +827,11 @@ public class ResultSetModel {
                 for (ResultSetRow row : oldRows) {
                     row.release();
                 }
+                if (oldRowStore != null) {
+                    // Old rows may still be referenced by presentation until it is refreshed with new model data.
+                    // Close the store after all pending UI updates
+                    UIUtils.asyncExec(oldRowStore::close);
+                }
                 return Status.OK_STATUS;
             }
         }.schedule();
@@ -861,46 +930,50 @@ public class ResultSetModel {
         this.dataFilter.setAnyConstraint(filter.isAnyConstraint());
     }
 
+    /**
+     * Resets cached sort keys. Must be called after direct modification of row values.
+     */
+    void resetSortIndex() {
+        sortIndex.reset();
+    }
+
     public void resetOrdering() {
-        final boolean hasOrdering = dataFilter.hasOrdering();
-        // Sort locally
-        final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-        curRows.sort((row1, row2) -> {
-            if (!hasOrdering) {
-                return row1.getRowNumber() - row2.getRowNumber();
-            }
-            int result = 0;
-            for (DBDAttributeConstraint co : orderConstraints) {
+        // Rows are sorted by cached column keys (see ResultSetSortIndex), physical row number is used as tie breaker
+        final ResultSetRow[] rowsByNumber = new ResultSetRow[curRows.size()];
+        for (ResultSetRow row : curRows) {
+            int rowNumber = row.getRowNumber();
+            if (rowNumber < 0 || rowNumber >= rowsByNumber.length || rowsByNumber[rowNumber] != null) {
+                log.debug("Bad row number " + rowNumber + " - can't sort rows");
+                return;
+            }
+            rowsByNumber[rowNumber] = row;
+        }
+        List<DBDAttributeBinding> orderAttributes = new ArrayList<>();
+        List<Boolean> orderDescending = new ArrayList<>();
+        if (dataFilter.hasOrdering()) {
+            for (DBDAttributeConstraint co : dataFilter.getOrderConstraints()) {
                 final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                if (binding == null) {
-                    continue;
-                }
-                Object cell1 = getCellValue(binding, row1);
-                Object cell2 = getCellValue(binding, row2);
-                if (cell1 == cell2) {
-                    result = 0;
-                } else if (DBUtils.isNullValue(cell1)) {
-                    result = 1;
-                } else if (DBUtils.isNullValue(cell2)) {
-                    result = -1;
-                } else if (cell1 instanceof Comparable) {
-                    result = ((Comparable) cell1).compareTo(cell2);
-                } else {
-                    String str1 = String.valueOf(cell1);
-                    String str2 = String.valueOf(cell2);
-                    result = str1.compareTo(str2);
-                }
-                if (co.isOrderDescending()) {
-                    result = -result;
-                }
-                if (result != 0) {
-                    break;
+                if (binding != null) {
+                    orderAttributes.add(binding);
+                    orderDescending.add(co.isOrderDescending());
                 }
             }
-            return result;
-        });
-        for (int i = 0; i < curRows.size(); i++) {
-            curRows.get(i).setVisualNumber(i);
+        }
+        int[] order = null;
+        if (!orderAttributes.isEmpty()) {
+            boolean[] descending = new boolean[orderDescending.size()];
+            for (int i = 0; i < descending.length; i++) {
+                descending[i] = orderDescending.get(i);
+            }
+            order = sortIndex.getOrdering(
+                rowsByNumber,
+                orderAttributes.toArray(new DBDAttributeBinding[orderAttributes.size()]),
+                descending);
+        }
+        for (int i = 0; i < rowsByNumber.length; i++) {
+            ResultSetRow row = rowsByNumber[order == null ? i : order[i]];
+            row.setVisualNumber(i);
+            curRows.set(i, row);
         }
     }
 
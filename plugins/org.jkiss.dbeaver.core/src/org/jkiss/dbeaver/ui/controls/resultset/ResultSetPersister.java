@@ -374,9 +374,10 @@ class ResultSetPersister {
         if (!stat.updatedCells.isEmpty()) {
             for (Map.Entry<Integer, Object> entry : stat.updatedCells.entrySet()) {
                 ResultSetRow row = stat.row;
-                DBUtils.releaseValue(row.values[entry.getKey()]);
-                row.values[entry.getKey()] = entry.getValue();
+                DBUtils.releaseValue(row.getValues()[entry.getKey()]);
+                row.setValue(entry.getKey(), entry.getValue());
             }
+            model.resetSortIndex();
         }
     }
 
@@ -818,7 +819,7 @@ class ResultSetPersister {
                         List<DBDAttributeConstraint> constraints = new ArrayList<>();
                         boolean hasKey = true;
                         for (DBDAttributeBinding keyAttr : idAttributes) {
-                            final Object keyValue = row.values[keyAttr.getOrdinalPosition()];
+                            final Object keyValue = row.getValues()[keyAttr.getOrdinalPosition()];
                             if (DBUtils.isNullValue(keyValue)) {
                                 hasKey = false;
                                 break;
@@ -846,9 +847,10 @@ class ResultSetPersister {
                     if (!viewer.getControl().isDisposed() && viewer.getModel().getAttributes() == curAttributes) {
                         for (int i = 0; i < rows.size(); i++) {
                             if (refreshValues[i] != null) {
-                                rows.get(i).values = refreshValues[i];
+                                rows.get(i).setValues(refreshValues[i]);
                             }
                         }
+                        viewer.getModel().resetSortIndex();
                         viewer.redrawData(false, true);
                     }
                 });
@@ -24,6 +24,7 @@ import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDCollection;
 import org.jkiss.dbeaver.model.data.DBDValue;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Map;
@@ -41,9 +42,12 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if values were moved to the row store
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private ResultSetRowStore store;
+    private long storeOffset;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -59,11 +63,56 @@ public class ResultSetRow {
         this.state = STATE_NORMAL;
     }
 
+    /**
+     * Returns row values. Values moved to the row store are read back from it,
+     * such array must not be modified (use setValue instead).
+     */
     @NotNull
     public Object[] getValues() {
+        if (values == null) {
+            assert store != null;
+            try {
+                return store.readRow(storeOffset);
+            } catch (IOException e) {
+                throw new IllegalStateException("Can't read values of row " + (rowNumber + 1) + " from temporary file", e);
+            }
+        }
         return values;
     }
 
+    void setValues(@NotNull Object[] values) {
+        this.values = values;
+        this.store = null;
+    }
+
+    /**
+     * Sets value. Row values are moved back to memory if they were in the row store.
+     */
+    void setValue(int index, @Nullable Object value) {
+        if (values == null) {
+            setValues(getValues().clone());
+        }
+        values[index] = value;
+    }
+
+    /**
+     * Moves row values to the row store.
+     * @return false if row values can't be stored
+     */
+    boolean moveToStore(@NotNull ResultSetRowStore rowStore) {
+        if (values == null) {
+            return true;
+        }
+        long offset = rowStore.storeRow(values);
+        if (offset < 0) {
+            return false;
+        }
+        this.store = rowStore;
+        this.storeOffset = offset;
+        this.values = null;
+        return true;
+    }
+
     public boolean isChanged() {
         return changes != null && !changes.isEmpty();
     }
@@ -112,8 +161,11 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        // Stored values are plain values which don't need to be released
+        if (values != null) {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
@@ -0,0 +1,432 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Temporary file storage for result set row values.
+ *
+ * Rows are encoded in compact binary form and appended to the temporary file.
+ * Values are read back on demand, recently read rows are cached.
+ * Only rows which consist of plain values (numbers, strings, date/time, binaries) can be stored.
+ * Such values are immutable so decoded copy is equivalent to the original value.
+ */
+class ResultSetRowStore {
+
+    private static final Log log = Log.getLog(ResultSetRowStore.class);
+
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    private static final int READ_CACHE_SIZE = 2000;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_TRUE = 1;
+    private static final byte TYPE_FALSE = 2;
+    private static final byte TYPE_BYTE = 3;
+    private static final byte TYPE_SHORT = 4;
+    private static final byte TYPE_INTEGER = 5;
+    private static final byte TYPE_LONG = 6;
+    private static final byte TYPE_FLOAT = 7;
+    private static final byte TYPE_DOUBLE = 8;
+    private static final byte TYPE_BIG_INTEGER = 9;
+    private static final byte TYPE_BIG_DECIMAL = 10;
+    private static final byte TYPE_STRING = 11;
+    private static final byte TYPE_BINARY = 12;
+    private static final byte TYPE_DATE = 13;
+    private static final byte TYPE_SQL_DATE = 14;
+    private static final byte TYPE_SQL_TIME = 15;
+    private static final byte TYPE_SQL_TIMESTAMP = 16;
+
+    private File file;
+    private RandomAccessFile raFile;
+    private FileChannel channel;
+    // Encoded rows which weren't written to the file yet
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private long fileSize;
+    private Encoder encoder = new Encoder();
+    private ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+    private final Map<Long, Object[]> readCache = new LinkedHashMap<Long, Object[]>(READ_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Object[]> eldest) {
+            return size() > READ_CACHE_SIZE;
+        }
+    };
+    private boolean closed;
+    // Write error happened. New rows are not stored anymore, but previously stored rows are still readable.
+    private boolean failed;
+
+    /**
+     * Stores row values.
+     * @return row offset or -1 if row contains values which can't be stored
+     */
+    synchronized long storeRow(@NotNull Object[] values) {
+        if (closed || failed) {
+            return -1;
+        }
+        encoder.reset();
+        if (!encoder.encodeRow(values)) {
+            return -1;
+        }
+        try {
+            if (raFile == null) {
+                openFile();
+            }
+            long offset = fileSize + writeBuffer.position();
+            int length = encoder.length;
+            if (writeBuffer.remaining() < 4 + length) {
+                flushWriteBuffer();
+            }
+            if (writeBuffer.remaining() < 4 + length) {
+                // Huge row - write it directly
+                ByteBuffer rowBuffer = ByteBuffer.allocate(4 + length);
+                rowBuffer.putInt(length).put(encoder.buffer, 0, length).flip();
+                writeFully(rowBuffer, fileSize);
+                fileSize += rowBuffer.limit();
+            } else {
+                writeBuffer.putInt(length).put(encoder.buffer, 0, length);
+            }
+            return offset;
+        } catch (IOException e) {
+            log.debug("Error writing row values to temporary file. Keep rows in memory.", e);
+            failed = true;
+            return -1;
+        }
+    }
+
+    /**
+     * Reads row values stored at the specified offset.
+     * Returned array must not be modified.
+     * @throws IOException if store is closed or values can't be read
+     */
+    @NotNull
+    synchronized Object[] readRow(long offset) throws IOException {
+        if (closed) {
+            throw new IOException("Row store is closed");
+        }
+        Object[] values = readCache.get(offset);
+        if (values != null) {
+            return values;
+        }
+        try {
+            if (offset >= fileSize) {
+                flushWriteBuffer();
+            }
+            readBuffer.clear().limit(4);
+            readFully(readBuffer, offset);
+            int length = readBuffer.getInt(0);
+            if (readBuffer.capacity() < length) {
+                readBuffer = ByteBuffer.allocate(Math.max(length, readBuffer.capacity() * 2));
+            }
+            readBuffer.clear().limit(length);
+            readFully(readBuffer, offset + 4);
+            readBuffer.flip();
+            values = decodeRow(readBuffer);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Corrupted row values at " + offset, e);
+        }
+        readCache.put(offset, values);
+        return values;
+    }
+
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        readCache.clear();
+        writeBuffer = null;
+        readBuffer = null;
+        encoder = null;
+        if (raFile != null) {
+            try {
+                raFile.close();
+            } catch (IOException e) {
+                log.debug("Error closing row store file", e);
+            }
+            if (!file.delete()) {
+                log.debug("Can't delete row store file '" + file.getAbsolutePath() + "'");
+            }
+        }
+    }
+
+    private void openFile() throws IOException {
+        file = File.createTempFile("dbeaver-rows", ".dat");
+        file.deleteOnExit();
+        raFile = new RandomAccessFile(file, "rw");
+        channel = raFile.getChannel();
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        if (writeBuffer.position() == 0) {
+            return;
+        }
+        writeBuffer.flip();
+        int length = writeBuffer.limit();
+        writeFully(writeBuffer, fileSize);
+        writeBuffer.clear();
+        fileSize += length;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position);
+            if (count < 0) {
+                throw new IOException("Unexpected end of row store file");
+            }
+            position += count;
+        }
+    }
+
+    /**
+     * Approximate heap size of row values. Used to check rows memory limit.
+     */
+    static long estimateSize(@NotNull Object[] values) {
+        long size = 16 + 8L * values.length;
+        for (Object value : values) {
+            if (value == null || value instanceof Boolean) {
+                continue;
+            }
+            if (value instanceof String) {
+                size += 40 + 2L * ((String) value).length();
+            } else if (value instanceof byte[]) {
+                size += 16 + ((byte[]) value).length;
+            } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+                size += 64;
+            } else {
+                size += 32;
+            }
+        }
+        return size;
+    }
+
+    @NotNull
+    private static Object[] decodeRow(ByteBuffer buffer) {
+        int count = readVarInt(buffer);
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            byte type = buffer.get();
+            switch (type) {
+                case TYPE_NULL: break;
+                case TYPE_TRUE: values[i] = Boolean.TRUE; break;
+                case TYPE_FALSE: values[i] = Boolean.FALSE; break;
+                case TYPE_BYTE: values[i] = buffer.get(); break;
+                case TYPE_SHORT: values[i] = (short) readVarLong(buffer); break;
+                case TYPE_INTEGER: values[i] = (int) readVarLong(buffer); break;
+                case TYPE_LONG: values[i] = readVarLong(buffer); break;
+                case TYPE_FLOAT: values[i] = buffer.getFloat(); break;
+                case TYPE_DOUBLE: values[i] = buffer.getDouble(); break;
+                case TYPE_BIG_INTEGER: values[i] = new BigInteger(readBytes(buffer)); break;
+                case TYPE_BIG_DECIMAL: {
+                    int scale = (int) readVarLong(buffer);
+                    values[i] = new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+                    break;
+                }
+                case TYPE_STRING: values[i] = new String(readBytes(buffer), StandardCharsets.UTF_8); break;
+                case TYPE_BINARY: values[i] = readBytes(buffer); break;
+                case TYPE_DATE: values[i] = new java.util.Date(readVarLong(buffer)); break;
+                case TYPE_SQL_DATE: values[i] = new java.sql.Date(readVarLong(buffer)); break;
+                case TYPE_SQL_TIME: values[i] = new java.sql.Time(readVarLong(buffer)); break;
+                case TYPE_SQL_TIMESTAMP: {
+                    java.sql.Timestamp ts = new java.sql.Timestamp(readVarLong(buffer));
+                    ts.setNanos(readVarInt(buffer));
+                    values[i] = ts;
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Bad value type in row store: " + type);
+            }
+        }
+        return values;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[readVarInt(buffer)];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int result = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long zigZag = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    /**
+     * Row encoder. Reuses the same byte buffer for all rows.
+     */
+    private static class Encoder {
+        private byte[] buffer = new byte[1024];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        boolean encodeRow(Object[] values) {
+            writeVarInt(values.length);
+            for (Object value : values) {
+                if (!encodeValue(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean encodeValue(Object value) {
+            if (value == null) {
+                writeByte(TYPE_NULL);
+                return true;
+            }
+            // Check exact classes. Subclasses (e.g. driver specific timestamps) may hold additional state.
+            Class<?> valueClass = value.getClass();
+            if (valueClass == String.class) {
+                writeByte(TYPE_STRING);
+                writeBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+            } else if (valueClass == Integer.class) {
+                writeByte(TYPE_INTEGER);
+                writeVarLong((Integer) value);
+            } else if (valueClass == Long.class) {
+                writeByte(TYPE_LONG);
+                writeVarLong((Long) value);
+            } else if (valueClass == Boolean.class) {
+                writeByte((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+            } else if (valueClass == java.sql.Timestamp.class) {
+                java.sql.Timestamp ts = (java.sql.Timestamp) value;
+                writeByte(TYPE_SQL_TIMESTAMP);
+                writeVarLong(ts.getTime());
+                writeVarInt(ts.getNanos());
+            } else if (valueClass == java.sql.Date.class) {
+                writeByte(TYPE_SQL_DATE);
+                writeVarLong(((java.util.Date) value).getTime());
+            } else if (valueClass == java.sql.Time.class) {
+                writeByte(TYPE_SQL_TIME);
+                writeVarLong(((java.util.Date) value).getTime());
+            } else if (valueClass == java.util.Date.class) {
+                writeByte(TYPE_DATE);
+                writeVarLong(((java.util.Date) value).getTime());
+            } else if (valueClass == BigDecimal.class) {
+                BigDecimal decimal = (BigDecimal) value;
+                writeByte(TYPE_BIG_DECIMAL);
+                writeVarLong(decimal.scale());
+                writeBytes(decimal.unscaledValue().toByteArray());
+            } else if (valueClass == Double.class) {
+                writeByte(TYPE_DOUBLE);
+                long bits = Double.doubleToRawLongBits((Double) value);
+                for (int i = 56; i >= 0; i -= 8) {
+                    writeByte((byte) (bits >>> i));
+                }
+            } else if (valueClass == Float.class) {
+                writeByte(TYPE_FLOAT);
+                int bits = Float.floatToRawIntBits((Float) value);
+                for (int i = 24; i >= 0; i -= 8) {
+                    writeByte((byte) (bits >>> i));
+                }
+            } else if (valueClass == Short.class) {
+                writeByte(TYPE_SHORT);
+                writeVarLong((Short) value);
+            } else if (valueClass == Byte.class) {
+                writeByte(TYPE_BYTE);
+                writeByte((Byte) value);
+            } else if (valueClass == BigInteger.class) {
+                writeByte(TYPE_BIG_INTEGER);
+                writeBytes(((BigInteger) value).toByteArray());
+            } else if (valueClass == byte[].class) {
+                writeByte(TYPE_BINARY);
+                writeBytes((byte[]) value);
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private void writeByte(byte b) {
+            ensureCapacity(1);
+            buffer[length++] = b;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        private void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            buffer[length++] = (byte) zigZag;
+        }
+
+        private void ensureCapacity(int count) {
+            if (length + count > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + count));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,523 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.swt.widgets.Control;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPMessageType;
+import org.jkiss.dbeaver.model.data.DBDAttributeBindingMeta;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.ui.UIUtils;
+
+import java.util.*;
+
+/**
+ * Virtual rows which follow fetched rows of the model (up to the total row count).
+ * Rows are read by pages on demand: grid asks for rows it is going to paint and window reads missing pages
+ * (plus a few pages ahead of the scroll direction) in a background job. Until page is read its rows are placeholders.
+ * Only a limited number of pages is kept in memory, least recently used pages are released.
+ *
+ * Pages are read by keyset (if keyset paging is enabled and previous page is read) or by offset.
+ * Window rows are read-only and are not part of the model (they can't be edited, selected or searched).
+ */
+public class ResultSetRowWindow {
+
+    private static final Log log = Log.getLog(ResultSetRowWindow.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+    // Max number of rows kept in memory
+    private static final int MAX_CACHED_ROWS = 10000;
+    private static final int MIN_CACHED_PAGES = 8;
+    // Pages read ahead of the scroll direction
+    private static final int PREFETCH_PAGES = 2;
+
+    private final ResultSetViewer viewer;
+    private final ResultSetModel model;
+    private final DBSDataContainer dataContainer;
+    private final DBDDataFilter dataFilter;
+    private final DBDAttributeBindingMeta[] metaColumns;
+    // Count of rows read into the model. Window rows start after them.
+    private final int fetchedRowCount;
+    private final int rowCount;
+    private final int pageSize;
+    private final int pageCount;
+    private final int maxPages;
+    // Keyset paging parameters. Key is null if data has explicit ordering.
+    private final boolean keysetPaging;
+    @Nullable
+    private final List<DBSEntityAttribute> orderKey;
+    @Nullable
+    private final ResultSetRow lastFetchedRow;
+
+    private final LinkedHashMap<Integer, Page> pages;
+    private final Set<Integer> requestedPages = new HashSet<>();
+    private final List<ResultSetRow> evictedRows = new ArrayList<>();
+    private final PageReadJob readJob;
+    private int firstVisiblePage = -1;
+    private int lastVisiblePage = -1;
+    private boolean scrollForward = true;
+    private boolean redrawScheduled;
+    private boolean errorReported;
+    private boolean disposed;
+
+    private class Page {
+        final int index;
+        final ResultSetRow[] rows;
+        boolean loaded;
+        boolean failed;
+        boolean evicted;
+
+        Page(int index) {
+            this.index = index;
+            this.rows = new ResultSetRow[Math.min(pageSize, rowCount - index * pageSize)];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new WindowRow(fetchedRowCount + index * pageSize + i, new Object[metaColumns.length], false);
+            }
+        }
+    }
+
+    private class WindowRow extends ResultSetRow {
+        final boolean loaded;
+
+        WindowRow(int rowNumber, @NotNull Object[] values, boolean loaded) {
+            super(rowNumber, values);
+            this.loaded = loaded;
+        }
+
+        ResultSetRowWindow getWindow() {
+            return ResultSetRowWindow.this;
+        }
+    }
+
+    ResultSetRowWindow(
+        @NotNull ResultSetViewer viewer,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull DBDAttributeBindingMeta[] metaColumns,
+        int rowCount,
+        int pageSize,
+        boolean keysetPaging,
+        @Nullable List<DBSEntityAttribute> orderKey)
+    {
+        this.viewer = viewer;
+        this.model = viewer.getModel();
+        this.dataContainer = dataContainer;
+        this.dataFilter = new DBDDataFilter(model.getDataFilter());
+        this.metaColumns = metaColumns;
+        int fetched = 0;
+        for (ResultSetRow row : model.getAllRows()) {
+            if (row.getState() != ResultSetRow.STATE_ADDED) {
+                fetched++;
+            }
+        }
+        this.fetchedRowCount = fetched;
+        this.rowCount = rowCount;
+        this.pageSize = pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+        this.pageCount = (rowCount + this.pageSize - 1) / this.pageSize;
+        this.maxPages = Math.max(MIN_CACHED_PAGES, MAX_CACHED_ROWS / this.pageSize);
+        this.keysetPaging = keysetPaging;
+        this.orderKey = orderKey;
+        this.lastFetchedRow = keysetPaging ? ResultSetKeysetPaging.getLastFetchedRow(model) : null;
+        this.pages = new LinkedHashMap<Integer, Page>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+                if (size() <= maxPages) {
+                    return false;
+                }
+                evictPage(eldest.getValue());
+                return true;
+            }
+        };
+        this.readJob = new PageReadJob(executionContext);
+    }
+
+    /**
+     * Returns true if row belongs to some row window (not to the model)
+     */
+    public static boolean isWindowRow(@Nullable Object row) {
+        return row instanceof WindowRow;
+    }
+
+    /**
+     * Returns true if row isn't a window row or if it is a window row and its values were read
+     */
+    public static boolean isLoaded(@Nullable Object row) {
+        return !(row instanceof WindowRow) || ((WindowRow) row).loaded;
+    }
+
+    /**
+     * Count of rows in the window
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns row by its index in the window. Never reads data: if page wasn't read yet then placeholder row is returned.
+     * Visual number of the row is updated to follow model rows.
+     */
+    @NotNull
+    public synchronized ResultSetRow getRow(int index) {
+        Page page = pages.get(index / pageSize);
+        ResultSetRow row;
+        if (page == null) {
+            // Page wasn't requested - make temporary placeholder
+            row = new WindowRow(fetchedRowCount + index, new Object[metaColumns.length], false);
+        } else {
+            row = page.rows[index % pageSize];
+        }
+        row.setVisualNumber(model.getRowCount() + index);
+        return row;
+    }
+
+    /**
+     * Returns index of row in this window or -1
+     */
+    public int getRowIndex(@NotNull Object row) {
+        if (!(row instanceof WindowRow) || ((WindowRow) row).getWindow() != this) {
+            return -1;
+        }
+        return ((WindowRow) row).getRowNumber() - fetchedRowCount;
+    }
+
+    /**
+     * Requests pages of the specified rows range (inclusive) and pages ahead of the scroll direction.
+     * Requests of pages which were scrolled out of view are discarded.
+     */
+    public synchronized void prepareRows(int fromIndex, int toIndex) {
+        if (disposed) {
+            return;
+        }
+        fromIndex = Math.max(fromIndex, 0);
+        toIndex = Math.min(toIndex, rowCount - 1);
+        if (fromIndex > toIndex) {
+            return;
+        }
+        int firstPage = fromIndex / pageSize, lastPage = toIndex / pageSize;
+        if (firstPage == firstVisiblePage && lastPage == lastVisiblePage) {
+            return;
+        }
+        if (firstVisiblePage >= 0 && firstPage != firstVisiblePage) {
+            scrollForward = firstPage > firstVisiblePage;
+        }
+        firstVisiblePage = firstPage;
+        lastVisiblePage = lastPage;
+
+        for (Iterator<Integer> iter = requestedPages.iterator(); iter.hasNext(); ) {
+            int index = iter.next();
+            if (index < firstPage - PREFETCH_PAGES || index > lastPage + PREFETCH_PAGES) {
+                iter.remove();
+                Page page = pages.remove(index);
+                if (page != null) {
+                    page.evicted = true;
+                }
+            }
+        }
+        for (int i = firstPage; i <= lastPage; i++) {
+            requestPage(i);
+        }
+        for (int i = 1; i <= PREFETCH_PAGES; i++) {
+            requestPage(scrollForward ? lastPage + i : firstPage - i);
+        }
+        if (!requestedPages.isEmpty()) {
+            readJob.schedule();
+        }
+    }
+
+    void dispose() {
+        final List<ResultSetRow> rows = new ArrayList<>();
+        synchronized (this) {
+            if (disposed) {
+                return;
+            }
+            disposed = true;
+            for (Page page : pages.values()) {
+                evictPage(page);
+            }
+            pages.clear();
+            requestedPages.clear();
+            rows.addAll(evictedRows);
+            evictedRows.clear();
+        }
+        readJob.cancel();
+        if (!rows.isEmpty()) {
+            new AbstractJob("Cleanup row window") {
+                {
+                    setSystem(true);
+                }
+                @Override
+                protected IStatus run(DBRProgressMonitor monitor) {
+                    for (ResultSetRow row : rows) {
+                        row.release();
+                    }
+                    return Status.OK_STATUS;
+                }
+            }.schedule();
+        }
+    }
+
+    private void requestPage(int index) {
+        if (index < 0 || index >= pageCount) {
+            return;
+        }
+        if (pages.get(index) == null) {
+            pages.put(index, new Page(index));
+            requestedPages.add(index);
+        }
+    }
+
+    private void evictPage(@NotNull Page page) {
+        page.evicted = true;
+        requestedPages.remove(page.index);
+        if (page.loaded) {
+            Collections.addAll(evictedRows, page.rows);
+        }
+    }
+
+    /**
+     * Takes the requested page nearest to the visible pages. Pages of the scroll direction go first.
+     */
+    @Nullable
+    private synchronized PageRequest takeRequest() {
+        if (disposed || requestedPages.isEmpty()) {
+            return null;
+        }
+        int bestIndex = -1, bestDistance = Integer.MAX_VALUE;
+        for (int index : requestedPages) {
+            int distance =
+                index < firstVisiblePage ? (firstVisiblePage - index) * 2 + (scrollForward ? 1 : 0) :
+                index > lastVisiblePage ? (index - lastVisiblePage) * 2 + (scrollForward ? 0 : 1) :
+                0;
+            if (distance < bestDistance ||
+                (distance == bestDistance && (scrollForward ? index < bestIndex : index > bestIndex)))
+            {
+                bestIndex = index;
+                bestDistance = distance;
+            }
+        }
+        requestedPages.remove(bestIndex);
+        Page page = pages.get(bestIndex);
+        if (page == null) {
+            return null;
+        }
+        ResultSetRow keyRow = null;
+        if (keysetPaging) {
+            if (bestIndex == 0) {
+                keyRow = lastFetchedRow;
+            } else {
+                Page prevPage = pages.get(bestIndex - 1);
+                if (prevPage != null && prevPage.loaded && !prevPage.failed && isLoaded(prevPage.rows[prevPage.rows.length - 1])) {
+                    keyRow = prevPage.rows[prevPage.rows.length - 1];
+                }
+            }
+        }
+        return new PageRequest(page, keyRow);
+    }
+
+    private void publishPage(@NotNull Page page, @NotNull List<Object[]> values, @Nullable Throwable error) {
+        List<ResultSetRow> unusedRows = null;
+        boolean reportError = false;
+        synchronized (this) {
+            if (error != null) {
+                page.failed = true;
+                reportError = !errorReported && !disposed;
+                errorReported = true;
+            }
+            ResultSetRow[] rows = new ResultSetRow[Math.min(values.size(), page.rows.length)];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new WindowRow(page.rows[i].getRowNumber(), values.get(i), true);
+            }
+            if (disposed || page.evicted) {
+                unusedRows = Arrays.asList(rows);
+            } else {
+                // Rows which were not read (data was changed) stay placeholders
+                System.arraycopy(rows, 0, page.rows, 0, rows.length);
+                page.loaded = true;
+                scheduleRedraw();
+            }
+        }
+        if (unusedRows != null) {
+            for (ResultSetRow row : unusedRows) {
+                row.release();
+            }
+        }
+        if (reportError) {
+            log.error("Error reading rows " + (page.index * pageSize + fetchedRowCount + 1), error);
+            UIUtils.asyncExec(() -> viewer.setStatus(error.getMessage(), DBPMessageType.ERROR));
+        }
+    }
+
+    private void releaseEvictedRows() {
+        List<ResultSetRow> rows;
+        synchronized (this) {
+            if (evictedRows.isEmpty()) {
+                return;
+            }
+            rows = new ArrayList<>(evictedRows);
+            evictedRows.clear();
+        }
+        for (ResultSetRow row : rows) {
+            row.release();
+        }
+    }
+
+    /**
+     * Repaints grid once for all pages read meanwhile
+     */
+    private void scheduleRedraw() {
+        if (redrawScheduled) {
+            return;
+        }
+        redrawScheduled = true;
+        UIUtils.asyncExec(() -> {
+            synchronized (ResultSetRowWindow.this) {
+                redrawScheduled = false;
+                if (disposed) {
+                    return;
+                }
+            }
+            Control control = viewer.getActivePresentation().getControl();
+            if (control != null && !control.isDisposed()) {
+                control.redraw();
+            }
+        });
+    }
+
+    private static class PageRequest {
+        final Page page;
+        // Last row of the previous page, next page is read by keyset after it
+        @Nullable
+        final ResultSetRow keyRow;
+
+        PageRequest(@NotNull Page page, @Nullable ResultSetRow keyRow) {
+            this.page = page;
+            this.keyRow = keyRow;
+        }
+    }
+
+    private class PageReadJob extends ResultSetJobAbstract {
+
+        PageReadJob(@NotNull DBCExecutionContext executionContext) {
+            super("Read rows [" + ResultSetRowWindow.this.dataContainer + "]", ResultSetRowWindow.this.dataContainer, viewer, executionContext);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            for (;;) {
+                releaseEvictedRows();
+                PageRequest request = takeRequest();
+                if (request == null || monitor.isCanceled()) {
+                    break;
+                }
+                readPage(monitor, request);
+            }
+            return Status.OK_STATUS;
+        }
+
+        private void readPage(@NotNull DBRProgressMonitor monitor, @NotNull PageRequest request) {
+            Page page = request.page;
+            DBDDataFilter readFilter = null;
+            long offset = 0;
+            if (request.keyRow != null) {
+                readFilter = ResultSetKeysetPaging.makeNextSegmentFilter(model, dataContainer, dataFilter, orderKey, request.keyRow);
+            }
+            if (readFilter == null) {
+                readFilter = dataFilter;
+                offset = fetchedRowCount + (long) page.index * pageSize;
+            }
+            if (orderKey != null) {
+                // The same implicit ordering as model rows were read with
+                readFilter = ResultSetKeysetPaging.makeOrderedFilter(readFilter, orderKey);
+            }
+
+            PageReceiver receiver = new PageReceiver();
+            Throwable error = null;
+            try (DBCSession session = getExecutionContext().openSession(
+                monitor,
+                DBCExecutionPurpose.USER,
+                "Read rows of " + dataContainer.toString()))
+            {
+                dataContainer.readData(
+                    this,
+                    session,
+                    receiver,
+                    readFilter,
+                    offset,
+                    page.rows.length,
+                    DBSDataContainer.FLAG_READ_PSEUDO);
+            } catch (Throwable e) {
+                error = e;
+            }
+            publishPage(page, receiver.rows, error);
+        }
+    }
+
+    /**
+     * Fetches values with model attribute bindings (query and its columns are the same as for the model rows)
+     */
+    private class PageReceiver implements DBDDataReceiver {
+
+        private final List<Object[]> rows = new ArrayList<>();
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            DBCResultSetMetaData metaData = resultSet.getMeta();
+            if (metaData == null || metaData.getAttributes().size() != metaColumns.length) {
+                throw new DBCException("Result set columns differ from the columns of fetched rows");
+            }
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            Object[] row = new Object[metaColumns.length];
+            for (int i = 0; i < metaColumns.length; i++) {
+                try {
+                    row[i] = metaColumns[i].getValueHandler().fetchValueObject(
+                        session,
+                        resultSet,
+                        metaColumns[i].getAttribute(),
+                        metaColumns[i].getOrdinalPosition());
+                } catch (Throwable e) {
+                    row[i] = new DBDValueError(e);
+                }
+            }
+            rows.add(row);
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+
+import java.util.*;
+
+/**
+ * Client-side sort index.
+ *
+ * Sort keys are extracted once per column into compact arrays indexed by physical row number.
+ * Integer and floating point columns are stored in primitive arrays, other columns in array of comparable values.
+ * Sorted row orders are cached per ordering, so switching back to previously used ordering doesn't sort again.
+ * Index must be reset on any change of model data.
+ */
+class ResultSetSortIndex {
+
+    private static final int MAX_CACHED_ORDERINGS = 8;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    // Result of null comparison when both values are not null
+    private static final int NOT_NULL = Integer.MIN_VALUE;
+
+    private final ResultSetModel model;
+    private final Map<DBDAttributeBinding, ColumnKeys> columnKeys = new IdentityHashMap<>();
+    private final Map<OrderingKey, int[]> orderings = new LinkedHashMap<OrderingKey, int[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<OrderingKey, int[]> eldest) {
+            return size() > MAX_CACHED_ORDERINGS;
+        }
+    };
+    private int rowCount = -1;
+
+    ResultSetSortIndex(@NotNull ResultSetModel model) {
+        this.model = model;
+    }
+
+    void reset() {
+        columnKeys.clear();
+        orderings.clear();
+        rowCount = -1;
+    }
+
+    /**
+     * Returns row numbers in sort order. Rows with equal keys keep physical order.
+     * @param rows rows indexed by row number
+     */
+    @NotNull
+    int[] getOrdering(@NotNull ResultSetRow[] rows, @NotNull DBDAttributeBinding[] attributes, @NotNull boolean[] descending) {
+        if (rows.length != rowCount) {
+            reset();
+            rowCount = rows.length;
+        }
+        OrderingKey orderingKey = new OrderingKey(attributes, descending);
+        int[] order = orderings.get(orderingKey);
+        if (order != null) {
+            return order;
+        }
+        ColumnKeys[] keys = new ColumnKeys[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            keys[i] = columnKeys.get(attributes[i]);
+            if (keys[i] == null) {
+                keys[i] = extractKeys(rows, attributes[i]);
+                columnKeys.put(attributes[i], keys[i]);
+            }
+        }
+        order = new int[rows.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        RowComparator comparator = (row1, row2) -> {
+            for (int i = 0; i < keys.length; i++) {
+                int result = keys[i].compare(row1, row2);
+                if (result != 0) {
+                    return descending[i] ? -result : result;
+                }
+            }
+            return 0;
+        };
+        mergeSort(order.clone(), order, 0, order.length, comparator);
+        orderings.put(orderingKey, order);
+        return order;
+    }
+
+    private ColumnKeys extractKeys(ResultSetRow[] rows, DBDAttributeBinding attribute) {
+        Object[] values = new Object[rows.length];
+        boolean allIntegers = true, allNumbers = true;
+        for (int i = 0; i < rows.length; i++) {
+            Object value = model.getCellValue(attribute, rows[i]);
+            if (DBUtils.isNullValue(value)) {
+                continue;
+            }
+            if (!(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+                allIntegers = false;
+                if (!(value instanceof Double || value instanceof Float)) {
+                    allNumbers = false;
+                }
+            }
+            values[i] = value instanceof Comparable ? value : String.valueOf(value);
+        }
+        if (allIntegers) {
+            long[] keys = new long[rows.length];
+            BitSet nulls = new BitSet(rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                if (values[i] == null) {
+                    nulls.set(i);
+                } else {
+                    keys[i] = ((Number) values[i]).longValue();
+                }
+            }
+            return (row1, row2) -> {
+                int result = compareNulls(nulls.get(row1), nulls.get(row2));
+                return result != NOT_NULL ? result : Long.compare(keys[row1], keys[row2]);
+            };
+        } else if (allNumbers) {
+            double[] keys = new double[rows.length];
+            BitSet nulls = new BitSet(rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                if (values[i] == null) {
+                    nulls.set(i);
+                } else {
+                    keys[i] = ((Number) values[i]).doubleValue();
+                }
+            }
+            return (row1, row2) -> {
+                int result = compareNulls(nulls.get(row1), nulls.get(row2));
+                return result != NOT_NULL ? result : Double.compare(keys[row1], keys[row2]);
+            };
+        } else {
+            return (row1, row2) -> {
+                Object key1 = values[row1], key2 = values[row2];
+                int result = compareNulls(key1 == null, key2 == null);
+                if (result != NOT_NULL) {
+                    return result;
+                }
+                try {
+                    return ((Comparable) key1).compareTo(key2);
+                } catch (ClassCastException e) {
+                    // Values of different types
+                    return String.valueOf(key1).compareTo(String.valueOf(key2));
+                }
+            };
+        }
+    }
+
+    /**
+     * Nulls go after values
+     */
+    private static int compareNulls(boolean null1, boolean null2) {
+        if (null1) {
+            return null2 ? 0 : 1;
+        } else {
+            return null2 ? -1 : NOT_NULL;
+        }
+    }
+
+    /**
+     * Stable merge sort of row numbers
+     */
+    private static void mergeSort(int[] src, int[] dest, int low, int high, RowComparator comparator) {
+        int length = high - low;
+        if (length < INSERTION_SORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++) {
+                int row = dest[i];
+                int j = i - 1;
+                while (j >= low && comparator.compare(dest[j], row) > 0) {
+                    dest[j + 1] = dest[j];
+                    j--;
+                }
+                dest[j + 1] = row;
+            }
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        // Sort halves of dest into src, then merge src into dest
+        mergeSort(dest, src, low, mid, comparator);
+        mergeSort(dest, src, mid, high, comparator);
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, low, length);
+            return;
+        }
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || (p < mid && comparator.compare(src[p], src[q]) <= 0)) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    private interface RowComparator {
+        int compare(int row1, int row2);
+    }
+
+    private interface ColumnKeys extends RowComparator {
+    }
+
+    private static class OrderingKey {
+        private final DBDAttributeBinding[] attributes;
+        private final boolean[] descending;
+
+        OrderingKey(DBDAttributeBinding[] attributes, boolean[] descending) {
+            this.attributes = attributes;
+            this.descending = descending;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof OrderingKey)) {
+                return false;
+            }
+            OrderingKey key = (OrderingKey) obj;
+            if (attributes.length != key.attributes.length || !Arrays.equals(descending, key.descending)) {
+                return false;
+            }
+            for (int i = 0; i < attributes.length; i++) {
+                if (attributes[i] != key.attributes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Arrays.hashCode(descending);
+            for (DBDAttributeBinding attribute : attributes) {
+                hash = hash * 31 + System.identityHashCode(attribute);
+            }
+            return hash;
+        }
+    }
+
+}
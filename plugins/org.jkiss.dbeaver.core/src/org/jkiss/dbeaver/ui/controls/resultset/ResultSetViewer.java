@@ -167,6 +167,9 @@ public class ResultSetViewer extends Viewer
     private final List<IResultSetListener> listeners = new ArrayList<>();
 
     private volatile ResultSetJobDataRead dataPumpJob;
+    // Ordering of the last refresh and table key used for implicit ordering. Used for keyset reads of next segments.
+    private String segmentOrderSignature;
+    private List<DBSEntityAttribute> segmentOrderKey;
 
     private final ResultSetModel model = new ResultSetModel();
     private HistoryStateItem curState = null;
@@ -2620,7 +2623,8 @@ public class ResultSetViewer extends Viewer
 
     public synchronized void readNextSegment()
     {
-        if (!dataReceiver.isHasMoreData()) {
+        if (!dataReceiver.isHasMoreData() || model.getRowWindow() != null) {
+            // All rows are shown by the row window
             return;
         }
         DBSDataContainer dataContainer = getDataContainer();
@@ -2628,10 +2632,11 @@ public class ResultSetViewer extends Viewer
             dataReceiver.setHasMoreData(false);
             dataReceiver.setNextSegmentRead(true);
 
+            DBDDataFilter segmentFilter = getKeysetSegmentFilter(dataContainer);
             runDataPump(
                 dataContainer,
-                model.getDataFilter(),
-                model.getRowCount(),
+                segmentFilter != null ? segmentFilter : model.getDataFilter(),
+                segmentFilter != null ? 0 : model.getRowCount(),
                 getSegmentMaxRows(),
                 -1,//curRow == null ? -1 : curRow.getRowNumber(), // Do not reposition cursor after next segment read!
                 false,
@@ -2656,13 +2661,19 @@ public class ResultSetViewer extends Viewer
 
         DBSDataContainer dataContainer = getDataContainer();
         if (dataContainer != null && !model.isUpdateInProgress() && dataPumpJob == null) {
+            if (model.getRowWindow() != null) {
+                // Fetched rows replace virtual rows
+                model.setRowWindow(null);
+                activePresentation.refreshData(false, true, true);
+            }
             dataReceiver.setHasMoreData(false);
             dataReceiver.setNextSegmentRead(true);
 
+            DBDDataFilter segmentFilter = getKeysetSegmentFilter(dataContainer);
             runDataPump(
                 dataContainer,
-                model.getDataFilter(),
-                model.getRowCount(),
+                segmentFilter != null ? segmentFilter : model.getDataFilter(),
+                segmentFilter != null ? 0 : model.getRowCount(),
                 -1,
                 curRow == null ? -1 : curRow.getRowNumber(),
                 false,
@@ -2699,6 +2710,82 @@ public class ResultSetViewer extends Viewer
         }
     }
 
+    /**
+     * Returns filter for the next segment read by keyset (instead of offset).
+     * Null if keyset can't be used and segment must be read with offset.
+     */
+    @Nullable
+    private DBDDataFilter getKeysetSegmentFilter(@NotNull DBSDataContainer dataContainer) {
+        if (!isKeysetPagingAvailable()) {
+            return null;
+        }
+        return ResultSetKeysetPaging.makeNextSegmentFilter(model, dataContainer, model.getDataFilter(), segmentOrderKey);
+    }
+
+    private boolean isKeysetPagingAvailable() {
+        // Ordering may be changed after the last refresh
+        return getPreferenceStore().getBoolean(DBeaverPreferences.RESULT_SET_KEYSET_PAGING) &&
+            segmentOrderSignature != null &&
+            segmentOrderSignature.equals(ResultSetKeysetPaging.getOrderSignature(model.getDataFilter()));
+    }
+
+    /**
+     * Shows all table rows if virtual scroll is enabled. Reads total row count and opens row window
+     * for rows after the fetched ones. Window is closed when model data is cleared.
+     */
+    private void openRowWindow(@NotNull final DBSDataContainer dataContainer) {
+        final DBCExecutionContext executionContext = getExecutionContext();
+        final DBDAttributeBindingMeta[] metaColumns = dataReceiver.getMetaColumns();
+        if (!getPreferenceStore().getBoolean(DBeaverPreferences.RESULT_SET_VIRTUAL_SCROLL) ||
+            !dataReceiver.isHasMoreData() || model.getRowWindow() != null ||
+            dataContainer != getDataContainer() || executionContext == null || metaColumns == null ||
+            (dataContainer.getSupportedFeatures() & DBSDataContainer.DATA_COUNT) == 0)
+        {
+            return;
+        }
+        final List<ResultSetRow> fetchedRows = model.getAllRows();
+        final int fetchedCount = model.getRowCount();
+        new AbstractJob("Read total row count") {
+            {
+                setSystem(true);
+            }
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                final long totalRowCount;
+                try {
+                    totalRowCount = readRowCount(monitor);
+                } catch (DBException e) {
+                    log.debug("Can't read total row count", e);
+                    return Status.OK_STATUS;
+                }
+                UIUtils.asyncExec(() -> {
+                    if (viewerPanel.isDisposed() || dataPumpJob != null || model.getRowWindow() != null ||
+                        model.getAllRows() != fetchedRows || model.getRowCount() != fetchedCount || !dataReceiver.isHasMoreData())
+                    {
+                        // Data was changed meanwhile
+                        return;
+                    }
+                    long windowRowCount = Math.min(totalRowCount - fetchedCount, Integer.MAX_VALUE - fetchedCount - 1L);
+                    if (windowRowCount <= 0) {
+                        return;
+                    }
+                    model.setRowWindow(new ResultSetRowWindow(
+                        ResultSetViewer.this,
+                        dataContainer,
+                        executionContext,
+                        metaColumns,
+                        (int) windowRowCount,
+                        getSegmentMaxRows(),
+                        isKeysetPagingAvailable(),
+                        segmentOrderKey));
+                    activePresentation.refreshData(false, true, true);
+                    updateStatusMessage();
+                });
+                return Status.OK_STATUS;
+            }
+        }.schedule();
+    }
+
     private int getSegmentMaxRows()
     {
         if (getDataContainer() == null) {
@@ -2740,6 +2827,7 @@ public class ResultSetViewer extends Viewer
             progressControl = (Composite) activePresentation.getControl();
         }
         final Object presentationState = savePresentationState();
+        final String orderSignature = ResultSetKeysetPaging.getOrderSignature(useDataFilter);
         dataReceiver.setFocusRow(focusRow);
         // Set explicit target container
         dataReceiver.setTargetDataContainer(dataContainer);
@@ -2797,6 +2885,8 @@ public class ResultSetViewer extends Viewer
                         updatePanelsContent(false);
 
                         if (!scroll) {
+                            segmentOrderSignature = error == null ? orderSignature : null;
+                            segmentOrderKey = job.getImplicitOrderKey();
                             // Add new history item
                             if (saveHistory && error == null) {
                                 setNewState(dataContainer, dataFilter);
@@ -2807,6 +2897,9 @@ public class ResultSetViewer extends Viewer
                                 // New data filter may have different columns visibility
                                 redrawData(true, false);
                             }
+                            if (error == null) {
+                                openRowWindow(dataContainer);
+                            }
                         }
                         if (job.getStatistics() == null || !job.getStatistics().isEmpty()) {
                             if (error == null) {
@@ -2835,6 +2928,7 @@ public class ResultSetViewer extends Viewer
         });
         dataPumpJob.setOffset(offset);
         dataPumpJob.setMaxRows(maxRows);
+        dataPumpJob.setKeysetPaging(getPreferenceStore().getBoolean(DBeaverPreferences.RESULT_SET_KEYSET_PAGING));
         dataPumpJob.schedule();
 
         return true;
@@ -26,12 +26,11 @@ import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.*;
-import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
-import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -68,6 +67,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private IDialogSettings panelSettings;
 
     private final List<AggregateFunctionDescriptor> enabledFunctions = new ArrayList<>();
+    private AggregateValuesJob aggregateJob;
 
     public AggregateColumnsPanel() {
     }
@@ -111,6 +111,8 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             }
         });
 
+        aggregateTable.addDisposeListener(e -> cancelAggregateJob());
+
         return this.aggregateTable;
     }
 
@@ -178,11 +180,12 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     @Override
     public void deactivatePanel() {
-
+        cancelAggregateJob();
     }
 
     @Override
     public void refresh(boolean force) {
+        cancelAggregateJob();
         aggregateTable.setRedraw(false);
         try {
             aggregateTable.removeAll();
@@ -205,40 +208,61 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     }
 
     private void aggregateSelection(IResultSetSelection selection) {
-        ResultSetModel model = presentation.getController().getModel();
+        // Only cell positions are collected here. Values are read and aggregated in background job.
+        List<AggregateValuesJob.CellGroup> groups = new ArrayList<>();
+        List<TreeItem[]> groupItems = new ArrayList<>();
+        int cellCount = 0;
         if (groupByColumns) {
-            Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
+            Map<DBDAttributeBinding, AggregateValuesJob.CellGroup> attrCells = new LinkedHashMap<>();
             for (Object element : selection.toList()) {
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
                 ResultSetRow row = selection.getElementRow(element);
-                Object cellValue = model.getCellValue(attr, row);
-                List<Object> values = attrValues.computeIfAbsent(attr, k -> new ArrayList<>());
-                values.add(cellValue);
+                attrCells.computeIfAbsent(attr, k -> new AggregateValuesJob.CellGroup()).addCell(attr, row);
+                cellCount++;
             }
 
-            for (Map.Entry<DBDAttributeBinding, List<Object>> entry : attrValues.entrySet()) {
+            for (Map.Entry<DBDAttributeBinding, AggregateValuesJob.CellGroup> entry : attrCells.entrySet()) {
                 TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
                 attrItem.setText(entry.getKey().getName());
                 attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(entry.getKey())));
-                aggregateValues(attrItem, entry.getValue());
+                groups.add(entry.getValue());
+                groupItems.add(createFunctionItems(attrItem));
                 attrItem.setExpanded(true);
             }
         } else {
-            List<Object> allValues = new ArrayList<>(selection.size());
+            AggregateValuesJob.CellGroup allCells = new AggregateValuesJob.CellGroup();
             for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                Object cellValue = model.getCellValue(attr, row);
-                allValues.add(cellValue);
+                allCells.addCell(selection.getElementAttribute(element), selection.getElementRow(element));
+                cellCount++;
             }
-            aggregateValues(null, allValues);
+            groups.add(allCells);
+            groupItems.add(createFunctionItems(null));
+        }
+        if (cellCount == 0) {
+            return;
+        }
+
+        ResultSetModel model = presentation.getController().getModel();
+        aggregateJob = new AggregateValuesJob(model, enabledFunctions, groups, (job, groupIndex, results, complete) -> {
+            if (Display.getCurrent() != null) {
+                showResults(job, groupItems.get(groupIndex), results, complete);
+            } else {
+                UIUtils.asyncExec(() -> showResults(job, groupItems.get(groupIndex), results, complete));
+            }
+        });
+        if (cellCount <= AggregateValuesJob.BLOCK_SIZE) {
+            // Small selection - no need to bother with background job
+            aggregateJob.runDirectly(new VoidProgressMonitor());
+            aggregateJob = null;
+        } else {
+            aggregateJob.schedule();
         }
     }
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
-        List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
-        for (AggregateFunctionDescriptor funcDesc : functions) {
+    private TreeItem[] createFunctionItems(TreeItem parentItem) {
+        TreeItem[] funcItems = new TreeItem[enabledFunctions.size()];
+        for (int i = 0; i < funcItems.length; i++) {
+            AggregateFunctionDescriptor funcDesc = enabledFunctions.get(i);
             TreeItem funcItem = (parentItem == null) ?
                 new TreeItem(aggregateTable, SWT.NONE) :
                 new TreeItem(parentItem, SWT.NONE);
@@ -248,46 +272,52 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             if (icon != null) {
                 funcItem.setImage(0, DBeaverIcons.getImage(icon));
             }
-            try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
-            } catch (DBException e) {
-                log.error(e);
-            }
+            funcItems[i] = funcItem;
         }
+        return funcItems;
+    }
 
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
-            for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element)) {
-                    funcCount[i]++;
-                }
-            }
+    private void showResults(AggregateValuesJob job, TreeItem[] funcItems, Object[] results, boolean complete) {
+        if (aggregateTable.isDisposed() || (aggregateJob != null && job != aggregateJob)) {
+            // Results of cancelled job
+            return;
         }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
-                continue;
+        for (int i = 0; i < funcItems.length; i++) {
+            if (funcItems[i].isDisposed()) {
+                return;
             }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
-            if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
-                String strValue;
-                if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
-                    strValue = DOUBLE_FORMAT.format(result);
-                } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
-                    strValue = INTEGER_FORMAT.format(result);
-                } else {
-                    strValue = result.toString();
-                }
-                treeItem.setText(1, strValue);
+            Object result = results[i];
+            String strValue;
+            if (result == null) {
+                strValue = "";
+            } else if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
+                strValue = DOUBLE_FORMAT.format(result);
+            } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
+                strValue = INTEGER_FORMAT.format(result);
+            } else {
+                strValue = result.toString();
             }
+            if (!complete && !strValue.isEmpty()) {
+                // Intermediate result
+                strValue += " ...";
+            }
+            funcItems[i].setText(1, strValue);
+        }
+        if (complete) {
+            UIUtils.packColumns(aggregateTable, true, null);
+        }
+    }
+
+    private void cancelAggregateJob() {
+        if (aggregateJob != null) {
+            aggregateJob.cancel();
+            aggregateJob = null;
         }
     }
 
     public void clearValue()
     {
+        cancelAggregateJob();
         aggregateTable.removeAll();
     }
 
@@ -0,0 +1,247 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.panel.aggregate;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.aggregate.FunctionNumeric;
+import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunctionMergeable;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetModel;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Evaluates aggregate functions for selected cells.
+ *
+ * Cells are split into blocks which are accumulated in parallel, each block with its own function instances.
+ * Block states are merged in the original cell order, intermediate results are reported after block merge.
+ * Functions which do not support merge are accumulated sequentially.
+ */
+class AggregateValuesJob extends AbstractJob {
+
+    private static final Log log = Log.getLog(AggregateValuesJob.class);
+
+    static final int BLOCK_SIZE = 50000;
+    private static final long REPORT_INTERVAL = 300;
+
+    /**
+     * Cells aggregated together (all selected cells or cells of one column)
+     */
+    static class CellGroup {
+        private final List<DBDAttributeBinding> attributes = new ArrayList<>();
+        private final List<ResultSetRow> rows = new ArrayList<>();
+
+        void addCell(DBDAttributeBinding attribute, ResultSetRow row) {
+            attributes.add(attribute);
+            rows.add(row);
+        }
+
+        int size() {
+            return rows.size();
+        }
+    }
+
+    interface ResultsListener {
+        /**
+         * Reports function results for the cell group. Result is null if function has no values.
+         */
+        void onResults(AggregateValuesJob job, int groupIndex, Object[] results, boolean complete);
+    }
+
+    private final ResultSetModel model;
+    private final List<AggregateFunctionDescriptor> functions;
+    private final List<CellGroup> groups;
+    private final ResultsListener listener;
+
+    AggregateValuesJob(ResultSetModel model, List<AggregateFunctionDescriptor> functions, List<CellGroup> groups, ResultsListener listener) {
+        super("Aggregate values");
+        setSystem(true);
+        setUser(false);
+        this.model = model;
+        this.functions = new ArrayList<>(functions);
+        this.groups = groups;
+        this.listener = listener;
+    }
+
+    @Override
+    protected IStatus run(DBRProgressMonitor monitor) {
+        for (int i = 0; i < groups.size(); i++) {
+            if (!aggregateGroup(monitor, i)) {
+                return Status.CANCEL_STATUS;
+            }
+        }
+        return Status.OK_STATUS;
+    }
+
+    private boolean aggregateGroup(DBRProgressMonitor monitor, int groupIndex) {
+        CellGroup group = groups.get(groupIndex);
+        FunctionsState total = new FunctionsState(true);
+        int blockCount = (group.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        boolean parallel = blockCount > 1;
+        List<ForkJoinTask<FunctionsState>> blockTasks = new ArrayList<>(blockCount);
+        if (parallel) {
+            for (int i = 0; i < blockCount; i++) {
+                final int fromIndex = i * BLOCK_SIZE;
+                final int toIndex = Math.min(fromIndex + BLOCK_SIZE, group.size());
+                blockTasks.add(ForkJoinPool.commonPool().submit(() -> {
+                    FunctionsState blockState = new FunctionsState(false);
+                    blockState.accumulate(monitor, group, fromIndex, toIndex);
+                    return blockState;
+                }));
+            }
+        }
+        try {
+            long lastReportTime = System.currentTimeMillis();
+            for (int i = 0; i < blockCount; i++) {
+                int fromIndex = i * BLOCK_SIZE;
+                int toIndex = Math.min(fromIndex + BLOCK_SIZE, group.size());
+                if (parallel) {
+                    total.merge(blockTasks.get(i).join());
+                    total.accumulateSequential(monitor, group, fromIndex, toIndex);
+                } else {
+                    total.accumulate(monitor, group, fromIndex, toIndex);
+                }
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                if (i < blockCount - 1 && System.currentTimeMillis() - lastReportTime >= REPORT_INTERVAL) {
+                    listener.onResults(this, groupIndex, total.getResults(), false);
+                    lastReportTime = System.currentTimeMillis();
+                }
+            }
+        } finally {
+            for (ForkJoinTask<FunctionsState> task : blockTasks) {
+                task.cancel(false);
+            }
+        }
+        listener.onResults(this, groupIndex, total.getResults(), true);
+        return true;
+    }
+
+    /**
+     * Function instances and value counts.
+     * Block states contain only mergeable functions, total state contains all functions.
+     */
+    private class FunctionsState {
+        private final IAggregateFunction[] funcs;
+        private final boolean[] sequential;
+        private final int[] counts;
+
+        FunctionsState(boolean total) {
+            funcs = new IAggregateFunction[functions.size()];
+            sequential = new boolean[funcs.length];
+            counts = new int[funcs.length];
+            for (int i = 0; i < funcs.length; i++) {
+                try {
+                    IAggregateFunction func = functions.get(i).createFunction();
+                    boolean mergeable = func instanceof IAggregateFunctionMergeable;
+                    if (total || mergeable) {
+                        funcs[i] = func;
+                        sequential[i] = !mergeable;
+                    }
+                } catch (DBException e) {
+                    if (total) {
+                        log.error(e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Accumulates all functions
+         */
+        void accumulate(DBRProgressMonitor monitor, CellGroup group, int fromIndex, int toIndex) {
+            accumulate(monitor, group, fromIndex, toIndex, false);
+        }
+
+        /**
+         * Accumulates functions which do not support merge
+         */
+        void accumulateSequential(DBRProgressMonitor monitor, CellGroup group, int fromIndex, int toIndex) {
+            for (boolean seq : sequential) {
+                if (seq) {
+                    accumulate(monitor, group, fromIndex, toIndex, true);
+                    break;
+                }
+            }
+        }
+
+        private void accumulate(DBRProgressMonitor monitor, CellGroup group, int fromIndex, int toIndex, boolean sequentialOnly) {
+            for (int cell = fromIndex; cell < toIndex; cell++) {
+                if ((cell & 0xFFF) == 0 && monitor.isCanceled()) {
+                    return;
+                }
+                DBDAttributeBinding attr = group.attributes.get(cell);
+                Object value = model.getCellValue(attr, group.rows.get(cell));
+                // Numeric column values are passed to numeric functions as is, without conversion checks
+                boolean numeric = value instanceof Number && attr.getDataKind() == DBPDataKind.NUMERIC;
+                double numValue = numeric ? ((Number) value).doubleValue() : 0.0;
+                for (int i = 0; i < funcs.length; i++) {
+                    IAggregateFunction func = funcs[i];
+                    if (func == null || (sequentialOnly && !sequential[i])) {
+                        continue;
+                    }
+                    boolean accumulated;
+                    if (numeric && func instanceof FunctionNumeric) {
+                        accumulated = ((FunctionNumeric) func).accumulateDouble(numValue);
+                    } else {
+                        accumulated = func.accumulate(value);
+                    }
+                    if (accumulated) {
+                        counts[i]++;
+                    }
+                }
+            }
+        }
+
+        void merge(FunctionsState blockState) {
+            for (int i = 0; i < funcs.length; i++) {
+                if (funcs[i] instanceof IAggregateFunctionMergeable && blockState.funcs[i] != null) {
+                    ((IAggregateFunctionMergeable) funcs[i]).merge(blockState.funcs[i]);
+                    counts[i] += blockState.counts[i];
+                }
+            }
+        }
+
+        Object[] getResults() {
+            Object[] results = new Object[funcs.length];
+            for (int i = 0; i < funcs.length; i++) {
+                if (funcs[i] != null && counts[i] > 0) {
+                    try {
+                        results[i] = funcs[i].getResult(counts[i]);
+                    } catch (Exception e) {
+                        log.debug("Error evaluating aggregate function result", e);
+                    }
+                }
+            }
+            return results;
+        }
+    }
+
+}
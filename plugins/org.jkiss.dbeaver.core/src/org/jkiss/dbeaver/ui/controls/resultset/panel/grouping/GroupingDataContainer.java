@@ -22,6 +22,8 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.local.LocalResultSet;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
@@ -35,6 +37,7 @@ public class GroupingDataContainer implements DBSDataContainer {
 
     private IResultSetController parentController;
     private String query;
+    private GroupingLocalResults localResults;
 
     public GroupingDataContainer(IResultSetController parentController) {
         this.parentController = parentController;
@@ -67,6 +70,10 @@ public class GroupingDataContainer implements DBSDataContainer {
 
     @Override
     public DBCStatistics readData(DBCExecutionSource source, DBCSession session, DBDDataReceiver dataReceiver, DBDDataFilter dataFilter, long firstRow, long maxRows, long flags) throws DBCException {
+        if (localResults != null && (dataFilter == null || (!dataFilter.hasFilters() && !dataFilter.hasOrdering()))) {
+            // Column ordering is applied by the query, so only unordered results are read locally
+            return readLocalData(session, dataReceiver, firstRow, maxRows);
+        }
         DBCStatistics statistics = new DBCStatistics();
         boolean hasLimits = firstRow >= 0 && maxRows > 0;
 
@@ -127,6 +134,45 @@ public class GroupingDataContainer implements DBSDataContainer {
         }
     }
 
+    /**
+     * Groups already fetched rows of the source result set instead of query execution
+     */
+    private DBCStatistics readLocalData(DBCSession session, DBDDataReceiver dataReceiver, long firstRow, long maxRows) throws DBCException {
+        DBCStatistics statistics = new DBCStatistics();
+        statistics.setQueryText(query);
+
+        long startTime = System.currentTimeMillis();
+        LocalResultSet<LocalStatement> dbResult = localResults.groupRows(session, query);
+        statistics.setExecuteTime(System.currentTimeMillis() - startTime);
+        try {
+            dataReceiver.fetchStart(session, dbResult, firstRow, maxRows);
+
+            startTime = System.currentTimeMillis();
+            long rowCount = 0;
+            if (firstRow > 0 && !dbResult.moveTo((int) firstRow - 1)) {
+                return statistics;
+            }
+            while (dbResult.nextRow()) {
+                if (maxRows > 0 && rowCount >= maxRows) {
+                    break;
+                }
+                dataReceiver.fetchRow(session, dbResult);
+                rowCount++;
+            }
+            statistics.setFetchTime(System.currentTimeMillis() - startTime);
+            statistics.setRowsFetched(rowCount);
+            return statistics;
+        } finally {
+            try {
+                dataReceiver.fetchEnd(session, dbResult);
+            } catch (Throwable e) {
+                log.error("Error while finishing result set fetch", e); //$NON-NLS-1$
+            }
+            dbResult.close();
+            dataReceiver.close();
+        }
+    }
+
     @Override
     public long countData(DBCExecutionSource source, DBCSession session, DBDDataFilter dataFilter, long flags) throws DBCException {
         return 0;
@@ -140,4 +186,11 @@ public class GroupingDataContainer implements DBSDataContainer {
     public void setGroupingQuery(String sql) {
         this.query = sql;
     }
+
+    /**
+     * Sets local grouping of source rows. If set then grouping query is not executed.
+     */
+    void setLocalResults(GroupingLocalResults localResults) {
+        this.localResults = localResults;
+    }
 }
@@ -0,0 +1,333 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.panel.grouping;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.aggregate.*;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalResultSet;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetModel;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Groups fetched rows of the source result set (hash aggregation).
+ * Used instead of grouping query when source results are fully fetched.
+ * Supports COUNT, SUM, AVG, MIN and MAX functions (COUNT(DISTINCT) too) over source columns.
+ * SUM and AVG are evaluated only for numeric columns, integer and decimal values are summed exactly
+ * (like in the database).
+ */
+class GroupingLocalResults {
+
+    private static final Pattern FUNCTION_PATTERN = Pattern.compile(
+        "(COUNT|SUM|AVG|MIN|MAX)\\s*\\(\\s*(DISTINCT\\s+)?(.+?)\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+    private enum FunctionType {
+        COUNT,
+        SUM,
+        AVG,
+        MIN,
+        MAX
+    }
+
+    private static class FunctionInfo {
+        private final String label;
+        private final FunctionType type;
+        private final boolean distinct;
+        // Null for COUNT(*)
+        @Nullable
+        private final DBDAttributeBinding argument;
+
+        FunctionInfo(String label, FunctionType type, boolean distinct, @Nullable DBDAttributeBinding argument) {
+            this.label = label;
+            this.type = type;
+            this.distinct = distinct;
+            this.argument = argument;
+        }
+
+        IAggregateFunction createFunction() {
+            switch (type) {
+                case SUM: return new NumericAggregate(false);
+                case AVG: return new NumericAggregate(true);
+                case MIN: return new FunctionMin();
+                case MAX: return new FunctionMax();
+                default: return new FunctionCount();
+            }
+        }
+    }
+
+    /**
+     * Exact SUM/AVG. Integers are summed as long (as decimal after overflow), decimals as BigDecimal.
+     * Floating point values make result floating point.
+     */
+    private static class NumericAggregate implements IAggregateFunction {
+        private final boolean average;
+        private long longSum;
+        // Used after long overflow or for decimal values
+        @Nullable
+        private BigDecimal decimalSum;
+        private double doubleSum;
+        private boolean hasDouble;
+
+        NumericAggregate(boolean average) {
+            this.average = average;
+        }
+
+        @Override
+        public boolean accumulate(Object value) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                long longValue = ((Number) value).longValue();
+                if (decimalSum == null) {
+                    try {
+                        longSum = Math.addExact(longSum, longValue);
+                        return true;
+                    } catch (ArithmeticException e) {
+                        decimalSum = BigDecimal.valueOf(longSum);
+                    }
+                }
+                decimalSum = decimalSum.add(BigDecimal.valueOf(longValue));
+            } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+                BigDecimal decimalValue = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal((BigInteger) value);
+                decimalSum = (decimalSum == null ? BigDecimal.valueOf(longSum) : decimalSum).add(decimalValue);
+            } else if (value instanceof Double || value instanceof Float) {
+                doubleSum += ((Number) value).doubleValue();
+                hasDouble = true;
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Object getResult(int valueCount) {
+            if (hasDouble) {
+                double total = doubleSum + (decimalSum != null ? decimalSum.doubleValue() : longSum);
+                return average ? total / valueCount : total;
+            }
+            if (!average) {
+                return decimalSum != null ? decimalSum : (Object) longSum;
+            }
+            BigDecimal total = decimalSum != null ? decimalSum : BigDecimal.valueOf(longSum);
+            return total.divide(BigDecimal.valueOf(valueCount), MathContext.DECIMAL128);
+        }
+    }
+
+    private static class GroupState {
+        private final Object[] groupValues;
+        private final IAggregateFunction[] functions;
+        private final int[] counts;
+        private final Set<Object>[] distinctValues;
+
+        @SuppressWarnings("unchecked")
+        GroupState(Object[] groupValues, List<FunctionInfo> functionInfos) {
+            this.groupValues = groupValues;
+            this.functions = new IAggregateFunction[functionInfos.size()];
+            this.counts = new int[functions.length];
+            this.distinctValues = new Set[functions.length];
+            for (int i = 0; i < functions.length; i++) {
+                FunctionInfo info = functionInfos.get(i);
+                if (info.distinct) {
+                    distinctValues[i] = new HashSet<>();
+                } else {
+                    functions[i] = info.createFunction();
+                }
+            }
+        }
+    }
+
+    private final ResultSetModel model;
+    private final List<String> groupLabels;
+    private final List<DBDAttributeBinding> groupAttributes;
+    private final List<FunctionInfo> functions;
+    private final boolean totals;
+
+    private GroupingLocalResults(ResultSetModel model, List<String> groupLabels, List<DBDAttributeBinding> groupAttributes, List<FunctionInfo> functions, boolean totals) {
+        this.model = model;
+        this.groupLabels = groupLabels;
+        this.groupAttributes = groupAttributes;
+        this.functions = functions;
+        this.totals = totals;
+    }
+
+    /**
+     * Creates local grouping. Returns null if some group column or function can't be evaluated locally.
+     * @param attributeResolver finds source attribute by name
+     */
+    @Nullable
+    static GroupingLocalResults create(
+        @NotNull ResultSetModel model,
+        @NotNull List<String> groupAttributes,
+        @NotNull List<String> groupFunctions,
+        boolean totals,
+        @NotNull Function<String, DBDAttributeBinding> attributeResolver)
+    {
+        List<DBDAttributeBinding> bindings = new ArrayList<>();
+        for (String attrName : groupAttributes) {
+            DBDAttributeBinding binding = attributeResolver.apply(attrName);
+            if (binding == null) {
+                return null;
+            }
+            bindings.add(binding);
+        }
+        List<FunctionInfo> functions = new ArrayList<>();
+        for (String func : groupFunctions) {
+            Matcher matcher = FUNCTION_PATTERN.matcher(func.trim());
+            if (!matcher.matches()) {
+                return null;
+            }
+            FunctionType type = FunctionType.valueOf(matcher.group(1).toUpperCase(Locale.ENGLISH));
+            boolean distinct = matcher.group(2) != null;
+            String argName = matcher.group(3);
+            DBDAttributeBinding argument = null;
+            if (argName.equals("*")) {
+                if (type != FunctionType.COUNT || distinct) {
+                    return null;
+                }
+            } else {
+                argument = attributeResolver.apply(argName);
+                if (argument == null || (distinct && type != FunctionType.COUNT)) {
+                    return null;
+                }
+                if ((type == FunctionType.SUM || type == FunctionType.AVG) && argument.getDataKind() != DBPDataKind.NUMERIC) {
+                    // Database decides how to sum other types (or fails)
+                    return null;
+                }
+            }
+            functions.add(new FunctionInfo(func, type, distinct, argument));
+        }
+        return new GroupingLocalResults(model, groupAttributes, bindings, functions, totals);
+    }
+
+    @NotNull
+    LocalResultSet<LocalStatement> groupRows(@NotNull DBCSession session, @NotNull String queryText) {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        int groupCount = groupAttributes.size();
+        // Level 0 is for all group columns. With totals each next level rolls up one more column.
+        int levelCount = totals ? groupCount + 1 : 1;
+        List<Map<List<Object>, GroupState>> levels = new ArrayList<>(levelCount);
+        for (int i = 0; i < levelCount; i++) {
+            levels.add(new LinkedHashMap<>());
+        }
+
+        Object[] values = new Object[groupCount];
+        Object[] keyValues = new Object[groupCount];
+        List<ResultSetRow> rows = model.getAllRows();
+        for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+            if ((rowIndex & 0xFFF) == 0 && monitor.isCanceled()) {
+                break;
+            }
+            ResultSetRow row = rows.get(rowIndex);
+            if (row.getState() != ResultSetRow.STATE_NORMAL || row.isChanged()) {
+                // Unsaved rows are not in the database
+                continue;
+            }
+            for (int i = 0; i < groupCount; i++) {
+                Object value = model.getCellValue(groupAttributes.get(i), row);
+                values[i] = DBUtils.isNullValue(value) ? null : value;
+                keyValues[i] = getKeyValue(value);
+            }
+            for (int level = 0; level < levelCount; level++) {
+                int keySize = groupCount - level;
+                List<Object> key = Arrays.asList(Arrays.copyOf(keyValues, keySize));
+                GroupState group = levels.get(level).get(key);
+                if (group == null) {
+                    Object[] groupValues = Arrays.copyOf(values, groupCount);
+                    Arrays.fill(groupValues, keySize, groupCount, null);
+                    group = new GroupState(groupValues, functions);
+                    levels.get(level).put(key, group);
+                }
+                accumulate(group, row);
+            }
+        }
+
+        LocalStatement statement = new LocalStatement(session, queryText);
+        LocalResultSet<LocalStatement> resultSet = new LocalResultSet<>(session, statement);
+        for (int i = 0; i < groupCount; i++) {
+            resultSet.addColumn(groupLabels.get(i), groupAttributes.get(i));
+        }
+        for (FunctionInfo func : functions) {
+            if ((func.type == FunctionType.MIN || func.type == FunctionType.MAX) && func.argument != null) {
+                resultSet.addColumn(func.label, func.argument);
+            } else {
+                resultSet.addColumn(func.label, DBPDataKind.NUMERIC);
+            }
+        }
+        for (Map<List<Object>, GroupState> level : levels) {
+            for (GroupState group : level.values()) {
+                Object[] resultRow = Arrays.copyOf(group.groupValues, groupCount + functions.size());
+                for (int i = 0; i < functions.size(); i++) {
+                    if (group.distinctValues[i] != null) {
+                        resultRow[groupCount + i] = group.distinctValues[i].size();
+                    } else if (functions.get(i).type == FunctionType.COUNT) {
+                        resultRow[groupCount + i] = group.counts[i];
+                    } else if (group.counts[i] > 0) {
+                        resultRow[groupCount + i] = group.functions[i].getResult(group.counts[i]);
+                    }
+                }
+                resultSet.addRow(resultRow);
+            }
+        }
+        return resultSet;
+    }
+
+    private void accumulate(GroupState group, ResultSetRow row) {
+        for (int i = 0; i < functions.size(); i++) {
+            FunctionInfo func = functions.get(i);
+            if (func.argument == null) {
+                // COUNT(*)
+                group.counts[i]++;
+                continue;
+            }
+            Object value = model.getCellValue(func.argument, row);
+            // Nulls are ignored by all aggregate functions
+            if (DBUtils.isNullValue(value)) {
+                continue;
+            }
+            if (group.distinctValues[i] != null) {
+                group.distinctValues[i].add(getKeyValue(value));
+            } else if (func.type == FunctionType.COUNT || group.functions[i].accumulate(value)) {
+                group.counts[i]++;
+            }
+        }
+    }
+
+    private static Object getKeyValue(Object value) {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        if (value instanceof byte[]) {
+            // Arrays do not implement equals
+            return ByteBuffer.wrap((byte[]) value);
+        }
+        return value;
+    }
+
+}
@@ -153,6 +153,8 @@ public class GroupingPanel implements IResultSetPanel {
         contributionManager.add(new Separator());
         contributionManager.add(new DeleteColumnAction(resultsContainer));
         contributionManager.add(new ClearGroupingAction(resultsContainer));
+        contributionManager.add(new Separator());
+        contributionManager.add(new ShowTotalsAction(resultsContainer));
     }
 
     abstract static class GroupingAction extends Action {
@@ -162,6 +164,12 @@ public class GroupingPanel implements IResultSetPanel {
             super(text, image);
             this.resultsContainer = resultsContainer;
         }
+
+        public GroupingAction(GroupingResultsContainer resultsContainer, String text, ImageDescriptor image, int style) {
+            super(text, style);
+            setImageDescriptor(image);
+            this.resultsContainer = resultsContainer;
+        }
     }
 
     static class EditColumnsAction extends GroupingAction {
@@ -208,6 +216,32 @@ public class GroupingPanel implements IResultSetPanel {
         }
     }
 
+    static class ShowTotalsAction extends GroupingAction {
+        public ShowTotalsAction(GroupingResultsContainer resultsContainer) {
+            super(resultsContainer, CoreMessages.controls_resultset_grouping_show_totals, DBeaverIcons.getImageDescriptor(UIIcon.PANEL_AGGREGATE), AS_CHECK_BOX);
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return resultsContainer.isTotalsSupported();
+        }
+
+        @Override
+        public boolean isChecked() {
+            return resultsContainer.isShowTotals();
+        }
+
+        @Override
+        public void run() {
+            resultsContainer.setShowTotals(!resultsContainer.isShowTotals());
+            try {
+                resultsContainer.rebuildGrouping();
+            } catch (DBException e) {
+                DBUserInterface.getInstance().showError("Grouping error", "Can't change grouping query", e);
+            }
+        }
+    }
+
     static class ClearGroupingAction extends GroupingAction {
         public ClearGroupingAction(GroupingResultsContainer resultsContainer) {
             super(resultsContainer, CoreMessages.controls_resultset_grouping_clear, UIUtils.getShardImageDescriptor(ISharedImages.IMG_ETOOL_CLEAR));
@@ -17,14 +17,18 @@
 package org.jkiss.dbeaver.ui.controls.resultset.panel.grouping;
 
 import org.eclipse.swt.widgets.Composite;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBCStatistics;
 import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.ui.controls.resultset.*;
 import org.jkiss.dbeaver.ui.controls.resultset.view.EmptyPresentation;
@@ -44,6 +48,10 @@ public class GroupingResultsContainer implements IResultSetContainer {
     private ResultSetViewer groupingViewer;
     private List<String> groupAttributes = new ArrayList<>();
     private List<String> groupFunctions = new ArrayList<>();
+    private boolean showTotals;
+    // Last executed grouping query and the first source row at that moment
+    private String lastGroupingQuery;
+    private ResultSetRow lastSourceRow;
 
     public GroupingResultsContainer(Composite parent, IResultSetPresentation presentation) {
         this.presentation = presentation;
@@ -71,6 +79,22 @@ public class GroupingResultsContainer implements IResultSetContainer {
         return groupFunctions;
     }
 
+    public boolean isShowTotals() {
+        return showTotals;
+    }
+
+    public void setShowTotals(boolean showTotals) {
+        this.showTotals = showTotals;
+    }
+
+    /**
+     * Totals are calculated by GROUP BY ROLLUP or locally when all source rows are fetched
+     */
+    public boolean isTotalsSupported() {
+        return SQLUtils.getDialectFromDataSource(getDataContainer().getDataSource()).supportsGroupingSets() ||
+            !presentation.getController().isHasMoreData();
+    }
+
     @Override
     public DBCExecutionContext getExecutionContext() {
         return presentation.getController().getExecutionContext();
@@ -161,6 +185,9 @@ public class GroupingResultsContainer implements IResultSetContainer {
         groupingViewer.resetDataFilter(false);
         groupingViewer.resetHistory();
         dataContainer.setGroupingQuery(null);
+        dataContainer.setLocalResults(null);
+        lastGroupingQuery = null;
+        lastSourceRow = null;
         if (!(groupingViewer.getActivePresentation() instanceof EmptyPresentation)) {
             groupingViewer.setEmptyPresentation();
         }
@@ -185,6 +212,13 @@ public class GroupingResultsContainer implements IResultSetContainer {
             }
         }
 
+        IResultSetController sourceController = presentation.getController();
+        ResultSetModel sourceModel = sourceController.getModel();
+        // Unsaved changes are not in the database, local grouping would give different results
+        boolean localGrouping = !sourceController.isHasMoreData() && !sourceModel.isDirty();
+        boolean rollup = showTotals && !localGrouping &&
+            SQLUtils.getDialectFromDataSource(getDataContainer().getDataSource()).supportsGroupingSets();
+
         StringBuilder sql = new StringBuilder();
         sql.append("SELECT ");
         for (int i = 0; i < groupAttributes.size(); i++) {
@@ -197,15 +231,50 @@ public class GroupingResultsContainer implements IResultSetContainer {
         sql.append(" FROM (\n");
         sql.append(queryText);
         sql.append(") src\nGROUP BY ");
+        if (rollup) {
+            sql.append("ROLLUP(");
+        }
         for (int i = 0; i < groupAttributes.size(); i++) {
             if (i > 0) sql.append(", ");
             sql.append(groupAttributes.get(i));
         }
+        if (rollup) {
+            sql.append(")");
+        }
+        String groupingQuery = sql.toString();
+
+        // Group fetched rows if there are no more rows on server
+        GroupingLocalResults localResults = !localGrouping ? null : GroupingLocalResults.create(
+            sourceModel,
+            groupAttributes,
+            groupFunctions,
+            showTotals,
+            name -> findSourceAttribute(cleanupObjectName(name)));
+        ResultSetRow sourceRow = sourceModel.getRowCount() == 0 ? null : sourceModel.getRow(0);
+        if (localResults == null && sourceRow != null && sourceRow == lastSourceRow && groupingQuery.equals(lastGroupingQuery)) {
+            // Only the next segment of source rows was read. Grouping query results are the same.
+            return;
+        }
+        lastGroupingQuery = groupingQuery;
+        lastSourceRow = sourceRow;
 
-        dataContainer.setGroupingQuery(sql.toString());
+        dataContainer.setGroupingQuery(groupingQuery);
+        dataContainer.setLocalResults(localResults);
         groupingViewer.refresh();
     }
 
+    @Nullable
+    private DBDAttributeBinding findSourceAttribute(String name) {
+        for (DBDAttributeBinding attr : presentation.getController().getModel().getVisibleAttributes()) {
+            if (name.equalsIgnoreCase(attr.getName()) ||
+                name.equals(cleanupObjectName(attr.getFullyQualifiedName(DBPEvaluationContext.DML))))
+            {
+                return attr;
+            }
+        }
+        return null;
+    }
+
     public void setGrouping(List<String> attributes, List<String> functions) {
         groupAttributes.clear();
         addGroupingAttributes(attributes);
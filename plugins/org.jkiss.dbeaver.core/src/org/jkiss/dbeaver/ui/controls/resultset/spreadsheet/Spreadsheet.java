@@ -332,7 +332,7 @@ public class Spreadsheet extends LightGrid implements Listener {
             GridPos focusPos = getFocusPos();
             presentation.fillContextMenu(
                 manager, focusPos.col >= 0 && focusPos.col < columnElements.length ? columnElements[focusPos.col] : null,
-                focusPos.row >= 0 && focusPos.row < rowElements.length ? rowElements[focusPos.row] : null
+                focusPos.row >= 0 && focusPos.row < getItemCount() ? getRowElement(focusPos.row) : null
             );
         });
         menuMgr.setRemoveAllWhenShown(true);
@@ -373,6 +373,7 @@ public class Spreadsheet extends LightGrid implements Listener {
 
     public void redrawGrid()
     {
+        super.resetCellCache();
         Rectangle bounds = super.getBounds();
         super.redraw(bounds.x, bounds.y, bounds.width, bounds.height, true);
     }
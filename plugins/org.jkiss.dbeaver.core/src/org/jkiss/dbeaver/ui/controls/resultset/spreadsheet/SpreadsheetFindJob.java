@@ -0,0 +1,463 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.spreadsheet;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.ui.controls.lightgrid.GridPos;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds all cells matching search string.
+ *
+ * Rows are split into blocks which are searched in search order, starting from the block of the start position.
+ * So the next match is known as soon as the blocks between start position and the match are searched,
+ * without waiting for the whole grid. Cells are formatted in the job thread (value renderers are not required
+ * to be thread safe), formatted blocks are matched in parallel.
+ * Matches are kept as bit sets (one per column), so repeated find next/previous doesn't search again.
+ *
+ * Column -1 is a row header (attribute name) in record mode.
+ */
+class SpreadsheetFindJob extends AbstractJob {
+
+    private static final int BLOCK_CELLS = 20000;
+    private static final long REPORT_INTERVAL = 200;
+
+    interface FindListener {
+        /**
+         * Called after some blocks were searched and after search end
+         */
+        void onFindProgress(SpreadsheetFindJob job);
+    }
+
+    private final SpreadsheetPresentation presentation;
+    private final FindListener listener;
+    private final Object[] columns;
+    private final Object[] rows;
+    @Nullable
+    private final String[] headers;
+    private final boolean recordMode;
+    private final Pattern pattern;
+    // Search string for plain text search. Null for regex search
+    @Nullable
+    private final String literal;
+    private final boolean caseSensitive;
+    private final boolean wholeWord;
+    private final int startRow;
+    private final boolean forward;
+
+    private final int colOffset;
+    private final int blockRows;
+    private final BitSet[] matches;
+    private int matchCount;
+    // Count of matches in rows before each row. Built after search end
+    private int[] rowMatchOffsets;
+    private boolean complete;
+    private boolean finished;
+
+    SpreadsheetFindJob(
+        @NotNull SpreadsheetPresentation presentation,
+        @NotNull FindListener listener,
+        @NotNull Object[] columns,
+        @NotNull Object[] rows,
+        @Nullable String[] headers,
+        boolean recordMode,
+        @NotNull Pattern pattern,
+        @Nullable String literal,
+        boolean caseSensitive,
+        boolean wholeWord,
+        int startRow,
+        boolean forward)
+    {
+        super("Find in results");
+        setSystem(true);
+        setUser(false);
+        this.presentation = presentation;
+        this.listener = listener;
+        this.columns = columns;
+        this.rows = rows;
+        this.headers = headers;
+        this.recordMode = recordMode;
+        this.pattern = pattern;
+        this.literal = literal;
+        this.caseSensitive = caseSensitive;
+        this.wholeWord = wholeWord;
+        this.startRow = Math.max(0, Math.min(startRow, rows.length - 1));
+        this.forward = forward;
+
+        this.colOffset = headers == null ? 0 : 1;
+        this.matches = new BitSet[columns.length + colOffset];
+        for (int i = 0; i < matches.length; i++) {
+            matches[i] = new BitSet();
+        }
+        this.blockRows = Math.max(1, BLOCK_CELLS / matches.length);
+    }
+
+    @NotNull
+    Pattern getPattern() {
+        return pattern;
+    }
+
+    int getRowCount() {
+        return rows.length;
+    }
+
+    synchronized int getMatchCount() {
+        return matchCount;
+    }
+
+    synchronized boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Search is complete or canceled
+     */
+    synchronized boolean isSearchFinished() {
+        return finished;
+    }
+
+    /**
+     * Checks that results of this job are valid for search from the specified position.
+     * Blocks are merged in search order, so until search is complete matches are contiguous
+     * only from the start block in the job search direction.
+     */
+    synchronized boolean canFindFrom(@NotNull GridPos start, boolean searchForward) {
+        if (complete) {
+            return true;
+        }
+        return searchForward == forward && start.row >= 0 && start.row / blockRows == startRow / blockRows;
+    }
+
+    @Override
+    protected IStatus run(DBRProgressMonitor monitor) {
+        try {
+            return searchBlocks(monitor);
+        } finally {
+            synchronized (this) {
+                finished = true;
+                notifyAll();
+            }
+            listener.onFindProgress(this);
+        }
+    }
+
+    private IStatus searchBlocks(DBRProgressMonitor monitor) {
+        int blockCount = (rows.length + blockRows - 1) / blockRows;
+        int startBlock = startRow / blockRows;
+        int maxPending = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        // Blocks being matched, in search order
+        Deque<BlockTask> pending = new ArrayDeque<>();
+        try {
+            long lastReportTime = System.currentTimeMillis();
+            for (int i = 0; i < blockCount; i++) {
+                // Blocks in search order, with wrap
+                int block = forward ? (startBlock + i) % blockCount : (startBlock - i + blockCount) % blockCount;
+                int fromRow = block * blockRows;
+                String[][] blockTexts = formatBlock(monitor, fromRow, Math.min(fromRow + blockRows, rows.length));
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                pending.add(new BlockTask(fromRow, ForkJoinPool.commonPool().submit(() -> matchBlock(blockTexts))));
+                boolean lastBlock = i == blockCount - 1;
+                while (!pending.isEmpty() && (lastBlock || pending.size() > maxPending || pending.peek().task.isDone())) {
+                    mergeBlock(pending.poll());
+                    if (monitor.isCanceled()) {
+                        return Status.CANCEL_STATUS;
+                    }
+                }
+                if (!lastBlock && System.currentTimeMillis() - lastReportTime >= REPORT_INTERVAL) {
+                    listener.onFindProgress(this);
+                    lastReportTime = System.currentTimeMillis();
+                }
+            }
+        } finally {
+            for (BlockTask blockTask : pending) {
+                blockTask.task.cancel(false);
+            }
+        }
+        synchronized (this) {
+            complete = true;
+        }
+        return Status.OK_STATUS;
+    }
+
+    private static class BlockTask {
+        final int fromRow;
+        final ForkJoinTask<BitSet[]> task;
+
+        BlockTask(int fromRow, ForkJoinTask<BitSet[]> task) {
+            this.fromRow = fromRow;
+            this.task = task;
+        }
+    }
+
+    private String[][] formatBlock(DBRProgressMonitor monitor, int fromRow, int toRow) {
+        String[][] blockTexts = new String[matches.length][toRow - fromRow];
+        for (int row = fromRow; row < toRow; row++) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            for (int col = 0; col < matches.length; col++) {
+                blockTexts[col][row - fromRow] = getCellText(col - colOffset, row);
+            }
+        }
+        return blockTexts;
+    }
+
+    private BitSet[] matchBlock(String[][] blockTexts) {
+        BitSet[] blockMatches = new BitSet[blockTexts.length];
+        for (int col = 0; col < blockTexts.length; col++) {
+            blockMatches[col] = new BitSet();
+            String[] colTexts = blockTexts[col];
+            for (int row = 0; row < colTexts.length; row++) {
+                if (colTexts[row] != null && isMatch(colTexts[row])) {
+                    blockMatches[col].set(row);
+                }
+            }
+        }
+        return blockMatches;
+    }
+
+    private void mergeBlock(BlockTask blockTask) {
+        BitSet[] blockMatches = blockTask.task.join();
+        synchronized (this) {
+            for (int col = 0; col < matches.length; col++) {
+                BitSet colMatches = blockMatches[col];
+                for (int row = colMatches.nextSetBit(0); row >= 0; row = colMatches.nextSetBit(row + 1)) {
+                    matches[col].set(blockTask.fromRow + row);
+                    matchCount++;
+                }
+            }
+            notifyAll();
+        }
+    }
+
+    @Nullable
+    private String getCellText(int col, int row) {
+        if (col < 0) {
+            return headers == null ? null : headers[row];
+        }
+        Object colElement = columns[col], rowElement = rows[row];
+        Object attr = recordMode ? rowElement : colElement;
+        Object resultSetRow = recordMode ? colElement : rowElement;
+        if (!(attr instanceof DBDAttributeBinding) || !(resultSetRow instanceof ResultSetRow)) {
+            return null;
+        }
+        return presentation.getCellDisplayText((DBDAttributeBinding) attr, (ResultSetRow) resultSetRow, recordMode);
+    }
+
+    boolean isMatch(@NotNull String text) {
+        if (literal != null) {
+            if (wholeWord) {
+                return caseSensitive ? text.equals(literal) : text.equalsIgnoreCase(literal);
+            } else if (caseSensitive) {
+                return text.contains(literal);
+            } else {
+                // Avoid lower case copy of each text
+                for (int i = 0, maxIndex = text.length() - literal.length(); i <= maxIndex; i++) {
+                    if (text.regionMatches(true, i, literal, 0, literal.length())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+        Matcher matcher = pattern.matcher(text);
+        return wholeWord ? matcher.matches() : matcher.find();
+    }
+
+    /**
+     * Updates match of the cell after its value was changed
+     */
+    synchronized void updateCell(@NotNull GridPos pos, @NotNull String text) {
+        BitSet colMatches = matches[pos.col + colOffset];
+        boolean matched = isMatch(text);
+        if (colMatches.get(pos.row) != matched) {
+            colMatches.set(pos.row, matched);
+            matchCount += matched ? 1 : -1;
+            rowMatchOffsets = null;
+        }
+    }
+
+    /**
+     * Waits until next match is found or search is finished.
+     * @param timeout max wait time in milliseconds, zero means no limit
+     * @return next match or null if there is no match or it wasn't found in specified time
+     */
+    @Nullable
+    synchronized GridPos waitForNext(@NotNull GridPos start, boolean searchForward, boolean wrap, long timeout) {
+        long endTime = System.currentTimeMillis() + timeout;
+        for (;;) {
+            GridPos next = findNext(start, searchForward, wrap);
+            if (next != null || finished) {
+                return next;
+            }
+            long waitTime = timeout <= 0 ? 0 : endTime - System.currentTimeMillis();
+            if (timeout > 0 && waitTime <= 0) {
+                return null;
+            }
+            try {
+                wait(waitTime);
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Finds next match after the start position.
+     * Returns null if there are no more matches or if the next match is not found yet (search is not complete).
+     */
+    @Nullable
+    synchronized GridPos findNext(@NotNull GridPos start, boolean searchForward, boolean wrap) {
+        int startCol = Math.max(-colOffset, Math.min(start.col, columns.length - 1)) + colOffset;
+        int startRow = start.row;
+        if (rows.length == 0) {
+            return null;
+        }
+        if (startRow < 0 || startRow >= rows.length) {
+            // Search from the first or the last cell
+            startRow = searchForward ? 0 : rows.length - 1;
+            startCol = searchForward ? -1 : matches.length;
+        }
+        if (searchForward) {
+            for (int col = startCol + 1; col < matches.length; col++) {
+                if (matches[col].get(startRow)) {
+                    return makePos(col, startRow);
+                }
+            }
+            int row = nextMatchRow(startRow + 1);
+            if (row >= 0) {
+                return makePos(firstMatchColumn(row, matches.length - 1), row);
+            }
+            if (!wrap || !complete) {
+                return null;
+            }
+            row = nextMatchRow(0);
+            if (row < 0 || row > startRow) {
+                return null;
+            }
+            int col = firstMatchColumn(row, row == startRow ? startCol : matches.length - 1);
+            return col < 0 ? null : makePos(col, row);
+        } else {
+            for (int col = startCol - 1; col >= 0; col--) {
+                if (matches[col].get(startRow)) {
+                    return makePos(col, startRow);
+                }
+            }
+            int row = prevMatchRow(startRow - 1);
+            if (row >= 0) {
+                return makePos(lastMatchColumn(row, 0), row);
+            }
+            if (!wrap || !complete) {
+                return null;
+            }
+            row = prevMatchRow(rows.length - 1);
+            if (row < startRow) {
+                return null;
+            }
+            int col = lastMatchColumn(row, row == startRow ? startCol : 0);
+            return col < 0 ? null : makePos(col, row);
+        }
+    }
+
+    /**
+     * Returns 1-based number of the match in the whole grid or -1 if search is not complete
+     */
+    synchronized int getMatchNumber(@NotNull GridPos pos) {
+        if (!complete || pos.row < 0 || pos.row >= rows.length) {
+            return -1;
+        }
+        if (rowMatchOffsets == null) {
+            rowMatchOffsets = new int[rows.length + 1];
+            for (BitSet colMatches : matches) {
+                for (int row = colMatches.nextSetBit(0); row >= 0; row = colMatches.nextSetBit(row + 1)) {
+                    rowMatchOffsets[row + 1]++;
+                }
+            }
+            for (int row = 0; row < rows.length; row++) {
+                rowMatchOffsets[row + 1] += rowMatchOffsets[row];
+            }
+        }
+        int number = rowMatchOffsets[pos.row];
+        for (int col = 0; col <= pos.col + colOffset && col < matches.length; col++) {
+            if (matches[col].get(pos.row)) {
+                number++;
+            }
+        }
+        return number;
+    }
+
+    private GridPos makePos(int col, int row) {
+        return new GridPos(col - colOffset, row);
+    }
+
+    private int nextMatchRow(int fromRow) {
+        int result = -1;
+        for (BitSet colMatches : matches) {
+            int row = colMatches.nextSetBit(fromRow);
+            if (row >= 0 && (result < 0 || row < result)) {
+                result = row;
+            }
+        }
+        return result;
+    }
+
+    private int prevMatchRow(int fromRow) {
+        int result = -1;
+        if (fromRow < 0) {
+            return result;
+        }
+        for (BitSet colMatches : matches) {
+            result = Math.max(result, colMatches.previousSetBit(fromRow));
+        }
+        return result;
+    }
+
+    private int firstMatchColumn(int row, int maxCol) {
+        for (int col = 0; col <= maxCol; col++) {
+            if (matches[col].get(row)) {
+                return col;
+            }
+        }
+        return -1;
+    }
+
+    private int lastMatchColumn(int row, int minCol) {
+        for (int col = matches.length - 1; col >= minCol; col--) {
+            if (matches[col].get(row)) {
+                return col;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -21,12 +21,16 @@ import org.eclipse.jface.text.IFindReplaceTargetExtension;
 import org.eclipse.jface.text.IFindReplaceTargetExtension3;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Control;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.CoreMessages;
+import org.jkiss.dbeaver.model.DBPMessageType;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.lightgrid.GridCell;
 import org.jkiss.dbeaver.ui.controls.lightgrid.GridPos;
 import org.jkiss.dbeaver.ui.controls.resultset.ResultSetModel;
@@ -34,7 +38,6 @@ import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.Collection;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -46,11 +49,22 @@ class SpreadsheetFindReplaceTarget implements IFindReplaceTarget, IFindReplaceTa
     private static final Log log = Log.getLog(SpreadsheetFindReplaceTarget.class);
 
     private final SpreadsheetPresentation owner;
+    private static final long FIND_WAIT_TIMEOUT = 250;
+
     private Pattern searchPattern;
     private Color scopeHighlightColor;
     private boolean replaceAll;
     private boolean sessionActive = false;
 
+    private SpreadsheetFindJob findJob;
+    private String findJobKey;
+    private int findJobDataVersion;
+    private GridPos lastMatch;
+    // Start position of the search which is still in progress
+    private GridPos pendingStart;
+    private boolean pendingForward;
+    private boolean pendingWrap;
+
     SpreadsheetFindReplaceTarget(SpreadsheetPresentation owner)
     {
         this.owner = owner;
@@ -129,9 +143,11 @@ class SpreadsheetFindReplaceTarget implements IFindReplaceTarget, IFindReplaceTa
     {
         this.sessionActive = false;
         this.searchPattern = null;
+        cancelFindJob();
         Control control = this.owner.getControl();
         if (control != null && !control.isDisposed()) {
             control.redraw();
+            owner.getController().updateStatusMessage();
         }
     }
 
@@ -176,14 +192,13 @@ class SpreadsheetFindReplaceTarget implements IFindReplaceTarget, IFindReplaceTa
     public int findAndSelect(int offset, String findString, boolean searchForward, boolean caseSensitive, boolean wholeWord, boolean regExSearch)
     {
         searchPattern = null;
+        pendingStart = null;
 
         ResultSetModel model = owner.getController().getModel();
         if (model.isEmpty()) {
             return -1;
         }
         Spreadsheet spreadsheet = owner.getSpreadsheet();
-        int rowCount = spreadsheet.getItemCount();
-        int columnCount = spreadsheet.getColumnCount();
         Collection<GridPos> selection = spreadsheet.getSelection();
         GridPos startPosition = selection.isEmpty() ? null : selection.iterator().next();
         if (startPosition == null) {
@@ -201,61 +216,136 @@ class SpreadsheetFindReplaceTarget implements IFindReplaceTarget, IFindReplaceTa
         } else {
             findPattern = Pattern.compile(Pattern.quote(findString), caseSensitive ? 0 : Pattern.CASE_INSENSITIVE);
         }
-        int minColumnNum = owner.getController().isRecordMode() ? -1 : 0;
-        for (GridPos curPosition = new GridPos(startPosition);;) {
-            //Object element = contentProvider.getElement(curPosition);
-            if (searchForward) {
-                curPosition.col++;
-                if (curPosition.col >= columnCount) {
-                    curPosition.col = minColumnNum;
-                    curPosition.row++;
-                }
-            } else {
-                curPosition.col--;
-                if (curPosition.col < minColumnNum) {
-                    curPosition.col = columnCount - 1;
-                    curPosition.row--;
-                }
-            }
-            if (curPosition.row < 0 || curPosition.row >= rowCount) {
-                if (offset == -1) {
-                    // Wrap search - redo search one more time
-                    offset = 0;
-                    if (searchForward) {
-                        curPosition = new GridPos(0, 0);
-                    } else {
-                        curPosition = new GridPos(columnCount - 1, rowCount - 1);
-                    }
-                } else {
-                    // Not found
-                    return -1;
-                }
+
+        boolean recordMode = owner.getController().isRecordMode();
+        String jobKey = findString + ":" + caseSensitive + ":" + wholeWord + ":" + regExSearch + ":" + recordMode;
+        SpreadsheetFindJob job = findJob;
+        if (job == null ||
+            !jobKey.equals(findJobKey) ||
+            !job.canFindFrom(startPosition, searchForward) ||
+            findJobDataVersion != spreadsheet.getDataVersion() ||
+            job.getRowCount() != getSearchRowCount())
+        {
+            // Search results are obsolete - search again
+            cancelFindJob();
+            job = startFindJob(findPattern, regExSearch ? null : findString, caseSensitive, wholeWord, recordMode, startPosition.row, searchForward);
+            findJobKey = jobKey;
+        }
+        searchPattern = findPattern;
+
+        boolean wrap = offset == -1;
+        // Replace all needs definite result on each step
+        GridPos next = job.waitForNext(startPosition, searchForward, wrap, replaceAll ? 0 : FIND_WAIT_TIMEOUT);
+        if (next != null) {
+            selectMatch(job, next);
+            return next.row;
+        }
+        if (job.isSearchFinished()) {
+            // Not found
+            searchPattern = null;
+            return -1;
+        }
+        // Search takes too long. Select match when it will be found
+        pendingStart = startPosition;
+        pendingForward = searchForward;
+        pendingWrap = wrap;
+        updateFindStatus(job);
+        return startPosition.row;
+    }
+
+    private SpreadsheetFindJob startFindJob(Pattern findPattern, String literal, boolean caseSensitive, boolean wholeWord, boolean recordMode, int startRow, boolean searchForward)
+    {
+        Spreadsheet spreadsheet = owner.getSpreadsheet();
+        Object[] columns = new Object[spreadsheet.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = spreadsheet.getColumnElement(i);
+        }
+        Object[] rows = new Object[getSearchRowCount()];
+        String[] headers = recordMode ? new String[rows.length] : null;
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = spreadsheet.getRowElement(i);
+            if (headers != null) {
+                headers[i] = spreadsheet.getLabelProvider().getText(rows[i]);
             }
-            String cellText;
-            if (owner.getController().isRecordMode() && curPosition.col == minColumnNum) {
-                // Header
-                cellText = spreadsheet.getLabelProvider().getText(spreadsheet.getRowElement(curPosition.row));
-            } else {
-                GridCell cell = spreadsheet.posToCell(curPosition);
-                if (cell != null) {
-                    cellText = spreadsheet.getContentProvider().getCellText(cell.col, cell.row);
-                } else {
-                    continue;
-                }
+        }
+        SpreadsheetFindJob job = new SpreadsheetFindJob(
+            owner,
+            finishedJob -> UIUtils.asyncExec(() -> handleFindProgress(finishedJob)),
+            columns, rows, headers, recordMode,
+            findPattern, literal, caseSensitive, wholeWord,
+            startRow, searchForward);
+        findJob = job;
+        findJobDataVersion = spreadsheet.getDataVersion();
+        lastMatch = null;
+        job.schedule();
+        return job;
+    }
+
+    /**
+     * Virtual rows (after the fetched rows) are not searched
+     */
+    private int getSearchRowCount()
+    {
+        Spreadsheet spreadsheet = owner.getSpreadsheet();
+        return spreadsheet.isVirtualRows() ?
+            Math.min(spreadsheet.getItemCount(), owner.getController().getModel().getRowCount()) :
+            spreadsheet.getItemCount();
+    }
+
+    private void cancelFindJob()
+    {
+        if (findJob != null) {
+            findJob.cancel();
+            findJob = null;
+            findJobKey = null;
+        }
+        pendingStart = null;
+        lastMatch = null;
+    }
+
+    private void handleFindProgress(SpreadsheetFindJob job)
+    {
+        if (job != findJob || owner.getSpreadsheet().isDisposed()) {
+            return;
+        }
+        if (pendingStart != null) {
+            GridPos next = job.findNext(pendingStart, pendingForward, pendingWrap);
+            if (next != null) {
+                selectMatch(job, next);
+                return;
             }
-            Matcher matcher = findPattern.matcher(cellText);
-            if (wholeWord ? matcher.matches() : matcher.find()) {
-                if (curPosition.col == minColumnNum) {
-                    curPosition.col = 0;
-                }
-                spreadsheet.setFocusColumn(curPosition.col);
-                spreadsheet.setFocusItem(curPosition.row);
-                spreadsheet.setCellSelection(curPosition);
-                spreadsheet.showSelection();
-                searchPattern = findPattern;
-                return curPosition.row;
+            if (job.isSearchFinished()) {
+                pendingStart = null;
             }
         }
+        updateFindStatus(job);
+    }
+
+    private void selectMatch(SpreadsheetFindJob job, GridPos match)
+    {
+        pendingStart = null;
+        lastMatch = match;
+        // Row header match selects first cell
+        GridPos cellPos = new GridPos(Math.max(match.col, 0), match.row);
+        Spreadsheet spreadsheet = owner.getSpreadsheet();
+        spreadsheet.setFocusColumn(cellPos.col);
+        spreadsheet.setFocusItem(cellPos.row);
+        spreadsheet.setCellSelection(cellPos);
+        spreadsheet.showSelection();
+        updateFindStatus(job);
+    }
+
+    private void updateFindStatus(SpreadsheetFindJob job)
+    {
+        String status;
+        if (!job.isComplete()) {
+            status = NLS.bind(CoreMessages.controls_resultset_viewer_status_find_progress, job.getMatchCount());
+        } else if (job.getMatchCount() == 0 || lastMatch == null) {
+            status = CoreMessages.controls_resultset_viewer_status_find_not_found;
+        } else {
+            status = NLS.bind(CoreMessages.controls_resultset_viewer_status_find_result, job.getMatchNumber(lastMatch), job.getMatchCount());
+        }
+        owner.getController().setStatus(status, DBPMessageType.INFORMATION);
     }
 
     @Override
@@ -279,6 +369,14 @@ class SpreadsheetFindReplaceTarget implements IFindReplaceTarget, IFindReplaceTa
         final DBDAttributeBinding attr = (DBDAttributeBinding)(recordMode ? cell.row : cell.col);
         final ResultSetRow row = (ResultSetRow)(recordMode ? cell.col : cell.row);
         owner.getController().getModel().updateCellValue(attr, row, newValue);
+
+        Spreadsheet spreadsheet = owner.getSpreadsheet();
+        spreadsheet.redrawGrid();
+        if (findJob != null && findJobDataVersion + 1 == spreadsheet.getDataVersion()) {
+            // Only this cell was changed - keep search results
+            findJob.updateCell(selection, spreadsheet.getContentProvider().getCellText(cell.col, cell.row));
+            findJobDataVersion = spreadsheet.getDataVersion();
+        }
         owner.getController().updatePanelsContent(false);
     }
 
@@ -374,7 +374,8 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
         ResultSetRow curRow = controller.getCurrentRow();
         if (!controller.isRecordMode()) {
             changed = curRow != newRow || curAttribute != newCol;
-            if (newRow instanceof ResultSetRow) {
+            if (newRow instanceof ResultSetRow && !ResultSetRowWindow.isWindowRow(newRow)) {
+                // Window rows are read-only and can't be current
                 curRow = (ResultSetRow) newRow;
                 controller.setCurrentRow(curRow);
             }
@@ -762,7 +763,10 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
     public void fillContextMenu(@NotNull IMenuManager manager, @Nullable Object colObject, @Nullable Object rowObject) {
         final DBDAttributeBinding attr = (DBDAttributeBinding)(controller.isRecordMode() ? rowObject : colObject);
-        final ResultSetRow row = (ResultSetRow)(controller.isRecordMode() ? colObject : rowObject);
+        ResultSetRow row = (ResultSetRow)(controller.isRecordMode() ? colObject : rowObject);
+        if (ResultSetRowWindow.isWindowRow(row)) {
+            row = null;
+        }
         controller.fillContextMenu(manager, attr, row);
 
         if (attr != null && row != null) {
@@ -817,7 +821,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
         // The control that will be the editor must be a child of the Table
         DBDAttributeBinding attr = getFocusAttribute();
         ResultSetRow row = getFocusRow();
-        if (attr == null || row == null) {
+        if (attr == null || row == null || ResultSetRowWindow.isWindowRow(row)) {
             return null;
         }
 
@@ -1151,6 +1155,35 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
             (ResultSetRow) spreadsheet.getFocusRowElement();
     }
 
+    /**
+     * Returns the same text as grid cell shows.
+     * Doesn't access grid control so may be called outside of UI thread.
+     */
+    @NotNull
+    String getCellDisplayText(@NotNull DBDAttributeBinding attr, @NotNull ResultSetRow row, boolean recordMode)
+    {
+        Object value = controller.getModel().getCellValue(attr, row);
+        if (value instanceof DBDValueError) {
+            return ((DBDValueError) value).getErrorTitle();
+        }
+        return String.valueOf(formatCellValue(attr, value, recordMode));
+    }
+
+    private static String formatCellValue(@NotNull DBDAttributeBinding attr, @Nullable Object value, boolean recordMode)
+    {
+        if (recordMode) {
+            if (attr.getDataKind() == DBPDataKind.ARRAY && value instanceof DBDCollection) {
+                return "[" + ((DBDCollection) value).getItemCount() + "]";
+            } else if (attr.getDataKind() == DBPDataKind.STRUCT && value instanceof DBDComposite) {
+                return "[" + ((DBDComposite) value).getDataType().getName() + "]";
+            }
+        }
+        return attr.getValueRenderer().getValueDisplayString(
+            attr.getAttribute(),
+            value,
+            DBDDisplayFormat.UI);
+    }
+
     ///////////////////////////////////////////////
     // Selection provider
 
@@ -1326,8 +1359,12 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
                 return Collections.singletonList(currentRow);
             } else {
                 List<ResultSetRow> rows = new ArrayList<>();
+                int rowCount = controller.getModel().getRowCount();
                 for (Integer row : spreadsheet.getRowSelection()) {
-                    rows.add(controller.getModel().getRow(row));
+                    if (row < rowCount) {
+                        // Skip window rows
+                        rows.add(controller.getModel().getRow(row));
+                    }
                 }
                 rows.sort(Comparator.comparingInt(ResultSetRow::getVisualNumber));
                 return rows;
@@ -1350,7 +1387,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
         }
     }
 
-    private class ContentProvider implements IGridContentProvider {
+    private class ContentProvider implements IGridVirtualContentProvider {
 
         @NotNull
         @Override
@@ -1379,6 +1416,59 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
             }
         }
 
+        @Override
+        public int getVirtualRowCount() {
+            ResultSetRowWindow rowWindow = controller.getModel().getRowWindow();
+            if (controller.isRecordMode() || rowWindow == null) {
+                return -1;
+            }
+            return controller.getModel().getRowCount() + rowWindow.getRowCount();
+        }
+
+        @NotNull
+        @Override
+        public Object getVirtualRowElement(int index) {
+            ResultSetModel model = controller.getModel();
+            int modelRowCount = model.getRowCount();
+            ResultSetRowWindow rowWindow = model.getRowWindow();
+            if (index < modelRowCount || rowWindow == null) {
+                // Window may be closed before grid refresh
+                return model.getRow(Math.min(index, modelRowCount - 1));
+            }
+            return rowWindow.getRow(index - modelRowCount);
+        }
+
+        @Override
+        public int getVirtualRowIndex(@NotNull Object element) {
+            ResultSetModel model = controller.getModel();
+            ResultSetRowWindow rowWindow = model.getRowWindow();
+            if (ResultSetRowWindow.isWindowRow(element)) {
+                int index = rowWindow == null ? -1 : rowWindow.getRowIndex(element);
+                return index < 0 ? -1 : model.getRowCount() + index;
+            }
+            ResultSetRow row = (ResultSetRow) element;
+            int index = row.getVisualNumber();
+            if (index >= 0 && index < model.getRowCount() && model.getRow(index) == row) {
+                return index;
+            }
+            return model.getAllRows().indexOf(row);
+        }
+
+        @Override
+        public void prepareVirtualRows(int fromIndex, int toIndex) {
+            ResultSetModel model = controller.getModel();
+            ResultSetRowWindow rowWindow = model.getRowWindow();
+            if (rowWindow != null && toIndex >= model.getRowCount()) {
+                rowWindow.prepareRows(fromIndex - model.getRowCount(), toIndex - model.getRowCount());
+            }
+        }
+
+        @Override
+        public int getSelectableRowCount() {
+            // Window rows are not part of the model
+            return controller.getModel().getRowCount();
+        }
+
         @Nullable
         @Override
         public Object[] getChildren(Object element) {
@@ -1523,6 +1613,10 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
         {
             DBDAttributeBinding attr = (DBDAttributeBinding)(rowElement instanceof DBDAttributeBinding ? rowElement : colElement);
             ResultSetRow row = (ResultSetRow)(colElement instanceof ResultSetRow ? colElement : rowElement);
+            if (!ResultSetRowWindow.isLoaded(row)) {
+                // Row is being read
+                return formatString ? "" : null;
+            }
             int rowNum = row.getVisualNumber();
             Object value = controller.getModel().getCellValue(attr, row);
 
@@ -1539,17 +1633,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
                 return ((DBDValueError) value).getErrorTitle();
             }
             if (formatString) {
-                if (recordMode) {
-                    if (attr.getDataKind() == DBPDataKind.ARRAY && value instanceof DBDCollection) {
-                        return "[" + ((DBDCollection) value).getItemCount() + "]";
-                    } else if (attr.getDataKind() == DBPDataKind.STRUCT && value instanceof DBDComposite) {
-                        return "[" + ((DBDComposite) value).getDataType().getName() + "]";
-                    }
-                }
-                return attr.getValueRenderer().getValueDisplayString(
-                    attr.getAttribute(),
-                    value,
-                    DBDDisplayFormat.UI);
+                return formatCellValue(attr, value, recordMode);
             } else {
                 return value;
             }
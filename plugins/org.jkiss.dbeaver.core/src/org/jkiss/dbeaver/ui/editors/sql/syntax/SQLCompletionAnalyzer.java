@@ -20,9 +20,13 @@ import org.eclipse.swt.graphics.Image;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.core.DBeaverCore;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
 import org.jkiss.dbeaver.model.impl.struct.RelationalObjectType;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNNameIndex;
 import org.jkiss.dbeaver.model.navigator.DBNNode;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -34,6 +38,7 @@ import org.jkiss.dbeaver.ui.TextUtils;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorBase;
 import org.jkiss.dbeaver.ui.editors.sql.SQLPreferenceConstants;
 import org.jkiss.dbeaver.ui.navigator.NavigatorUtils;
+import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
@@ -49,6 +54,9 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
     private static final Log log = Log.getLog(SQLCompletionAnalyzer.class);
 
     private static final String MATCH_ANY_PATTERN = "%";
+    private static final int MAX_ASSISTANT_PROPOSALS = 100;
+    // Name index lookup is cheap so we read more candidates to pick the best matched ones
+    private static final int MAX_INDEX_CANDIDATES = 1000;
 
     static class CompletionRequest {
         final SQLEditorBase editor;
@@ -299,6 +307,10 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
                         // Search using structure assistant
                         DBSStructureAssistant structureAssistant = DBUtils.getAdapter(DBSStructureAssistant.class, sc);
                         if (structureAssistant != null) {
+                            // Try loaded metadata first
+                            childObject = findObjectInNameIndex(dataSource, structureAssistant.getAutoCompleteObjectTypes(), token, selectedContainers);
+                        }
+                        if (childObject == null && structureAssistant != null) {
                             Collection<DBSObjectReference> references = structureAssistant.findObjectsByMask(
                                 monitor,
                                 null,
@@ -550,15 +562,30 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
             DBSObjectType[] objectTypes,
             String objectName) throws DBException
     {
+        if (objectTypes == null) {
+            objectTypes = assistant.getAutoCompleteObjectTypes();
+        }
+        final boolean globalSearch = dataSource.getContainer().getPreferenceStore().getBoolean(SQLPreferenceConstants.USE_GLOBAL_ASSISTANT);
+        final Set<String> indexedNames = new HashSet<>();
+        if (makeProposalsFromNameIndex(dataSource, rootSC, objectTypes, objectName, indexedNames) &&
+            !globalSearch && rootSC != null && isContainerLoaded(rootSC))
+        {
+            // All objects of the container are loaded, do not query database
+            return;
+        }
         Collection<DBSObjectReference> references = assistant.findObjectsByMask(
             monitor,
             rootSC,
-            objectTypes == null ? assistant.getAutoCompleteObjectTypes() : objectTypes,
+            objectTypes,
             makeObjectNameMask(dataSource, request.wordDetector.removeQuotes(objectName)),
             request.wordDetector.isQuoted(objectName),
-            dataSource.getContainer().getPreferenceStore().getBoolean(SQLPreferenceConstants.USE_GLOBAL_ASSISTANT),
-            100);
+            globalSearch,
+            MAX_ASSISTANT_PROPOSALS);
         for (DBSObjectReference reference : references) {
+            if (indexedNames.contains(reference.getFullyQualifiedName(DBPEvaluationContext.DML))) {
+                // Already proposed from the name index
+                continue;
+            }
             request.proposals.add(makeProposalsFromObject(
                 reference,
                 !(rootSC instanceof DBPDataSource),
@@ -566,6 +593,143 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
         }
     }
 
+    /**
+     * Makes proposals from the in-memory index of object names loaded in navigator.
+     * The index may be incomplete so database must be queried too unless container is fully loaded.
+     *
+     * @param proposedNames receives full names of proposed objects
+     * @return true if some proposals were made
+     */
+    private boolean makeProposalsFromNameIndex(
+        DBPDataSource dataSource,
+        @Nullable DBSObjectContainer rootSC,
+        DBSObjectType[] objectTypes,
+        String objectName,
+        Set<String> proposedNames)
+    {
+        final DBNNameIndex nameIndex = DBeaverCore.getInstance().getNavigatorModel().getNameIndex(dataSource.getContainer());
+        final List<Class<?>> typeClasses = getObjectTypeClasses(objectTypes);
+        if (nameIndex == null || typeClasses == null) {
+            return false;
+        }
+        final DBPPreferenceStore prefs = dataSource.getContainer().getPreferenceStore();
+        final String namePart = request.wordDetector.removeQuotes(objectName).toUpperCase(Locale.ENGLISH);
+        final boolean globalSearch = prefs.getBoolean(SQLPreferenceConstants.USE_GLOBAL_ASSISTANT);
+        final DBNNameIndex.MatchType matchType =
+            prefs.getBoolean(SQLPreferenceConstants.PROPOSALS_MATCH_CONTAINS) ? DBNNameIndex.MatchType.CONTAINS :
+            request.simpleMode ? DBNNameIndex.MatchType.PREFIX : DBNNameIndex.MatchType.FUZZY;
+
+        final List<DBSObject> objects = nameIndex.findObjects(namePart, matchType, typeClasses, MAX_INDEX_CANDIDATES);
+        objects.removeIf(object -> DBUtils.isHiddenObject(object) || (!globalSearch && rootSC != null && !isChildOf(object, rootSC)));
+        if (objects.isEmpty()) {
+            return false;
+        }
+        if (matchType == DBNNameIndex.MatchType.FUZZY) {
+            final Map<DBSObject, Integer> scores = new IdentityHashMap<>();
+            for (DBSObject object : objects) {
+                scores.put(object, TextUtils.fuzzyScore(object.getName(), namePart));
+            }
+            objects.sort((o1, o2) -> {
+                int score1 = scores.get(o1);
+                int score2 = scores.get(o2);
+                if (score1 == score2) {
+                    return o1.getName().compareToIgnoreCase(o2.getName());
+                }
+                return score2 - score1;
+            });
+        }
+        for (DBSObject object : objects.subList(0, Math.min(objects.size(), MAX_ASSISTANT_PROPOSALS))) {
+            request.proposals.add(makeProposalsFromObject(object, !(rootSC instanceof DBPDataSource)));
+            proposedNames.add(DBUtils.getObjectFullName(object, DBPEvaluationContext.DML));
+        }
+        return true;
+    }
+
+    /**
+     * Checks that all child objects of the container are loaded in navigator (and so are in the name index).
+     * Navigator filters make loaded children incomplete.
+     */
+    private boolean isContainerLoaded(DBSObjectContainer container) {
+        // Lookup of existing node only, it doesn't load navigator tree
+        DBNDatabaseNode node = NavigatorUtils.getNodeByObject(container);
+        return node != null && isNodeLoaded(node);
+    }
+
+    private boolean isNodeLoaded(DBNDatabaseNode node) {
+        if (node.needsInitialization() || node.isFiltered()) {
+            return false;
+        }
+        try {
+            DBNDatabaseNode[] children = node.getChildren(monitor);
+            if (children != null) {
+                for (DBNDatabaseNode child : children) {
+                    // Check folders and nested containers (e.g. schemas of a catalog), but not entity children
+                    boolean nested = child instanceof DBNDatabaseFolder ||
+                        (child.getObject() instanceof DBSObjectContainer && !(child.getObject() instanceof DBSEntity));
+                    if (nested && !isNodeLoaded(child)) {
+                        return false;
+                    }
+                }
+            }
+        } catch (DBException e) {
+            log.debug(e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds object by exact name in the in-memory name index. Only objects from selected containers are returned,
+     * other objects with the same name are looked up by structure assistant.
+     */
+    @Nullable
+    private DBSObject findObjectInNameIndex(
+        DBPDataSource dataSource,
+        DBSObjectType[] objectTypes,
+        String token,
+        DBSObjectContainer[] selectedContainers)
+    {
+        final DBNNameIndex nameIndex = DBeaverCore.getInstance().getNavigatorModel().getNameIndex(dataSource.getContainer());
+        final List<Class<?>> typeClasses = getObjectTypeClasses(objectTypes);
+        if (nameIndex == null || typeClasses == null) {
+            return null;
+        }
+        final String objectName = request.wordDetector.removeQuotes(token);
+        final boolean caseSensitive = request.wordDetector.isQuoted(token);
+        for (DBSObject object : nameIndex.findObjectsByName(objectName, typeClasses)) {
+            if (caseSensitive && !objectName.equals(object.getName())) {
+                continue;
+            }
+            if (ArrayUtils.contains(selectedContainers, object.getParentObject())) {
+                return object;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static List<Class<?>> getObjectTypeClasses(DBSObjectType[] objectTypes) {
+        List<Class<?>> typeClasses = new ArrayList<>(objectTypes.length);
+        for (DBSObjectType objectType : objectTypes) {
+            Class<? extends DBSObject> typeClass = objectType.getTypeClass();
+            if (typeClass == null) {
+                // Can't filter by this type
+                return null;
+            }
+            typeClasses.add(typeClass);
+        }
+        return typeClasses;
+    }
+
+    private static boolean isChildOf(DBSObject object, DBSObject parent) {
+        for (DBSObject p = object.getParentObject(); p != null; p = p.getParentObject()) {
+            if (p == parent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String makeObjectNameMask(DBPDataSource dataSource, String objectName) {
         if (dataSource.getContainer().getPreferenceStore().getBoolean(SQLPreferenceConstants.PROPOSALS_MATCH_CONTAINS)) {
             return MATCH_ANY_PATTERN + objectName + MATCH_ANY_PATTERN;
@@ -44,6 +44,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
     private Text resultSetSize;
     private Button resultSetUseSQLCheck;
     private Button serverSideOrderingCheck;
+    private Button keysetPagingCheck;
+    private Button virtualScrollCheck;
     private Button readQueryMetadata;
     private Button readQueryReferences;
     private Text queryCancelTimeout;
@@ -56,6 +58,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
     private Button useNavigatorFilters;
 
     private Button advUseFetchSize;
+    private Text advMemoryLimit;
 
     public PrefPageResultSetMain()
     {
@@ -78,7 +81,10 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.contains(DBeaverPreferences.RS_EDIT_REFRESH_AFTER_UPDATE) ||
             store.contains(DBeaverPreferences.KEEP_STATEMENT_OPEN) ||
             store.contains(DBeaverPreferences.RESULT_SET_ORDER_SERVER_SIDE) ||            
+            store.contains(DBeaverPreferences.RESULT_SET_KEYSET_PAGING) ||
+            store.contains(DBeaverPreferences.RESULT_SET_VIRTUAL_SCROLL) ||
             store.contains(ModelPreferences.RESULT_SET_USE_FETCH_SIZE) ||
+            store.contains(DBeaverPreferences.RESULT_SET_MEMORY_LIMIT) ||
             store.contains(DBeaverPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS)
             ;
     }
@@ -103,6 +109,10 @@ public class PrefPageResultSetMain extends TargetPrefPage
             autoFetchNextSegmentCheck = UIUtils.createCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_auto_fetch_segment, null, true, 2);
             resultSetUseSQLCheck = UIUtils.createCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_use_sql, null, false, 2);
             serverSideOrderingCheck = UIUtils.createCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_server_side_order, null, false, 2);
+            keysetPagingCheck = UIUtils.createCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_keyset_paging,
+                CoreMessages.pref_page_database_resultsets_label_keyset_paging_tip, false, 2);
+            virtualScrollCheck = UIUtils.createCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_virtual_scroll,
+                CoreMessages.pref_page_database_resultsets_label_virtual_scroll_tip, false, 2);
             readQueryMetadata = UIUtils.createCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_read_metadata,
                CoreMessages.pref_page_database_resultsets_label_read_metadata_tip, false, 2);
             readQueryReferences = UIUtils.createCheckbox(queriesGroup, CoreMessages.pref_page_database_resultsets_label_read_references,
@@ -135,9 +145,12 @@ public class PrefPageResultSetMain extends TargetPrefPage
         }
 
         {
-            Group advGroup = UIUtils.createControlGroup(composite, CoreMessages.pref_page_results_group_advanced, 1, GridData.VERTICAL_ALIGN_BEGINNING, 0);
+            Group advGroup = UIUtils.createControlGroup(composite, CoreMessages.pref_page_results_group_advanced, 2, GridData.VERTICAL_ALIGN_BEGINNING, 0);
 
-            advUseFetchSize = UIUtils.createCheckbox(advGroup, CoreMessages.pref_page_database_resultsets_label_fetch_size, CoreMessages.pref_page_database_resultsets_label_fetch_size_tip, false, 1);
+            advUseFetchSize = UIUtils.createCheckbox(advGroup, CoreMessages.pref_page_database_resultsets_label_fetch_size, CoreMessages.pref_page_database_resultsets_label_fetch_size_tip, false, 2);
+            advMemoryLimit = UIUtils.createLabelText(advGroup, CoreMessages.pref_page_database_resultsets_label_memory_limit, "0");
+            advMemoryLimit.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.getDefault()));
+            advMemoryLimit.setToolTipText(CoreMessages.pref_page_database_resultsets_label_memory_limit_tip);
         }
 
         return composite;
@@ -155,6 +168,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
             resultSetSize.setText(store.getString(DBeaverPreferences.RESULT_SET_MAX_ROWS));
             resultSetUseSQLCheck.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL));
             serverSideOrderingCheck.setSelection(store.getBoolean(DBeaverPreferences.RESULT_SET_ORDER_SERVER_SIDE));
+            keysetPagingCheck.setSelection(store.getBoolean(DBeaverPreferences.RESULT_SET_KEYSET_PAGING));
+            virtualScrollCheck.setSelection(store.getBoolean(DBeaverPreferences.RESULT_SET_VIRTUAL_SCROLL));
             readQueryMetadata.setSelection(store.getBoolean(DBeaverPreferences.RESULT_SET_READ_METADATA));
             readQueryReferences.setSelection(store.getBoolean(DBeaverPreferences.RESULT_SET_READ_REFERENCES));
             queryCancelTimeout.setText(store.getString(DBeaverPreferences.RESULT_SET_CANCEL_TIMEOUT));
@@ -167,6 +182,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
             useNavigatorFilters.setSelection(store.getBoolean(DBeaverPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS));
 
             advUseFetchSize.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE));
+            advMemoryLimit.setText(store.getString(DBeaverPreferences.RESULT_SET_MEMORY_LIMIT));
 
             updateOptionsEnablement();
         } catch (Exception e) {
@@ -182,6 +198,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.setValue(DBeaverPreferences.RESULT_SET_MAX_ROWS, resultSetSize.getText());
             store.setValue(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL, resultSetUseSQLCheck.getSelection());
             store.setValue(DBeaverPreferences.RESULT_SET_ORDER_SERVER_SIDE, serverSideOrderingCheck.getSelection());
+            store.setValue(DBeaverPreferences.RESULT_SET_KEYSET_PAGING, keysetPagingCheck.getSelection());
+            store.setValue(DBeaverPreferences.RESULT_SET_VIRTUAL_SCROLL, virtualScrollCheck.getSelection());
             store.setValue(DBeaverPreferences.RESULT_SET_READ_METADATA, readQueryMetadata.getSelection());
             store.setValue(DBeaverPreferences.RESULT_SET_READ_REFERENCES, readQueryReferences.getSelection());
             store.setValue(DBeaverPreferences.RESULT_SET_CANCEL_TIMEOUT, queryCancelTimeout.getText());
@@ -194,6 +212,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.setValue(DBeaverPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS, useNavigatorFilters.getSelection());
 
             store.setValue(ModelPreferences.RESULT_SET_USE_FETCH_SIZE, advUseFetchSize.getSelection());
+            store.setValue(DBeaverPreferences.RESULT_SET_MEMORY_LIMIT, advMemoryLimit.getText());
         } catch (Exception e) {
             log.warn(e);
         }
@@ -207,6 +226,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
         store.setToDefault(DBeaverPreferences.RESULT_SET_MAX_ROWS);
         store.setToDefault(ModelPreferences.RESULT_SET_MAX_ROWS_USE_SQL);
         store.setToDefault(DBeaverPreferences.RESULT_SET_ORDER_SERVER_SIDE);
+        store.setToDefault(DBeaverPreferences.RESULT_SET_KEYSET_PAGING);
+        store.setToDefault(DBeaverPreferences.RESULT_SET_VIRTUAL_SCROLL);
         store.setToDefault(DBeaverPreferences.RESULT_SET_READ_METADATA);
         store.setToDefault(DBeaverPreferences.RESULT_SET_READ_REFERENCES);
         store.setToDefault(DBeaverPreferences.RESULT_SET_CANCEL_TIMEOUT);
@@ -219,6 +240,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
         store.setToDefault(DBeaverPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS);
 
         store.setToDefault(ModelPreferences.RESULT_SET_USE_FETCH_SIZE);
+        store.setToDefault(DBeaverPreferences.RESULT_SET_MEMORY_LIMIT);
 
         updateOptionsEnablement();
     }
@@ -0,0 +1,105 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.data.DBDValueMeta;
+import org.jkiss.dbeaver.model.exec.*;
+
+/**
+ * Result set which replays rows already fetched by {@link DataTransferPipelineConsumer}.
+ * Attribute values are final objects (value handlers were already applied), so consumers
+ * must read them with {@link #getAttributeValue(int)} instead of value handlers.
+ */
+public class DataTransferBufferedResultSet implements DBCResultSet {
+
+    private final DBCSession session;
+    private final DBCStatement statement;
+    private final DBCResultSetMetaData meta;
+    private Object[] currentRow;
+
+    DataTransferBufferedResultSet(DBCResultSet source) throws DBCException {
+        this.session = source.getSession();
+        this.statement = source.getSourceStatement();
+        // Source result set may be closed before the last row is replayed
+        this.meta = source.getMeta();
+    }
+
+    void setCurrentRow(Object[] currentRow) {
+        this.currentRow = currentRow;
+    }
+
+    @Override
+    public DBCSession getSession() {
+        return session;
+    }
+
+    @Override
+    public DBCStatement getSourceStatement() {
+        return statement;
+    }
+
+    @Override
+    public Object getAttributeValue(int index) throws DBCException {
+        if (currentRow == null || index < 0 || index >= currentRow.length) {
+            throw new DBCException("Attribute index " + index + " is out of range");
+        }
+        return currentRow[index];
+    }
+
+    @Override
+    public Object getAttributeValue(String name) throws DBCException {
+        return null;
+    }
+
+    @Override
+    public DBDValueMeta getAttributeValueMeta(int index) throws DBCException {
+        return null;
+    }
+
+    @Override
+    public DBDValueMeta getRowMeta() throws DBCException {
+        return null;
+    }
+
+    @Override
+    public boolean nextRow() throws DBCException {
+        return false;
+    }
+
+    @Override
+    public boolean moveTo(int position) throws DBCException {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public DBCResultSetMetaData getMeta() throws DBCException {
+        return meta;
+    }
+
+    @Override
+    public String getResultSetName() throws DBCException {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        currentRow = null;
+    }
+
+}
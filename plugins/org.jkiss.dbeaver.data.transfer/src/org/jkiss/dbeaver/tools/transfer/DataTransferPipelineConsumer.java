@@ -0,0 +1,350 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data transfer pipeline stage.
+ * Wraps target consumer. Producer thread fetches row values into batches and puts them in the bounded queue,
+ * separate writer job takes batches and feeds them to the target consumer.
+ * Thus source reads and target writes overlap. Full queue blocks producer (back-pressure).
+ *
+ * Producers may ignore errors thrown from fetchEnd, so writer errors must be checked
+ * with {@link #checkWriterError()} after the transfer.
+ *
+ * Rows with LOBs and complex values are passed directly because they can't be read after cursor moves.
+ */
+public class DataTransferPipelineConsumer implements IDataTransferConsumer<IDataTransferSettings, IDataTransferProcessor> {
+
+    private static final Log log = Log.getLog(DataTransferPipelineConsumer.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int QUEUE_CAPACITY = 8;
+    private static final long WRITER_POLL_TIMEOUT = 100;
+    private static final long WRITER_WAIT_PAUSE = 50;
+
+    // Marks end of result set
+    private static final List<Object[]> END_OF_DATA = new ArrayList<>(0);
+
+    private final IDataTransferConsumer consumer;
+    private final int batchSize;
+
+    private boolean pipelined;
+    private List<DBCAttributeMetaData> attributes;
+    private DBDValueHandler[] valueHandlers;
+    private BlockingQueue<List<Object[]>> queue;
+    private List<Object[]> currentBatch;
+    private WriterJob writerJob;
+    private volatile Throwable writerError;
+
+    private long rowCount;
+    private long producerStallTime;
+    private volatile long consumerStallTime;
+    private int maxQueueDepth;
+
+    public DataTransferPipelineConsumer(IDataTransferConsumer consumer, int batchSize) {
+        this.consumer = consumer;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
+    public IDataTransferConsumer getConsumer() {
+        return consumer;
+    }
+
+    @Override
+    public void initTransfer(DBSObject sourceObject, IDataTransferSettings settings, boolean isBinary, IDataTransferProcessor processor, Map<Object, Object> processorProperties) {
+        consumer.initTransfer(sourceObject, settings, isBinary, processor, processorProperties);
+    }
+
+    @Override
+    public void startTransfer(DBRProgressMonitor monitor) throws DBException {
+        consumer.startTransfer(monitor);
+    }
+
+    @Override
+    public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
+        consumer.finishTransfer(monitor, last);
+    }
+
+    @Override
+    public DBSObject getDatabaseObject() {
+        return consumer.getDatabaseObject();
+    }
+
+    @Override
+    public String getObjectName() {
+        return consumer.getObjectName();
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        consumer.fetchStart(session, resultSet, offset, maxRows);
+
+        attributes = resultSet.getMeta().getAttributes();
+        pipelined = session.getDataSource() != null && isPipelineSupported(attributes);
+        if (!pipelined) {
+            return;
+        }
+        valueHandlers = new DBDValueHandler[attributes.size()];
+        for (int i = 0; i < attributes.size(); i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes.get(i));
+        }
+
+        final DataTransferBufferedResultSet bufferedResultSet = new DataTransferBufferedResultSet(resultSet);
+        queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        currentBatch = new ArrayList<>(batchSize);
+        writerError = null;
+        writerJob = new WriterJob(session, bufferedResultSet);
+        writerJob.schedule();
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        rowCount++;
+        if (!pipelined) {
+            consumer.fetchRow(session, resultSet);
+            return;
+        }
+        checkWriterError();
+        Object[] row = new Object[valueHandlers.length];
+        for (int i = 0; i < valueHandlers.length; i++) {
+            row[i] = valueHandlers[i].fetchValueObject(session, resultSet, attributes.get(i), i);
+        }
+        currentBatch.add(row);
+        if (currentBatch.size() >= batchSize) {
+            try {
+                flushBatch(currentBatch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DBCException("Data transfer pipeline interrupted", e);
+            }
+            currentBatch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (pipelined) {
+            pipelined = false;
+            try {
+                if (!currentBatch.isEmpty()) {
+                    flushBatch(currentBatch);
+                }
+                flushBatch(END_OF_DATA);
+                while (writerJob.getState() != Job.NONE) {
+                    RuntimeUtils.pause(WRITER_WAIT_PAUSE);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writerJob.cancel();
+                throw new DBCException("Data transfer pipeline interrupted", e);
+            } finally {
+                currentBatch = null;
+                queue = null;
+                writerJob = null;
+                endConsumerFetch(session, resultSet);
+            }
+            checkWriterError();
+        } else {
+            endConsumerFetch(session, resultSet);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (writerJob != null) {
+            // fetchEnd wasn't called. Just stop the writer.
+            writerJob.cancel();
+            writerJob = null;
+        }
+        pipelined = false;
+        consumer.close();
+    }
+
+    /**
+     * Throws the first error of rows writing or of the target consumer fetch end.
+     */
+    public void checkWriterError() throws DBCException {
+        Throwable error = writerError;
+        if (error != null) {
+            if (error instanceof DBCException) {
+                throw (DBCException) error;
+            }
+            throw new DBCException("Error while writing data", error);
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getQueueCapacity() {
+        return QUEUE_CAPACITY;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * Time producer waited for the free space in queue (i.e. consumer was slower)
+     */
+    public long getProducerStallTime() {
+        return producerStallTime;
+    }
+
+    /**
+     * Time consumer waited for the next batch (i.e. producer was slower)
+     */
+    public long getConsumerStallTime() {
+        return consumerStallTime;
+    }
+
+    private void flushBatch(List<Object[]> batch) throws InterruptedException, DBCException {
+        if (!queue.offer(batch)) {
+            long startTime = System.currentTimeMillis();
+            while (!queue.offer(batch, WRITER_POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                if (writerJob.getState() == Job.NONE) {
+                    // Writer was canceled and doesn't drain the queue
+                    checkWriterError();
+                    throw new DBCException("Data transfer writer stopped");
+                }
+            }
+            producerStallTime += System.currentTimeMillis() - startTime;
+        }
+        int queueDepth = queue.size();
+        if (queueDepth > maxQueueDepth) {
+            maxQueueDepth = queueDepth;
+        }
+    }
+
+    private void endConsumerFetch(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        try {
+            consumer.fetchEnd(session, resultSet);
+        } catch (DBCException e) {
+            // Target consumer may write the last rows on fetch end
+            if (writerError == null) {
+                writerError = e;
+            }
+            throw e;
+        }
+    }
+
+    private void runWriter(DBRProgressMonitor monitor, DBCSession session, DataTransferBufferedResultSet resultSet) {
+        BlockingQueue<List<Object[]>> queue = this.queue;
+        try {
+            for (;;) {
+                List<Object[]> batch = queue.poll();
+                if (batch == null) {
+                    long startTime = System.currentTimeMillis();
+                    while (batch == null) {
+                        if (monitor.isCanceled()) {
+                            throw new InterruptedException("Data transfer writer canceled");
+                        }
+                        batch = queue.poll(WRITER_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    }
+                    consumerStallTime += System.currentTimeMillis() - startTime;
+                }
+                if (batch == END_OF_DATA) {
+                    break;
+                }
+                if (writerError != null) {
+                    // Just drain the queue so producer won't block
+                    continue;
+                }
+                try {
+                    for (Object[] row : batch) {
+                        resultSet.setCurrentRow(row);
+                        consumer.fetchRow(session, resultSet);
+                    }
+                } catch (Throwable e) {
+                    writerError = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            if (writerError == null) {
+                writerError = e;
+            }
+        } finally {
+            resultSet.close();
+        }
+    }
+
+    private static boolean isPipelineSupported(List<DBCAttributeMetaData> attributes) {
+        for (DBCAttributeMetaData attr : attributes) {
+            switch (attr.getDataKind()) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                    break;
+                default:
+                    // LOBs, structures, arrays, etc may refer to the cursor
+                    log.debug("Attribute '" + attr.getName() + "' type doesn't allow pipelined transfer");
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private class WriterJob extends AbstractJob {
+
+        private final DBCSession session;
+        private final DataTransferBufferedResultSet resultSet;
+
+        WriterJob(DBCSession session, DataTransferBufferedResultSet resultSet) {
+            super("Data transfer writer [" + consumer.getObjectName() + "]");
+            this.session = session;
+            this.resultSet = resultSet;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            runWriter(monitor, session, resultSet);
+            return Status.OK_STATUS;
+        }
+    }
+
+}
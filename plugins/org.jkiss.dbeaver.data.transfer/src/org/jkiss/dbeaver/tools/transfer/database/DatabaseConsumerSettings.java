@@ -58,6 +58,7 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
     private Map<DBSDataContainer, DatabaseMappingContainer> dataMappings = new LinkedHashMap<>();
     private boolean openNewConnections = true;
     private boolean useTransactions = true;
+    private boolean useBulkLoad = false;
     private int commitAfterRows = 10000;
     private boolean truncateBeforeLoad = false;
     private boolean openTableOnFinish = true;
@@ -136,6 +137,14 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.useTransactions = useTransactions;
     }
 
+    public boolean isUseBulkLoad() {
+        return useBulkLoad;
+    }
+
+    public void setUseBulkLoad(boolean useBulkLoad) {
+        this.useBulkLoad = useBulkLoad;
+    }
+
     public int getCommitAfterRows() {
         return commitAfterRows;
     }
@@ -165,6 +174,9 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         if (dialogSettings.get("useTransactions") != null) {
             useTransactions = dialogSettings.getBoolean("useTransactions");
         }
+        if (dialogSettings.get("useBulkLoad") != null) {
+            useBulkLoad = dialogSettings.getBoolean("useBulkLoad");
+        }
         if (dialogSettings.get("commitAfterRows") != null) {
             commitAfterRows = dialogSettings.getInt("commitAfterRows");
         }
@@ -213,6 +225,7 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         }
         dialogSettings.put("openNewConnections", openNewConnections);
         dialogSettings.put("useTransactions", useTransactions);
+        dialogSettings.put("useBulkLoad", useBulkLoad);
         dialogSettings.put("commitAfterRows", commitAfterRows);
         dialogSettings.put("truncateBeforeLoad", truncateBeforeLoad);
         dialogSettings.put("openTableOnFinish", openTableOnFinish);
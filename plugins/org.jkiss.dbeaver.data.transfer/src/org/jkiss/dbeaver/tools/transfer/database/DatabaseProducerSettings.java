@@ -35,6 +35,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private static final int DEFAULT_SEGMENT_SIZE = 100000;
 
     private int segmentSize = DEFAULT_SEGMENT_SIZE;
+    private int partitionCount = 1;
 
     private boolean openNewConnections = true;
     private boolean queryRowCount = true;
@@ -58,6 +59,22 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         }
     }
 
+    /**
+     * Number of key ranges which are read in parallel (each in its own connection).
+     * 1 means that table is read by a single query.
+     */
+    public int getPartitionCount()
+    {
+        return partitionCount;
+    }
+
+    public void setPartitionCount(int partitionCount)
+    {
+        if (partitionCount > 0) {
+            this.partitionCount = partitionCount;
+        }
+    }
+
     public boolean isQueryRowCount()
     {
         return queryRowCount;
@@ -119,6 +136,11 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         } catch (NumberFormatException e) {
             segmentSize = DEFAULT_SEGMENT_SIZE;
         }
+        try {
+            partitionCount = Math.max(1, dialogSettings.getInt("partitionCount"));
+        } catch (NumberFormatException e) {
+            partitionCount = 1;
+        }
         if (!CommonUtils.isEmpty(dialogSettings.get("openNewConnections"))) {
             openNewConnections = dialogSettings.getBoolean("openNewConnections");
         }
@@ -132,6 +154,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     {
         dialogSettings.put("extractType", extractType.name());
         dialogSettings.put("segmentSize", segmentSize);
+        dialogSettings.put("partitionCount", partitionCount);
         dialogSettings.put("openNewConnections", openNewConnections);
         dialogSettings.put("queryRowCount", queryRowCount);
     }
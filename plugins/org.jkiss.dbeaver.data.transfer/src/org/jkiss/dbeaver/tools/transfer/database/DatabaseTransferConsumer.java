@@ -32,6 +32,7 @@ import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
+import org.jkiss.dbeaver.tools.transfer.DataTransferBufferedResultSet;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
 import org.jkiss.dbeaver.ui.UIUtils;
@@ -151,11 +152,20 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             targetAttributes.add(columnMapping.targetAttr.target);
         }
 
-        executeBatch = targetObject.insertData(
-            targetSession,
-            targetAttributes.toArray(new DBSAttributeBase[targetAttributes.size()]),
-            null,
-            new AbstractExecutionSource(sourceObject, targetContext, this));
+        DBSAttributeBase[] attributes = targetAttributes.toArray(new DBSAttributeBase[targetAttributes.size()]);
+        AbstractExecutionSource executionSource = new AbstractExecutionSource(sourceObject, targetContext, this);
+        executeBatch = null;
+        if (settings.isUseBulkLoad() && targetObject instanceof DBSDataBulkLoader) {
+            executeBatch = ((DBSDataBulkLoader) targetObject).insertDataBulk(targetSession, attributes, executionSource);
+            if (executeBatch == null) {
+                log.debug("Bulk load isn't supported for '" + targetObject.getName() + "', use regular inserts");
+            }
+        }
+        if (executeBatch == null) {
+            executeBatch = targetObject.insertData(targetSession, attributes, null, executionSource);
+        }
+        // Bind rows right away instead of keeping them until commit
+        executeBatch.enableStreaming(targetSession);
     }
 
     @Override
@@ -168,10 +178,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 continue;
             }
             final Object attrValue;
-            if (column.sourceValueHandler != null) {
+            if (column.sourceValueHandler != null && !(resultSet instanceof DataTransferBufferedResultSet)) {
                 attrValue = column.sourceValueHandler.fetchValueObject(session, resultSet, column.sourceAttr, i);
             } else {
-                // No value handler - get raw value
+                // No value handler (or value was already fetched by pipeline) - get raw value
                 attrValue = resultSet.getAttributeValue(i);
             }
             rowValues[column.targetIndex] = column.targetValueHandler.getValueFromObject(
@@ -17,23 +17,39 @@
 
 package org.jkiss.dbeaver.tools.transfer.database;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
+import org.jkiss.dbeaver.model.DBPDataKind;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Data container transfer producer
@@ -42,6 +58,8 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
 
     private static final Log log = Log.getLog(DatabaseTransferProducer.class);
 
+    private static final int PARTITION_WAIT_PAUSE = 50;
+
     @NotNull
     private DBSDataContainer dataContainer;
     @Nullable
@@ -141,7 +159,14 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
 
                 try {
                     // Perform export
-                    if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                    List<DBDDataFilter> partitions = null;
+                    if (settings.getPartitionCount() > 1 && newConnection && !selectiveExportFromUI) {
+                        partitions = makePartitionFilters(session, transferSource, settings.getPartitionCount());
+                    }
+                    if (partitions != null) {
+                        // Read key ranges in parallel
+                        transferPartitions(session, consumer, partitions, readFlags);
+                    } else if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                         // Just do it in single query
                         dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags);
                     } else {
@@ -180,4 +205,281 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         }
     }
 
+    /**
+     * Splits table into key ranges.
+     * Only single-column numeric unique keys are supported. Returns null if table can't be partitioned.
+     */
+    @Nullable
+    private List<DBDDataFilter> makePartitionFilters(DBCSession session, DBCExecutionSource source, int partitionCount)
+    {
+        if (!(dataContainer instanceof DBSEntity) || (dataFilter != null && dataFilter.hasFilters())) {
+            // Custom conditions and ordering can't be combined with ranges
+            return null;
+        }
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        try {
+            Collection<? extends DBSEntityAttribute> keyAttributes = DBUtils.getBestTableIdentifier(monitor, (DBSEntity) dataContainer);
+            if (keyAttributes.size() != 1) {
+                return null;
+            }
+            DBSEntityAttribute keyAttribute = keyAttributes.iterator().next();
+            if (keyAttribute.getDataKind() != DBPDataKind.NUMERIC) {
+                return null;
+            }
+            String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+            String query = "SELECT MIN(" + keyName + "),MAX(" + keyName + ") FROM " +
+                DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML);
+
+            BigDecimal minValue, maxValue;
+            try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+                dbStat.setStatementSource(source);
+                if (!dbStat.executeStatement()) {
+                    return null;
+                }
+                DBCResultSet dbResult = dbStat.openResultSet();
+                if (dbResult == null) {
+                    return null;
+                }
+                try {
+                    if (!dbResult.nextRow()) {
+                        return null;
+                    }
+                    Object min = dbResult.getAttributeValue(0);
+                    Object max = dbResult.getAttributeValue(1);
+                    if (!(min instanceof Number) || !(max instanceof Number)) {
+                        return null;
+                    }
+                    // Keys may be bigger than 2^53 so do not convert them to double
+                    minValue = new BigDecimal(min.toString()).setScale(0, RoundingMode.FLOOR);
+                    maxValue = new BigDecimal(max.toString()).setScale(0, RoundingMode.FLOOR);
+                } finally {
+                    dbResult.close();
+                }
+            }
+            BigDecimal range = maxValue.subtract(minValue);
+            if (range.compareTo(BigDecimal.valueOf(partitionCount)) < 0) {
+                // Too small
+                return null;
+            }
+            BigDecimal step = range.divideToIntegralValue(BigDecimal.valueOf(partitionCount));
+
+            // First range has no lower bound and last range has no upper bound.
+            // This way we don't lose rows with fractional or NULL keys.
+            List<DBDDataFilter> partitions = new ArrayList<>(partitionCount);
+            for (int i = 0; i < partitionCount; i++) {
+                String condition;
+                String lowBound = minValue.add(step.multiply(BigDecimal.valueOf(i))).toPlainString();
+                String highBound = minValue.add(step.multiply(BigDecimal.valueOf(i + 1))).toPlainString();
+                if (i == 0) {
+                    condition = "(" + keyName + " < " + highBound + " OR " + keyName + " IS NULL)";
+                } else if (i == partitionCount - 1) {
+                    condition = keyName + " >= " + lowBound;
+                } else {
+                    condition = keyName + " >= " + lowBound + " AND " + keyName + " < " + highBound;
+                }
+                DBDDataFilter partFilter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+                partFilter.setWhere(condition);
+                partitions.add(partFilter);
+            }
+            log.debug("Read table '" + dataContainer.getName() + "' in " + partitionCount + " partitions by key " + keyName + " [" + minValue.toPlainString() + " - " + maxValue.toPlainString() + "]");
+            return partitions;
+        } catch (Exception e) {
+            log.warn("Can't split table '" + dataContainer.getName() + "' into partitions. Read it by single query.", e);
+            return null;
+        }
+    }
+
+    private void transferPartitions(
+        DBCSession session,
+        IDataTransferConsumer consumer,
+        List<DBDDataFilter> partitions,
+        long readFlags)
+        throws DBException
+    {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        PartitionDataReceiver receiver = new PartitionDataReceiver(consumer, session);
+        List<PartitionReadJob> jobs = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            PartitionReadJob job = new PartitionReadJob(monitor, receiver, partitions.get(i), readFlags, i);
+            jobs.add(job);
+            job.schedule();
+        }
+        Throwable error = null;
+        try {
+            for (PartitionReadJob job : jobs) {
+                while (job.getState() != Job.NONE) {
+                    if (monitor.isCanceled()) {
+                        job.cancel();
+                    }
+                    RuntimeUtils.pause(PARTITION_WAIT_PAUSE);
+                }
+                if (job.error != null && error == null) {
+                    error = job.error;
+                }
+            }
+        } finally {
+            // All partitions are finished (or failed) - finish consumer in the coordinating session
+            receiver.finishFetch();
+        }
+        if (error != null) {
+            throw new DBException("Error reading table partition", error);
+        }
+    }
+
+    /**
+     * Reads one key range in its own isolated context.
+     */
+    private class PartitionReadJob extends AbstractJob {
+
+        private final DBRProgressMonitor parentMonitor;
+        private final PartitionDataReceiver receiver;
+        private final DBDDataFilter partFilter;
+        private final long readFlags;
+        private volatile Throwable error;
+
+        PartitionReadJob(DBRProgressMonitor parentMonitor, PartitionDataReceiver receiver, DBDDataFilter partFilter, long readFlags, int partitionNumber)
+        {
+            super("Data transfer partition reader #" + (partitionNumber + 1) + " [" + dataContainer.getName() + "]");
+            this.parentMonitor = parentMonitor;
+            this.receiver = receiver;
+            this.partFilter = partFilter;
+            this.readFlags = readFlags;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor jobMonitor)
+        {
+            DBRProgressMonitor monitor = new PartitionProgressMonitor(parentMonitor);
+            DBCExecutionContext context = null;
+            try {
+                context = DBUtils.getObjectOwnerInstance(getDatabaseObject()).openIsolatedContext(monitor, "Data transfer partition producer");
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, DTMessages.data_transfer_wizard_job_task_export)) {
+                    session.enableLogging(false);
+                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                    try {
+                        if (txnManager != null) {
+                            txnManager.setAutoCommit(monitor, false);
+                        }
+                    } catch (DBCException e) {
+                        log.warn("Can't change auto-commit", e);
+                    }
+                    try {
+                        AbstractExecutionSource transferSource = new AbstractExecutionSource(dataContainer, context, receiver.consumer);
+                        dataContainer.readData(transferSource, session, receiver, partFilter, -1, -1, readFlags);
+                    } finally {
+                        if (txnManager != null) {
+                            try {
+                                txnManager.commit(session);
+                            } catch (DBCException e) {
+                                log.error("Can't finish transaction in data producer connection", e);
+                            }
+                        }
+                    }
+                }
+            } catch (Throwable e) {
+                error = e;
+                receiver.partitionFailed();
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    /**
+     * Merges rows of all partitions into the single consumer. Rows are serialized.
+     * Consumer is started by the first partition (its result set provides metadata) and
+     * finished by the coordinating thread after all partitions are read.
+     * Both calls get the coordinating session which stays open during the whole transfer.
+     */
+    private static class PartitionDataReceiver implements DBDDataReceiver {
+
+        private final IDataTransferConsumer consumer;
+        private final DBCSession coordinatorSession;
+        private boolean started;
+        private boolean failed;
+
+        PartitionDataReceiver(IDataTransferConsumer consumer, DBCSession coordinatorSession)
+        {
+            this.consumer = consumer;
+            this.coordinatorSession = coordinatorSession;
+        }
+
+        @Override
+        public synchronized void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException
+        {
+            if (!started) {
+                consumer.fetchStart(coordinatorSession, resultSet, offset, maxRows);
+                started = true;
+            }
+        }
+
+        @Override
+        public synchronized void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException
+        {
+            if (failed) {
+                throw new DBCException("Data transfer aborted because of error in another partition");
+            }
+            consumer.fetchRow(session, resultSet);
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException
+        {
+            // Consumer is finished when all partitions are read
+        }
+
+        @Override
+        public void close()
+        {
+            // Consumer is closed when all partitions are read
+        }
+
+        synchronized void finishFetch() throws DBCException
+        {
+            if (!started) {
+                return;
+            }
+            started = false;
+            try {
+                consumer.fetchEnd(coordinatorSession, null);
+            } finally {
+                consumer.close();
+            }
+        }
+
+        synchronized void partitionFailed()
+        {
+            failed = true;
+        }
+    }
+
+    private static class PartitionProgressMonitor extends VoidProgressMonitor {
+
+        private final DBRProgressMonitor parent;
+
+        PartitionProgressMonitor(DBRProgressMonitor parent)
+        {
+            this.parent = parent;
+        }
+
+        @Override
+        public void worked(int work)
+        {
+            synchronized (parent) {
+                parent.worked(work);
+            }
+        }
+
+        @Override
+        public boolean isCanceled()
+        {
+            return parent.isCanceled();
+        }
+    }
+
 }
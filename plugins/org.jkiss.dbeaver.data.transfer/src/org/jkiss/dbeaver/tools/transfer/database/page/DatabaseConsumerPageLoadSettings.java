@@ -89,6 +89,21 @@ public class DatabaseConsumerPageLoadSettings extends ActiveWizardPage<DataTrans
                 }
             });
 
+            final Button useBulkLoadCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                "Use bulk load",
+                "Load rows with native database loader (e.g. COPY or LOAD DATA) or with multi-row INSERT statements.\n" +
+                    "NULL values are inserted explicitly, column default values are not applied.",
+                settings.isUseBulkLoad(),
+                4);
+            useBulkLoadCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e)
+                {
+                    settings.setUseBulkLoad(useBulkLoadCheck.getSelection());
+                }
+            });
+
             final Spinner commitAfterEdit = UIUtils.createLabelSpinner(performanceSettings, "Commit after insert of ", settings.getCommitAfterRows(), 1, Integer.MAX_VALUE);
             commitAfterEdit.addSelectionListener(new SelectionAdapter() {
                 @Override
@@ -36,11 +36,14 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     private static final int EXTRACT_TYPE_SEGMENTS = 1;
 
     private Spinner threadsNumText;
+    private Spinner partitionsNumText;
     private Combo rowsExtractType;
     private Label segmentSizeLabel;
     private Text segmentSizeText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
+    private Button pipelineCheckbox;
+    private Text pipelineBatchSizeText;
 
     public DatabaseProducerPageExtractSettings() {
         super("Extraction settings");
@@ -75,6 +78,7 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 } catch (NumberFormatException e1) {
                     // do nothing
                 }
+                updateConnectionSettings(settings);
             });
             if (getWizard().getSettings().getDataPipes().size() < 2) {
                 threadsNumLabel.setEnabled(false);
@@ -82,6 +86,22 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
             }
             threadsNumText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
 
+            UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_partitions)
+                .setToolTipText(DTMessages.data_transfer_wizard_output_label_partitions_tooltip);
+            partitionsNumText = new Spinner(generalSettings, SWT.BORDER);
+            partitionsNumText.setMinimum(1);
+            partitionsNumText.setMaximum(32);
+            partitionsNumText.setToolTipText(DTMessages.data_transfer_wizard_output_label_partitions_tooltip);
+            partitionsNumText.addModifyListener(e -> {
+                try {
+                    settings.setPartitionCount(Integer.parseInt(partitionsNumText.getText()));
+                } catch (NumberFormatException e1) {
+                    // do nothing
+                }
+                updateConnectionSettings(settings);
+            });
+            partitionsNumText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
+
             {
 
                 UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_extract_type);
@@ -129,6 +149,25 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 }
             });
 
+            pipelineCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_pipeline, DTMessages.data_transfer_wizard_output_checkbox_pipeline_tooltip, false, 2);
+            pipelineCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    getWizard().getSettings().setPipelineEnabled(pipelineCheckbox.getSelection());
+                    pipelineBatchSizeText.setEnabled(pipelineCheckbox.getSelection());
+                }
+            });
+            UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_pipeline_batch_size);
+            pipelineBatchSizeText = new Text(generalSettings, SWT.BORDER);
+            pipelineBatchSizeText.addModifyListener(e -> {
+                try {
+                    getWizard().getSettings().setPipelineBatchSize(Integer.parseInt(pipelineBatchSizeText.getText()));
+                } catch (NumberFormatException e1) {
+                    // just skip it
+                }
+            });
+            pipelineBatchSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+
             IStructuredSelection curSelection = getWizard().getCurrentSelection();
             boolean hasSelection = curSelection != null && !curSelection.isEmpty() && curSelection.getFirstElement() instanceof DBDCellValue;
 
@@ -170,8 +209,14 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     {
         final DatabaseProducerSettings settings = getWizard().getPageSettings(this, DatabaseProducerSettings.class);
 
+        threadsNumText.setSelection(getWizard().getSettings().getMaxJobCount());
+        partitionsNumText.setSelection(settings.getPartitionCount());
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        pipelineCheckbox.setSelection(getWizard().getSettings().isPipelineEnabled());
+        pipelineBatchSizeText.setText(String.valueOf(getWizard().getSettings().getPipelineBatchSize()));
+        pipelineBatchSizeText.setEnabled(pipelineCheckbox.getSelection());
+        updateConnectionSettings(settings);
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
@@ -184,6 +229,21 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
         updatePageCompletion();
     }
 
+    private void updateConnectionSettings(DatabaseProducerSettings settings)
+    {
+        if (newConnectionCheckbox == null) {
+            return;
+        }
+        // Parallel jobs can't share the same connection - each pipe (and each table partition) reads in its own isolated context
+        boolean parallel = (threadsNumText.isEnabled() && getWizard().getSettings().getMaxJobCount() > 1) ||
+            settings.getPartitionCount() > 1;
+        if (parallel) {
+            settings.setOpenNewConnections(true);
+            newConnectionCheckbox.setSelection(true);
+        }
+        newConnectionCheckbox.setEnabled(!parallel);
+    }
+
     @Override
     protected boolean determinePageCompletion()
     {
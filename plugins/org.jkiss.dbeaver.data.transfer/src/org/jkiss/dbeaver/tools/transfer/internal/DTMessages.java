@@ -40,8 +40,15 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_job_task_export_table_data;
 	public static String data_transfer_wizard_job_task_retrieve;
 	public static String data_transfer_wizard_output_checkbox_compress;
+	public static String data_transfer_wizard_output_label_compression_type;
+	public static String data_transfer_wizard_output_label_split_rows;
+	public static String data_transfer_wizard_output_label_split_rows_tooltip;
+	public static String data_transfer_wizard_output_label_split_size;
+	public static String data_transfer_wizard_output_label_split_size_tooltip;
 	public static String data_transfer_wizard_output_checkbox_new_connection;
 	public static String data_transfer_wizard_output_checkbox_open_folder;
+	public static String data_transfer_wizard_output_checkbox_pipeline;
+	public static String data_transfer_wizard_output_checkbox_pipeline_tooltip;
 	public static String data_transfer_wizard_output_checkbox_select_row_count;
 	public static String data_transfer_wizard_output_checkbox_selected_columns_only;
 	public static String data_transfer_wizard_output_checkbox_selected_rows_only;
@@ -60,6 +67,9 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_label_insert_bom_tooltip;
 	public static String data_transfer_wizard_output_label_max_threads;
 	public static String data_transfer_wizard_output_label_segment_size;
+	public static String data_transfer_wizard_output_label_partitions;
+	public static String data_transfer_wizard_output_label_partitions_tooltip;
+	public static String data_transfer_wizard_output_label_pipeline_batch_size;
 	public static String data_transfer_wizard_output_name;
 	public static String data_transfer_wizard_output_title;
 	public static String data_transfer_wizard_settings_binaries_item_inline;
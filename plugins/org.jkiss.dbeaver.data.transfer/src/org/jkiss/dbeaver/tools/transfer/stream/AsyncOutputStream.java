@@ -0,0 +1,157 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Output stream which writes to the target stream in a separate thread.
+ * Used to move compression out of the export thread.
+ *
+ * Data is passed to the writer thread by chunks through the bounded queue.
+ * flush() doesn't wait for the writer thread: all data is written to the target on close.
+ * Target stream errors are rethrown by subsequent write or close calls.
+ */
+class AsyncOutputStream extends OutputStream {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_PENDING_CHUNKS = 16;
+    private static final byte[] EOF = new byte[0];
+
+    private final OutputStream target;
+    private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(MAX_PENDING_CHUNKS);
+    private final Thread writerThread;
+    private volatile Throwable writeError;
+    private byte[] buffer = new byte[CHUNK_SIZE];
+    private int count;
+    private boolean closed;
+
+    AsyncOutputStream(OutputStream target, String threadName) {
+        this.target = target;
+        this.writerThread = new Thread(this::writeChunks, threadName);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count >= buffer.length) {
+            sendBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count >= buffer.length) {
+                sendBuffer();
+            }
+            int length = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        checkError();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            try {
+                sendBuffer();
+            } finally {
+                queue.put(EOF);
+                writerThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Output write interrupted");
+        } finally {
+            buffer = null;
+            target.close();
+        }
+        checkError();
+    }
+
+    private void sendBuffer() throws IOException {
+        checkError();
+        if (count == 0) {
+            return;
+        }
+        byte[] chunk;
+        if (count == buffer.length) {
+            chunk = buffer;
+            buffer = new byte[CHUNK_SIZE];
+        } else {
+            chunk = Arrays.copyOf(buffer, count);
+        }
+        count = 0;
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Output write interrupted");
+        }
+    }
+
+    private void checkError() throws IOException {
+        Throwable error = writeError;
+        if (error != null) {
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            }
+            throw new IOException("Output write error", error);
+        }
+    }
+
+    private void writeChunks() {
+        try {
+            for (;;) {
+                byte[] chunk = queue.take();
+                if (chunk == EOF) {
+                    break;
+                }
+                if (writeError == null) {
+                    try {
+                        target.write(chunk);
+                    } catch (Throwable e) {
+                        // Keep reading queue until EOF so writer never blocks
+                        writeError = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            writeError = e;
+        }
+    }
+
+}
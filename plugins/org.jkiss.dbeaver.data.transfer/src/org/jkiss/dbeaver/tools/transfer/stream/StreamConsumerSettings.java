@@ -43,6 +43,21 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         BINARY
     }
 
+    public enum CompressionType {
+        ZIP("zip"),
+        GZIP("gz");
+
+        private final String extension;
+
+        CompressionType(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
     public static final String PROP_EXTRACT_IMAGES = "extractImages";
     public static final String PROP_FILE_EXTENSION = "extension";
     public static final String PROP_FORMAT = "format";
@@ -59,6 +74,9 @@ public class StreamConsumerSettings implements IDataTransferSettings {
 
     private boolean outputClipboard = false;
     private boolean compressResults = false;
+    private CompressionType compressionType = CompressionType.ZIP;
+    private long maxRowsPerFile = 0;
+    private long maxBytesPerFile = 0;
     private boolean openFolderOnFinish = true;
     private boolean executeProcessOnFinish = false;
     private String finishProcessCommand = null;
@@ -127,6 +145,40 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         this.compressResults = compressResults;
     }
 
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+
+    public void setCompressionType(CompressionType compressionType) {
+        this.compressionType = compressionType;
+    }
+
+    /**
+     * Maximum number of rows in one output file. 0 means no limit.
+     */
+    public long getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+
+    public void setMaxRowsPerFile(long maxRowsPerFile) {
+        this.maxRowsPerFile = maxRowsPerFile;
+    }
+
+    /**
+     * Maximum size of (uncompressed) data in one output file. 0 means no limit.
+     */
+    public long getMaxBytesPerFile() {
+        return maxBytesPerFile;
+    }
+
+    public void setMaxBytesPerFile(long maxBytesPerFile) {
+        this.maxBytesPerFile = maxBytesPerFile;
+    }
+
+    public boolean isSplitOutputFiles() {
+        return maxRowsPerFile > 0 || maxBytesPerFile > 0;
+    }
+
     public boolean isOpenFolderOnFinish() {
         return openFolderOnFinish;
     }
@@ -195,6 +247,19 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         if (!CommonUtils.isEmpty(dialogSettings.get("compressResults"))) {
             compressResults = dialogSettings.getBoolean("compressResults");
         }
+        if (!CommonUtils.isEmpty(dialogSettings.get("compressionType"))) {
+            try {
+                compressionType = CompressionType.valueOf(dialogSettings.get("compressionType"));
+            } catch (IllegalArgumentException e) {
+                compressionType = CompressionType.ZIP;
+            }
+        }
+        if (!CommonUtils.isEmpty(dialogSettings.get("maxRowsPerFile"))) {
+            maxRowsPerFile = CommonUtils.toLong(dialogSettings.get("maxRowsPerFile"));
+        }
+        if (!CommonUtils.isEmpty(dialogSettings.get("maxBytesPerFile"))) {
+            maxBytesPerFile = CommonUtils.toLong(dialogSettings.get("maxBytesPerFile"));
+        }
         if (dialogSettings.get("openFolderOnFinish") != null) {
             openFolderOnFinish = dialogSettings.getBoolean("openFolderOnFinish");
         }
@@ -222,6 +287,9 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         dialogSettings.put("outputClipboard", outputClipboard);
 
         dialogSettings.put("compressResults", compressResults);
+        dialogSettings.put("compressionType", compressionType.name());
+        dialogSettings.put("maxRowsPerFile", maxRowsPerFile);
+        dialogSettings.put("maxBytesPerFile", maxBytesPerFile);
 
         dialogSettings.put("openFolderOnFinish", openFolderOnFinish);
         dialogSettings.put("executeProcessOnFinish", executeProcessOnFinish);
@@ -43,6 +43,7 @@ import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.runtime.ui.DBUserInterface;
+import org.jkiss.dbeaver.tools.transfer.DataTransferBufferedResultSet;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.utils.ContentUtils;
@@ -53,6 +54,7 @@ import org.jkiss.utils.IOUtils;
 
 import java.io.*;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -64,6 +66,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private static final Log log = Log.getLog(StreamTransferConsumer.class);
 
     private static final String LOB_DIRECTORY_NAME = "files"; //$NON-NLS-1$
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
 
     public static final String VARIABLE_DATASOURCE = "datasource";
     public static final String VARIABLE_CATALOG = "catalog";
@@ -78,13 +81,16 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private StreamConsumerSettings settings;
     private DBSObject sourceObject;
     private OutputStream outputStream;
-    private ZipOutputStream zipStream;
+    private CountingOutputStream countingStream;
     private PrintWriter writer;
     private List<DBDAttributeBinding> metaColumns;
     private Object[] row;
     private File lobDirectory;
     private long lobCount;
     private File outputFile;
+    private int outputFileNumber;
+    private long outputFileRows;
+    private boolean outputFileFull;
     private StreamExportSite exportSite;
     private Map<Object, Object> processorProperties;
     private StringWriter outputBuffer;
@@ -126,13 +132,22 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     @Override
     public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (outputFileFull) {
+            // Start next file only when there is a row for it
+            switchOutputFile(session);
+        }
         try {
             // Get values
             for (int i = 0; i < metaColumns.size(); i++) {
                 DBDAttributeBinding column = metaColumns.get(i);
                 Object value;
                 try {
-                    value = column.getValueHandler().fetchValueObject(session, resultSet, column.getAttribute(), column.getOrdinalPosition());
+                    if (resultSet instanceof DataTransferBufferedResultSet) {
+                        // Value was already fetched by pipeline
+                        value = resultSet.getAttributeValue(column.getOrdinalPosition());
+                    } else {
+                        value = column.getValueHandler().fetchValueObject(session, resultSet, column.getAttribute(), column.getOrdinalPosition());
+                    }
                 } catch (DBCException e) {
                     log.debug("Error fetching '" + column.getAttribute().getName() + "' value: " + e.getMessage());
                     value = null;//new DBDValueError(e);
@@ -159,6 +174,10 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             }
             // Export row
             processor.exportRow(session, resultSet, row);
+            outputFileRows++;
+            if (isOutputFileLimitReached()) {
+                outputFileFull = true;
+            }
         } catch (IOException e) {
             throw new DBCException("IO error", e);
         } catch (Throwable e) {
@@ -207,23 +226,51 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
 
         exportSite = new StreamExportSite();
+        outputFileNumber = settings.isSplitOutputFiles() ? 1 : 0;
+
+        openOutput();
+
+        try {
+            // init exporter
+            processor.init(exportSite);
+        } catch (DBException e) {
+            throw new DBCException("Can't initialize data exporter", e);
+        }
+    }
 
+    private void openOutput() throws DBCException {
         // Open output streams
         boolean outputClipboard = settings.isOutputClipboard();
         outputFile = !isBinary && outputClipboard ? null : makeOutputFile();
+        outputFileRows = 0;
+        outputFileFull = false;
         try {
             if (outputClipboard) {
                 this.outputBuffer = new StringWriter(2048);
                 this.writer = new PrintWriter(this.outputBuffer, true);
             } else {
-                this.outputStream = new BufferedOutputStream(
+                OutputStream fileStream = new BufferedOutputStream(
                     new FileOutputStream(outputFile),
-                    10000);
+                    OUTPUT_BUFFER_SIZE);
                 if (settings.isCompressResults()) {
-                    zipStream = new ZipOutputStream(this.outputStream);
-                    zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
-                    StreamTransferConsumer.this.outputStream = zipStream;
+                    OutputStream compressStream;
+                    switch (settings.getCompressionType()) {
+                        case GZIP:
+                            compressStream = new GZIPOutputStream(fileStream, OUTPUT_BUFFER_SIZE);
+                            break;
+                        default:
+                            ZipOutputStream zipStream = new ZipOutputStream(fileStream);
+                            zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
+                            compressStream = zipStream;
+                            break;
+                    }
+                    // Compress in a separate thread. Export thread only formats values.
+                    fileStream = new AsyncOutputStream(compressStream, "Compress " + outputFile.getName());
+                }
+                if (settings.getMaxBytesPerFile() > 0) {
+                    fileStream = countingStream = new CountingOutputStream(fileStream);
                 }
+                this.outputStream = fileStream;
                 if (!isBinary) {
                     this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), true);
                 }
@@ -241,12 +288,45 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             closeExporter();
             throw new DBCException("Data transfer IO error", e);
         }
+    }
+
+    private boolean isOutputFileLimitReached() {
+        if (settings.isOutputClipboard()) {
+            return false;
+        }
+        long maxRows = settings.getMaxRowsPerFile();
+        if (maxRows > 0 && outputFileRows >= maxRows) {
+            return true;
+        }
+        // Data buffered in writer isn't counted yet, so file may be a bit bigger than limit
+        long maxBytes = settings.getMaxBytesPerFile();
+        return maxBytes > 0 && countingStream != null && countingStream.getCount() >= maxBytes;
+    }
 
+    /**
+     * Finishes current output file and starts the next one.
+     * Each file is a complete document with its own header and footer.
+     */
+    private void switchOutputFile(DBCSession session) throws DBCException {
+        try {
+            processor.exportFooter(session.getProgressMonitor());
+        } catch (Exception e) {
+            log.warn("Error while exporting table footer", e);
+        }
+        closeOutput();
+        if (settings.isExecuteProcessOnFinish()) {
+            executeFinishCommand();
+        }
+
+        outputFileNumber++;
+        openOutput();
         try {
-            // init exporter
             processor.init(exportSite);
+            processor.exportHeader(session);
         } catch (DBException e) {
             throw new DBCException("Can't initialize data exporter", e);
+        } catch (IOException e) {
+            throw new DBCException("IO error", e);
         }
     }
 
@@ -265,21 +345,24 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             processor = null;
         }
 
-        // Finish zip stream
-        if (zipStream != null) {
-            try {
-                zipStream.closeEntry();
-            } catch (IOException e) {
-                log.debug(e);
-            }
+        closeOutput();
+    }
+
+    private void closeOutput() {
+        if (exportSite != null) {
             try {
-                zipStream.finish();
+                exportSite.flush();
             } catch (IOException e) {
                 log.debug(e);
             }
         }
+
+        // Closing of the writer (or stream) finishes compressed stream and waits for the compression thread
         if (this.writer != null) {
-            ContentUtils.close(this.writer);
+            this.writer.close();
+            if (this.writer.checkError()) {
+                log.warn("Error writing output file '" + outputFile + "'");
+            }
             this.writer = null;
         }
 
@@ -287,6 +370,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             ContentUtils.close(outputStream);
             outputStream = null;
         }
+        countingStream = null;
     }
 
     @Override
@@ -362,6 +446,9 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         String fileName = translatePattern(
             settings.getOutputFilePattern(),
             null).trim();
+        if (outputFileNumber > 0) {
+            fileName += "_" + String.format("%04d", outputFileNumber);
+        }
         if (extension != null) {
             return fileName + "." + extension;
         } else {
@@ -376,7 +463,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
         String fileName = getOutputFileName();
         if (settings.isCompressResults()) {
-            fileName += ".zip";
+            fileName += "." + settings.getCompressionType().getExtension();
         }
         return new File(dir, fileName);
     }
@@ -436,6 +523,30 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         return null;
     }
 
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
     private class StreamExportSite implements IStreamDataExporterSite {
         @Override
         public DBPNamedObject getSource() {
@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCNumberValueHandler;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferUtils;
@@ -70,8 +71,11 @@ public class DataExporterCSV extends StreamExporterAbstract {
     private HeaderPosition headerPosition;
     private PrintWriter out;
     private List<DBDAttributeBinding> columns;
+    // Columns which integer values are exported with Long.toString
+    private boolean[] plainIntegerColumns;
 
-    private final StringBuilder buffer = new StringBuilder();
+    // Current row text
+    private final ExportTextBuffer buffer = new ExportTextBuffer();
 
     @Override
     public void init(IStreamDataExporterSite site) throws DBException
@@ -120,6 +124,15 @@ public class DataExporterCSV extends StreamExporterAbstract {
     public void exportHeader(DBCSession session) throws DBException, IOException
     {
         columns = getSite().getAttributes();
+        plainIntegerColumns = new boolean[columns.size()];
+        // Integers are written without quoting, so fast path is possible only if they never need quotes
+        boolean plainIntegers = !(useQuotes && quoteAlways) && !delimiter.matches(".*[-0-9].*");
+        for (int i = 0; i < columns.size(); i++) {
+            DBDAttributeBinding column = columns.get(i);
+            plainIntegerColumns[i] = plainIntegers &&
+                column.getValueHandler() instanceof JDBCNumberValueHandler &&
+                getValueExportFormat(column) == DBDDisplayFormat.NATIVE;
+        }
         if (headerPosition == HeaderPosition.top || headerPosition == HeaderPosition.both) {
             printHeader();
         }
@@ -148,12 +161,17 @@ public class DataExporterCSV extends StreamExporterAbstract {
             DBDAttributeBinding column = columns.get(i);
             if (DBUtils.isNullValue(row[i])) {
                 if (!CommonUtils.isEmpty(nullString)) {
-                    out.write(nullString);
+                    buffer.append(nullString);
                 }
+            } else if (plainIntegerColumns[i] && isIntegerValue(row[i])) {
+                // Native integer format is the same as Long.toString. Skip value handler.
+                buffer.append(((Number) row[i]).longValue());
             } else if (row[i] instanceof DBDContent) {
                 // Content
                 // Inline textual content and handle binaries in some special way
                 DBDContent content = (DBDContent)row[i];
+                // Content is written directly to the output
+                buffer.flushTo(out);
                 try {
                     DBDContentStorage cs = content.getContents(session.getProgressMonitor());
                     if (cs == null) {
@@ -193,6 +211,10 @@ public class DataExporterCSV extends StreamExporterAbstract {
         }
     }
 
+    private static boolean isIntegerValue(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
     private void writeCellValue(String value, boolean quote)
     {
         if (!useQuotes) {
@@ -212,21 +234,14 @@ public class DataExporterCSV extends StreamExporterAbstract {
                 quote = true;
             }
         }
+        if (quote && useQuotes) buffer.append(quoteChar);
         if (quote && hasQuotes) {
             // escape quotes with double quotes
-            buffer.setLength(0);
-            for (int i = 0; i < value.length(); i++) {
-                char c = value.charAt(i);
-                if (c == quoteChar) {
-                    buffer.append(quoteChar);
-                }
-                buffer.append(c);
-            }
-            value = buffer.toString();
+            buffer.appendDoubleQuoted(value, quoteChar);
+        } else {
+            buffer.append(value);
         }
-        if (quote && useQuotes) out.write(quoteChar);
-        out.write(value);
-        if (quote && useQuotes) out.write(quoteChar);
+        if (quote && useQuotes) buffer.append(quoteChar);
     }
 
     private void writeCellValue(Reader reader) throws IOException
@@ -240,12 +255,15 @@ public class DataExporterCSV extends StreamExporterAbstract {
                 if (count <= 0) {
                     break;
                 }
+                int start = 0;
                 for (int i = 0; i < count; i++) {
                     if (useQuotes && buffer[i] == quoteChar) {
-                        out.write(quoteChar);
+                        // Write chunk including quote and then the quote itself once again
+                        out.write(buffer, start, i - start + 1);
+                        start = i;
                     }
-                    out.write(buffer[i]);
                 }
+                out.write(buffer, start, count - start);
             }
             if (useQuotes) out.write(quoteChar);
         } finally {
@@ -255,12 +273,13 @@ public class DataExporterCSV extends StreamExporterAbstract {
 
     private void writeDelimiter()
     {
-        out.write(delimiter);
+        buffer.append(delimiter);
     }
 
     private void writeRowLimit()
     {
-        out.write(rowDelimiter);
+        buffer.append(rowDelimiter);
+        buffer.flushTo(out);
     }
 
 }
@@ -47,12 +47,17 @@ public class DataExporterJSON extends StreamExporterAbstract {
 
     private PrintWriter out;
     private List<DBDAttributeBinding> columns;
+    // Escaped column names with indent and colon
+    private String[] columnPrefixes;
     private String tableName;
     private int rowNum = 0;
 
     private boolean printTableName = true;
     private boolean formatDateISO = true;
 
+    // Current row text
+    private final ExportTextBuffer buffer = new ExportTextBuffer();
+
     @Override
     public void init(IStreamDataExporterSite site) throws DBException
     {
@@ -73,6 +78,15 @@ public class DataExporterJSON extends StreamExporterAbstract {
     public void exportHeader(DBCSession session) throws DBException, IOException
     {
         columns = getSite().getAttributes();
+        columnPrefixes = new String[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            DBDAttributeBinding column = columns.get(i);
+            String columnName = column.getLabel();
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = column.getName();
+            }
+            columnPrefixes[i] = "\t\t\"" + JSONUtils.escapeJsonString(columnName) + "\" : ";
+        }
         tableName = getSite().getSource().getName();
         printHeader();
     }
@@ -90,17 +104,13 @@ public class DataExporterJSON extends StreamExporterAbstract {
     public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException
     {
         if (rowNum > 0) {
-            out.write(",\n");
+            buffer.append(",\n");
         }
         rowNum++;
-        out.write("\t{\n");
+        buffer.append("\t{\n");
         for (int i = 0; i < row.length; i++) {
             DBDAttributeBinding column = columns.get(i);
-            String columnName = column.getLabel();
-            if (CommonUtils.isEmpty(columnName)) {
-                columnName = column.getName();
-            }
-            out.write("\t\t\"" + JSONUtils.escapeJsonString(columnName) + "\" : ");
+            buffer.append(columnPrefixes[i]);
             Object cellValue = row[i];
             if (DBUtils.isNullValue(cellValue)) {
                 writeTextCell(null);
@@ -108,6 +118,8 @@ public class DataExporterJSON extends StreamExporterAbstract {
                 // Content
                 // Inline textual content and handle binaries in some special way
                 DBDContent content = (DBDContent) cellValue;
+                // Content is written directly to the output
+                buffer.flushTo(out);
                 try {
                     DBDContentStorage cs = content.getContents(session.getProgressMonitor());
                     if (cs != null) {
@@ -126,20 +138,27 @@ public class DataExporterJSON extends StreamExporterAbstract {
                     content.release();
                 }
             } else {
-                if (cellValue instanceof Number || cellValue instanceof Boolean) {
-                    out.write(cellValue.toString());
+                if (cellValue instanceof Integer || cellValue instanceof Long || cellValue instanceof Short || cellValue instanceof Byte) {
+                    buffer.append(((Number) cellValue).longValue());
+                } else if (cellValue instanceof Number || cellValue instanceof Boolean) {
+                    buffer.append(cellValue.toString());
                 } else if (cellValue instanceof Date && formatDateISO) {
-                    writeTextCell(JSONUtils.formatDate((Date) cellValue));
+                    buffer.append('"');
+                    if (!buffer.appendIsoTimestampUTC(((Date) cellValue).getTime())) {
+                        buffer.appendJsonEscaped(JSONUtils.formatDate((Date) cellValue));
+                    }
+                    buffer.append('"');
                 } else {
                     writeTextCell(super.getValueDisplayString(column, cellValue));
                 }
             }
             if (i < row.length - 1) {
-                out.write(",");
+                buffer.append(',');
             }
-            out.write("\n");
+            buffer.append('\n');
         }
-        out.write("\t}");
+        buffer.append("\t}");
+        buffer.flushTo(out);
     }
 
     @Override
@@ -155,22 +174,23 @@ public class DataExporterJSON extends StreamExporterAbstract {
     private void writeTextCell(@Nullable String value)
     {
         if (value != null) {
-            out.write("\"" + JSONUtils.escapeJsonString(value) + "\"");
+            buffer.append('"').appendJsonEscaped(value).append('"');
         } else {
-            out.write("null");
+            buffer.append("null");
         }
     }
 
     private void writeCellValue(Reader reader) throws IOException
     {
         // Copy reader
-        char buffer[] = new char[2000];
+        char readBuffer[] = new char[2000];
         for (;;) {
-            int count = reader.read(buffer);
+            int count = reader.read(readBuffer);
             if (count <= 0) {
                 break;
             }
-            out.write(JSONUtils.escapeJsonString(new String(buffer, 0, count)));
+            buffer.appendJsonEscaped(readBuffer, 0, count);
+            buffer.flushTo(out);
         }
     }
 
@@ -0,0 +1,344 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Apache Parquet exporter.
+ *
+ * Column types are mapped to Parquet types by attribute data kind and type ID.
+ * Rows are buffered by columns and written in row groups of limited size, so memory usage doesn't depend on table size.
+ */
+public class DataExporterParquet extends StreamExporterAbstract {
+
+    private static final String PROP_ROW_GROUP_SIZE = "rowGroupSize";
+    private static final String PROP_COMPRESSION = "compression";
+
+    private static final int DEFAULT_ROW_GROUP_SIZE_MB = 64;
+    private static final int MAX_DECIMAL_PRECISION = 18;
+
+    private enum ValueType {
+        BOOLEAN,
+        INT32,
+        INT64,
+        FLOAT,
+        DOUBLE,
+        DECIMAL,
+        DATE,
+        TIME,
+        TIMESTAMP,
+        BINARY,
+        STRING
+    }
+
+    private long rowGroupSize;
+    private boolean compress;
+    private List<DBDAttributeBinding> columns;
+    private ValueType[] valueTypes;
+    private int[] scales;
+    private Object[] rowValues;
+    private ParquetWriter writer;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        Map<Object, Object> properties = site.getProperties();
+        int rowGroupSizeMb = CommonUtils.toInt(properties.get(PROP_ROW_GROUP_SIZE), DEFAULT_ROW_GROUP_SIZE_MB);
+        if (rowGroupSizeMb <= 0) {
+            rowGroupSizeMb = DEFAULT_ROW_GROUP_SIZE_MB;
+        }
+        rowGroupSize = rowGroupSizeMb * 1024L * 1024L;
+        compress = "gzip".equalsIgnoreCase(CommonUtils.toString(properties.get(PROP_COMPRESSION)));
+    }
+
+    @Override
+    public void dispose() {
+        writer = null;
+        super.dispose();
+    }
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        columns = getSite().getAttributes();
+        valueTypes = new ValueType[columns.size()];
+        scales = new int[columns.size()];
+        rowValues = new Object[columns.size()];
+
+        List<ParquetWriter.Column> parquetColumns = new ArrayList<>(columns.size());
+        Set<String> columnNames = new HashSet<>();
+        for (int i = 0; i < columns.size(); i++) {
+            DBDAttributeBinding column = columns.get(i);
+            ValueType valueType = getValueType(column);
+            valueTypes[i] = valueType;
+            String name = getColumnName(column, columnNames);
+            switch (valueType) {
+                case BOOLEAN:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.BOOLEAN, ParquetWriter.CONVERTED_NONE));
+                    break;
+                case INT32:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT32, ParquetWriter.CONVERTED_NONE));
+                    break;
+                case INT64:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT64, ParquetWriter.CONVERTED_NONE));
+                    break;
+                case FLOAT:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.FLOAT, ParquetWriter.CONVERTED_NONE));
+                    break;
+                case DOUBLE:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.DOUBLE, ParquetWriter.CONVERTED_NONE));
+                    break;
+                case DECIMAL:
+                    scales[i] = CommonUtils.toInt(column.getScale());
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT64, ParquetWriter.CONVERTED_DECIMAL,
+                        CommonUtils.toInt(column.getPrecision()), scales[i]));
+                    break;
+                case DATE:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT32, ParquetWriter.CONVERTED_DATE));
+                    break;
+                case TIME:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT32, ParquetWriter.CONVERTED_TIME_MILLIS));
+                    break;
+                case TIMESTAMP:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.INT64, ParquetWriter.CONVERTED_TIMESTAMP_MILLIS));
+                    break;
+                case BINARY:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.BYTE_ARRAY, ParquetWriter.CONVERTED_NONE));
+                    break;
+                default:
+                    parquetColumns.add(new ParquetWriter.Column(name, ParquetWriter.PhysicalType.BYTE_ARRAY, ParquetWriter.CONVERTED_UTF8));
+                    break;
+            }
+        }
+        writer = new ParquetWriter(getSite().getOutputStream(), parquetColumns, compress, "DBeaver");
+        writer.start();
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        for (int i = 0; i < row.length; i++) {
+            Object value = row[i];
+            if (DBUtils.isNullValue(value)) {
+                rowValues[i] = null;
+            } else if (value instanceof DBDContent) {
+                rowValues[i] = readContent(session.getProgressMonitor(), (DBDContent) value, valueTypes[i] == ValueType.BINARY);
+            } else {
+                rowValues[i] = convertValue(columns.get(i), valueTypes[i], scales[i], value);
+            }
+        }
+        writer.addRow(rowValues);
+        if (writer.getBufferedSize() >= rowGroupSize) {
+            writer.flushRowGroup();
+        }
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (writer != null) {
+            writer.finish();
+            writer = null;
+        }
+    }
+
+    private static ValueType getValueType(DBDAttributeBinding column) {
+        switch (column.getDataKind()) {
+            case BOOLEAN:
+                return ValueType.BOOLEAN;
+            case NUMERIC:
+                switch (column.getTypeID()) {
+                    case Types.BIT:
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                    case Types.INTEGER:
+                        return ValueType.INT32;
+                    case Types.BIGINT:
+                        return ValueType.INT64;
+                    case Types.REAL:
+                        return ValueType.FLOAT;
+                    case Types.FLOAT:
+                    case Types.DOUBLE:
+                        return ValueType.DOUBLE;
+                    case Types.DECIMAL:
+                    case Types.NUMERIC: {
+                        int precision = CommonUtils.toInt(column.getPrecision());
+                        int scale = CommonUtils.toInt(column.getScale());
+                        if (precision > 0 && precision <= MAX_DECIMAL_PRECISION && scale >= 0 && scale <= precision) {
+                            return ValueType.DECIMAL;
+                        }
+                        // Unknown or too big precision. Keep exact value as string.
+                        return ValueType.STRING;
+                    }
+                    default:
+                        return ValueType.DOUBLE;
+                }
+            case DATETIME:
+                switch (column.getTypeID()) {
+                    case Types.DATE:
+                        return ValueType.DATE;
+                    case Types.TIME:
+                        return ValueType.TIME;
+                    default:
+                        return ValueType.TIMESTAMP;
+                }
+            case BINARY:
+                return ValueType.BINARY;
+            case CONTENT:
+                switch (column.getTypeID()) {
+                    case Types.BLOB:
+                    case Types.LONGVARBINARY:
+                        return ValueType.BINARY;
+                    default:
+                        return ValueType.STRING;
+                }
+            default:
+                return ValueType.STRING;
+        }
+    }
+
+    private Object convertValue(DBDAttributeBinding column, ValueType valueType, int scale, Object value) throws DBException {
+        try {
+            switch (valueType) {
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        return value;
+                    } else if (value instanceof Number) {
+                        return ((Number) value).intValue() != 0;
+                    }
+                    return CommonUtils.toBoolean(value);
+                case INT32:
+                    return value instanceof Boolean ? ((Boolean) value ? 1 : 0) : toNumber(value).intValue();
+                case INT64:
+                    return toNumber(value).longValue();
+                case FLOAT:
+                    return toNumber(value).floatValue();
+                case DOUBLE:
+                    return toNumber(value).doubleValue();
+                case DECIMAL: {
+                    Number number = toNumber(value);
+                    BigDecimal decimal = number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+                    return decimal.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                }
+                case DATE:
+                    if (value instanceof java.sql.Date) {
+                        return (int) ((java.sql.Date) value).toLocalDate().toEpochDay();
+                    } else if (value instanceof Date) {
+                        return (int) new java.sql.Date(((Date) value).getTime()).toLocalDate().toEpochDay();
+                    }
+                    break;
+                case TIME:
+                    if (value instanceof java.sql.Time) {
+                        return (int) (((java.sql.Time) value).toLocalTime().toNanoOfDay() / 1000000);
+                    } else if (value instanceof Date) {
+                        return (int) (new java.sql.Time(((Date) value).getTime()).toLocalTime().toNanoOfDay() / 1000000);
+                    }
+                    break;
+                case TIMESTAMP:
+                    if (value instanceof Date) {
+                        return ((Date) value).getTime();
+                    }
+                    break;
+                case BINARY:
+                    if (value instanceof byte[]) {
+                        return value;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new DBException("Can't convert value of column '" + column.getName() + "' to " + valueType, e);
+        }
+        if (valueType == ValueType.BINARY || valueType == ValueType.STRING) {
+            String strValue = value instanceof String ? (String) value : super.getValueDisplayString(column, value);
+            return strValue.getBytes(StandardCharsets.UTF_8);
+        }
+        throw new DBException("Unsupported value of column '" + column.getName() + "' for type " + valueType + ": " + value.getClass().getName());
+    }
+
+    private static Number toNumber(Object value) {
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    private static byte[] readContent(DBRProgressMonitor monitor, DBDContent content, boolean binary) throws DBException, IOException {
+        try {
+            DBDContentStorage cs = content.getContents(monitor);
+            if (cs == null) {
+                return null;
+            }
+            if (!binary || ContentUtils.isTextContent(content)) {
+                StringWriter buffer = new StringWriter();
+                try (Reader in = cs.getContentReader()) {
+                    IOUtils.copyText(in, buffer);
+                }
+                return buffer.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (InputStream in = cs.getContentStream()) {
+                IOUtils.copyStream(in, buffer);
+            }
+            return buffer.toByteArray();
+        } finally {
+            content.release();
+        }
+    }
+
+    /**
+     * Column name unique in the file. Characters which are not allowed by Spark are replaced.
+     */
+    private static String getColumnName(DBDAttributeBinding column, Set<String> columnNames) {
+        String name = column.getLabel();
+        if (CommonUtils.isEmpty(name)) {
+            name = column.getName();
+        }
+        StringBuilder result = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            result.append(" ,;{}()\n\t=".indexOf(c) >= 0 ? '_' : c);
+        }
+        String uniqueName = result.toString();
+        for (int index = 2; !columnNames.add(uniqueName); index++) {
+            uniqueName = result + "_" + index;
+        }
+        return uniqueName;
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Reusable char buffer for text exporters.
+ * Row text is composed in the buffer (with escaping and number formatting done in place)
+ * and then passed to the output writer with a single call. No intermediate strings are created.
+ */
+final class ExportTextBuffer {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final char[] MIN_LONG_CHARS = String.valueOf(Long.MIN_VALUE).toCharArray();
+
+    private char[] chars = new char[4096];
+    private int length;
+
+    int length() {
+        return length;
+    }
+
+    void reset() {
+        length = 0;
+    }
+
+    /**
+     * Writes buffer contents and resets the buffer
+     */
+    void flushTo(PrintWriter out) {
+        if (length > 0) {
+            out.write(chars, 0, length);
+            length = 0;
+        }
+    }
+
+    ExportTextBuffer append(char c) {
+        ensureCapacity(1);
+        chars[length++] = c;
+        return this;
+    }
+
+    ExportTextBuffer append(String str) {
+        int strLength = str.length();
+        ensureCapacity(strLength);
+        str.getChars(0, strLength, chars, length);
+        length += strLength;
+        return this;
+    }
+
+    ExportTextBuffer append(char[] src, int offset, int count) {
+        ensureCapacity(count);
+        System.arraycopy(src, offset, chars, length, count);
+        length += count;
+        return this;
+    }
+
+    /**
+     * Appends decimal representation of the number (same as Long.toString)
+     */
+    ExportTextBuffer append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(MIN_LONG_CHARS, 0, MIN_LONG_CHARS.length);
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            chars[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int pos = length + digits;
+        do {
+            chars[--pos] = (char) ('0' + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        length += digits;
+        return this;
+    }
+
+    /**
+     * Appends string with JSON escaping
+     */
+    ExportTextBuffer appendJsonEscaped(String str) {
+        int strLength = str.length();
+        ensureCapacity(strLength);
+        for (int i = 0; i < strLength; i++) {
+            appendJsonEscaped(str.charAt(i));
+        }
+        return this;
+    }
+
+    ExportTextBuffer appendJsonEscaped(char[] src, int offset, int count) {
+        ensureCapacity(count);
+        for (int i = offset; i < offset + count; i++) {
+            appendJsonEscaped(src[i]);
+        }
+        return this;
+    }
+
+    private void appendJsonEscaped(char c) {
+        switch (c) {
+            case '\n': appendEscape('n'); break;
+            case '\r': appendEscape('r'); break;
+            case '\t': appendEscape('t'); break;
+            case '\f': appendEscape('f'); break;
+            case '\b': appendEscape('b'); break;
+            case '"':
+            case '\\':
+            case '/':
+                appendEscape(c);
+                break;
+            default:
+                append(c);
+                break;
+        }
+    }
+
+    private void appendEscape(char c) {
+        ensureCapacity(2);
+        chars[length++] = '\\';
+        chars[length++] = c;
+    }
+
+    /**
+     * Appends string. If quoteChar isn't 0 then quote chars are doubled.
+     */
+    ExportTextBuffer appendDoubleQuoted(String str, char quoteChar) {
+        int strLength = str.length();
+        ensureCapacity(strLength);
+        for (int i = 0; i < strLength; i++) {
+            char c = str.charAt(i);
+            if (c == quoteChar) {
+                append(c);
+            }
+            append(c);
+        }
+        return this;
+    }
+
+    /**
+     * Appends UTC timestamp in ISO format (yyyy-MM-dd'T'HH:mm:ss'Z').
+     * Returns false (and appends nothing) if year is out of 1583-9999 range, where Gregorian calendar
+     * proleptic math doesn't match java.util calendars.
+     */
+    boolean appendIsoTimestampUTC(long millis) {
+        long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+        int secondOfDay = (int) (Math.floorMod(millis, MILLIS_PER_DAY) / 1000);
+        // Civil date from days since epoch
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 1583 || year > 9999) {
+            return false;
+        }
+        ensureCapacity(20);
+        appendDigits((int) year, 4);
+        chars[length++] = '-';
+        appendDigits(month, 2);
+        chars[length++] = '-';
+        appendDigits(day, 2);
+        chars[length++] = 'T';
+        appendDigits(secondOfDay / 3600, 2);
+        chars[length++] = ':';
+        appendDigits(secondOfDay / 60 % 60, 2);
+        chars[length++] = ':';
+        appendDigits(secondOfDay % 60, 2);
+        chars[length++] = 'Z';
+        return true;
+    }
+
+    private void appendDigits(int value, int digits) {
+        for (int pos = length + digits - 1; pos >= length; pos--) {
+            chars[pos] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void ensureCapacity(int count) {
+        if (length + count > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count));
+        }
+    }
+
+}
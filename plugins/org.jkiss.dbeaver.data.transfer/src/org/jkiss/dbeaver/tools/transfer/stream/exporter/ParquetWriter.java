@@ -0,0 +1,486 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Minimal Apache Parquet file writer.
+ *
+ * Supports flat schema of optional (nullable) primitive columns.
+ * Rows are buffered in memory by columns until {@link #flushRowGroup()}.
+ * Each column chunk is written as a single PLAIN-encoded data page (v1) with RLE-encoded definition levels.
+ * File metadata is serialized with Thrift compact protocol (see parquet.thrift).
+ */
+class ParquetWriter {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    enum PhysicalType {
+        BOOLEAN(0),
+        INT32(1),
+        INT64(2),
+        FLOAT(4),
+        DOUBLE(5),
+        BYTE_ARRAY(6);
+
+        private final int id;
+
+        PhysicalType(int id) {
+            this.id = id;
+        }
+    }
+
+    // Converted (logical) types
+    static final int CONVERTED_NONE = -1;
+    static final int CONVERTED_UTF8 = 0;
+    static final int CONVERTED_DECIMAL = 5;
+    static final int CONVERTED_DATE = 6;
+    static final int CONVERTED_TIME_MILLIS = 7;
+    static final int CONVERTED_TIMESTAMP_MILLIS = 9;
+
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_RLE = 3;
+    private static final int CODEC_UNCOMPRESSED = 0;
+    private static final int CODEC_GZIP = 2;
+    private static final int PAGE_TYPE_DATA = 0;
+
+    static class Column {
+        final String name;
+        final PhysicalType type;
+        final int convertedType;
+        final int precision;
+        final int scale;
+
+        Column(String name, PhysicalType type, int convertedType) {
+            this(name, type, convertedType, 0, 0);
+        }
+
+        Column(String name, PhysicalType type, int convertedType, int precision, int scale) {
+            this.name = name;
+            this.type = type;
+            this.convertedType = convertedType;
+            this.precision = precision;
+            this.scale = scale;
+        }
+    }
+
+    private static class ColumnChunkInfo {
+        long offset;
+        long numValues;
+        long uncompressedSize;
+        long compressedSize;
+    }
+
+    private static class RowGroupInfo {
+        final List<ColumnChunkInfo> columns = new ArrayList<>();
+        long totalByteSize;
+        long numRows;
+    }
+
+    /**
+     * Column values of the current row group
+     */
+    private static class ColumnBuffer {
+        final PlainBuffer values = new PlainBuffer();
+        final BitSet defined = new BitSet();
+        int bitBuffer;
+        int bitCount;
+
+        void reset() {
+            values.reset();
+            defined.clear();
+            bitBuffer = 0;
+            bitCount = 0;
+        }
+    }
+
+    private static class PlainBuffer extends ByteArrayOutputStream {
+        PlainBuffer() {
+            super(1024);
+        }
+
+        byte[] getBuffer() {
+            return buf;
+        }
+
+        void writeIntLE(int value) {
+            write(value);
+            write(value >>> 8);
+            write(value >>> 16);
+            write(value >>> 24);
+        }
+
+        void writeLongLE(long value) {
+            writeIntLE((int) value);
+            writeIntLE((int) (value >>> 32));
+        }
+    }
+
+    private final OutputStream out;
+    private final List<Column> columns;
+    private final ColumnBuffer[] buffers;
+    private final boolean compress;
+    private final String createdBy;
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+    private long position;
+    private int bufferedRows;
+    private long totalRows;
+
+    ParquetWriter(OutputStream out, List<Column> columns, boolean compress, String createdBy) {
+        this.out = out;
+        this.columns = columns;
+        this.compress = compress;
+        this.createdBy = createdBy;
+        this.buffers = new ColumnBuffer[columns.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ColumnBuffer();
+        }
+    }
+
+    void start() throws IOException {
+        write(MAGIC, 0, MAGIC.length);
+    }
+
+    /**
+     * Adds row. Values must match column physical types:
+     * Boolean, Integer, Long, Float, Double or byte[] (null means NULL).
+     */
+    void addRow(Object[] values) {
+        for (int i = 0; i < buffers.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            ColumnBuffer buffer = buffers[i];
+            buffer.defined.set(bufferedRows);
+            switch (columns.get(i).type) {
+                case BOOLEAN:
+                    if ((Boolean) value) {
+                        buffer.bitBuffer |= 1 << buffer.bitCount;
+                    }
+                    if (++buffer.bitCount == 8) {
+                        buffer.values.write(buffer.bitBuffer);
+                        buffer.bitBuffer = 0;
+                        buffer.bitCount = 0;
+                    }
+                    break;
+                case INT32:
+                    buffer.values.writeIntLE((Integer) value);
+                    break;
+                case INT64:
+                    buffer.values.writeLongLE((Long) value);
+                    break;
+                case FLOAT:
+                    buffer.values.writeIntLE(Float.floatToIntBits((Float) value));
+                    break;
+                case DOUBLE:
+                    buffer.values.writeLongLE(Double.doubleToLongBits((Double) value));
+                    break;
+                case BYTE_ARRAY:
+                    byte[] bytes = (byte[]) value;
+                    buffer.values.writeIntLE(bytes.length);
+                    buffer.values.write(bytes, 0, bytes.length);
+                    break;
+            }
+        }
+        bufferedRows++;
+    }
+
+    int getBufferedRows() {
+        return bufferedRows;
+    }
+
+    /**
+     * Approximate size of buffered row group data
+     */
+    long getBufferedSize() {
+        long size = 0;
+        for (ColumnBuffer buffer : buffers) {
+            size += buffer.values.size();
+        }
+        return size + (long) bufferedRows * buffers.length / 8;
+    }
+
+    void flushRowGroup() throws IOException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        RowGroupInfo rowGroup = new RowGroupInfo();
+        rowGroup.numRows = bufferedRows;
+        for (ColumnBuffer buffer : buffers) {
+            ColumnChunkInfo chunk = writeColumnChunk(buffer);
+            rowGroup.columns.add(chunk);
+            rowGroup.totalByteSize += chunk.uncompressedSize;
+            buffer.reset();
+        }
+        rowGroups.add(rowGroup);
+        totalRows += bufferedRows;
+        bufferedRows = 0;
+    }
+
+    /**
+     * Writes the rest of rows and file footer. Doesn't close output stream.
+     */
+    void finish() throws IOException {
+        flushRowGroup();
+        ThriftCompactWriter footer = new ThriftCompactWriter();
+        writeFileMetaData(footer);
+        byte[] footerBytes = footer.toByteArray();
+        write(footerBytes, 0, footerBytes.length);
+        PlainBuffer tail = new PlainBuffer();
+        tail.writeIntLE(footerBytes.length);
+        tail.write(MAGIC, 0, MAGIC.length);
+        write(tail.getBuffer(), 0, tail.size());
+        out.flush();
+    }
+
+    private ColumnChunkInfo writeColumnChunk(ColumnBuffer buffer) throws IOException {
+        if (buffer.bitCount > 0) {
+            buffer.values.write(buffer.bitBuffer);
+        }
+        // Page data: definition levels (length-prefixed) followed by values of non-null rows
+        PlainBuffer levels = new PlainBuffer();
+        writeDefinitionLevels(levels, buffer.defined, bufferedRows);
+        PlainBuffer pageData = new PlainBuffer();
+        pageData.writeIntLE(levels.size());
+        pageData.write(levels.getBuffer(), 0, levels.size());
+        pageData.write(buffer.values.getBuffer(), 0, buffer.values.size());
+
+        int uncompressedSize = pageData.size();
+        byte[] data = pageData.getBuffer();
+        int dataLength = uncompressedSize;
+        if (compress) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(uncompressedSize / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(data, 0, dataLength);
+            }
+            data = compressed.toByteArray();
+            dataLength = data.length;
+        }
+
+        ThriftCompactWriter header = new ThriftCompactWriter();
+        header.writeStructBegin();
+        header.writeI32Field(1, PAGE_TYPE_DATA);
+        header.writeI32Field(2, uncompressedSize);
+        header.writeI32Field(3, dataLength);
+        header.writeStructFieldBegin(5);
+        {
+            // DataPageHeader
+            header.writeI32Field(1, bufferedRows);
+            header.writeI32Field(2, ENCODING_PLAIN);
+            header.writeI32Field(3, ENCODING_RLE);
+            header.writeI32Field(4, ENCODING_RLE);
+            header.writeStructEnd();
+        }
+        header.writeStructEnd();
+        byte[] headerBytes = header.toByteArray();
+
+        ColumnChunkInfo chunk = new ColumnChunkInfo();
+        chunk.offset = position;
+        chunk.numValues = bufferedRows;
+        chunk.uncompressedSize = headerBytes.length + uncompressedSize;
+        chunk.compressedSize = headerBytes.length + dataLength;
+        write(headerBytes, 0, headerBytes.length);
+        write(data, 0, dataLength);
+        return chunk;
+    }
+
+    /**
+     * Writes definition levels (bit width 1) with RLE runs of the RLE/bit-packing hybrid encoding
+     */
+    private static void writeDefinitionLevels(PlainBuffer levels, BitSet defined, int rowCount) {
+        int pos = 0;
+        while (pos < rowCount) {
+            boolean isDefined = defined.get(pos);
+            int runEnd = isDefined ? defined.nextClearBit(pos) : defined.nextSetBit(pos);
+            if (runEnd < 0 || runEnd > rowCount) {
+                runEnd = rowCount;
+            }
+            writeUnsignedVarInt(levels, (long) (runEnd - pos) << 1);
+            levels.write(isDefined ? 1 : 0);
+            pos = runEnd;
+        }
+    }
+
+    private void writeFileMetaData(ThriftCompactWriter meta) {
+        meta.writeStructBegin();
+        meta.writeI32Field(1, 1);
+        // Schema. Root element followed by columns
+        meta.writeListFieldBegin(2, ThriftCompactWriter.TYPE_STRUCT, columns.size() + 1);
+        {
+            meta.writeStructBegin();
+            meta.writeStringField(4, "schema");
+            meta.writeI32Field(5, columns.size());
+            meta.writeStructEnd();
+        }
+        for (Column column : columns) {
+            meta.writeStructBegin();
+            meta.writeI32Field(1, column.type.id);
+            meta.writeI32Field(3, REPETITION_OPTIONAL);
+            meta.writeStringField(4, column.name);
+            if (column.convertedType != CONVERTED_NONE) {
+                meta.writeI32Field(6, column.convertedType);
+            }
+            if (column.convertedType == CONVERTED_DECIMAL) {
+                meta.writeI32Field(7, column.scale);
+                meta.writeI32Field(8, column.precision);
+            }
+            meta.writeStructEnd();
+        }
+        meta.writeI64Field(3, totalRows);
+        meta.writeListFieldBegin(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroupInfo rowGroup : rowGroups) {
+            meta.writeStructBegin();
+            meta.writeListFieldBegin(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.columns.size());
+            for (int i = 0; i < rowGroup.columns.size(); i++) {
+                ColumnChunkInfo chunk = rowGroup.columns.get(i);
+                Column column = columns.get(i);
+                // ColumnChunk
+                meta.writeStructBegin();
+                meta.writeI64Field(2, chunk.offset);
+                meta.writeStructFieldBegin(3);
+                {
+                    // ColumnMetaData
+                    meta.writeI32Field(1, column.type.id);
+                    meta.writeListFieldBegin(2, ThriftCompactWriter.TYPE_I32, 2);
+                    meta.writeI32(ENCODING_PLAIN);
+                    meta.writeI32(ENCODING_RLE);
+                    meta.writeListFieldBegin(3, ThriftCompactWriter.TYPE_BINARY, 1);
+                    meta.writeString(column.name);
+                    meta.writeI32Field(4, compress ? CODEC_GZIP : CODEC_UNCOMPRESSED);
+                    meta.writeI64Field(5, chunk.numValues);
+                    meta.writeI64Field(6, chunk.uncompressedSize);
+                    meta.writeI64Field(7, chunk.compressedSize);
+                    meta.writeI64Field(9, chunk.offset);
+                    meta.writeStructEnd();
+                }
+                meta.writeStructEnd();
+            }
+            meta.writeI64Field(2, rowGroup.totalByteSize);
+            meta.writeI64Field(3, rowGroup.numRows);
+            meta.writeStructEnd();
+        }
+        if (createdBy != null) {
+            meta.writeStringField(6, createdBy);
+        }
+        meta.writeStructEnd();
+    }
+
+    private void write(byte[] data, int offset, int length) throws IOException {
+        out.write(data, offset, length);
+        position += length;
+    }
+
+    private static void writeUnsignedVarInt(ByteArrayOutputStream buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+
+    /**
+     * Thrift compact protocol encoder (only features used by Parquet metadata)
+     */
+    private static class ThriftCompactWriter {
+        static final int TYPE_I32 = 5;
+        static final int TYPE_I64 = 6;
+        static final int TYPE_BINARY = 8;
+        static final int TYPE_LIST = 9;
+        static final int TYPE_STRUCT = 12;
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        private final int[] fieldIdStack = new int[16];
+        private int stackDepth;
+        private int lastFieldId;
+
+        byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+
+        void writeStructBegin() {
+            fieldIdStack[stackDepth++] = lastFieldId;
+            lastFieldId = 0;
+        }
+
+        void writeStructEnd() {
+            buffer.write(0);
+            lastFieldId = fieldIdStack[--stackDepth];
+        }
+
+        void writeStructFieldBegin(int id) {
+            writeFieldHeader(TYPE_STRUCT, id);
+            writeStructBegin();
+        }
+
+        void writeI32Field(int id, int value) {
+            writeFieldHeader(TYPE_I32, id);
+            writeI32(value);
+        }
+
+        void writeI64Field(int id, long value) {
+            writeFieldHeader(TYPE_I64, id);
+            writeUnsignedVarInt(buffer, (value << 1) ^ (value >> 63));
+        }
+
+        void writeStringField(int id, String value) {
+            writeFieldHeader(TYPE_BINARY, id);
+            writeString(value);
+        }
+
+        void writeListFieldBegin(int id, int elementType, int size) {
+            writeFieldHeader(TYPE_LIST, id);
+            if (size < 15) {
+                buffer.write((size << 4) | elementType);
+            } else {
+                buffer.write(0xF0 | elementType);
+                writeUnsignedVarInt(buffer, size);
+            }
+        }
+
+        void writeI32(int value) {
+            writeUnsignedVarInt(buffer, ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsignedVarInt(buffer, bytes.length);
+            buffer.write(bytes, 0, bytes.length);
+        }
+
+        private void writeFieldHeader(int type, int id) {
+            int delta = id - lastFieldId;
+            if (delta > 0 && delta <= 15) {
+                buffer.write((delta << 4) | type);
+            } else {
+                buffer.write(type);
+                writeI32(id);
+            }
+            lastFieldId = id;
+        }
+    }
+
+}
@@ -0,0 +1,325 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.Nullable;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.*;
+
+/**
+ * CSV reader.
+ * Reads input channel by big blocks and cuts each block at the last record boundary (line end outside of quotes).
+ * Blocks are parsed in parallel, parsed row batches are returned in the original order.
+ *
+ * Quoted values may contain delimiters, line feeds, doubled quotes and escaped (with backslash) quotes.
+ * Quote char is recognized only at the beginning of value.
+ */
+class CSVChunkReader implements AutoCloseable {
+
+    static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final char ESCAPE_CHAR = '\\';
+
+    /**
+     * Parsed rows. Values of all rows are stored in the single flat buffer.
+     */
+    static class RowBatch {
+        private String[] values = new String[1024];
+        private int valueCount;
+        private int[] rowEnds = new int[128];
+        private int rowCount;
+
+        private void addValue(String value) {
+            if (valueCount >= values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[valueCount++] = value;
+        }
+
+        private void endRow() {
+            if (rowCount >= rowEnds.length) {
+                rowEnds = Arrays.copyOf(rowEnds, rowEnds.length * 2);
+            }
+            rowEnds[rowCount++] = valueCount;
+        }
+
+        int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Returns row values. Row is padded with nulls up to minLength.
+         */
+        String[] getRow(int row, int minLength) {
+            int start = row == 0 ? 0 : rowEnds[row - 1];
+            int length = rowEnds[row] - start;
+            String[] result = new String[Math.max(length, minLength)];
+            System.arraycopy(values, start, result, 0, length);
+            return result;
+        }
+    }
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char quoteChar;
+    private final boolean emptyStringNull;
+    private final String nullValueMark;
+    private final int blockSize;
+    private final ExecutorService executor;
+    private final int maxPendingBlocks;
+    private final Deque<Future<RowBatch>> pendingBlocks = new ArrayDeque<>();
+
+    private char[] carry = new char[0];
+    private int carryLength;
+    private boolean eof;
+
+    CSVChunkReader(
+        InputStream inputStream,
+        Charset charset,
+        char delimiter,
+        char quoteChar,
+        boolean emptyStringNull,
+        @Nullable String nullValueMark,
+        int parseThreads,
+        int blockSize)
+    {
+        ReadableByteChannel channel = inputStream instanceof FileInputStream ?
+            ((FileInputStream) inputStream).getChannel() :
+            Channels.newChannel(inputStream);
+        CharsetDecoder decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.reader = Channels.newReader(channel, decoder, -1);
+        this.delimiter = delimiter;
+        this.quoteChar = quoteChar;
+        this.emptyStringNull = emptyStringNull;
+        this.nullValueMark = nullValueMark == null || nullValueMark.isEmpty() ? null : nullValueMark;
+        this.blockSize = blockSize;
+        if (parseThreads > 1) {
+            this.executor = Executors.newFixedThreadPool(parseThreads, r -> {
+                Thread thread = new Thread(r, "CSV parser");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Limit memory used by already read but not yet consumed blocks
+            this.maxPendingBlocks = parseThreads * 2;
+        } else {
+            this.executor = null;
+            this.maxPendingBlocks = 1;
+        }
+    }
+
+    /**
+     * Reads next batch of rows.
+     * @return rows or null on end of stream
+     */
+    @Nullable
+    RowBatch nextBatch() throws IOException {
+        for (;;) {
+            while (!eof && pendingBlocks.size() < maxPendingBlocks) {
+                readBlock();
+            }
+            Future<RowBatch> future = pendingBlocks.pollFirst();
+            if (future == null) {
+                return null;
+            }
+            RowBatch batch;
+            try {
+                batch = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("CSV parse interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException("CSV parse error", e.getCause());
+            }
+            if (batch.getRowCount() > 0) {
+                return batch;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        pendingBlocks.clear();
+        reader.close();
+    }
+
+    private void readBlock() throws IOException {
+        char[] block = new char[carryLength + blockSize];
+        System.arraycopy(carry, 0, block, 0, carryLength);
+        int length = carryLength;
+        while (length < block.length) {
+            int count = reader.read(block, length, block.length - length);
+            if (count < 0) {
+                eof = true;
+                break;
+            }
+            length += count;
+        }
+        int recordsEnd = eof ? length : findRecordsEnd(block, length);
+        // Keep incomplete record for the next block.
+        // If there are no complete records at all then next block will be bigger.
+        carryLength = length - recordsEnd;
+        carry = Arrays.copyOfRange(block, recordsEnd, length);
+        if (recordsEnd == 0) {
+            return;
+        }
+        Callable<RowBatch> parser = () -> parseBlock(block, recordsEnd);
+        if (executor != null) {
+            pendingBlocks.addLast(executor.submit(parser));
+        } else {
+            FutureTask<RowBatch> task = new FutureTask<>(parser);
+            task.run();
+            pendingBlocks.addLast(task);
+        }
+    }
+
+    /**
+     * Finds position after the last line feed which is outside of quoted value.
+     * Uses the same state machine as parser but doesn't extract values.
+     */
+    private int findRecordsEnd(char[] buffer, int length) {
+        int recordsEnd = 0;
+        boolean valueStart = true;
+        boolean inQuotes = false;
+        for (int i = 0; i < length; i++) {
+            char c = buffer[i];
+            if (inQuotes) {
+                if (c == ESCAPE_CHAR && i + 1 < length && (buffer[i + 1] == quoteChar || buffer[i + 1] == ESCAPE_CHAR)) {
+                    i++;
+                } else if (c == quoteChar) {
+                    if (i + 1 < length && buffer[i + 1] == quoteChar) {
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                }
+            } else if (c == '\n') {
+                recordsEnd = i + 1;
+                valueStart = true;
+            } else if (c == delimiter || c == '\r') {
+                valueStart = true;
+            } else {
+                if (valueStart && c == quoteChar) {
+                    inQuotes = true;
+                }
+                valueStart = false;
+            }
+        }
+        return recordsEnd;
+    }
+
+    private RowBatch parseBlock(char[] buffer, int length) {
+        RowBatch batch = new RowBatch();
+        StringBuilder value = new StringBuilder(100);
+        int pos = 0;
+        while (pos < length) {
+            char c = buffer[pos];
+            if (c == '\n' || c == '\r') {
+                // Skip empty lines
+                pos++;
+                continue;
+            }
+            // Parse record
+            for (;;) {
+                value.setLength(0);
+                boolean quoted = false;
+                if (pos < length && buffer[pos] == quoteChar) {
+                    quoted = true;
+                    pos++;
+                    while (pos < length) {
+                        c = buffer[pos];
+                        if (c == ESCAPE_CHAR && pos + 1 < length && (buffer[pos + 1] == quoteChar || buffer[pos + 1] == ESCAPE_CHAR)) {
+                            value.append(buffer[pos + 1]);
+                            pos += 2;
+                        } else if (c == quoteChar) {
+                            if (pos + 1 < length && buffer[pos + 1] == quoteChar) {
+                                value.append(quoteChar);
+                                pos += 2;
+                            } else {
+                                pos++;
+                                break;
+                            }
+                        } else {
+                            value.append(c);
+                            pos++;
+                        }
+                    }
+                }
+                // Unquoted value or the rest of value after closing quote
+                int start = pos;
+                while (pos < length) {
+                    c = buffer[pos];
+                    if (c == delimiter || c == '\n' || c == '\r') {
+                        break;
+                    }
+                    pos++;
+                }
+                String strValue;
+                if (quoted || value.length() > 0) {
+                    value.append(buffer, start, pos - start);
+                    strValue = value.toString();
+                } else {
+                    strValue = new String(buffer, start, pos - start);
+                }
+                batch.addValue(convertValue(strValue));
+
+                if (pos < length && buffer[pos] == delimiter) {
+                    pos++;
+                    continue;
+                }
+                // End of record
+                if (pos < length && buffer[pos] == '\r') {
+                    pos++;
+                }
+                if (pos < length && buffer[pos] == '\n') {
+                    pos++;
+                }
+                batch.endRow();
+                break;
+            }
+        }
+        return batch;
+    }
+
+    @Nullable
+    private String convertValue(String value) {
+        if (emptyStringNull && value.isEmpty()) {
+            return null;
+        }
+        if (nullValueMark != null && nullValueMark.equals(value)) {
+            return null;
+        }
+        return value;
+    }
+
+}
@@ -16,7 +16,6 @@
  */
 package org.jkiss.dbeaver.tools.transfer.stream.importer;
 
-import au.com.bytecode.opencsv.CSVReader;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
@@ -27,13 +26,16 @@ import org.jkiss.dbeaver.tools.transfer.stream.*;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
- * CSV importer
+ * CSV importer.
+ * Input is read with {@link CSVChunkReader} which parses big blocks of file in parallel threads.
  */
 public class DataImporterCSV extends StreamImporterAbstract {
 
@@ -45,6 +47,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_QUOTE_CHAR = "quoteChar";
     private static final String PROP_NULL_STRING = "nullString";
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
+    private static final String PROP_PARSE_THREADS = "parseThreads";
 
     enum HeaderPosition {
         none,
@@ -61,24 +64,17 @@ public class DataImporterCSV extends StreamImporterAbstract {
         Map<Object, Object> processorProperties = getSite().getProcessorProperties();
         HeaderPosition headerPosition = getHeaderPosition(processorProperties);
 
-        try (Reader reader = openStreamReader(inputStream, processorProperties)) {
-            try (CSVReader csvReader = openCSVReader(reader, processorProperties)) {
-                for (;;) {
-                    String[] line = csvReader.readNext();
-                    if (line == null) {
-                        break;
-                    }
-                    if (line.length == 0) {
-                        continue;
-                    }
-                    for (int i = 0; i < line.length; i++) {
-                        String column = line[i];
-                        if (headerPosition == HeaderPosition.none) {
-                            column = null;
-                        }
-                        columnsInfo.add(new StreamDataImporterColumnInfo(i, column));
+        // Only the first line is needed - do not parse in parallel
+        try (CSVChunkReader csvReader = openCSVReader(inputStream, processorProperties, 1)) {
+            CSVChunkReader.RowBatch batch = csvReader.nextBatch();
+            if (batch != null) {
+                String[] line = batch.getRow(0, 0);
+                for (int i = 0; i < line.length; i++) {
+                    String column = line[i];
+                    if (headerPosition == HeaderPosition.none) {
+                        column = null;
                     }
-                    break;
+                    columnsInfo.add(new StreamDataImporterColumnInfo(i, column));
                 }
             }
         } catch (IOException e) {
@@ -99,18 +95,28 @@ public class DataImporterCSV extends StreamImporterAbstract {
         return headerPosition;
     }
 
-    private CSVReader openCSVReader(Reader reader, Map<Object, Object> processorProperties) {
+    private CSVChunkReader openCSVReader(InputStream inputStream, Map<Object, Object> processorProperties, int parseThreads) throws DBException {
+        String encoding = CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
+        Charset charset;
+        try {
+            charset = Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            throw new DBException("Unsupported encoding: " + encoding, e);
+        }
         String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
             quoteChar = "'";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0));
-    }
-
-    private InputStreamReader openStreamReader(InputStream inputStream, Map<Object, Object> processorProperties) throws UnsupportedEncodingException {
-        String encoding = CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
-        return new InputStreamReader(inputStream, encoding);
+        return new CSVChunkReader(
+            inputStream,
+            charset,
+            delimiter.charAt(0),
+            quoteChar.charAt(0),
+            CommonUtils.getBoolean(processorProperties.get(PROP_EMPTY_STRING_NULL), false),
+            CommonUtils.toString(processorProperties.get(PROP_NULL_STRING)),
+            parseThreads,
+            CSVChunkReader.DEFAULT_BLOCK_SIZE);
     }
 
     @Override
@@ -119,8 +125,10 @@ public class DataImporterCSV extends StreamImporterAbstract {
         StreamProducerSettings.EntityMapping entityMapping = site.getSettings().getEntityMapping(site.getSourceObject());
         Map<Object, Object> properties = site.getProcessorProperties();
         HeaderPosition headerPosition = getHeaderPosition(properties);
-        boolean emptyStringNull = CommonUtils.getBoolean(properties.get(PROP_EMPTY_STRING_NULL), false);
-        String nullValueMark = CommonUtils.toString(properties.get(PROP_NULL_STRING));
+        int parseThreads = CommonUtils.toInt(properties.get(PROP_PARSE_THREADS));
+        if (parseThreads <= 0) {
+            parseThreads = Runtime.getRuntime().availableProcessors();
+        }
 
         try (StreamTransferSession producerSession = new StreamTransferSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
             LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
@@ -128,54 +136,27 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             consumer.fetchStart(producerSession, resultSet, -1, -1);
 
-            try (Reader reader = openStreamReader(inputStream, properties)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
-
-                    int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
-                    boolean headerRead = false;
-                    for (int lineNum = 0; ; ) {
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            break;
-                        }
-                        if (line.length == 0) {
-                            continue;
-                        }
-                        if (headerPosition != HeaderPosition.none && !headerRead) {
+            try (CSVChunkReader csvReader = openCSVReader(inputStream, properties, parseThreads)) {
+                int maxRows = site.getSettings().getMaxRows();
+                // Stream row may be shorter than header
+                int targetAttrSize = entityMapping.getStreamColumns().size();
+                boolean headerRead = headerPosition == HeaderPosition.none;
+                int lineNum = 0;
+                readLoop:
+                for (CSVChunkReader.RowBatch batch = csvReader.nextBatch(); batch != null; batch = csvReader.nextBatch()) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    for (int i = 0; i < batch.getRowCount(); i++) {
+                        if (!headerRead) {
                             // First line is a header
                             headerRead = true;
                             continue;
                         }
                         if (maxRows > 0 && lineNum >= maxRows) {
-                            break;
+                            break readLoop;
                         }
-
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize - line.length; i++) {
-                                newLine[i] = null;
-                            }
-                            line = newLine;
-                        }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-
-                        resultSet.setStreamRow(line);
+                        resultSet.setStreamRow(batch.getRow(i, targetAttrSize));
                         consumer.fetchRow(producerSession, resultSet);
                         lineNum++;
                     }
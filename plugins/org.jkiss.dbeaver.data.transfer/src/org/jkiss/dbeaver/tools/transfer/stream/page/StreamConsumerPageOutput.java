@@ -36,12 +36,17 @@ import org.jkiss.utils.CommonUtils;
 
 public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizard> {
 
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
     private Combo encodingCombo;
     private Label encodingBOMLabel;
     private Button encodingBOMCheckbox;
     private Text directoryText;
     private Text fileNameText;
     private Button compressCheckbox;
+    private Combo compressionTypeCombo;
+    private Spinner splitRowsSpinner;
+    private Spinner splitSizeSpinner;
     private Button showFolderCheckbox;
     private Button execProcessCheckbox;
     private Text execProcessText;
@@ -141,13 +146,33 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
             }
 
             compressCheckbox = UIUtils.createLabelCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_compress, false);
-            compressCheckbox.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, true, false, 4, 1));
+            compressCheckbox.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, true, false, 1, 1));
             compressCheckbox.addSelectionListener(new SelectionAdapter() {
                 @Override
                 public void widgetSelected(SelectionEvent e) {
                     settings.setCompressResults(compressCheckbox.getSelection());
+                    toggleClipboardOutput();
+                }
+            });
+            compressionTypeCombo = UIUtils.createLabelCombo(generalSettings, DTMessages.data_transfer_wizard_output_label_compression_type, SWT.DROP_DOWN | SWT.READ_ONLY);
+            compressionTypeCombo.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 2, 1));
+            for (StreamConsumerSettings.CompressionType compressionType : StreamConsumerSettings.CompressionType.values()) {
+                compressionTypeCombo.add(compressionType.name());
+            }
+            compressionTypeCombo.addModifyListener(e -> {
+                int index = compressionTypeCombo.getSelectionIndex();
+                if (index >= 0) {
+                    settings.setCompressionType(StreamConsumerSettings.CompressionType.values()[index]);
                 }
             });
+
+            splitRowsSpinner = UIUtils.createLabelSpinner(generalSettings, DTMessages.data_transfer_wizard_output_label_split_rows,
+                DTMessages.data_transfer_wizard_output_label_split_rows_tooltip, 0, 0, Integer.MAX_VALUE);
+            splitRowsSpinner.addModifyListener(e -> settings.setMaxRowsPerFile(splitRowsSpinner.getSelection()));
+            splitSizeSpinner = UIUtils.createLabelSpinner(generalSettings, DTMessages.data_transfer_wizard_output_label_split_size,
+                DTMessages.data_transfer_wizard_output_label_split_size_tooltip, 0, 0, Integer.MAX_VALUE);
+            splitSizeSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 2, 1));
+            splitSizeSpinner.addModifyListener(e -> settings.setMaxBytesPerFile((long) splitSizeSpinner.getSelection() * BYTES_PER_MB));
         }
 
         {
@@ -214,6 +239,9 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setEnabled(!clipboard);
         fileNameText.setEnabled(!clipboard);
         compressCheckbox.setEnabled(!clipboard);
+        compressionTypeCombo.setEnabled(!clipboard && compressCheckbox.getSelection());
+        splitRowsSpinner.setEnabled(!clipboard);
+        splitSizeSpinner.setEnabled(!clipboard);
         encodingCombo.setEnabled(!isBinary && !clipboard);
         encodingBOMLabel.setEnabled(!isBinary && !clipboard);
         encodingBOMCheckbox.setEnabled(!isBinary && !clipboard);
@@ -239,6 +267,9 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setText(CommonUtils.toString(settings.getOutputFolder()));
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
+        compressionTypeCombo.select(settings.getCompressionType().ordinal());
+        splitRowsSpinner.setSelection((int) Math.min(settings.getMaxRowsPerFile(), Integer.MAX_VALUE));
+        splitSizeSpinner.setSelection((int) Math.min(settings.getMaxBytesPerFile() / BYTES_PER_MB, Integer.MAX_VALUE));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
         encodingBOMCheckbox.setSelection(settings.isOutputEncodingBOM());
         showFolderCheckbox.setSelection(settings.isOpenFolderOnFinish());
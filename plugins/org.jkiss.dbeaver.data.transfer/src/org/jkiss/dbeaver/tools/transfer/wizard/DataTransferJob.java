@@ -21,10 +21,12 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBWorkbench;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.ui.DBPPlatformUI;
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipelineConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
@@ -35,16 +37,23 @@ import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 /**
- * Data transfer job
+ * Data transfer job.
+ * Several jobs may work on the same settings simultaneously - each of them acquires next free pipe
+ * until all pipes are processed. The last finished job completes the transfer and shows the summary.
  */
 public class DataTransferJob extends AbstractJob {
 
+    private static final Log log = Log.getLog(DataTransferJob.class);
+
     private DataTransferSettings settings;
+    private DataTransferSummary summary;
 
-    public DataTransferJob(DataTransferSettings settings)
+    public DataTransferJob(DataTransferSettings settings, DataTransferSummary summary)
     {
         super(DTMessages.data_transfer_wizard_job_name);
         this.settings = settings;
+        this.summary = summary;
+        this.summary.registerJob();
 
         setUser(true);
     }
@@ -58,23 +67,33 @@ public class DataTransferJob extends AbstractJob {
     @Override
     protected IStatus run(DBRProgressMonitor monitor)
     {
-        boolean hasErrors = false;
-        long startTime = System.currentTimeMillis();
-        for (; ;) {
-            DataTransferPipe transferPipe = settings.acquireDataPipe(monitor);
-            if (transferPipe == null) {
-                break;
+        try {
+            while (!monitor.isCanceled()) {
+                DataTransferPipe transferPipe = settings.acquireDataPipe(monitor);
+                if (transferPipe == null) {
+                    break;
+                }
+                transferData(monitor, transferPipe);
             }
-            if (!transferData(monitor, transferPipe)) {
-                hasErrors = true;
+        } finally {
+            if (summary.unregisterJob()) {
+                // The last running job finalizes the whole transfer
+                settings.finishTransfer(monitor);
+                showResult();
             }
         }
-        showResult(System.currentTimeMillis() - startTime, hasErrors);
         return Status.OK_STATUS;
     }
 
-    private void showResult(final long time, final boolean hasErrors)
+    private void showResult()
     {
+        final long time = summary.getElapsedTime();
+        final boolean hasErrors = summary.hasErrors();
+        final String summaryText = summary.formatSummary();
+        log.debug("Data transfer completed\n" + summaryText);
+        if (hasErrors && summary.getFirstError() != null) {
+            new DataTransferErrorJob(summary.getFirstError()).schedule();
+        }
         // Run async to avoid blocking progress monitor dialog
         UIUtils.asyncExec(() -> {
             // Make a sound
@@ -90,37 +109,51 @@ public class DataTransferJob extends AbstractJob {
                 UIUtils.showMessageBox(
                     null,
                     "Data transfer",
-                    "Data transfer completed " + (hasErrors ? "with errors " : "") + "(" + RuntimeUtils.formatExecutionTime(time) + ")",
+                    "Data transfer completed " + (hasErrors ? "with errors " : "") + "(" + RuntimeUtils.formatExecutionTime(time) + ")\n\n" + summaryText,
                     hasErrors ? SWT.ICON_ERROR : SWT.ICON_INFORMATION);
             }
         });
     }
 
-    private boolean transferData(DBRProgressMonitor monitor, DataTransferPipe transferPipe)
+    private void transferData(DBRProgressMonitor monitor, DataTransferPipe transferPipe)
     {
         IDataTransferProducer producer = transferPipe.getProducer();
         IDataTransferConsumer consumer = transferPipe.getConsumer();
 
         IDataTransferSettings consumerSettings = settings.getNodeSettings(consumer);
 
-        setName(NLS.bind(DTMessages.data_transfer_wizard_job_container_name,
-            CommonUtils.truncateString(producer.getObjectName(), 200)));
+        String objectName = CommonUtils.truncateString(producer.getObjectName(), 200);
+        setName(NLS.bind(DTMessages.data_transfer_wizard_job_container_name, objectName) +
+            " [" + (summary.getFinishedPipes() + 1) + "/" + summary.getTotalPipes() + "]");
 
         IDataTransferSettings nodeSettings = settings.getNodeSettings(producer);
+        long startTime = System.currentTimeMillis();
+        DataTransferPipelineConsumer pipeline = null;
         try {
             //consumer.initTransfer(producer.getDatabaseObject(), consumerSettings, );
 
             IDataTransferProcessor processor = settings.getProcessor() == null ? null : settings.getProcessor().getInstance();
+            pipeline = settings.isPipelineEnabled() ?
+                new DataTransferPipelineConsumer(consumer, settings.getPipelineBatchSize()) : null;
             producer.transferData(
                 monitor,
-                consumer,
+                pipeline != null ? pipeline : consumer,
                 processor,
                 nodeSettings);
+            if (pipeline != null) {
+                // Producer may log and ignore errors of the last written rows
+                pipeline.checkWriterError();
+            }
             consumer.finishTransfer(monitor, false);
-            return true;
+            summary.pipeFinished(objectName, System.currentTimeMillis() - startTime, null);
         } catch (Exception e) {
-            new DataTransferErrorJob(e).schedule();
-            return false;
+            // Do not break other pipes. Errors are reported once in the end.
+            log.error("Error transferring '" + objectName + "'", e);
+            summary.pipeFinished(objectName, System.currentTimeMillis() - startTime, e);
+        } finally {
+            if (pipeline != null) {
+                summary.pipelineFinished(pipeline);
+            }
         }
 
     }
@@ -30,6 +30,7 @@ import org.jkiss.dbeaver.tools.transfer.registry.DataTransferPageDescriptor;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferProcessorDescriptor;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferRegistry;
 import org.jkiss.dbeaver.runtime.ui.DBUserInterface;
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipelineConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferNode;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
@@ -75,6 +76,8 @@ public class DataTransferSettings {
     private boolean consumerOptional;
     private boolean producerOptional;
     private int maxJobCount = DEFAULT_THREADS_NUM;
+    private boolean pipelineEnabled = false;
+    private int pipelineBatchSize = DataTransferPipelineConsumer.DEFAULT_BATCH_SIZE;
 
     private transient int curPipeNum = 0;
 
@@ -260,10 +263,6 @@ public class DataTransferSettings {
     public synchronized DataTransferPipe acquireDataPipe(DBRProgressMonitor monitor) {
         if (curPipeNum >= dataPipes.size()) {
             // End of transfer
-            // Signal last pipe about it
-            if (!dataPipes.isEmpty()) {
-                dataPipes.get(dataPipes.size() - 1).getConsumer().finishTransfer(monitor, true);
-            }
             return null;
         }
 
@@ -273,6 +272,16 @@ public class DataTransferSettings {
         return result;
     }
 
+    /**
+     * Signals last pipe about the end of transfer.
+     * Must be called once, after all pipes were processed.
+     */
+    public synchronized void finishTransfer(DBRProgressMonitor monitor) {
+        if (!dataPipes.isEmpty()) {
+            dataPipes.get(dataPipes.size() - 1).getConsumer().finishTransfer(monitor, true);
+        }
+    }
+
     public DataTransferNodeDescriptor getProducer() {
         return producer;
     }
@@ -360,6 +369,27 @@ public class DataTransferSettings {
         }
     }
 
+    /**
+     * Pipelined transfer reads source and writes target in separate threads
+     */
+    public boolean isPipelineEnabled() {
+        return pipelineEnabled;
+    }
+
+    public void setPipelineEnabled(boolean pipelineEnabled) {
+        this.pipelineEnabled = pipelineEnabled;
+    }
+
+    public int getPipelineBatchSize() {
+        return pipelineBatchSize;
+    }
+
+    public void setPipelineBatchSize(int pipelineBatchSize) {
+        if (pipelineBatchSize > 0) {
+            this.pipelineBatchSize = pipelineBatchSize;
+        }
+    }
+
     public boolean isShowFinalMessage() {
         return showFinalMessage;
     }
@@ -377,6 +407,14 @@ public class DataTransferSettings {
         if (dialogSettings.get("showFinalMessage") != null) {
             showFinalMessage = dialogSettings.getBoolean("showFinalMessage");
         }
+        if (dialogSettings.get("pipelineEnabled") != null) {
+            pipelineEnabled = dialogSettings.getBoolean("pipelineEnabled");
+        }
+        try {
+            setPipelineBatchSize(dialogSettings.getInt("pipelineBatchSize"));
+        } catch (NumberFormatException e) {
+            pipelineBatchSize = DataTransferPipelineConsumer.DEFAULT_BATCH_SIZE;
+        }
 
         if (consumerOptional || producerOptional) {
             DataTransferNodeDescriptor savedConsumer = null, savedProducer = null, savedNode = null;
@@ -450,6 +488,8 @@ public class DataTransferSettings {
     void saveTo(IDialogSettings dialogSettings) {
         dialogSettings.put("maxJobCount", maxJobCount);
         dialogSettings.put("showFinalMessage", showFinalMessage);
+        dialogSettings.put("pipelineEnabled", pipelineEnabled);
+        dialogSettings.put("pipelineBatchSize", pipelineBatchSize);
         // Save nodes' settings
         for (Map.Entry<Class, NodeSettings> entry : nodeSettings.entrySet()) {
             IDialogSettings nodeSection = DialogSettings.getOrCreateSection(dialogSettings, entry.getKey().getSimpleName());
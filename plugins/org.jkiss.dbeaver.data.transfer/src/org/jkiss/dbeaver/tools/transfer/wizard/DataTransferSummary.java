@@ -0,0 +1,159 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.wizard;
+
+import org.jkiss.dbeaver.tools.transfer.DataTransferPipelineConsumer;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregated state of all data transfer jobs which work on the same settings.
+ * Tracks active jobs, processed pipes and errors. Thread-safe.
+ */
+public class DataTransferSummary {
+
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final int totalPipes;
+    private final long startTime;
+    private int activeJobs;
+    private int maxActiveJobs;
+    private int finishedPipes;
+    private int failedPipes;
+    private long totalPipeTime;
+    private final List<String> failedObjects = new ArrayList<>();
+    private Throwable firstError;
+
+    // Pipeline statistics
+    private int pipelinedPipes;
+    private long pipelineRows;
+    private long producerStallTime;
+    private long consumerStallTime;
+    private int maxQueueDepth;
+    private int queueCapacity;
+
+    public DataTransferSummary(int totalPipes) {
+        this.totalPipes = totalPipes;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Registers new job. Must be called before job scheduling.
+     */
+    synchronized void registerJob() {
+        activeJobs++;
+        if (activeJobs > maxActiveJobs) {
+            maxActiveJobs = activeJobs;
+        }
+    }
+
+    /**
+     * Unregisters finished job.
+     * @return true if it was the last active job
+     */
+    synchronized boolean unregisterJob() {
+        activeJobs--;
+        return activeJobs <= 0;
+    }
+
+    synchronized void pipeFinished(String objectName, long time, Throwable error) {
+        finishedPipes++;
+        totalPipeTime += time;
+        if (error != null) {
+            failedPipes++;
+            if (firstError == null) {
+                firstError = error;
+            }
+            if (failedObjects.size() < MAX_REPORTED_ERRORS) {
+                failedObjects.add(objectName);
+            }
+        }
+    }
+
+    synchronized void pipelineFinished(DataTransferPipelineConsumer pipeline) {
+        pipelinedPipes++;
+        pipelineRows += pipeline.getRowCount();
+        producerStallTime += pipeline.getProducerStallTime();
+        consumerStallTime += pipeline.getConsumerStallTime();
+        maxQueueDepth = Math.max(maxQueueDepth, pipeline.getMaxQueueDepth());
+        queueCapacity = pipeline.getQueueCapacity();
+    }
+
+    public synchronized int getFinishedPipes() {
+        return finishedPipes;
+    }
+
+    public int getTotalPipes() {
+        return totalPipes;
+    }
+
+    public synchronized boolean hasErrors() {
+        return failedPipes > 0;
+    }
+
+    public synchronized Throwable getFirstError() {
+        return firstError;
+    }
+
+    public long getElapsedTime() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    public synchronized String formatSummary() {
+        long elapsedTime = getElapsedTime();
+        StringBuilder summary = new StringBuilder();
+        summary.append("Objects transferred: ").append(finishedPipes - failedPipes).append(" of ").append(totalPipes);
+        if (failedPipes > 0) {
+            summary.append(" (").append(failedPipes).append(" failed)");
+        }
+        summary.append("\nTotal time: ").append(RuntimeUtils.formatExecutionTime(elapsedTime));
+        if (maxActiveJobs > 1) {
+            summary.append("\nParallel jobs: ").append(maxActiveJobs);
+            if (elapsedTime > 0) {
+                // Sum of per-object times vs wall time shows how much parallel execution gave
+                summary.append(" (speedup x").append(String.format("%.1f", (double) totalPipeTime / elapsedTime)).append(")");
+            }
+        }
+        if (finishedPipes > 0 && elapsedTime > 0) {
+            summary.append("\nThroughput: ").append(String.format("%.2f", finishedPipes * 1000.0 / elapsedTime)).append(" objects/s");
+        }
+        if (pipelinedPipes > 0) {
+            summary.append("\nRows transferred: ").append(pipelineRows);
+            if (elapsedTime > 0) {
+                summary.append(" (").append(pipelineRows * 1000 / elapsedTime).append(" rows/s)");
+            }
+            summary.append("\nPipeline queue depth: max ").append(maxQueueDepth).append(" of ").append(queueCapacity).append(" batches");
+            // Reader stalls mean that target is the bottleneck, writer stalls - that source is
+            summary.append("\nReader stall time: ").append(RuntimeUtils.formatExecutionTime(producerStallTime));
+            summary.append("\nWriter stall time: ").append(RuntimeUtils.formatExecutionTime(consumerStallTime));
+        }
+        if (!failedObjects.isEmpty()) {
+            summary.append("\nFailed: ");
+            for (int i = 0; i < failedObjects.size(); i++) {
+                if (i > 0) summary.append(", ");
+                summary.append(failedObjects.get(i));
+            }
+            if (failedPipes > failedObjects.size()) {
+                summary.append(", ...");
+            }
+        }
+        return summary.toString();
+    }
+
+}
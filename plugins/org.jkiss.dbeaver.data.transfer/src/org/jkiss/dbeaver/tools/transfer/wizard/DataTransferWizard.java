@@ -34,6 +34,8 @@ import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
 import org.jkiss.dbeaver.ui.UIUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DataTransferWizard extends Wizard implements IExportWizard {
 
@@ -200,8 +202,14 @@ public class DataTransferWizard extends Wizard implements IExportWizard {
         if (totalJobs > settings.getMaxJobCount()) {
             totalJobs = settings.getMaxJobCount();
         }
+        DataTransferSummary summary = new DataTransferSummary(settings.getDataPipes().size());
+        List<DataTransferJob> jobs = new ArrayList<>(totalJobs);
+        // Register all jobs before scheduling so the first finished job won't consider itself the last one
         for (int i = 0; i < totalJobs; i++) {
-            new DataTransferJob(settings).schedule();
+            jobs.add(new DataTransferJob(settings, summary));
+        }
+        for (DataTransferJob job : jobs) {
+            job.schedule();
         }
     }
 
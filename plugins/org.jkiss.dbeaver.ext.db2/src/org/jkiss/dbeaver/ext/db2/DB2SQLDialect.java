@@ -58,6 +58,11 @@ public class DB2SQLDialect extends JDBCSQLDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsGroupingSets() {
+        return true;
+    }
+
     @NotNull
     @Override
     public String[] getExecuteKeywords()
@@ -38,6 +38,9 @@ public class DiagramObjectCollector {
 
     private static final Log log = Log.getLog(DiagramObjectCollector.class);
 
+    // Minimal number of tables selected in the same container which makes whole container structure prefetch worthwhile
+    private static final int PREFETCH_MIN_ENTITIES = 10;
+
     private final EntityDiagram diagram;
     private final List<ERDEntity> erdEntities = new ArrayList<>();
 
@@ -52,14 +55,17 @@ public class DiagramObjectCollector {
         throws DBException
     {
         Set<DBSEntity> tables = new LinkedHashSet<>();
-        collectTables(monitor, roots, tables);
+        Map<DBSObjectContainer, Integer> entityContainers = new LinkedHashMap<>();
+        collectTables(monitor, roots, tables, entityContainers);
+        prefetchContainers(monitor, entityContainers);
         return tables;
     }
 
     private static void collectTables(
         DBRProgressMonitor monitor,
         Collection<? extends DBSObject> roots,
-        Set<DBSEntity> tables)
+        Set<DBSEntity> tables,
+        Map<DBSObjectContainer, Integer> entityContainers)
         throws DBException
     {
         for (DBSObject root : roots) {
@@ -70,9 +76,14 @@ public class DiagramObjectCollector {
                 root = ((DBSAlias) root).getTargetObject(monitor);
             }
             if (root instanceof DBSFolder) {
-                collectTables(monitor, ((DBSFolder) root).getChildrenObjects(monitor), tables);
+                collectTables(monitor, ((DBSFolder) root).getChildrenObjects(monitor), tables, entityContainers);
             } else if (root instanceof DBSEntity) {
-                tables.add((DBSEntity) root);
+                if (tables.add((DBSEntity) root)) {
+                    DBSObjectContainer container = DBUtils.getParentOfType(DBSObjectContainer.class, root);
+                    if (container != null) {
+                        entityContainers.merge(container, 1, Integer::sum);
+                    }
+                }
             }
             if (root instanceof DBSObjectContainer) {
                 collectTables(monitor, (DBSObjectContainer) root, tables);
@@ -110,6 +121,30 @@ public class DiagramObjectCollector {
         }
     }
 
+    /**
+     * Many tables of the same container were selected explicitly.
+     * Read the whole container structure with a few bulk queries instead of per-table queries.
+     */
+    private static void prefetchContainers(
+        DBRProgressMonitor monitor,
+        Map<DBSObjectContainer, Integer> entityContainers)
+    {
+        for (Map.Entry<DBSObjectContainer, Integer> entry : entityContainers.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (entry.getValue() < PREFETCH_MIN_ENTITIES) {
+                continue;
+            }
+            try {
+                entry.getKey().cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+            } catch (DBException e) {
+                // Not fatal, tables' metadata will be read on demand
+                log.debug("Error prefetching structure of '" + entry.getKey().getName() + "'", e);
+            }
+        }
+    }
+
     public void generateDiagramObjects(
         DBRProgressMonitor monitor,
         Collection<? extends DBSObject> roots)
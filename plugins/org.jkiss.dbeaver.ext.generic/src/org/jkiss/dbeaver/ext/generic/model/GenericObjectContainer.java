@@ -22,6 +22,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBPRefreshableObject;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCStructurePrefetch;
 import org.jkiss.dbeaver.model.meta.Association;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
@@ -222,40 +223,45 @@ public abstract class GenericObjectContainer implements GenericStructContainer,D
         }
         // Cache associations
         if ((scope & STRUCT_ASSOCIATIONS) != 0 && dataSource.supportsStructCache()) {
-            // Try to read all PKs
-            // Try to read all FKs
-            try {
-                monitor.subTask("Cache primary keys");
-                Collection<GenericPrimaryKey> objects = primaryKeysCache.getObjects(monitor, this, null);
-                if (CommonUtils.isEmpty(objects)) {
-                    // Nothing was read, Maybe driver doesn't support mass keys reading
-                    primaryKeysCache.clearCache();
+            // PKs and indexes are independent and may be read in parallel.
+            // FKs refer to unique keys so they are read after them
+            JDBCStructurePrefetch prefetch = new JDBCStructurePrefetch(this);
+            prefetch.add("primary keys", pm -> {
+                // Try to read all PKs
+                try {
+                    Collection<GenericPrimaryKey> objects = primaryKeysCache.getObjects(pm, this, null);
+                    if (CommonUtils.isEmpty(objects)) {
+                        // Nothing was read, Maybe driver doesn't support mass keys reading
+                        primaryKeysCache.clearCache();
+                    }
+                } catch (Exception e) {
+                    // Failed - seems to be unsupported feature
+                    log.debug(e);
                 }
-            } catch (Exception e) {
-                // Failed - seems to be unsupported feature
-                log.debug(e);
-            }
+            });
 
             if (dataSource.getInfo().supportsIndexes()) {
                 // Try to read all indexes
-                monitor.subTask("Cache indexes");
-                cacheIndexes(monitor, false);
+                prefetch.add("indexes", pm -> cacheIndexes(pm, false));
             }
 
             if (dataSource.getInfo().supportsReferentialIntegrity()) {
-                // Try to read all FKs
-                try {
-                    monitor.subTask("Cache foreign keys");
-                    Collection<GenericTableForeignKey> foreignKeys = foreignKeysCache.getObjects(monitor, this, null);
-                    if (CommonUtils.isEmpty(foreignKeys)) {
-                        // Nothing was read, Maybe driver doesn't support mass keys reading
-                        foreignKeysCache.clearCache();
+                prefetch.nextStage();
+                prefetch.add("foreign keys", pm -> {
+                    // Try to read all FKs
+                    try {
+                        Collection<GenericTableForeignKey> foreignKeys = foreignKeysCache.getObjects(pm, this, null);
+                        if (CommonUtils.isEmpty(foreignKeys)) {
+                            // Nothing was read, Maybe driver doesn't support mass keys reading
+                            foreignKeysCache.clearCache();
+                        }
+                    } catch (Exception e) {
+                        // Failed - seems to be unsupported feature
+                        log.debug(e);
                     }
-                } catch (Exception e) {
-                    // Failed - seems to be unsupported feature
-                    log.debug(e);
-                }
+                });
             }
+            prefetch.run(monitor);
         }
     }
 
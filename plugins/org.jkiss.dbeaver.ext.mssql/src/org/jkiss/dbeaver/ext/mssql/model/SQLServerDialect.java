@@ -80,6 +80,12 @@ public class SQLServerDialect extends GenericSQLDialect implements SQLRuleProvid
         }
     }
 
+    @Override
+    public boolean supportsGroupingSets() {
+        return ((SQLServerMetaModel)dataSource.getMetaModel()).isSqlServer() &&
+            dataSource.isServerVersionAtLeast(SQLServerConstants.SQL_SERVER_2008_VERSION_MAJOR, 0);
+    }
+
     @Override
     public String getColumnTypeModifiers(DBSTypedObject column, String typeName, DBPDataKind dataKind) {
         if (dataKind == DBPDataKind.DATETIME) {
@@ -44,6 +44,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCRemoteInstance;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCBasicDataTypeCache;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataVersionProvider;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectCache;
 import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCDataType;
 import org.jkiss.dbeaver.model.impl.sql.QueryTransformerLimit;
@@ -67,7 +68,7 @@ import java.util.regex.Pattern;
 /**
  * GenericDataSource
  */
-public class MySQLDataSource extends JDBCDataSource implements DBSObjectSelector, DBCQueryPlanner
+public class MySQLDataSource extends JDBCDataSource implements DBSObjectSelector, DBCQueryPlanner, JDBCMetadataVersionProvider
 {
     private static final Log log = Log.getLog(MySQLDataSource.class);
 
@@ -616,6 +617,31 @@ public class MySQLDataSource extends JDBCDataSource implements DBSObjectSelector
         return DBCPlanStyle.PLAN;
     }
 
+    @Nullable
+    @Override
+    public String readMetadataVersion(@NotNull JDBCSession session) throws SQLException {
+        // Before MySQL 8 table is re-created on ALTER so its CREATE_TIME changes. In MySQL 8 it is cached
+        // and doesn't change on in-place ALTER, so checksums of columns and indexes are needed too.
+        // Views have no CREATE_TIME, empty schemas and triggers are not in TABLES at all.
+        // Objects count is needed to detect dropped objects
+        return JDBCUtils.queryString(session,
+            "SELECT CONCAT(\n" +
+                "(SELECT CONCAT(COUNT(*),':',IFNULL(MAX(CREATE_TIME),'')) FROM " + MySQLConstants.META_TABLE_TABLES + "),'/',\n" +
+                "(SELECT CONCAT(COUNT(*),':',IFNULL(MAX(LAST_ALTERED),'')) FROM " + MySQLConstants.META_TABLE_ROUTINES + "),'/',\n" +
+                getMetadataChecksumQuery(MySQLConstants.META_TABLE_SCHEMATA, "SCHEMA_NAME,DEFAULT_CHARACTER_SET_NAME,DEFAULT_COLLATION_NAME") + ",'/',\n" +
+                getMetadataChecksumQuery(MySQLConstants.META_TABLE_TABLES, "TABLE_SCHEMA,TABLE_NAME,TABLE_TYPE,ENGINE,TABLE_COLLATION,TABLE_COMMENT") + ",'/',\n" +
+                getMetadataChecksumQuery(MySQLConstants.META_TABLE_COLUMNS, "TABLE_SCHEMA,TABLE_NAME,COLUMN_NAME,ORDINAL_POSITION,COLUMN_TYPE,IS_NULLABLE,COLUMN_DEFAULT,EXTRA,COLUMN_COMMENT") + ",'/',\n" +
+                getMetadataChecksumQuery(MySQLConstants.META_TABLE_STATISTICS, "TABLE_SCHEMA,TABLE_NAME,INDEX_NAME,SEQ_IN_INDEX,COLUMN_NAME,NON_UNIQUE") + ",'/',\n" +
+                getMetadataChecksumQuery(MySQLConstants.META_TABLE_KEY_COLUMN_USAGE, "CONSTRAINT_SCHEMA,CONSTRAINT_NAME,TABLE_NAME,COLUMN_NAME,REFERENCED_TABLE_SCHEMA,REFERENCED_TABLE_NAME,REFERENCED_COLUMN_NAME") + ",'/',\n" +
+                getMetadataChecksumQuery(MySQLConstants.META_TABLE_PARTITIONS, "TABLE_SCHEMA,TABLE_NAME,PARTITION_NAME,SUBPARTITION_NAME") + ",'/',\n" +
+                getMetadataChecksumQuery(MySQLConstants.META_TABLE_VIEWS, "TABLE_SCHEMA,TABLE_NAME,VIEW_DEFINITION,CHECK_OPTION,DEFINER,SECURITY_TYPE") + ",'/',\n" +
+                getMetadataChecksumQuery(MySQLConstants.META_TABLE_TRIGGERS, "TRIGGER_SCHEMA,TRIGGER_NAME,EVENT_MANIPULATION,EVENT_OBJECT_TABLE,ACTION_TIMING,ACTION_STATEMENT") + ")");
+    }
+
+    private static String getMetadataChecksumQuery(String metaTable, String columns) {
+        return "(SELECT CONCAT(COUNT(*),':',IFNULL(SUM(CRC32(CONCAT_WS(','," + columns + "))),0)) FROM " + metaTable + ")";
+    }
+
     @Override
     public <T> T getAdapter(Class<T> adapter)
     {
@@ -685,6 +711,23 @@ public class MySQLDataSource extends JDBCDataSource implements DBSObjectSelector
             getContainer().getDriver().getDriverClassName());
     }
 
+    private static final Pattern SERVER_VERSION_PATTERN = Pattern.compile("^([0-9]+)\\.([0-9]+)\\.([0-9]+)");
+
+    /**
+     * utf8mb4 character set was added in MySQL 5.5.3. JDBC metadata has only major and minor versions,
+     * so patch version is parsed from the product version string.
+     */
+    public boolean supportsUtf8mb4() {
+        if (!isServerVersionAtLeast(5, 5)) {
+            return false;
+        }
+        if (isServerVersionAtLeast(5, 6)) {
+            return true;
+        }
+        Matcher matcher = SERVER_VERSION_PATTERN.matcher(CommonUtils.notEmpty(getInfo().getDatabaseProductVersion()));
+        return matcher.find() && Integer.parseInt(matcher.group(3)) >= 3;
+    }
+
     @Override
     public ErrorType discoverErrorType(@NotNull Throwable error)
     {
@@ -0,0 +1,137 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCTextBulkLoadBatch;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.utils.BeanUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+
+/**
+ * Bulk load with LOAD DATA LOCAL INFILE.
+ * Data is passed from memory with driver-specific Statement.setLocalInfileInputStream (accessed with reflection).
+ * Server (local_infile) and driver (allowLoadLocalInfile) must allow local infile,
+ * otherwise batch switches to regular inserts after the first failure.
+ */
+public class MySQLLoadDataBatch extends JDBCTextBulkLoadBatch {
+
+    private static final Log log = Log.getLog(MySQLLoadDataBatch.class);
+
+    private static final String SET_INFILE_STREAM_METHOD = "setLocalInfileInputStream";
+
+    private final String loadQuery;
+
+    public MySQLLoadDataBatch(@NotNull MySQLTable table, @NotNull DBSAttributeBase[] attributes, @NotNull DBSDataManipulator.ExecuteBatch fallbackBatch) {
+        super(table, attributes, fallbackBatch);
+
+        StringBuilder query = new StringBuilder(200);
+        query.append("LOAD DATA LOCAL INFILE 'dbeaver-data.csv' INTO TABLE ").append(tableName) //$NON-NLS-1$
+            .append(" CHARACTER SET ").append(table.getDataSource().supportsUtf8mb4() ? "utf8mb4" : "utf8") //$NON-NLS-1$
+            .append(" FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\'") //$NON-NLS-1$
+            .append(" LINES TERMINATED BY '\\n' ("); //$NON-NLS-1$
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) query.append(","); //$NON-NLS-1$
+            query.append(DBUtils.getObjectFullName(dataSource, attributes[i], DBPEvaluationContext.DML));
+        }
+        query.append(")"); //$NON-NLS-1$
+        this.loadQuery = query.toString();
+    }
+
+    @NotNull
+    @Override
+    protected String getNullString() {
+        return "\\N";
+    }
+
+    @Override
+    protected void appendBoolean(@NotNull StringBuilder data, boolean value) {
+        data.append(value ? '1' : '0');
+    }
+
+    @Override
+    protected void appendString(@NotNull StringBuilder data, @Nullable String value) {
+        data.append('"');
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        data.append('\\').append(c);
+                        break;
+                    case '\n':
+                        data.append("\\n");
+                        break;
+                    case '\r':
+                        data.append("\\r");
+                        break;
+                    case '\0':
+                        data.append("\\0");
+                        break;
+                    default:
+                        data.append(c);
+                        break;
+                }
+            }
+        }
+        data.append('"');
+    }
+
+    @Override
+    protected boolean isLoaderAvailable(@NotNull JDBCSession session) {
+        try (Statement statement = session.getOriginal().createStatement()) {
+            statement.getClass().getMethod(SET_INFILE_STREAM_METHOD, InputStream.class);
+            return true;
+        } catch (Throwable e) {
+            log.debug("MySQL local infile stream is not supported by driver: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean isFallbackAllowedOnError() {
+        // Error doesn't abort transaction. Most likely local infile is disabled on server or in driver
+        return true;
+    }
+
+    @Override
+    protected long loadData(@NotNull JDBCSession session, @NotNull String data) throws DBCException {
+        try (Statement statement = session.getOriginal().createStatement()) {
+            BeanUtils.invokeObjectMethod(
+                statement,
+                SET_INFILE_STREAM_METHOD,
+                new Class[] { InputStream.class },
+                new Object[] { new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)) });
+            return statement.executeUpdate(loadQuery);
+        } catch (Throwable e) {
+            throw new DBCException(e, session.getDataSource());
+        }
+    }
+
+}
@@ -24,6 +24,8 @@ import org.jkiss.dbeaver.ext.mysql.MySQLConstants;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.*;
 import org.jkiss.dbeaver.model.impl.DBSObjectCache;
 import org.jkiss.dbeaver.model.impl.SimpleObjectCache;
@@ -190,6 +192,21 @@ public class MySQLTable extends MySQLTableBase
         return false;
     }
 
+    @Nullable
+    @Override
+    public ExecuteBatch insertDataBulk(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source)
+        throws DBCException
+    {
+        ExecuteBatch multiRowBatch = super.insertDataBulk(session, attributes, source);
+        if (!MySQLLoadDataBatch.isSupported(attributes)) {
+            return multiRowBatch;
+        }
+        return new MySQLLoadDataBatch(
+            this,
+            attributes,
+            multiRowBatch != null ? multiRowBatch : insertData(session, attributes, null, source));
+    }
+
     @Override
     @Association
     public synchronized Collection<MySQLTableIndex> getIndexes(DBRProgressMonitor monitor)
@@ -33,6 +33,7 @@ import org.jkiss.dbeaver.model.exec.plan.DBCPlan;
 import org.jkiss.dbeaver.model.exec.plan.DBCPlanStyle;
 import org.jkiss.dbeaver.model.exec.plan.DBCQueryPlanner;
 import org.jkiss.dbeaver.model.impl.jdbc.*;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataVersionProvider;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectCache;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.meta.Association;
@@ -58,7 +59,7 @@ import java.util.regex.Pattern;
  * GenericDataSource
  */
 public class OracleDataSource extends JDBCDataSource
-    implements DBSObjectSelector, DBCQueryPlanner, IAdaptable {
+    implements DBSObjectSelector, DBCQueryPlanner, JDBCMetadataVersionProvider, IAdaptable {
     private static final Log log = Log.getLog(OracleDataSource.class);
 
     final public SchemaCache schemaCache = new SchemaCache();
@@ -534,6 +535,16 @@ public class OracleDataSource extends JDBCDataSource
         return DBCPlanStyle.PLAN;
     }
 
+    @Nullable
+    @Override
+    public String readMetadataVersion(@NotNull JDBCSession session) throws SQLException {
+        // Objects count is needed to detect dropped objects. Users without objects are not in ALL_OBJECTS.
+        return JDBCUtils.queryString(session,
+            "SELECT (SELECT " + OracleUtils.getSysCatalogHint(this) + " TO_CHAR(MAX(LAST_DDL_TIME),'YYYYMMDDHH24MISS') || ':' || COUNT(*) FROM " +
+                OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), this, "OBJECTS") + ") || '/' ||\n" +
+                "(SELECT TO_CHAR(MAX(CREATED),'YYYYMMDDHH24MISS') || ':' || COUNT(*) FROM SYS.ALL_USERS) FROM DUAL");
+    }
+
     @Nullable
     @Override
     public <T> T getAdapter(Class<T> adapter) {
@@ -358,6 +358,11 @@ class OracleSQLDialect extends JDBCSQLDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsGroupingSets() {
+        return true;
+    }
+
     @Override
     public boolean isDelimiterAfterBlock() {
         return true;
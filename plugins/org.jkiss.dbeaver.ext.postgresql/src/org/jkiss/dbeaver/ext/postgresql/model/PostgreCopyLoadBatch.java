@@ -0,0 +1,109 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCTextBulkLoadBatch;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.utils.BeanUtils;
+
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Bulk load with COPY FROM STDIN (CSV format).
+ * PostgreSQL driver isn't a plugin dependency so CopyManager API is accessed with reflection.
+ */
+public class PostgreCopyLoadBatch extends JDBCTextBulkLoadBatch {
+
+    private static final Log log = Log.getLog(PostgreCopyLoadBatch.class);
+
+    private final String copyQuery;
+
+    public PostgreCopyLoadBatch(@NotNull PostgreTable table, @NotNull DBSAttributeBase[] attributes, @NotNull DBSDataManipulator.ExecuteBatch fallbackBatch) {
+        super(table, attributes, fallbackBatch);
+
+        StringBuilder query = new StringBuilder(100);
+        query.append("COPY ").append(tableName).append(" ("); //$NON-NLS-1$ //$NON-NLS-2$
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) query.append(","); //$NON-NLS-1$
+            query.append(DBUtils.getObjectFullName(dataSource, attributes[i], DBPEvaluationContext.DML));
+        }
+        query.append(") FROM STDIN WITH CSV"); //$NON-NLS-1$
+        this.copyQuery = query.toString();
+    }
+
+    @NotNull
+    @Override
+    protected String getNullString() {
+        // Unquoted empty value is NULL in CSV format
+        return "";
+    }
+
+    @Override
+    protected void appendString(@NotNull StringBuilder data, @Nullable String value) {
+        data.append('"');
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    data.append('"');
+                }
+                data.append(c);
+            }
+        }
+        data.append('"');
+    }
+
+    @Override
+    protected boolean isLoaderAvailable(@NotNull JDBCSession session) {
+        try {
+            return getCopyManager(session) != null;
+        } catch (Throwable e) {
+            log.debug("PostgreSQL CopyManager is not available: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    protected long loadData(@NotNull JDBCSession session, @NotNull String data) throws DBCException {
+        try {
+            Object copyManager = getCopyManager(session);
+            Object rowCount = BeanUtils.invokeObjectMethod(
+                copyManager,
+                "copyIn",
+                new Class[] { String.class, Reader.class },
+                new Object[] { copyQuery, new StringReader(data) });
+            return rowCount instanceof Number ? ((Number) rowCount).longValue() : -1;
+        } catch (Throwable e) {
+            throw new DBCException(e, session.getDataSource());
+        }
+    }
+
+    private static Object getCopyManager(@NotNull JDBCSession session) throws Throwable {
+        // org.postgresql.PGConnection.getCopyAPI()
+        return BeanUtils.invokeObjectMethod(session.getOriginal(), "getCopyAPI");
+    }
+
+}
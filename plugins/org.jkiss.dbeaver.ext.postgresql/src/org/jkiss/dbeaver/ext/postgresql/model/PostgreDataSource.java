@@ -42,6 +42,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCRemoteInstance;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataVersionProvider;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectLookupCache;
 import org.jkiss.dbeaver.model.impl.sql.QueryTransformerLimit;
 import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
@@ -65,7 +66,7 @@ import java.util.regex.Pattern;
 /**
  * PostgreDataSource
  */
-public class PostgreDataSource extends JDBCDataSource implements DBSObjectSelector, DBSInstanceContainer, DBCQueryPlanner, IAdaptable
+public class PostgreDataSource extends JDBCDataSource implements DBSObjectSelector, DBSInstanceContainer, DBCQueryPlanner, JDBCMetadataVersionProvider, IAdaptable
 {
 
     private static final Log log = Log.getLog(PostgreDataSource.class);
@@ -391,6 +392,27 @@ public class PostgreDataSource extends JDBCDataSource implements DBSObjectSelect
         return isServerVersionAtLeast(9, 0) ? DBCPlanStyle.PLAN : DBCPlanStyle.QUERY;
     }
 
+    @Nullable
+    @Override
+    public String readMetadataVersion(@NotNull JDBCSession session) throws SQLException {
+        // Catalog rows get new xmin on each DDL. In-place statistics updates (VACUUM, ANALYZE) do not change it.
+        // Version is read from the database session is connected to (catalogs are per database),
+        // pg_database, pg_tablespace and pg_authid are shared.
+        List<String> catalogTables = new ArrayList<>(Arrays.asList(
+            "pg_database", "pg_tablespace", "pg_namespace", "pg_class", "pg_attribute", "pg_attrdef", "pg_constraint", "pg_index",
+            "pg_inherits", "pg_rewrite", "pg_trigger", "pg_type", "pg_proc", "pg_language", "pg_description"));
+        if (isServerVersionAtLeast(9, 1)) {
+            catalogTables.add("pg_extension");
+        }
+        StringBuilder sql = new StringBuilder("SELECT ''");
+        for (String catalogTable : catalogTables) {
+            sql.append(" || '/' || (SELECT count(*) || ':' || coalesce(sum(xmin::text::bigint), 0) FROM pg_catalog.").append(catalogTable).append(")");
+        }
+        // pg_authid is not readable by regular users
+        sql.append(" || '/' || (SELECT count(*) || ':' || coalesce(sum(hashtext(r::text)::bigint), 0) FROM pg_catalog.pg_roles r)");
+        return JDBCUtils.queryString(session, sql.toString());
+    }
+
     @Override
     public <T> T getAdapter(Class<T> adapter)
     {
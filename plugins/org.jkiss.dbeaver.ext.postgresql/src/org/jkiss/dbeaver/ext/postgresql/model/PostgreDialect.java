@@ -37,6 +37,8 @@ import java.util.Collections;
 */
 class PostgreDialect extends JDBCSQLDialect {
 
+    private boolean supportsGroupingSets;
+
     public static final String[] POSTGRE_NON_TRANSACTIONAL_KEYWORDS = ArrayUtils.concatArrays(
         BasicSQLDialect.NON_TRANSACTIONAL_KEYWORDS,
         new String[]{
@@ -50,6 +52,7 @@ class PostgreDialect extends JDBCSQLDialect {
 
     public void initDriverSettings(JDBCDataSource dataSource, JDBCDatabaseMetaData metaData) {
         super.initDriverSettings(dataSource, metaData);
+        supportsGroupingSets = dataSource.isServerVersionAtLeast(9, 5);
 
         addSQLKeywords(
             Arrays.asList(
@@ -151,6 +154,11 @@ class PostgreDialect extends JDBCSQLDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsGroupingSets() {
+        return supportsGroupingSets;
+    }
+
     @Override
     public boolean supportsCommentQuery() {
         return true;
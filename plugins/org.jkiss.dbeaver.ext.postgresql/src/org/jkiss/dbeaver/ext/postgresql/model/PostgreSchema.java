@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCStructurePrefetch;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCCompositeCache;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectCache;
@@ -299,9 +300,11 @@ public class PostgreSchema implements DBSSchema, DBPNamedObject2, DBPSaveableObj
             tableCache.loadChildren(monitor, this, null);
         }
         if ((scope & STRUCT_ASSOCIATIONS) != 0) {
-            monitor.subTask("Cache constraints");
-            constraintCache.getAllObjects(monitor, this);
-            indexCache.getAllObjects(monitor, this);
+            // Constraints and indexes are read with independent queries
+            new JDBCStructurePrefetch(this)
+                .add("constraints", pm -> constraintCache.getAllObjects(pm, this))
+                .add("indexes", pm -> indexCache.getAllObjects(pm, this))
+                .run(monitor);
         }
     }
 
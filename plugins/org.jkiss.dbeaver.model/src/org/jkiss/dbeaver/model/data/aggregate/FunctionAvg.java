@@ -19,7 +19,7 @@ package org.jkiss.dbeaver.model.data.aggregate;
 /**
  * FunctionAvg
  */
-public class FunctionAvg extends FunctionNumeric {
+public class FunctionAvg extends FunctionNumeric implements IAggregateFunctionMergeable {
 
     protected double result = Double.NaN;
 
@@ -39,6 +39,23 @@ public class FunctionAvg extends FunctionNumeric {
         return false;
     }
 
+    @Override
+    public boolean accumulateDouble(double value) {
+        if (Double.isNaN(result)) {
+            result = 0.0;
+        }
+        result += value;
+        return true;
+    }
+
+    @Override
+    public void merge(IAggregateFunction partial) {
+        double partialResult = ((FunctionAvg) partial).result;
+        if (!Double.isNaN(partialResult)) {
+            result = Double.isNaN(result) ? partialResult : result + partialResult;
+        }
+    }
+
     @Override
     public Object getResult(int valueCount) {
         if (Double.isNaN(result)) {
@@ -19,7 +19,7 @@ package org.jkiss.dbeaver.model.data.aggregate;
 /**
  * FunctionCount
  */
-public class FunctionCount implements IAggregateFunction {
+public class FunctionCount implements IAggregateFunctionMergeable {
 
     private int count = 0;
 
@@ -29,6 +29,11 @@ public class FunctionCount implements IAggregateFunction {
         return true;
     }
 
+    @Override
+    public void merge(IAggregateFunction partial) {
+        count += ((FunctionCount) partial).count;
+    }
+
     @Override
     public Object getResult(int valueCount) {
         return count;
@@ -22,7 +22,7 @@ import java.util.Set;
 /**
  * FunctionCountDistinct
  */
-public class FunctionCountDistinct implements IAggregateFunction {
+public class FunctionCountDistinct implements IAggregateFunctionMergeable {
 
     private int count = 0;
     private Set<Object> cache = new HashSet<>();
@@ -37,6 +37,12 @@ public class FunctionCountDistinct implements IAggregateFunction {
         return false;
     }
 
+    @Override
+    public void merge(IAggregateFunction partial) {
+        cache.addAll(((FunctionCountDistinct) partial).cache);
+        count = cache.size();
+    }
+
     @Override
     public Object getResult(int valueCount) {
         return count;
@@ -0,0 +1,50 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Approximate distinct values count (HyperLogLog).
+ * Works in bounded memory, standard error is about 1.04 / sqrt(2^precision).
+ */
+public class FunctionCountDistinctApprox implements IAggregateFunctionMergeable {
+
+    private final HyperLogLog counter;
+
+    public FunctionCountDistinctApprox() {
+        this(HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    public FunctionCountDistinctApprox(int precision) {
+        this.counter = new HyperLogLog(precision);
+    }
+
+    @Override
+    public boolean accumulate(Object value) {
+        counter.add(value);
+        return true;
+    }
+
+    @Override
+    public void merge(IAggregateFunction partial) {
+        counter.merge(((FunctionCountDistinctApprox) partial).counter);
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        return counter.cardinality();
+    }
+}
@@ -21,6 +21,14 @@ package org.jkiss.dbeaver.model.data.aggregate;
  */
 public abstract class FunctionNumeric implements IAggregateFunction {
 
+    /**
+     * Accumulates value of numeric column. Values are converted to double by caller,
+     * so there is no need to check value type for each function.
+     */
+    public boolean accumulateDouble(double value) {
+        return accumulate(value);
+    }
+
     protected static Number getNumeric(Object value) {
         if (value == null) {
             return null;
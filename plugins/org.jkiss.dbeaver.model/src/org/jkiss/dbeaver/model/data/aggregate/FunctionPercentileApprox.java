@@ -0,0 +1,63 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Approximate percentile of numeric values (t-digest).
+ * Works in bounded memory, relative rank error is about 1 / compression (lower near the tails).
+ */
+public abstract class FunctionPercentileApprox extends FunctionNumeric implements IAggregateFunctionMergeable {
+
+    private final double quantile;
+    private final TDigest digest;
+
+    protected FunctionPercentileApprox(double quantile) {
+        this(quantile, TDigest.DEFAULT_COMPRESSION);
+    }
+
+    protected FunctionPercentileApprox(double quantile, double compression) {
+        this.quantile = quantile;
+        this.digest = new TDigest(compression);
+    }
+
+    @Override
+    public boolean accumulate(Object value) {
+        Number num = getNumeric(value);
+        if (num != null) {
+            digest.add(num.doubleValue());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean accumulateDouble(double value) {
+        digest.add(value);
+        return true;
+    }
+
+    @Override
+    public void merge(IAggregateFunction partial) {
+        digest.merge(((FunctionPercentileApprox) partial).digest);
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        double result = digest.quantile(quantile);
+        return Double.isNaN(result) ? null : result;
+    }
+}
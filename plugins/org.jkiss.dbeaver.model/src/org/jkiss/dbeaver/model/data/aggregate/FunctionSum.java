@@ -19,7 +19,7 @@ package org.jkiss.dbeaver.model.data.aggregate;
 /**
  * FunctionSum
  */
-public class FunctionSum extends FunctionNumeric {
+public class FunctionSum extends FunctionNumeric implements IAggregateFunctionMergeable {
 
     protected double result = Double.NaN;
 
@@ -36,6 +36,23 @@ public class FunctionSum extends FunctionNumeric {
         return false;
     }
 
+    @Override
+    public boolean accumulateDouble(double value) {
+        if (Double.isNaN(result)) {
+            result = 0.0;
+        }
+        result += value;
+        return true;
+    }
+
+    @Override
+    public void merge(IAggregateFunction partial) {
+        double partialResult = ((FunctionSum) partial).result;
+        if (!Double.isNaN(partialResult)) {
+            result = Double.isNaN(result) ? partialResult : result + partialResult;
+        }
+    }
+
     @Override
     public Object getResult(int valueCount) {
         if (Double.isNaN(result)) {
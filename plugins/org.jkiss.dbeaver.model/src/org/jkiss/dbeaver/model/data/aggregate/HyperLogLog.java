@@ -0,0 +1,120 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * HyperLogLog distinct values counter.
+ *
+ * Uses 2^precision one-byte registers. Standard error is about 1.04 / sqrt(2^precision),
+ * e.g. 0.8% for precision 14 (16Kb of registers).
+ */
+class HyperLogLog {
+
+    static final int DEFAULT_PRECISION = 14;
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+    private final int precision;
+    private final byte[] registers;
+
+    HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("HyperLogLog precision must be in range 4..18");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    void add(Object value) {
+        addHash(hash(value));
+    }
+
+    void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Guard bit limits rank to 64 - precision + 1
+        long bits = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(bits) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Can't merge HyperLogLog counters with different precision");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    long cardinality() {
+        int m = registers.length;
+        double sum = 0;
+        int zeroCount = 0;
+        for (byte register : registers) {
+            sum += Double.longBitsToDouble((1023L - register) << 52); // 2^-register
+            if (register == 0) {
+                zeroCount++;
+            }
+        }
+        double alpha;
+        switch (m) {
+            case 16: alpha = 0.673; break;
+            case 32: alpha = 0.697; break;
+            case 64: alpha = 0.709; break;
+            default: alpha = 0.7213 / (1 + 1.079 / m); break;
+        }
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeroCount > 0) {
+            // Small range correction (linear counting)
+            estimate = m * Math.log((double) m / zeroCount);
+        }
+        return Math.round(estimate);
+    }
+
+    static long hash(Object value) {
+        long hash;
+        if (value == null) {
+            return NULL_HASH;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            hash = ((Number) value).longValue();
+        } else if (value instanceof Double || value instanceof Float) {
+            hash = Double.doubleToLongBits(((Number) value).doubleValue());
+        } else if (value instanceof String) {
+            // FNV-1a. String.hashCode has only 32 bits, which isn't enough for big sets.
+            String str = (String) value;
+            hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < str.length(); i++) {
+                hash ^= str.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        } else {
+            hash = value.hashCode();
+        }
+        // Finalization mix (from MurmurHash3) spreads bits over the whole hash
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
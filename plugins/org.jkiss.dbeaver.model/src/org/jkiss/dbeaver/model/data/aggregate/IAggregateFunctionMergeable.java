@@ -0,0 +1,31 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Aggregate function which can be evaluated in parallel.
+ * Each thread accumulates values in its own function instance, then partial states are merged.
+ */
+public interface IAggregateFunctionMergeable extends IAggregateFunction {
+
+    /**
+     * Merges accumulated state of another instance of the same function into this one.
+     * Partial states are merged in the order of original values.
+     */
+    void merge(IAggregateFunction partial);
+
+}
@@ -0,0 +1,230 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * t-digest (merging variant) for approximate quantiles.
+ *
+ * Values are collected in buffer. When buffer is full it is sorted and merged with existing centroids.
+ * Centroid size is limited by 4 * N * q * (1 - q) / compression, so centroids near the tails are small
+ * and quantile error is lower there. Memory usage depends on compression only (not on value count).
+ */
+class TDigest {
+
+    static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+
+    // Sorted centroids
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+
+    // Not merged values
+    private final double[] bufferMeans;
+    private final double[] bufferWeights;
+    private int bufferCount;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression must be at least 10");
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression * 2) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.bufferMeans = new double[capacity * 5];
+        this.bufferWeights = new double[capacity * 5];
+    }
+
+    long size() {
+        return Math.round(totalWeight);
+    }
+
+    void add(double value) {
+        add(value, 1);
+    }
+
+    void add(double value, double weight) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (bufferCount == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[bufferCount] = value;
+        bufferWeights[bufferCount] = weight;
+        bufferCount++;
+        totalWeight += weight;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.centroidCount; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        if (other.min < min) {
+            min = other.min;
+        }
+        if (other.max > max) {
+            max = other.max;
+        }
+    }
+
+    /**
+     * Returns approximate quantile value (q in range 0..1) or NaN if digest is empty
+     */
+    double quantile(double q) {
+        compress();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+        double index = Math.max(0, Math.min(1, q)) * totalWeight;
+        // Interpolate between centroid centers (and min/max on the edges)
+        double leftCenter = weights[0] / 2;
+        if (index < leftCenter) {
+            return min + (means[0] - min) * index / leftCenter;
+        }
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double rightCenter = leftCenter + (weights[i] + weights[i + 1]) / 2;
+            if (index < rightCenter) {
+                return means[i] + (means[i + 1] - means[i]) * (index - leftCenter) / (rightCenter - leftCenter);
+            }
+            leftCenter = rightCenter;
+        }
+        double lastHalf = weights[centroidCount - 1] / 2;
+        double ratio = Math.min(1, (index - leftCenter) / lastHalf);
+        return means[centroidCount - 1] + (max - means[centroidCount - 1]) * ratio;
+    }
+
+    private void compress() {
+        if (bufferCount == 0) {
+            return;
+        }
+        sort(bufferMeans, bufferWeights, 0, bufferCount - 1);
+
+        double[] newMeans = new double[means.length];
+        double[] newWeights = new double[weights.length];
+        int newCount = 0;
+        double weightSoFar = 0;
+        double curMean = 0, curWeight = 0;
+        int ci = 0, bi = 0;
+        while (ci < centroidCount || bi < bufferCount) {
+            double mean, weight;
+            if (bi >= bufferCount || (ci < centroidCount && means[ci] <= bufferMeans[bi])) {
+                mean = means[ci];
+                weight = weights[ci];
+                ci++;
+            } else {
+                mean = bufferMeans[bi];
+                weight = bufferWeights[bi];
+                bi++;
+            }
+            if (curWeight == 0) {
+                curMean = mean;
+                curWeight = weight;
+                continue;
+            }
+            double proposedWeight = curWeight + weight;
+            double q = (weightSoFar + proposedWeight / 2) / totalWeight;
+            double maxWeight = 4 * totalWeight * q * (1 - q) / compression;
+            if (proposedWeight <= maxWeight) {
+                curMean += (mean - curMean) * weight / proposedWeight;
+                curWeight = proposedWeight;
+            } else {
+                if (newCount == newMeans.length) {
+                    newMeans = Arrays.copyOf(newMeans, newCount * 2);
+                    newWeights = Arrays.copyOf(newWeights, newCount * 2);
+                }
+                newMeans[newCount] = curMean;
+                newWeights[newCount] = curWeight;
+                newCount++;
+                weightSoFar += curWeight;
+                curMean = mean;
+                curWeight = weight;
+            }
+        }
+        if (curWeight > 0) {
+            if (newCount == newMeans.length) {
+                newMeans = Arrays.copyOf(newMeans, newCount + 1);
+                newWeights = Arrays.copyOf(newWeights, newCount + 1);
+            }
+            newMeans[newCount] = curMean;
+            newWeights[newCount] = curWeight;
+            newCount++;
+        }
+        means = newMeans;
+        weights = newWeights;
+        centroidCount = newCount;
+        bufferCount = 0;
+    }
+
+    /**
+     * Sorts values with their weights by value
+     */
+    private static void sort(double[] values, double[] weights, int left, int right) {
+        while (right - left > 16) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left, j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    swap(values, weights, i++, j--);
+                }
+            }
+            // Recurse into smaller part
+            if (j - left < right - i) {
+                sort(values, weights, left, j);
+                left = i;
+            } else {
+                sort(values, weights, i, right);
+                right = j;
+            }
+        }
+        for (int i = left + 1; i <= right; i++) {
+            for (int j = i; j > left && values[j - 1] > values[j]; j--) {
+                swap(values, weights, j, j - 1);
+            }
+        }
+    }
+
+    private static void swap(double[] values, double[] weights, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+        double weight = weights[i];
+        weights[i] = weights[j];
+        weights[j] = weight;
+    }
+
+}
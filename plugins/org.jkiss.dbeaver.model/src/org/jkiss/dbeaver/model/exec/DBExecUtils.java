@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.model.exec;
 
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
 import org.jkiss.dbeaver.model.net.DBWNetworkHandler;
@@ -36,6 +38,11 @@ public class DBExecUtils {
     private static final ThreadLocal<DBPDataSourceContainer> ACTIVE_CONTEXT = new ThreadLocal<>();
     private static final List<DBPDataSourceContainer> ACTIVE_CONTEXTS = new ArrayList<>();
 
+    /**
+     * Metadata context bound to the current thread. Overrides default metadata context of its owner instance.
+     */
+    private static final ThreadLocal<DBCExecutionContext> THREAD_META_CONTEXT = new ThreadLocal<>();
+
     public static DBPDataSourceContainer getCurrentThreadContext() {
         return ACTIVE_CONTEXT.get();
     }
@@ -60,6 +67,32 @@ public class DBExecUtils {
         }
     }
 
+    @Nullable
+    public static DBCExecutionContext getThreadMetaContext() {
+        return THREAD_META_CONTEXT.get();
+    }
+
+    /**
+     * Makes the specified context default metadata context of its instance for the current thread.
+     * Pass null to reset.
+     */
+    public static void bindThreadMetaContext(@Nullable DBCExecutionContext context) {
+        if (context == null) {
+            THREAD_META_CONTEXT.remove();
+        } else {
+            THREAD_META_CONTEXT.set(context);
+        }
+    }
+
+    /**
+     * Metadata may be read by several threads at once only if it is read in separate connections
+     */
+    public static boolean isParallelMetadataReadAllowed(@Nullable DBPDataSourceContainer container) {
+        return container != null &&
+            !container.getDriver().isEmbedded() &&
+            container.getPreferenceStore().getBoolean(ModelPreferences.META_SEPARATE_CONNECTION);
+    }
+
     public static DBPDataSourceContainer findConnectionContext(String host, int port, String path) {
         DBPDataSourceContainer curContext = getCurrentThreadContext();
         if (curContext != null) {
@@ -31,17 +31,83 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Various objects cache
+ * Various objects cache.
+ *
+ * Cached objects are kept in immutable contents which are replaced on each modification (copy-on-write).
+ * Readers never lock, modifications are serialized on the cache monitor.
+ * Appends share the object array and the name index with the previous contents, so caching objects
+ * one by one stays linear. Removals copy the array and carry the name index forward.
  */
 public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extends DBSObject>
     implements DBSObjectCache<OWNER, OBJECT>
 {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
-    private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    /**
+     * Cache snapshot. The first {@code size} elements of the array are never modified after publishing.
+     * Appends write past {@code size} and publish new contents, so older snapshots do not see them.
+     */
+    private static class CacheContents<OBJECT> {
+        final Object[] objects;
+        final int size;
+        final List<OBJECT> objectList;
+        // Name index. Built on first lookup, then carried forward by modifications
+        volatile NameIndex<OBJECT> nameIndex;
+
+        CacheContents(Object[] objects, int size, NameIndex<OBJECT> nameIndex) {
+            this.objects = objects;
+            this.size = size;
+            this.objectList = new ContentsList<>(objects, size);
+            this.nameIndex = nameIndex;
+        }
+
+        CacheContents(Object[] objects) {
+            this(objects, objects.length, null);
+        }
+    }
+
+    /**
+     * Name index. May be shared by several contents, appends add new names to it.
+     */
+    private static class NameIndex<OBJECT> {
+        final Map<String, OBJECT> objectMap;
+        // Removals can't patch index with duplicate names, it is rebuilt instead
+        volatile boolean hasDuplicates;
+
+        NameIndex(Map<String, OBJECT> objectMap) {
+            this.objectMap = objectMap;
+        }
+    }
+
+    private static class ContentsList<OBJECT> extends AbstractList<OBJECT> implements RandomAccess {
+        private final Object[] objects;
+        private final int size;
+
+        ContentsList(Object[] objects, int size) {
+            this.objects = objects;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public OBJECT get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return (OBJECT) objects[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // null means that nothing was cached
+    private volatile CacheContents<OBJECT> contents;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
     protected Comparator<OBJECT> listOrderComparator;
@@ -68,9 +134,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public List<OBJECT> getCachedObjects()
     {
-        synchronized (this) {
-            return objectList == null ? Collections.<OBJECT>emptyList() : objectList;
-        }
+        final CacheContents<OBJECT> contents = this.contents;
+        return contents == null ? Collections.<OBJECT>emptyList() : contents.objectList;
     }
 
     public <SUB_TYPE> Collection<SUB_TYPE> getTypedObjects(DBRProgressMonitor monitor, OWNER owner, Class<SUB_TYPE> type)
@@ -89,25 +154,30 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public OBJECT getCachedObject(@NotNull String name)
     {
-        synchronized (this) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
-        }
+        final CacheContents<OBJECT> contents = this.contents;
+        return contents == null || name == null ? null : getNameIndex(contents).objectMap.get(caseSensitive ? name : name.toUpperCase());
     }
 
     @Override
     public void cacheObject(@NotNull OBJECT object)
     {
         synchronized (this) {
-            if (this.objectList == null) {
-                this.objectList = new ArrayList<>();
-            }
             detectCaseSensitivity(object);
-            this.objectList.add(object);
-            if (this.objectMap != null) {
-                String name = getObjectName(object);
-                checkDuplicateName(name, object);
-                this.objectMap.put(name, object);
+            final CacheContents<OBJECT> contents = this.contents;
+            if (contents == null) {
+                this.contents = new CacheContents<>(new Object[] { object });
+                return;
+            }
+            Object[] objects = contents.objects;
+            if (contents.size == objects.length) {
+                objects = Arrays.copyOf(objects, contents.size + (contents.size >> 1) + 4);
+            }
+            objects[contents.size] = object;
+            final NameIndex<OBJECT> nameIndex = contents.nameIndex;
+            if (nameIndex != null && nameIndex.objectMap.put(getObjectName(object), object) != null) {
+                nameIndex.hasDuplicates = true;
             }
+            this.contents = new CacheContents<>(objects, contents.size + 1, nameIndex);
         }
     }
 
@@ -115,12 +185,9 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
         synchronized (this) {
-            if (this.objectList != null) {
+            if (this.contents != null) {
                 detectCaseSensitivity(object);
-                this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
+                removeCachedObject(object);
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -128,6 +195,58 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    private synchronized void removeCachedObject(@NotNull OBJECT object)
+    {
+        final CacheContents<OBJECT> contents = this.contents;
+        if (contents != null) {
+            int index = contents.objectList.indexOf(object);
+            if (index >= 0) {
+                Object[] objects = new Object[contents.size - 1];
+                System.arraycopy(contents.objects, 0, objects, 0, index);
+                System.arraycopy(contents.objects, index + 1, objects, index, contents.size - index - 1);
+                publishRemoval(contents, objects, Collections.singletonList(contents.objectList.get(index)));
+            }
+        }
+    }
+
+    private synchronized void removeCachedObjects(@NotNull Set<OBJECT> removedObjects)
+    {
+        final CacheContents<OBJECT> contents = this.contents;
+        if (contents != null && !removedObjects.isEmpty()) {
+            List<OBJECT> newList = new ArrayList<>(contents.size);
+            List<OBJECT> removedList = new ArrayList<>(removedObjects.size());
+            for (OBJECT object : contents.objectList) {
+                if (removedObjects.contains(object)) {
+                    removedList.add(object);
+                } else {
+                    newList.add(object);
+                }
+            }
+            if (!removedList.isEmpty()) {
+                publishRemoval(contents, newList.toArray(), removedList);
+            }
+        }
+    }
+
+    /**
+     * Publishes contents without removed objects. Name index is copied with removed names dropped.
+     */
+    private void publishRemoval(CacheContents<OBJECT> contents, Object[] objects, List<OBJECT> removedObjects)
+    {
+        NameIndex<OBJECT> nameIndex = contents.nameIndex;
+        if (nameIndex != null) {
+            if (nameIndex.hasDuplicates) {
+                nameIndex = null;
+            } else {
+                nameIndex = new NameIndex<>(new ConcurrentHashMap<>(nameIndex.objectMap));
+                for (OBJECT object : removedObjects) {
+                    nameIndex.objectMap.remove(getObjectName(object), object);
+                }
+            }
+        }
+        this.contents = new CacheContents<>(objects, objects.length, nameIndex);
+    }
+
     @Nullable
     public <SUB_TYPE> SUB_TYPE getObject(DBRProgressMonitor monitor, OWNER owner, String name, Class<SUB_TYPE> type)
         throws DBException
@@ -145,8 +264,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void clearCache()
     {
         synchronized (this) {
-            this.objectList = null;
-            this.objectMap = null;
+            this.contents = null;
             this.fullCache = false;
         }
     }
@@ -154,8 +272,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void setCache(List<OBJECT> objects)
     {
         synchronized (this) {
-            this.objectList = objects;
-            this.objectMap = null;
+            // Copy list because caller may modify it
+            this.contents = new CacheContents<>(objects.toArray());
             this.fullCache = true;
         }
     }
@@ -168,8 +286,9 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     protected void mergeCache(List<OBJECT> objects)
     {
         synchronized (this) {
-            if (this.objectList != null) {
+            if (this.contents != null) {
                 // Merge lists
+                List<OBJECT> objectList = this.contents.objectList;
                 objects = new ArrayList<>(objects);
                 for (int i = 0; i < objects.size(); i++) {
                     OBJECT newObject = objects.get(i);
@@ -188,23 +307,26 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         setCache(objects);
     }
 
-    private synchronized Map<String, OBJECT> getObjectMap()
+    /**
+     * Returns name index of cache contents. Concurrent readers may build it simultaneously, the last one wins.
+     * Index only grows after publishing (by appends made under the cache monitor), so it is a concurrent map.
+     */
+    private NameIndex<OBJECT> getNameIndex(CacheContents<OBJECT> contents)
     {
-        if (this.objectMap == null) {
-            this.objectMap = new HashMap<>();
-            for (OBJECT object : objectList) {
+        NameIndex<OBJECT> nameIndex = contents.nameIndex;
+        if (nameIndex == null) {
+            nameIndex = new NameIndex<>(new ConcurrentHashMap<String, OBJECT>(contents.size * 4 / 3 + 1));
+            for (OBJECT object : contents.objectList) {
                 String name = getObjectName(object);
-                checkDuplicateName(name, object);
-                this.objectMap.put(name, object);
+                OBJECT prevObject = nameIndex.objectMap.put(name, object);
+                if (prevObject != null) {
+                    nameIndex.hasDuplicates = true;
+                    log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
+                }
             }
+            contents.nameIndex = nameIndex;
         }
-        return this.objectMap;
-    }
-
-    private void checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
-            log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
-        }
+        return nameIndex;
     }
 
     protected void detectCaseSensitivity(DBSObject object) {
@@ -213,7 +335,13 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             if (dataSource instanceof SQLDataSource &&
                 ((SQLDataSource) dataSource).getSQLDialect().storesUnquotedCase() == DBPIdentifierCase.MIXED)
             {
-                this.caseSensitive = false;
+                synchronized (this) {
+                    this.caseSensitive = false;
+                    // Index keys were built case sensitive
+                    if (this.contents != null) {
+                        this.contents.nameIndex = null;
+                    }
+                }
             }
         }
     }
@@ -225,21 +353,22 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
     public void clearChildrenOf(DBSObject parent) {
         synchronized (this) {
-            if (objectList == null) {
+            if (contents == null) {
                 return;
             }
-            for (int i = 0; i < objectList.size(); ) {
-                OBJECT object = objectList.get(i);
-                if (object.getParentObject() == parent) {
-                    this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
-                    }
-                    fullCache = false;
+            List<OBJECT> newList = new ArrayList<>(contents.size);
+            List<OBJECT> removedList = new ArrayList<>();
+            for (OBJECT object : contents.objectList) {
+                if (object.getParentObject() != parent) {
+                    newList.add(object);
                 } else {
-                    i++;
+                    removedList.add(object);
                 }
             }
+            if (!removedList.isEmpty()) {
+                publishRemoval(contents, newList.toArray(), removedList);
+                fullCache = false;
+            }
         }
     }
 
@@ -302,8 +431,13 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    /**
+     * Iterates over current cache contents. Removal removes object from the cache.
+     * Removals are collected and published in one step when iteration is over or on {@link #flushRemovals()}.
+     */
     protected class CacheIterator implements Iterator<OBJECT> {
-        private Iterator<OBJECT> listIterator = objectList.iterator();
+        private final Iterator<OBJECT> listIterator = getCachedObjects().iterator();
+        private final Set<OBJECT> removedObjects = Collections.newSetFromMap(new IdentityHashMap<OBJECT, Boolean>());
         private OBJECT curObject;
         public CacheIterator()
         {
@@ -312,7 +446,11 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         @Override
         public boolean hasNext()
         {
-            return listIterator.hasNext();
+            if (listIterator.hasNext()) {
+                return true;
+            }
+            flushRemovals();
+            return false;
         }
 
         @Override
@@ -324,9 +462,22 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         @Override
         public void remove()
         {
-            listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
+            if (curObject == null) {
+                throw new IllegalStateException();
+            }
+            removedObjects.add(curObject);
+            curObject = null;
+        }
+
+        /**
+         * Removes objects removed through this iterator from the cache.
+         * Must be called if iteration may stop before the end.
+         */
+        public void flushRemovals()
+        {
+            if (!removedObjects.isEmpty()) {
+                removeCachedObjects(removedObjects);
+                removedObjects.clear();
             }
         }
     }
@@ -40,16 +40,43 @@ import java.util.*;
  * Execute batch.
  * Can be used in JDBC or any other underlying DB APIs
  *
+ * If statement can be reused then each null mask (set of NULL attributes) has its own prepared statement
+ * with its own batch, so rows with alternating masks do not restart batches.
+ * Mask batches are executed in order of the first row of each mask. Rows with the same mask keep their order,
+ * rows with different masks may be reordered (e.g. tree rows with NULL parent are inserted before others).
+ *
+ * In streaming mode rows are bound in {@link #add}. Row values are still kept until successful {@link #execute},
+ * so batch which failed can be executed again (statement batches are discarded on error and rows are re-bound).
 */
 public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatch {
 
     private static final Log log = Log.getLog(ExecuteBatchImpl.class);
 
+    // Max number of simultaneously open statements (each null mask needs its own statement)
+    private static final int MAX_MASK_STATEMENTS = 32;
+
+    private static class MaskStatement {
+        final DBCStatement statement;
+        int rowCount;
+
+        MaskStatement(DBCStatement statement) {
+            this.statement = statement;
+        }
+    }
+
     protected final DBSAttributeBase[] attributes;
     protected final List<Object[]> values = new ArrayList<>();
     protected final DBDDataReceiver keysReceiver;
     protected final boolean reuseStatement;
 
+    private final Map<BitSet, MaskStatement> maskStatements = new LinkedHashMap<>();
+    private DBCSession streamSession;
+    private DBDValueHandler[] streamHandlers;
+    // Number of first rows in values which are already bound to mask statements (streaming mode)
+    private int boundRows;
+    // Statistics of statements prepared in streaming mode before execute
+    private DBCStatistics pendingStatistics = new DBCStatistics();
+
     /**
      * Constructs new batch
      * @param attributes array of attributes used in batch
@@ -63,6 +90,21 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         this.reuseStatement = reuseStatement;
     }
 
+    /**
+     * Streaming is possible only with statement batches (otherwise each row is executed immediately)
+     * and without generated keys reading.
+     */
+    @Override
+    public boolean enableStreaming(@NotNull DBCSession session)
+    {
+        if (!reuseStatement || keysReceiver != null || !session.getDataSource().getInfo().supportsBatchUpdates() || !values.isEmpty()) {
+            return false;
+        }
+        streamSession = session;
+        streamHandlers = getValueHandlers(session);
+        return true;
+    }
+
     @Override
     public void add(@NotNull Object[] attributeValues) throws DBCException
     {
@@ -70,6 +112,16 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
             throw new DBCException("Bad attribute values: " + Arrays.toString(attributeValues));
         }
         values.add(attributeValues);
+        if (streamSession != null && boundRows == values.size() - 1) {
+            // Bind row right now. Errors are not thrown here: unbound rows are bound again in execute.
+            try {
+                if (addToMaskBatch(streamSession, streamHandlers, attributeValues, pendingStatistics, false)) {
+                    boundRows++;
+                }
+            } catch (DBCException e) {
+                log.debug("Error binding batch row, it will be bound on execute", e);
+            }
+        }
     }
 
     @NotNull
@@ -81,6 +133,9 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
     @Override
     public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions) throws DBCException {
+        if (streamSession != null) {
+            throw new DBCException("Persist actions can't be generated in streaming mode");
+        }
         processBatch(session, actions);
     }
 
@@ -95,21 +150,39 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
     private DBCStatistics processBatch(@NotNull DBCSession session, @Nullable List<DBEPersistAction> actions) throws DBCException
     {
         session.getProgressMonitor().subTask("Save batch (" + values.size() + ")");
-        DBDValueHandler[] handlers = new DBDValueHandler[attributes.length];
-        for (int i = 0; i < attributes.length; i++) {
-            if (attributes[i] instanceof DBDAttributeBinding) {
-                handlers[i] = ((DBDAttributeBinding)attributes[i]).getValueHandler();
-            } else {
-                handlers[i] = DBUtils.findValueHandler(session, attributes[i]);
-            }
-        }
+        DBDValueHandler[] handlers = getValueHandlers(session);
 
         boolean useBatch = session.getDataSource().getInfo().supportsBatchUpdates() && reuseStatement;
-        if (values.size() <= 1) {
+        if (values.size() <= 1 && boundRows == 0) {
             useBatch = false;
         }
 
         DBCStatistics statistics = new DBCStatistics();
+        if (useBatch && actions == null && keysReceiver == null) {
+            // Batch rows by null mask
+            statistics = pendingStatistics;
+            pendingStatistics = new DBCStatistics();
+            boolean success = false;
+            try {
+                for (int i = boundRows; i < values.size(); i++) {
+                    if (session.getProgressMonitor().isCanceled()) {
+                        break;
+                    }
+                    addToMaskBatch(session, handlers, values.get(i), statistics, true);
+                }
+                flushMaskBatches(statistics);
+                values.clear();
+                success = true;
+            } finally {
+                boundRows = 0;
+                if (!success || streamSession == null) {
+                    // Closed statements discard unexecuted batches. Rows are kept for the next execute.
+                    closeMaskStatements();
+                }
+            }
+            return statistics;
+        }
+
         DBCStatement statement = null;
 
         try {
@@ -286,9 +359,75 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         }
     }
 
+    private DBDValueHandler[] getValueHandlers(@NotNull DBCSession session) {
+        DBDValueHandler[] handlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            if (attributes[i] instanceof DBDAttributeBinding) {
+                handlers[i] = ((DBDAttributeBinding)attributes[i]).getValueHandler();
+            } else {
+                handlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+            }
+        }
+        return handlers;
+    }
+
+    /**
+     * Binds row to the statement batch of its null mask.
+     * @param canFlush if false and there are too many open statements then row is not bound
+     * @return true if row was bound
+     */
+    private boolean addToMaskBatch(@NotNull DBCSession session, @NotNull DBDValueHandler[] handlers, @NotNull Object[] rowValues, @NotNull DBCStatistics statistics, boolean canFlush)
+        throws DBCException
+    {
+        BitSet nullMask = new BitSet(rowValues.length);
+        for (int i = 0; i < rowValues.length; i++) {
+            if (DBUtils.isNullValue(rowValues[i])) {
+                nullMask.set(i);
+            }
+        }
+        MaskStatement maskStatement = maskStatements.get(nullMask);
+        if (maskStatement == null) {
+            if (maskStatements.size() >= MAX_MASK_STATEMENTS) {
+                if (!canFlush) {
+                    return false;
+                }
+                // Too many different masks. Execute everything and start over
+                flushMaskBatches(statistics);
+                closeMaskStatements();
+            }
+            DBCStatement statement = prepareStatement(session, rowValues);
+            statistics.setQueryText(statement.getQueryString());
+            statistics.addStatementsCount();
+            maskStatement = new MaskStatement(statement);
+            maskStatements.put(nullMask, maskStatement);
+        }
+        bindStatement(handlers, maskStatement.statement, rowValues);
+        maskStatement.statement.addToBatch();
+        maskStatement.rowCount++;
+        return true;
+    }
+
+    private void flushMaskBatches(@NotNull DBCStatistics statistics) throws DBCException {
+        for (MaskStatement maskStatement : maskStatements.values()) {
+            if (maskStatement.rowCount > 0) {
+                flushBatch(statistics, maskStatement.statement);
+                maskStatement.rowCount = 0;
+            }
+        }
+    }
+
+    private void closeMaskStatements() {
+        for (MaskStatement maskStatement : maskStatements.values()) {
+            maskStatement.statement.close();
+        }
+        maskStatements.clear();
+    }
+
     @Override
     public void close()
     {
+        closeMaskStatements();
+        streamSession = null;
     }
 
     private void readKeys(@NotNull DBCSession session, @NotNull DBCStatement dbStat, @NotNull DBDDataReceiver keysReceiver)
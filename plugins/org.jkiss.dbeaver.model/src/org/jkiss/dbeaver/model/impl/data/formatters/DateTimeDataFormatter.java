@@ -21,23 +21,40 @@ import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.time.ExtendedDateFormat;
 
+import java.sql.Timestamp;
 import java.text.DateFormat;
-import java.text.FieldPosition;
 import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
+import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Date/time formatter. Thread safe after initialization.
+ *
+ * Pattern is in ExtendedDateFormat (SimpleDateFormat) syntax. If java.time formatter produces exactly the same results
+ * then dates are formatted with it (it is immutable and much faster). Otherwise ExtendedDateFormat is used.
+ */
 public class DateTimeDataFormatter implements DBDDataFormatter {
 
     public static final String PROP_PATTERN = "pattern";
 
+    // Dates out of this range are formatted by legacy format. It uses Julian calendar before 1582,
+    // its historical time zone offsets (LMT) and its DST rules after 2037 differ from java.time
+    private static final long MIN_JAVA_TIME = -2208988800000L; // 1900-01-01 UTC
+    private static final long MAX_JAVA_TIME = 2145916800000L; // 2038-01-01 UTC
+
     private String pattern;
+    // ExtendedDateFormat is not thread safe. This one is a prototype, each thread uses its own copy.
     private DateFormat dateFormat;
-    private StringBuffer buffer;
-    private FieldPosition position;
+    private ThreadLocal<DateFormat> threadFormat;
     private DateTimeFormatter dateTimeFormatter;
+    // Formatter for java.util.Date values. Null if pattern is not compatible with java.time
+    private DateTimeFormatter dateFormatter;
+    private final FormattedValueCache valueCache = new FormattedValueCache();
 
     @Override
     public void init(DBSTypedObject type, Locale locale, Map<Object, Object> properties)
@@ -46,11 +63,12 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
         dateFormat = new ExtendedDateFormat(
             pattern,
             locale);
-        buffer = new StringBuffer();
-        position = new FieldPosition(0);
+        final DateFormat prototype = dateFormat;
+        threadFormat = ThreadLocal.withInitial(() -> (DateFormat) prototype.clone());
         // DateTimeFormatter pattern for nanoseconds is "n" but old "f" (ExtendedDateFormat)
         String java8DatePattern = pattern.replaceAll("f+", "n");
         dateTimeFormatter = DateTimeFormatter.ofPattern(java8DatePattern);
+        dateFormatter = createDateFormatter(pattern, locale, dateFormat);
     }
 
     @Override
@@ -62,13 +80,22 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
     @Override
     public String formatValue(Object value)
     {
-        if (value instanceof TemporalAccessor) {
-            return dateTimeFormatter.format((TemporalAccessor) value);
+        if (value == null) {
+            return null;
         }
-        synchronized (dateFormat) {
-            buffer.setLength(0);
-            return value == null ? null : dateFormat.format(value, buffer, position).toString();
+        String text = valueCache.get(value);
+        if (text != null) {
+            return text;
         }
+        if (value instanceof TemporalAccessor) {
+            text = dateTimeFormatter.format((TemporalAccessor) value);
+        } else if (dateFormatter != null && value instanceof Date && isJavaTimeCompatible(((Date) value).getTime())) {
+            text = dateFormatter.format(toInstant((Date) value));
+        } else {
+            text = threadFormat.get().format(value);
+        }
+        valueCache.put(value, text);
+        return text;
     }
 
     @Override
@@ -77,7 +104,56 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
         if (typeHint != null && TemporalAccessor.class.isAssignableFrom(typeHint)) {
             return dateTimeFormatter.parse(value);
         }
-        return dateFormat.parse(value);
+        return threadFormat.get().parse(value);
+    }
+
+    private static boolean isJavaTimeCompatible(long time) {
+        return time >= MIN_JAVA_TIME && time < MAX_JAVA_TIME;
+    }
+
+    private static Instant toInstant(Date date) {
+        if (date instanceof Timestamp) {
+            // Timestamp keeps whole milliseconds in time and full fraction in nanos
+            return Instant.ofEpochSecond(Math.floorDiv(date.getTime(), 1000), ((Timestamp) date).getNanos());
+        }
+        // java.sql.Date and java.sql.Time do not support toInstant
+        return Instant.ofEpochMilli(date.getTime());
+    }
+
+    /**
+     * Translates pattern into java.time formatter and checks that it formats sample values exactly as legacy format.
+     */
+    private static DateTimeFormatter createDateFormatter(String pattern, Locale locale, DateFormat legacyFormat) {
+        DateTimeFormatter formatter;
+        try {
+            // Nanoseconds (ExtendedDateFormat "f") are the fraction of second in java.time
+            formatter = DateTimeFormatter.ofPattern(pattern.replace('f', 'S'), locale)
+                .withZone(ZoneId.systemDefault());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Timestamp ts1 = new Timestamp(1514862245006L); // 2018-01-02 03:04:05 UTC
+        ts1.setNanos(6007008);
+        Timestamp ts2 = new Timestamp(1514764799000L); // 2017-12-31 23:59:59 UTC
+        ts2.setNanos(999000000);
+        Date[] samples = {
+            ts1,
+            ts2,
+            new Timestamp(-14182940000L), // 1969-07-20 20:17:40 UTC
+            new Date(1539388800123L), // Plain date with millis
+            new java.sql.Date(1539388800000L),
+            new java.sql.Time(45296789L),
+        };
+        try {
+            for (Date sample : samples) {
+                if (!formatter.format(toInstant(sample)).equals(((DateFormat) legacyFormat.clone()).format(sample))) {
+                    return null;
+                }
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        return formatter;
     }
 
 }
@@ -0,0 +1,92 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data.formatters;
+
+import org.jkiss.code.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+/**
+ * Small memo of recently formatted values (direct mapped, lock-free).
+ * Entries are immutable so concurrent readers see either old or new entry.
+ * Only values of immutable types are cached as is. Dates are mutable, so they are cached by time value.
+ */
+class FormattedValueCache {
+
+    private static final int CACHE_SIZE = 256;
+
+    private static final class Entry {
+        final Class<?> type;
+        final Object key;
+        final long time;
+        final int nanos;
+        final String text;
+
+        Entry(Class<?> type, Object key, long time, int nanos, String text) {
+            this.type = type;
+            this.key = key;
+            this.time = time;
+            this.nanos = nanos;
+            this.text = text;
+        }
+    }
+
+    private final Entry[] entries = new Entry[CACHE_SIZE];
+
+    @Nullable
+    String get(Object value) {
+        if (value instanceof Date) {
+            Date date = (Date) value;
+            long time = date.getTime();
+            int nanos = value instanceof Timestamp ? ((Timestamp) value).getNanos() : 0;
+            Entry entry = entries[index(Long.hashCode(time) ^ nanos)];
+            return entry != null && entry.key == null && entry.type == value.getClass() && entry.time == time && entry.nanos == nanos ?
+                entry.text : null;
+        } else if (isImmutable(value)) {
+            Entry entry = entries[index(value.hashCode())];
+            return entry != null && entry.type == value.getClass() && value.equals(entry.key) ?
+                entry.text : null;
+        }
+        return null;
+    }
+
+    void put(Object value, String text) {
+        if (value instanceof Date) {
+            long time = ((Date) value).getTime();
+            int nanos = value instanceof Timestamp ? ((Timestamp) value).getNanos() : 0;
+            entries[index(Long.hashCode(time) ^ nanos)] = new Entry(value.getClass(), null, time, nanos, text);
+        } else if (isImmutable(value)) {
+            entries[index(value.hashCode())] = new Entry(value.getClass(), value, 0, 0, text);
+        }
+    }
+
+    private static int index(int hash) {
+        return (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ||
+            value instanceof Double || value instanceof Float ||
+            value.getClass() == BigDecimal.class || value.getClass() == BigInteger.class ||
+            (value instanceof TemporalAccessor && value.getClass().getName().startsWith("java.time."));
+    }
+
+}
@@ -25,19 +25,28 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
-import java.text.FieldPosition;
+import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Number formatter. Thread safe after initialization.
+ */
 public class NumberDataFormatter implements DBDDataFormatter {
 
     public static final int MAX_DEFAULT_FRACTIONS_DIGITS = 4;
 
+    // DecimalFormat is not thread safe. This one is a prototype, each thread uses its own copy.
     private DecimalFormat numberFormat;
-    private StringBuffer buffer;
-    private FieldPosition position;
+    private ThreadLocal<DecimalFormat> threadFormat;
+    // Integers are formatted without DecimalFormat if format settings allow it
+    private boolean simpleIntegers;
+    private int groupingSize;
+    private char groupingSeparator;
+    private char minusSign;
+    private final FormattedValueCache valueCache = new FormattedValueCache();
 
     @Override
     public void init(DBSTypedObject type, Locale locale, Map<Object, Object> properties)
@@ -79,8 +88,24 @@ public class NumberDataFormatter implements DBDDataFormatter {
                 numberFormat.setMinimumFractionDigits(fractionDigits);
             }
         }
-        buffer = new StringBuffer();
-        position = new FieldPosition(0);
+        final DecimalFormat prototype = numberFormat;
+        threadFormat = ThreadLocal.withInitial(() -> (DecimalFormat) prototype.clone());
+
+        DecimalFormatSymbols symbols = numberFormat.getDecimalFormatSymbols();
+        minusSign = symbols.getMinusSign();
+        groupingSeparator = symbols.getGroupingSeparator();
+        groupingSize = numberFormat.isGroupingUsed() ? numberFormat.getGroupingSize() : 0;
+        simpleIntegers =
+            symbols.getZeroDigit() == '0' &&
+            numberFormat.getMultiplier() == 1 &&
+            numberFormat.getMinimumIntegerDigits() <= 1 &&
+            numberFormat.getMaximumIntegerDigits() >= 20 &&
+            numberFormat.getMinimumFractionDigits() == 0 &&
+            !numberFormat.isDecimalSeparatorAlwaysShown() &&
+            numberFormat.getPositivePrefix().isEmpty() &&
+            numberFormat.getPositiveSuffix().isEmpty() &&
+            numberFormat.getNegativePrefix().equals(String.valueOf(minusSign)) &&
+            numberFormat.getNegativeSuffix().isEmpty();
     }
 
     @Nullable
@@ -97,39 +122,75 @@ public class NumberDataFormatter implements DBDDataFormatter {
         if (value == null) {
             return null;
         }
+        String text = valueCache.get(value);
+        if (text != null) {
+            return text;
+        }
         try {
-            synchronized (this) {
-                buffer.setLength(0);
-                return numberFormat.format(value, buffer, position).toString();
+            if (simpleIntegers && (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+                text = formatLong(((Number) value).longValue());
+            } else if (simpleIntegers && value instanceof BigInteger && ((BigInteger) value).bitLength() < 64) {
+                text = formatLong(((BigInteger) value).longValue());
+            } else {
+                text = threadFormat.get().format(value);
             }
         } catch (Exception e) {
             return value.toString();
         }
+        valueCache.put(value, text);
+        return text;
+    }
+
+    /**
+     * Formats integer the same way as DecimalFormat does (digits with grouping separators)
+     */
+    private String formatLong(long value) {
+        boolean negative = value < 0;
+        String digits = Long.toString(value);
+        if (negative) {
+            digits = digits.substring(1);
+        }
+        int length = digits.length();
+        if (groupingSize <= 0 || length <= groupingSize) {
+            return negative ? minusSign + digits : digits;
+        }
+        StringBuilder result = new StringBuilder(length + length / groupingSize + 1);
+        if (negative) {
+            result.append(minusSign);
+        }
+        int firstGroup = length % groupingSize;
+        if (firstGroup == 0) {
+            firstGroup = groupingSize;
+        }
+        result.append(digits, 0, firstGroup);
+        for (int i = firstGroup; i < length; i += groupingSize) {
+            result.append(groupingSeparator).append(digits, i, i + groupingSize);
+        }
+        return result.toString();
     }
 
     @Override
     public Object parseValue(String value, @Nullable Class<?> typeHint) throws ParseException
     {
-        synchronized (this) {
-            numberFormat.setParseBigDecimal(typeHint == BigDecimal.class || typeHint == BigInteger.class);
-            Number number = numberFormat.parse(value);
-            if (number != null && typeHint != null) {
-                if (typeHint == Byte.class) {
-                    return number.byteValue();
-                } else if (typeHint == Short.class) {
-                    return number.shortValue();
-                } else if (typeHint == Integer.class) {
-                    return number.intValue();
-                } else if (typeHint == Long.class) {
-                    return number.longValue();
-                } else if (typeHint == Float.class) {
-                    return number.floatValue();
-                } else if (typeHint == Double.class) {
-                    return number.doubleValue();
-                }
+        DecimalFormat parseFormat = threadFormat.get();
+        parseFormat.setParseBigDecimal(typeHint == BigDecimal.class || typeHint == BigInteger.class);
+        Number number = parseFormat.parse(value);
+        if (number != null && typeHint != null) {
+            if (typeHint == Byte.class) {
+                return number.byteValue();
+            } else if (typeHint == Short.class) {
+                return number.shortValue();
+            } else if (typeHint == Integer.class) {
+                return number.intValue();
+            } else if (typeHint == Long.class) {
+                return number.longValue();
+            } else if (typeHint == Float.class) {
+                return number.floatValue();
+            } else if (typeHint == Double.class) {
+                return number.doubleValue();
             }
-            return number;
         }
+        return number;
     }
 
 }
@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.struct.DBSObject;
@@ -123,6 +124,12 @@ public class JDBCRemoteInstance<DATASOURCE extends JDBCDataSource> implements DB
 
     @Override
     public JDBCExecutionContext getDefaultContext(boolean meta) {
+        if (meta) {
+            DBCExecutionContext threadContext = DBExecUtils.getThreadMetaContext();
+            if (threadContext instanceof JDBCExecutionContext && threadContext.getOwnerInstance() == this) {
+                return (JDBCExecutionContext) threadContext;
+            }
+        }
         if (metaContext != null && meta) {
             return this.metaContext;
         }
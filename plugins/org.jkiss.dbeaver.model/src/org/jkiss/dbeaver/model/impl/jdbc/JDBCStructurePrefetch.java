@@ -0,0 +1,198 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBExecUtils;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Structure prefetch.
+ * Loads container metadata with a set of independent loaders (one query per metadata kind).
+ * Loaders of the same stage run in parallel, each in its own isolated metadata context.
+ * Loaders which failed to open isolated context run in the caller thread after others.
+ * Stages run one after another, so later stages may rely on caches filled by previous ones.
+ * If separate metadata connection is disabled all loaders run sequentially in the caller thread.
+ */
+public class JDBCStructurePrefetch {
+
+    private static final Log log = Log.getLog(JDBCStructurePrefetch.class);
+
+    private static final int WAIT_PAUSE = 50;
+
+    public interface Loader {
+        void load(@NotNull DBRProgressMonitor monitor) throws DBException;
+    }
+
+    private static class LoaderInfo {
+        final String name;
+        final Loader loader;
+        volatile DBException error;
+        // Isolated context wasn't opened, loader must run in the caller thread
+        volatile boolean deferred;
+
+        LoaderInfo(String name, Loader loader) {
+            this.name = name;
+            this.loader = loader;
+        }
+    }
+
+    @Nullable
+    private final JDBCRemoteInstance instance;
+    private final List<List<LoaderInfo>> stages = new ArrayList<>();
+
+    public JDBCStructurePrefetch(@NotNull DBSObject container) {
+        DBSInstance ownerInstance = DBUtils.getObjectOwnerInstance(container);
+        this.instance = ownerInstance instanceof JDBCRemoteInstance ? (JDBCRemoteInstance) ownerInstance : null;
+        this.stages.add(new ArrayList<>());
+    }
+
+    /**
+     * Adds loader to the current stage
+     */
+    public JDBCStructurePrefetch add(@NotNull String name, @NotNull Loader loader) {
+        stages.get(stages.size() - 1).add(new LoaderInfo(name, loader));
+        return this;
+    }
+
+    /**
+     * Starts new stage. Its loaders will run after all loaders of previous stages.
+     */
+    public JDBCStructurePrefetch nextStage() {
+        if (!stages.get(stages.size() - 1).isEmpty()) {
+            stages.add(new ArrayList<>());
+        }
+        return this;
+    }
+
+    /**
+     * Runs all loaders. Failed loaders do not stop others, the first error is thrown at the end.
+     */
+    public void run(@NotNull DBRProgressMonitor monitor) throws DBException {
+        final boolean parallel = isParallelAllowed();
+        DBException firstError = null;
+        for (List<LoaderInfo> stage : stages) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (parallel && stage.size() > 1) {
+                runParallel(monitor, stage);
+            } else {
+                for (LoaderInfo info : stage) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    runLoader(monitor, info);
+                }
+            }
+            for (LoaderInfo info : stage) {
+                if (info.error != null && firstError == null) {
+                    firstError = info.error;
+                }
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+
+    private boolean isParallelAllowed() {
+        return instance != null && DBExecUtils.isParallelMetadataReadAllowed(instance.getDataSource().getContainer());
+    }
+
+    private void runParallel(@NotNull DBRProgressMonitor monitor, @NotNull List<LoaderInfo> stage) {
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 1; i < stage.size(); i++) {
+            final LoaderInfo info = stage.get(i);
+            AbstractJob job = new AbstractJob("Prefetch " + info.name) {
+                {
+                    setSystem(true);
+                    setUser(false);
+                }
+                @Override
+                protected IStatus run(DBRProgressMonitor jobMonitor) {
+                    runIsolated(jobMonitor, info);
+                    return Status.OK_STATUS;
+                }
+            };
+            job.schedule();
+            jobs.add(job);
+        }
+        // First loader runs in the caller thread and uses the default metadata context
+        runLoader(monitor, stage.get(0));
+
+        for (Job job : jobs) {
+            while (job.getState() != Job.NONE) {
+                if (monitor.isCanceled()) {
+                    job.cancel();
+                }
+                RuntimeUtils.pause(WAIT_PAUSE);
+            }
+        }
+        for (int i = 1; i < stage.size(); i++) {
+            LoaderInfo info = stage.get(i);
+            if (info.deferred && !monitor.isCanceled()) {
+                runLoader(monitor, info);
+            }
+        }
+    }
+
+    private void runIsolated(@NotNull DBRProgressMonitor monitor, @NotNull LoaderInfo info) {
+        final JDBCExecutionContext context;
+        try {
+            context = (JDBCExecutionContext) instance.openIsolatedContext(monitor, "Metadata prefetch");
+        } catch (DBException e) {
+            // Default metadata context can't be shared between threads
+            log.debug("Can't open isolated context for " + info.name + " prefetch, it will be loaded in the caller thread", e);
+            info.deferred = true;
+            return;
+        }
+        try {
+            DBExecUtils.bindThreadMetaContext(context);
+            runLoader(monitor, info);
+        } finally {
+            DBExecUtils.bindThreadMetaContext(null);
+            context.close();
+        }
+    }
+
+    private static void runLoader(@NotNull DBRProgressMonitor monitor, @NotNull LoaderInfo info) {
+        monitor.subTask("Load " + info.name);
+        try {
+            info.loader.load(monitor);
+        } catch (DBException e) {
+            info.error = e;
+        } catch (Throwable e) {
+            info.error = new DBException("Error loading " + info.name, e);
+        }
+    }
+
+}
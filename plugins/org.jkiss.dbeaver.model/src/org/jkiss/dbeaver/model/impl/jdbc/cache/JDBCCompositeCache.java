@@ -261,8 +261,13 @@ public abstract class JDBCCompositeCache<
             JDBCStatement dbStat = prepareObjectsStatement(session, owner, forParent);
             dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
             try {
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
+                JDBCResultSet dbResult;
+                if (forParent == null) {
+                    dbResult = JDBCMetadataSnapshot.executeStatement(session, dbStat, JDBCMetadataSnapshot.makeKey(this, owner, null));
+                } else {
+                    dbStat.executeStatement();
+                    dbResult = dbStat.getResultSet();
+                }
                 if (dbResult != null) try {
                     while (dbResult.next()) {
                         if (monitor.isCanceled()) {
@@ -371,7 +376,9 @@ public abstract class JDBCCompositeCache<
                         }
                         // Add precached objects to global cache too
                         super.setCache(globalCache);
-                        this.invalidateObjects(monitor, owner, new CacheIterator());
+                        CacheIterator cacheIterator = new CacheIterator();
+                        this.invalidateObjects(monitor, owner, cacheIterator);
+                        cacheIterator.flushRemovals();
                     }
                 }
 
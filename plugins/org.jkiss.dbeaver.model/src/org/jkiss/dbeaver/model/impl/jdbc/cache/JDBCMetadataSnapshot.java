@@ -0,0 +1,799 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCPreparedStatementImpl;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent snapshot of metadata read results.
+ *
+ * Metadata caches execute their statements with {@link #executeStatement}. Results of complete reads are recorded
+ * (only values actually read by the cache) and saved per connection in the workspace in a compact binary format.
+ * On the next connect the same read is replayed from the snapshot instead of the database if the database
+ * metadata version (see {@link JDBCMetadataVersionProvider}) and the query (including parameters) are the same.
+ *
+ * Each entry is replayed at most once per connection, so cache refresh always reads actual metadata from the database.
+ */
+public class JDBCMetadataSnapshot {
+
+    private static final Log log = Log.getLog(JDBCMetadataSnapshot.class);
+
+    private static final String SNAPSHOT_FOLDER = "metadata-cache"; //$NON-NLS-1$
+    private static final String SNAPSHOT_FILE_EXT = ".dat"; //$NON-NLS-1$
+    private static final int SNAPSHOT_MAGIC = 0x44424D53;
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+
+    private static final long SAVE_DELAY = 5000;
+    // Metadata version is re-read if it is older than this period
+    private static final long VERSION_CHECK_PERIOD = 5000;
+
+    private static final int T_ABSENT = 0;
+    private static final int T_NULL = 1;
+    private static final int T_STRING = 2;
+    private static final int T_STRING_REF = 3;
+    private static final int T_INT = 4;
+    private static final int T_LONG = 5;
+    private static final int T_SHORT = 6;
+    private static final int T_BYTE = 7;
+    private static final int T_BOOLEAN = 8;
+    private static final int T_DOUBLE = 9;
+    private static final int T_FLOAT = 10;
+    private static final int T_DECIMAL = 11;
+    private static final int T_BIGINT = 12;
+    private static final int T_TIMESTAMP = 13;
+    private static final int T_DATE = 14;
+    private static final int T_TIME = 15;
+    private static final int T_JAVA_DATE = 16;
+    private static final int T_BYTES = 17;
+
+    private static final Object ABSENT = new Object();
+
+    private static final Set<String> RECORDED_GETTERS = new HashSet<>(Arrays.asList(
+        "getString", "getNString", "getInt", "getLong", "getShort", "getByte", "getBoolean", "getDouble", "getFloat",
+        "getBigDecimal", "getTimestamp", "getDate", "getTime", "getBytes", "getObject"));
+
+    private static final Map<DBPDataSource, JDBCMetadataSnapshot> snapshots = new WeakHashMap<>();
+
+    private static class Entry {
+        final String version;
+        final String signature;
+        final String[] columnLabels;
+        final String[] columnNames;
+        final int[] columnTypes;
+        final String[] columnTypeNames;
+        final String[] valueKeys;
+        final List<Object[]> rows;
+
+        Entry(String version, String signature, String[] columnLabels, String[] columnNames, int[] columnTypes, String[] columnTypeNames, String[] valueKeys, List<Object[]> rows) {
+            this.version = version;
+            this.signature = signature;
+            this.columnLabels = columnLabels;
+            this.columnNames = columnNames;
+            this.columnTypes = columnTypes;
+            this.columnTypeNames = columnTypeNames;
+            this.valueKeys = valueKeys;
+            this.rows = rows;
+        }
+    }
+
+    private static class VersionInfo {
+        final String version;
+        final long readTime;
+
+        VersionInfo(String version, long readTime) {
+            this.version = version;
+            this.readTime = readTime;
+        }
+    }
+
+    private final File file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> usedKeys = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Set<String> actualVersions = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Map<DBCExecutionContext, VersionInfo> versions = new WeakHashMap<>();
+    private final AbstractJob saveJob;
+    private boolean loaded;
+
+    private JDBCMetadataSnapshot(@NotNull File file) {
+        this.file = file;
+        this.saveJob = new AbstractJob("Save metadata snapshot") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                saveSnapshot();
+                return Status.OK_STATUS;
+            }
+        };
+        this.saveJob.setSystem(true);
+    }
+
+    /**
+     * Makes snapshot key for the specified cache and owner
+     */
+    @NotNull
+    public static String makeKey(@NotNull Object cache, @NotNull DBSObject owner, @Nullable String part) {
+        String key = cache.getClass().getName() + "@" + DBUtils.getObjectFullId(owner);
+        return part == null ? key : key + "#" + part;
+    }
+
+    /**
+     * Executes metadata statement and returns its result set.
+     * Result set is replayed from the snapshot if snapshot has actual results of this statement.
+     * Otherwise statement is executed and results are recorded in the snapshot.
+     */
+    @Nullable
+    public static JDBCResultSet executeStatement(@NotNull JDBCSession session, @NotNull JDBCStatement dbStat, @NotNull String key)
+        throws SQLException
+    {
+        JDBCMetadataSnapshot snapshot = getSnapshot(session);
+        String version = snapshot == null ? null : snapshot.getMetadataVersion(session);
+        String signature = version == null ? null : getStatementSignature(dbStat);
+        if (signature == null) {
+            dbStat.executeStatement();
+            return dbStat.getResultSet();
+        }
+        if (snapshot.usedKeys.add(key)) {
+            Entry entry = snapshot.entries.get(key);
+            if (entry != null && entry.version.equals(version) && entry.signature.equals(signature)) {
+                ResultSet replay = (ResultSet) Proxy.newProxyInstance(
+                    JDBCMetadataSnapshot.class.getClassLoader(),
+                    new Class[] { ResultSet.class },
+                    new ReplayHandler(entry));
+                return JDBCResultSetImpl.makeResultSet(session, dbStat, replay, "Metadata snapshot", true);
+            }
+        }
+        dbStat.executeStatement();
+        JDBCResultSet dbResult = dbStat.getResultSet();
+        if (dbResult == null) {
+            return null;
+        }
+        ResultSet recorder = (ResultSet) Proxy.newProxyInstance(
+            JDBCMetadataSnapshot.class.getClassLoader(),
+            new Class[] { ResultSet.class },
+            snapshot.new RecordHandler(key, version, signature, dbResult));
+        return JDBCResultSetImpl.makeResultSet(session, dbStat, recorder, "Metadata snapshot", true);
+    }
+
+    @Nullable
+    private static JDBCMetadataSnapshot getSnapshot(@NotNull JDBCSession session) {
+        DBPDataSource dataSource = session.getDataSource();
+        if (!(dataSource instanceof JDBCMetadataVersionProvider) ||
+            !dataSource.getContainer().getPreferenceStore().getBoolean(ModelPreferences.META_DISK_CACHE))
+        {
+            return null;
+        }
+        JDBCMetadataSnapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.get(dataSource);
+            if (snapshot == null) {
+                snapshot = new JDBCMetadataSnapshot(getSnapshotFile(dataSource.getContainer()));
+                snapshots.put(dataSource, snapshot);
+            }
+        }
+        snapshot.loadSnapshot();
+        return snapshot;
+    }
+
+    @NotNull
+    private static File getSnapshotFile(@NotNull DBPDataSourceContainer container) {
+        File folder = new File(GeneralUtils.getMetadataFolder(), SNAPSHOT_FOLDER);
+        return new File(folder, CommonUtils.escapeFileName(container.getId()) + SNAPSHOT_FILE_EXT);
+    }
+
+    /**
+     * Query text with parameter values. Returns null if parameters are unknown.
+     */
+    @Nullable
+    private static String getStatementSignature(@NotNull JDBCStatement dbStat) {
+        String query = dbStat.getQueryString();
+        if (query == null) {
+            return null;
+        }
+        if (dbStat instanceof JDBCPreparedStatementImpl) {
+            String formattedQuery = ((JDBCPreparedStatementImpl) dbStat).getFormattedQuery();
+            if (formattedQuery.equals(query) && query.indexOf('?') != -1) {
+                // Parameters weren't tracked
+                return null;
+            }
+            return formattedQuery;
+        }
+        return query;
+    }
+
+    @Nullable
+    private String getMetadataVersion(@NotNull JDBCSession session) {
+        DBCExecutionContext context = session.getExecutionContext();
+        synchronized (versions) {
+            VersionInfo versionInfo = versions.get(context);
+            if (versionInfo != null && System.currentTimeMillis() - versionInfo.readTime < VERSION_CHECK_PERIOD) {
+                return versionInfo.version;
+            }
+        }
+        long readTime = System.currentTimeMillis();
+        String version;
+        try {
+            version = ((JDBCMetadataVersionProvider) session.getDataSource()).readMetadataVersion(session);
+        } catch (SQLException e) {
+            log.debug("Can't read metadata version", e);
+            version = null;
+        }
+        if (version != null) {
+            actualVersions.add(version);
+        }
+        synchronized (versions) {
+            versions.put(context, new VersionInfo(version, readTime));
+        }
+        return version;
+    }
+
+    private void addEntry(@NotNull String key, @NotNull Entry entry) {
+        entries.put(key, entry);
+        saveJob.schedule(SAVE_DELAY);
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    // Persistence
+
+    private synchronized void loadSnapshot() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_FORMAT_VERSION) {
+                return;
+            }
+            List<String> strings = new ArrayList<>();
+            if (!CommonUtils.equalObjects(readString(in, strings), getProductVersion())) {
+                // Metadata readers may differ in other product version
+                return;
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String key = readString(in, strings);
+                String version = readString(in, strings);
+                String signature = readString(in, strings);
+                int columnCount = in.readInt();
+                String[] columnLabels = new String[columnCount];
+                String[] columnNames = new String[columnCount];
+                int[] columnTypes = new int[columnCount];
+                String[] columnTypeNames = new String[columnCount];
+                for (int k = 0; k < columnCount; k++) {
+                    columnLabels[k] = readString(in, strings);
+                    columnNames[k] = readString(in, strings);
+                    columnTypes[k] = in.readInt();
+                    columnTypeNames[k] = readString(in, strings);
+                }
+                String[] valueKeys = new String[in.readInt()];
+                for (int k = 0; k < valueKeys.length; k++) {
+                    valueKeys[k] = readString(in, strings);
+                }
+                int rowCount = in.readInt();
+                List<Object[]> rows = new ArrayList<>(rowCount);
+                for (int r = 0; r < rowCount; r++) {
+                    Object[] row = new Object[valueKeys.length];
+                    for (int k = 0; k < valueKeys.length; k++) {
+                        row[k] = readValue(in, strings);
+                    }
+                    rows.add(row);
+                }
+                entries.put(key, new Entry(version, signature, columnLabels, columnNames, columnTypes, columnTypeNames, valueKeys, rows));
+            }
+        } catch (Exception e) {
+            log.debug("Error reading metadata snapshot '" + file.getAbsolutePath() + "'", e);
+            entries.clear();
+        }
+    }
+
+    private void saveSnapshot() {
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            log.debug("Can't create metadata snapshot folder '" + folder.getAbsolutePath() + "'");
+            return;
+        }
+        // Entries of other metadata versions are obsolete
+        Map<String, Entry> actualEntries = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (actualVersions.contains(entry.getValue().version)) {
+                actualEntries.put(entry.getKey(), entry.getValue());
+            }
+        }
+        File tmpFile = new File(folder, file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                Map<String, Integer> strings = new HashMap<>();
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_FORMAT_VERSION);
+                writeString(out, strings, getProductVersion());
+                out.writeInt(actualEntries.size());
+                for (Map.Entry<String, Entry> mapEntry : actualEntries.entrySet()) {
+                    Entry entry = mapEntry.getValue();
+                    writeString(out, strings, mapEntry.getKey());
+                    writeString(out, strings, entry.version);
+                    writeString(out, strings, entry.signature);
+                    out.writeInt(entry.columnLabels.length);
+                    for (int k = 0; k < entry.columnLabels.length; k++) {
+                        writeString(out, strings, entry.columnLabels[k]);
+                        writeString(out, strings, entry.columnNames[k]);
+                        out.writeInt(entry.columnTypes[k]);
+                        writeString(out, strings, entry.columnTypeNames[k]);
+                    }
+                    out.writeInt(entry.valueKeys.length);
+                    for (String valueKey : entry.valueKeys) {
+                        writeString(out, strings, valueKey);
+                    }
+                    out.writeInt(entry.rows.size());
+                    for (Object[] row : entry.rows) {
+                        for (int k = 0; k < entry.valueKeys.length; k++) {
+                            writeValue(out, strings, k < row.length ? row[k] : ABSENT);
+                        }
+                    }
+                }
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Error saving metadata snapshot '" + file.getAbsolutePath() + "'", e);
+            if (tmpFile.exists() && !tmpFile.delete()) {
+                log.debug("Can't delete temp file '" + tmpFile.getAbsolutePath() + "'");
+            }
+        }
+    }
+
+    private static String getProductVersion() {
+        return GeneralUtils.getProductVersion().toString();
+    }
+
+    private static boolean isSupportedValue(@Nullable Object value) {
+        return value == null || value instanceof String || value instanceof Integer || value instanceof Long ||
+            value instanceof Short || value instanceof Byte || value instanceof Boolean ||
+            value instanceof Double || value instanceof Float ||
+            value.getClass() == BigDecimal.class || value.getClass() == BigInteger.class ||
+            value.getClass() == Timestamp.class || value.getClass() == java.sql.Date.class ||
+            value.getClass() == Time.class || value.getClass() == java.util.Date.class ||
+            value instanceof byte[];
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @NotNull Map<String, Integer> strings, @Nullable String str) throws IOException {
+        if (str == null) {
+            out.writeByte(T_NULL);
+            return;
+        }
+        Integer index = strings.get(str);
+        if (index != null) {
+            out.writeByte(T_STRING_REF);
+            out.writeInt(index);
+        } else {
+            strings.put(str, strings.size());
+            byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(T_STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(@NotNull DataInputStream in, @NotNull List<String> strings) throws IOException {
+        Object value = readValue(in, strings);
+        if (value != null && !(value instanceof String)) {
+            throw new IOException("String expected but " + value.getClass().getName() + " found");
+        }
+        return (String) value;
+    }
+
+    private static void writeValue(@NotNull DataOutputStream out, @NotNull Map<String, Integer> strings, @Nullable Object value) throws IOException {
+        if (value == ABSENT) {
+            out.writeByte(T_ABSENT);
+        } else if (value == null || value instanceof String) {
+            writeString(out, strings, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(T_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(T_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(T_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(T_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(T_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Double) {
+            out.writeByte(T_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(T_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(T_DECIMAL);
+            writeString(out, strings, value.toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(T_BIGINT);
+            writeString(out, strings, value.toString());
+        } else if (value instanceof Timestamp) {
+            out.writeByte(T_TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(T_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Time) {
+            out.writeByte(T_TIME);
+            out.writeLong(((Time) value).getTime());
+        } else if (value instanceof java.util.Date) {
+            out.writeByte(T_JAVA_DATE);
+            out.writeLong(((java.util.Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            out.writeByte(T_BYTES);
+            out.writeInt(((byte[]) value).length);
+            out.write((byte[]) value);
+        } else {
+            throw new IOException("Unsupported snapshot value type: " + value.getClass().getName());
+        }
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull DataInputStream in, @NotNull List<String> strings) throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+            case T_ABSENT:
+                return ABSENT;
+            case T_NULL:
+                return null;
+            case T_STRING: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                String str = new String(bytes, StandardCharsets.UTF_8);
+                strings.add(str);
+                return str;
+            }
+            case T_STRING_REF:
+                return strings.get(in.readInt());
+            case T_INT:
+                return in.readInt();
+            case T_LONG:
+                return in.readLong();
+            case T_SHORT:
+                return in.readShort();
+            case T_BYTE:
+                return in.readByte();
+            case T_BOOLEAN:
+                return in.readBoolean();
+            case T_DOUBLE:
+                return in.readDouble();
+            case T_FLOAT:
+                return in.readFloat();
+            case T_DECIMAL:
+                return new BigDecimal(readString(in, strings));
+            case T_BIGINT:
+                return new BigInteger(readString(in, strings));
+            case T_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case T_DATE:
+                return new java.sql.Date(in.readLong());
+            case T_TIME:
+                return new Time(in.readLong());
+            case T_JAVA_DATE:
+                return new java.util.Date(in.readLong());
+            case T_BYTES: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return bytes;
+            }
+            default:
+                throw new IOException("Bad snapshot value tag: " + tag);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////
+    // Result set proxies
+
+    /**
+     * Value key: getter name and column. Values are stored per getter because drivers convert values differently.
+     */
+    @Nullable
+    private static String makeValueKey(@NotNull Method method, @Nullable Object[] args) {
+        if (args == null || args.length != 1 || !RECORDED_GETTERS.contains(method.getName())) {
+            return null;
+        }
+        if (args[0] instanceof Integer) {
+            return method.getName() + ":#" + args[0];
+        } else if (args[0] instanceof String) {
+            return method.getName() + ":" + ((String) args[0]).toUpperCase(Locale.ENGLISH);
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Object getDefaultValue(@NotNull Class<?> type) {
+        if (type == Boolean.TYPE) {
+            return false;
+        } else if (type == Integer.TYPE) {
+            return 0;
+        } else if (type == Long.TYPE) {
+            return 0L;
+        } else if (type == Short.TYPE) {
+            return (short) 0;
+        } else if (type == Byte.TYPE) {
+            return (byte) 0;
+        } else if (type == Double.TYPE) {
+            return 0d;
+        } else if (type == Float.TYPE) {
+            return 0f;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Object copyValue(@Nullable Object value) {
+        if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).clone();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        return value;
+    }
+
+    /**
+     * Records values read from the result set. Entry is added to snapshot after complete read.
+     */
+    private class RecordHandler implements InvocationHandler {
+        private final String key;
+        private final String version;
+        private final String signature;
+        private final JDBCResultSet delegate;
+        private final String[] columnLabels;
+        private final String[] columnNames;
+        private final int[] columnTypes;
+        private final String[] columnTypeNames;
+        private final Map<String, Integer> valueIndexes = new LinkedHashMap<>();
+        private final List<Object[]> rows = new ArrayList<>();
+        private Object[] currentRow;
+        private boolean complete;
+        private boolean broken;
+
+        RecordHandler(String key, String version, String signature, JDBCResultSet delegate) throws SQLException {
+            this.key = key;
+            this.version = version;
+            this.signature = signature;
+            this.delegate = delegate;
+            ResultSetMetaData metaData = delegate.getOriginal().getMetaData();
+            int columnCount = metaData.getColumnCount();
+            this.columnLabels = new String[columnCount];
+            this.columnNames = new String[columnCount];
+            this.columnTypes = new int[columnCount];
+            this.columnTypeNames = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnLabels[i] = metaData.getColumnLabel(i + 1);
+                columnNames[i] = metaData.getColumnName(i + 1);
+                columnTypes[i] = metaData.getColumnType(i + 1);
+                columnTypeNames[i] = metaData.getColumnTypeName(i + 1);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                broken = true;
+                throw e.getTargetException();
+            }
+            switch (method.getName()) {
+                case "next":
+                    if (Boolean.TRUE.equals(result)) {
+                        currentRow = new Object[valueIndexes.size()];
+                        Arrays.fill(currentRow, ABSENT);
+                        rows.add(currentRow);
+                    } else {
+                        currentRow = null;
+                        complete = true;
+                    }
+                    return result;
+                case "close":
+                    if (complete && !broken) {
+                        String[] valueKeys = valueIndexes.keySet().toArray(new String[valueIndexes.size()]);
+                        addEntry(key, new Entry(version, signature, columnLabels, columnNames, columnTypes, columnTypeNames, valueKeys, rows));
+                    }
+                    return result;
+            }
+            if (broken || currentRow == null || !method.getName().startsWith("get")) {
+                return result;
+            }
+            String valueKey = makeValueKey(method, args);
+            if (valueKey == null || !isSupportedValue(result)) {
+                // Streams, LOBs, custom types and other getters can't be recorded
+                if (args != null && args.length > 0) {
+                    broken = true;
+                }
+                return result;
+            }
+            Integer index = valueIndexes.get(valueKey);
+            if (index == null) {
+                index = valueIndexes.size();
+                valueIndexes.put(valueKey, index);
+            }
+            if (index >= currentRow.length) {
+                Object[] newRow = Arrays.copyOf(currentRow, valueIndexes.size());
+                Arrays.fill(newRow, currentRow.length, newRow.length, ABSENT);
+                currentRow = newRow;
+                rows.set(rows.size() - 1, newRow);
+            }
+            currentRow[index] = delegate.wasNull() ? null : copyValue(result);
+            return result;
+        }
+    }
+
+    /**
+     * Reads recorded values
+     */
+    private static class ReplayHandler implements InvocationHandler {
+        private final Entry entry;
+        private final Map<String, Integer> valueIndexes = new HashMap<>();
+        private int rowIndex = -1;
+        private boolean wasNull;
+        private boolean closed;
+
+        ReplayHandler(Entry entry) {
+            this.entry = entry;
+            for (int i = 0; i < entry.valueKeys.length; i++) {
+                valueIndexes.put(entry.valueKeys[i], i);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String valueKey = makeValueKey(method, args);
+            if (valueKey != null) {
+                if (rowIndex < 0 || rowIndex >= entry.rows.size()) {
+                    throw new SQLException("No current row in result set");
+                }
+                Object[] row = entry.rows.get(rowIndex);
+                Integer index = valueIndexes.get(valueKey);
+                Object value = index == null || index >= row.length || row[index] == ABSENT ? null : row[index];
+                wasNull = value == null;
+                return value == null ? getDefaultValue(method.getReturnType()) : copyValue(value);
+            }
+            switch (method.getName()) {
+                case "next":
+                    if (rowIndex < entry.rows.size()) {
+                        rowIndex++;
+                    }
+                    return rowIndex < entry.rows.size();
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "wasNull":
+                    return wasNull;
+                case "getRow":
+                    return rowIndex < entry.rows.size() ? rowIndex + 1 : 0;
+                case "findColumn":
+                    for (int i = 0; i < entry.columnLabels.length; i++) {
+                        if (entry.columnLabels[i] != null && entry.columnLabels[i].equalsIgnoreCase((String) args[0])) {
+                            return i + 1;
+                        }
+                    }
+                    throw new SQLException("Column '" + args[0] + "' not found");
+                case "getMetaData":
+                    return Proxy.newProxyInstance(
+                        JDBCMetadataSnapshot.class.getClassLoader(),
+                        new Class[] { ResultSetMetaData.class },
+                        new ReplayMetaDataHandler(entry));
+                case "getType":
+                    return ResultSet.TYPE_FORWARD_ONLY;
+                case "getConcurrency":
+                    return ResultSet.CONCUR_READ_ONLY;
+                case "getFetchDirection":
+                    return ResultSet.FETCH_FORWARD;
+                case "getFetchSize":
+                    return 0;
+                case "isWrapperFor":
+                    return false;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Metadata snapshot result set";
+            }
+            if (method.getReturnType() == Void.TYPE) {
+                // setFetchSize, clearWarnings, etc
+                return null;
+            }
+            if (method.getName().equals("getStatement") || method.getName().equals("getWarnings") || method.getName().equals("getCursorName")) {
+                return null;
+            }
+            throw new SQLFeatureNotSupportedException("Method " + method.getName() + " is not supported by metadata snapshot");
+        }
+    }
+
+    private static class ReplayMetaDataHandler implements InvocationHandler {
+        private final Entry entry;
+
+        ReplayMetaDataHandler(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return entry.columnLabels.length;
+                case "getColumnLabel":
+                    return entry.columnLabels[(Integer) args[0] - 1];
+                case "getColumnName":
+                    return entry.columnNames[(Integer) args[0] - 1];
+                case "getColumnType":
+                    return entry.columnTypes[(Integer) args[0] - 1];
+                case "getColumnTypeName":
+                    return entry.columnTypeNames[(Integer) args[0] - 1];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Metadata snapshot result set metadata";
+            }
+            // Other column properties are not recorded
+            return getDefaultValue(method.getReturnType());
+        }
+    }
+
+}
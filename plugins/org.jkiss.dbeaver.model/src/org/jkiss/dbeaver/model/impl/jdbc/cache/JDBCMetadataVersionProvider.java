@@ -0,0 +1,40 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+
+import java.sql.SQLException;
+
+/**
+ * Data source which can detect metadata changes.
+ * Metadata snapshot (see {@link JDBCMetadataSnapshot}) is used only for data sources which implement this interface.
+ */
+public interface JDBCMetadataVersionProvider {
+
+    /**
+     * Reads current metadata version of the database session is connected to.
+     * Version must change after any DDL (e.g. max DDL timestamp plus number of objects).
+     *
+     * @return metadata version or null if it can't be determined
+     */
+    @Nullable
+    String readMetadataVersion(@NotNull JDBCSession session) throws SQLException;
+
+}
@@ -99,8 +99,7 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
                 try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
                     monitor.subTask("Load " + getCacheName());
                     dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                    dbStat.executeStatement();
-                    JDBCResultSet dbResult = dbStat.getResultSet();
+                    JDBCResultSet dbResult = JDBCMetadataSnapshot.executeStatement(session, dbStat, JDBCMetadataSnapshot.makeKey(this, owner, null));
                     if (dbResult != null) {
                         try {
                             while (dbResult.next()) {
@@ -142,7 +141,9 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
         detectCaseSensitivity(owner);
         mergeCache(tmpObjectList);
-        this.invalidateObjects(monitor, owner, new CacheIterator());
+        CacheIterator cacheIterator = new CacheIterator();
+        this.invalidateObjects(monitor, owner, cacheIterator);
+        cacheIterator.flushRemovals();
     }
 
     protected String getCacheName() {
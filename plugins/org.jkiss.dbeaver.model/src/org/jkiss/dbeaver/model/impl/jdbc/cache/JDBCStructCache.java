@@ -95,8 +95,13 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
             // Load columns
             try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
                 dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
+                JDBCResultSet dbResult;
+                if (forObject == null) {
+                    dbResult = JDBCMetadataSnapshot.executeStatement(session, dbStat, JDBCMetadataSnapshot.makeKey(this, owner, "children"));
+                } else {
+                    dbStat.executeStatement();
+                    dbResult = dbStat.getResultSet();
+                }
                 if (dbResult != null) {
                     try {
                         while (dbResult.next()) {
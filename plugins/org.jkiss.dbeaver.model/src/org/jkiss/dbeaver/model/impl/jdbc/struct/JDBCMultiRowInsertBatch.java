@@ -0,0 +1,218 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.edit.SQLDatabasePersistAction;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-row insert batch.
+ * Inserts rows with INSERT INTO table (columns) VALUES (...),(...),... statements.
+ * NULL values are bound explicitly, so all rows have the same statement text and full chunks reuse the same prepared statement.
+ * Generic bulk load fallback for dialects which support multi-value inserts.
+ */
+public class JDBCMultiRowInsertBatch implements DBSDataManipulator.ExecuteBatch {
+
+    // Many drivers limit number of statement parameters (e.g. SQL Server - 2100, older PostgreSQL drivers - 32767)
+    public static final int MAX_PARAMETERS = 2000;
+    // SQL Server doesn't allow more than 1000 rows in VALUES list
+    public static final int MAX_ROWS = 1000;
+
+    private final DBPDataSource dataSource;
+    private final String tableName;
+    private final DBSAttributeBase[] attributes;
+    private final DBCExecutionSource source;
+    private final int rowsPerStatement;
+    private final List<Object[]> values = new ArrayList<>();
+
+    private DBDValueHandler[] handlers;
+    private DBCStatement fullStatement;
+
+    public JDBCMultiRowInsertBatch(@NotNull JDBCTable table, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source) {
+        this.dataSource = table.getDataSource();
+        this.tableName = table.getFullyQualifiedName(DBPEvaluationContext.DML);
+        this.attributes = attributes;
+        this.source = source;
+        this.rowsPerStatement = Math.max(1, Math.min(MAX_ROWS, MAX_PARAMETERS / Math.max(1, attributes.length)));
+    }
+
+    /**
+     * Checks that all attributes may be inserted with multi-row statement
+     */
+    public static boolean isSupported(@NotNull DBSAttributeBase[] attributes) {
+        if (attributes.length == 0) {
+            return false;
+        }
+        for (DBSAttributeBase attribute : attributes) {
+            if (DBUtils.isPseudoAttribute(attribute)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean enableStreaming(@NotNull DBCSession session) {
+        // Rows are needed to build multi-row statements
+        return false;
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException {
+        if (attributeValues.length != attributes.length) {
+            throw new DBCException("Bad attribute values count: " + attributeValues.length + " (" + attributes.length + " expected)");
+        }
+        values.add(attributeValues);
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session) throws DBCException {
+        session.getProgressMonitor().subTask("Insert rows (" + values.size() + ")");
+        initHandlers(session);
+
+        DBCStatistics statistics = new DBCStatistics();
+        try {
+            for (int offset = 0; offset < values.size(); offset += rowsPerStatement) {
+                if (session.getProgressMonitor().isCanceled()) {
+                    break;
+                }
+                int rowCount = Math.min(rowsPerStatement, values.size() - offset);
+                DBCStatement statement;
+                if (rowCount == rowsPerStatement) {
+                    if (fullStatement == null) {
+                        fullStatement = prepareStatement(session, rowCount);
+                    }
+                    statement = fullStatement;
+                } else {
+                    // The last chunk
+                    statement = prepareStatement(session, rowCount);
+                }
+                try {
+                    int paramIndex = 0;
+                    for (int i = offset; i < offset + rowCount; i++) {
+                        Object[] rowValues = values.get(i);
+                        for (int k = 0; k < attributes.length; k++) {
+                            handlers[k].bindValueObject(session, statement, attributes[k], paramIndex++, rowValues[k]);
+                        }
+                    }
+                    statistics.setQueryText(statement.getQueryString());
+                    statistics.addStatementsCount();
+
+                    long startTime = System.currentTimeMillis();
+                    statement.executeStatement();
+                    statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+
+                    long updateCount = statement.getUpdateRowCount();
+                    statistics.addRowsUpdated(updateCount >= 0 ? updateCount : rowCount);
+                } finally {
+                    if (statement != fullStatement) {
+                        statement.close();
+                    }
+                }
+            }
+        } finally {
+            values.clear();
+        }
+        return statistics;
+    }
+
+    @Override
+    public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions) throws DBCException {
+        initHandlers(session);
+        for (int offset = 0; offset < values.size(); offset += rowsPerStatement) {
+            int rowCount = Math.min(rowsPerStatement, values.size() - offset);
+            StringBuilder query = new StringBuilder(100 + rowCount * attributes.length * 10);
+            appendInsertHeader(query);
+            for (int i = offset; i < offset + rowCount; i++) {
+                Object[] rowValues = values.get(i);
+                if (i > offset) query.append(",\n"); //$NON-NLS-1$
+                query.append("("); //$NON-NLS-1$
+                for (int k = 0; k < attributes.length; k++) {
+                    if (k > 0) query.append(","); //$NON-NLS-1$
+                    query.append(SQLUtils.convertValueToSQL(session.getDataSource(), attributes[k], handlers[k], rowValues[k]));
+                }
+                query.append(")"); //$NON-NLS-1$
+            }
+            actions.add(new SQLDatabasePersistAction("Insert rows", query.toString()));
+        }
+        values.clear();
+    }
+
+    @Override
+    public void close() {
+        if (fullStatement != null) {
+            fullStatement.close();
+            fullStatement = null;
+        }
+        values.clear();
+    }
+
+    private void initHandlers(@NotNull DBCSession session) {
+        if (handlers != null) {
+            return;
+        }
+        handlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            if (attributes[i] instanceof DBDAttributeBinding) {
+                handlers[i] = ((DBDAttributeBinding) attributes[i]).getValueHandler();
+            } else {
+                handlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+            }
+        }
+    }
+
+    private DBCStatement prepareStatement(@NotNull DBCSession session, int rowCount) throws DBCException {
+        StringBuilder query = new StringBuilder(100 + rowCount * (attributes.length * 2 + 3));
+        appendInsertHeader(query);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) query.append(","); //$NON-NLS-1$
+            query.append("("); //$NON-NLS-1$
+            for (int k = 0; k < attributes.length; k++) {
+                if (k > 0) query.append(","); //$NON-NLS-1$
+                query.append("?"); //$NON-NLS-1$
+            }
+            query.append(")"); //$NON-NLS-1$
+        }
+        DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.toString(), false, false, false);
+        dbStat.setStatementSource(source);
+        return dbStat;
+    }
+
+    private void appendInsertHeader(StringBuilder query) {
+        query.append("INSERT INTO ").append(tableName).append(" ("); //$NON-NLS-1$ //$NON-NLS-2$
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) query.append(","); //$NON-NLS-1$
+            query.append(DBUtils.getObjectFullName(dataSource, attributes[i], DBPEvaluationContext.DML));
+        }
+        query.append(")\nVALUES "); //$NON-NLS-1$
+    }
+
+}
@@ -47,7 +47,7 @@ import org.jkiss.utils.ArrayUtils;
  */
 public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER extends DBSObjectContainer>
     extends AbstractTable<DATASOURCE, CONTAINER>
-    implements DBSDataManipulator, DBPSaveableObject
+    implements DBSDataManipulator, DBSDataBulkLoader, DBPSaveableObject
 {
     private static final Log log = Log.getLog(JDBCTable.class);
 
@@ -309,9 +309,18 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
         return new ExecuteBatchImpl(attributes, keysReceiver, true) {
 
-            private boolean allNulls;
+            // Statements are cached by null mask, so this flag must be evaluated for each row
+            private boolean isAllNulls(Object[] attributeValues) {
+                for (int i = 0; i < attributes.length; i++) {
+                    if (!DBUtils.isNullValue(attributeValues[i])) {
+                        return false;
+                    }
+                }
+                return true;
+            }
 
             protected int getNextUsedParamIndex(Object[] attributeValues, int paramIndex) {
+                boolean allNulls = isAllNulls(attributeValues);
                 paramIndex++;
                 DBSAttributeBase attribute = attributes[paramIndex];
                 while (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(attributeValues[paramIndex]))) {
@@ -329,13 +338,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                     .append(useUpsert(session) ? "UPSERT" : "INSERT")
                     .append(" INTO ").append(getFullyQualifiedName(DBPEvaluationContext.DML)).append(" ("); //$NON-NLS-1$ //$NON-NLS-2$
 
-                allNulls = true;
-                for (int i = 0; i < attributes.length; i++) {
-                    if (!DBUtils.isNullValue(attributeValues[i])) {
-                        allNulls = false;
-                        break;
-                    }
-                }
+                boolean allNulls = isAllNulls(attributeValues);
                 boolean hasKey = false;
                 for (int i = 0; i < attributes.length; i++) {
                     DBSAttributeBase attribute = attributes[i];
@@ -367,6 +370,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
             @Override
             protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException {
+                boolean allNulls = isAllNulls(attributeValues);
                 int paramIndex = 0;
                 for (int k = 0; k < handlers.length; k++) {
                     DBSAttributeBase attribute = attributes[k];
@@ -554,6 +558,27 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         return "TRUNCATE TABLE " + getFullyQualifiedName(DBPEvaluationContext.DML);
     }
 
+    /**
+     * Generic bulk insert with multi-row INSERT statements.
+     * Used if SQL dialect supports grouped VALUES lists. Databases with native loaders override it.
+     */
+    @Nullable
+    @Override
+    public ExecuteBatch insertDataBulk(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source)
+        throws DBCException
+    {
+        SQLDialect dialect = session.getDataSource() instanceof SQLDataSource ?
+            ((SQLDataSource) session.getDataSource()).getSQLDialect() : null;
+        if (dialect == null || dialect.getMultiValueInsertMode() != SQLDialect.MultiValueInsertMode.GROUP_ROWS ||
+            useUpsert(session) || !JDBCMultiRowInsertBatch.isSupported(attributes))
+        {
+            return null;
+        }
+        readRequiredMeta(session.getProgressMonitor());
+
+        return new JDBCMultiRowInsertBatch(this, attributes, source);
+    }
+
     ////////////////////////////////////////////////////////////////////
     // Utils
 
@@ -0,0 +1,243 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Bulk load batch which passes rows to the native database loader as delimited text
+ * (e.g. PostgreSQL COPY or MySQL LOAD DATA).
+ *
+ * Only simple values (numbers, strings, booleans and dates) are supported.
+ * If native loader is not available (e.g. driver doesn't provide required API) then all rows go to the fallback batch.
+ */
+public abstract class JDBCTextBulkLoadBatch implements DBSDataManipulator.ExecuteBatch {
+
+    private static final Log log = Log.getLog(JDBCTextBulkLoadBatch.class);
+
+    protected final DBPDataSource dataSource;
+    protected final String tableName;
+    protected final DBSAttributeBase[] attributes;
+    private final DBSDataManipulator.ExecuteBatch fallbackBatch;
+    private final List<Object[]> values = new ArrayList<>();
+    private boolean useFallback;
+    private boolean loaded;
+
+    protected JDBCTextBulkLoadBatch(@NotNull JDBCTable table, @NotNull DBSAttributeBase[] attributes, @NotNull DBSDataManipulator.ExecuteBatch fallbackBatch) {
+        this.dataSource = table.getDataSource();
+        this.tableName = table.getFullyQualifiedName(DBPEvaluationContext.DML);
+        this.attributes = attributes;
+        this.fallbackBatch = fallbackBatch;
+    }
+
+    /**
+     * Checks that all attribute values may be represented as text
+     */
+    public static boolean isSupported(@NotNull DBSAttributeBase[] attributes) {
+        if (attributes.length == 0) {
+            return false;
+        }
+        for (DBSAttributeBase attribute : attributes) {
+            if (DBUtils.isPseudoAttribute(attribute)) {
+                return false;
+            }
+            switch (attribute.getDataKind()) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean enableStreaming(@NotNull DBCSession session) {
+        // Rows are serialized into text right before load
+        return false;
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException {
+        if (useFallback) {
+            fallbackBatch.add(attributeValues);
+            return;
+        }
+        if (attributeValues.length != attributes.length) {
+            throw new DBCException("Bad attribute values count: " + attributeValues.length + " (" + attributes.length + " expected)");
+        }
+        values.add(attributeValues);
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session) throws DBCException {
+        if (useFallback) {
+            return fallbackBatch.execute(session);
+        }
+        if (!loaded && !isLoaderAvailable((JDBCSession) session)) {
+            switchToFallback();
+            return fallbackBatch.execute(session);
+        }
+        DBCStatistics statistics = new DBCStatistics();
+        if (values.isEmpty()) {
+            return statistics;
+        }
+        session.getProgressMonitor().subTask("Load rows (" + values.size() + ")");
+        StringBuilder data = new StringBuilder(values.size() * attributes.length * 10);
+        for (Object[] row : values) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    data.append(getFieldDelimiter());
+                }
+                Object value = row[i];
+                if (DBUtils.isNullValue(value)) {
+                    data.append(getNullString());
+                } else {
+                    appendValue(session, data, attributes[i], value);
+                }
+            }
+            data.append('\n');
+        }
+
+        long startTime = System.currentTimeMillis();
+        long rowCount;
+        try {
+            rowCount = loadData((JDBCSession) session, data.toString());
+        } catch (DBCException e) {
+            if (!loaded && isFallbackAllowedOnError()) {
+                // Loader is disabled by server or driver configuration
+                log.warn("Native bulk load failed, switch to regular inserts", e);
+                switchToFallback();
+                return fallbackBatch.execute(session);
+            }
+            throw e;
+        } finally {
+            loaded = true;
+        }
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        statistics.addStatementsCount();
+        statistics.addRowsUpdated(rowCount >= 0 ? rowCount : values.size());
+        values.clear();
+        return statistics;
+    }
+
+    @Override
+    public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions) throws DBCException {
+        // Native loaders can't be scripted
+        switchToFallback();
+        fallbackBatch.generatePersistActions(session, actions);
+    }
+
+    @Override
+    public void close() {
+        values.clear();
+        fallbackBatch.close();
+    }
+
+    private void switchToFallback() throws DBCException {
+        useFallback = true;
+        for (Object[] row : values) {
+            fallbackBatch.add(row);
+        }
+        values.clear();
+    }
+
+    private void appendValue(@NotNull DBCSession session, @NotNull StringBuilder data, @NotNull DBSAttributeBase attribute, @NotNull Object value) {
+        if (value instanceof Boolean) {
+            appendBoolean(data, (Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            data.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            data.append(value.toString());
+        } else if (value instanceof Date) {
+            // java.sql date/time types use ISO format in toString
+            if (value instanceof java.sql.Date || value instanceof java.sql.Time || value instanceof Timestamp) {
+                appendString(data, value.toString());
+            } else {
+                appendString(data, new Timestamp(((Date) value).getTime()).toString());
+            }
+        } else if (value instanceof String) {
+            appendString(data, (String) value);
+        } else {
+            DBDValueHandler valueHandler = DBUtils.findValueHandler(session, attribute);
+            appendString(data, valueHandler.getValueDisplayString(attribute, value, DBDDisplayFormat.NATIVE));
+        }
+    }
+
+    protected char getFieldDelimiter() {
+        return ',';
+    }
+
+    /**
+     * Text representation of NULL value
+     */
+    @NotNull
+    protected abstract String getNullString();
+
+    protected void appendBoolean(@NotNull StringBuilder data, boolean value) {
+        data.append(value ? "true" : "false");
+    }
+
+    /**
+     * Appends quoted and escaped string
+     */
+    protected abstract void appendString(@NotNull StringBuilder data, @Nullable String value);
+
+    /**
+     * Checks that driver provides native loader API
+     */
+    protected abstract boolean isLoaderAvailable(@NotNull JDBCSession session);
+
+    /**
+     * Whether loader may be replaced with fallback if the first load fails.
+     * Must be false for databases which abort the whole transaction on error.
+     */
+    protected boolean isFallbackAllowedOnError() {
+        return false;
+    }
+
+    /**
+     * Loads data
+     * @return number of loaded rows or -1 if unknown
+     */
+    protected abstract long loadData(@NotNull JDBCSession session, @NotNull String data) throws DBCException;
+
+}
@@ -388,6 +388,11 @@ public class BasicSQLDialect implements SQLDialect {
         return false;
     }
 
+    @Override
+    public boolean supportsGroupingSets() {
+        return false;
+    }
+
     @Override
     public boolean supportsCommentQuery() {
         return false;
@@ -17,19 +17,23 @@
 package org.jkiss.dbeaver.model.navigator;
 
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeFolder;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeObject;
 import org.jkiss.dbeaver.model.runtime.*;
 import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.BeanUtils;
 import org.jkiss.utils.CommonUtils;
@@ -39,6 +43,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * DBNDatabaseNode
@@ -47,6 +52,12 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
 
     private static final DBNDatabaseNode[] EMPTY_NODES = new DBNDatabaseNode[0];
 
+    // Maximum number of additional threads (and metadata connections) used to reload child folders
+    private static final int MAX_PARALLEL_RELOADS = 4;
+    private static final int RELOAD_WAIT_PAUSE = 50;
+    // Set in threads which already reload nodes in parallel. Nested reloads are sequential.
+    private static final ThreadLocal<Boolean> RELOAD_WORKER = new ThreadLocal<>();
+
     private volatile boolean locked;
     protected volatile DBNDatabaseNode[] childNodes;
     private boolean filtered;
@@ -396,6 +407,8 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
         }
         monitor.beginTask(ModelMessages.model_navigator_load_items_, childMetas.size());
 
+        // Old folders are reloaded after all items, they do not depend on each other
+        final List<DBNDatabaseNode> reloadList = new ArrayList<>();
         for (DBXTreeNode child : childMetas) {
             if (monitor.isCanceled()) {
                 break;
@@ -417,7 +430,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
                 } else {
                     for (DBNDatabaseNode oldFolder : oldList) {
                         if (oldFolder.getMeta() == child) {
-                            oldFolder.reloadChildren(monitor, reflect);
+                            reloadList.add(oldFolder);
                             toList.add(oldFolder);
                             break;
                         }
@@ -431,7 +444,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
                 } else {
                     for (DBNDatabaseNode oldObject : oldList) {
                         if (oldObject.getMeta() == child) {
-                            oldObject.reloadChildren(monitor, reflect);
+                            reloadList.add(oldObject);
                             toList.add(oldObject);
                             break;
                         }
@@ -442,6 +455,9 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
             }
             monitor.worked(1);
         }
+        if (!reloadList.isEmpty() && !monitor.isCanceled()) {
+            reloadChildNodes(monitor, reloadList, reflect);
+        }
         monitor.done();
 
         if (reflect && filtered) {
@@ -450,6 +466,95 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
     }
 
 
+    /**
+     * Reloads children of the specified child nodes.
+     * Child folders usually read different metadata so they are reloaded concurrently
+     * if metadata is read in separate connections. Each worker uses its own isolated metadata context.
+     * Worker which can't open isolated context exits, its nodes are reloaded by the current thread.
+     * Each reloaded node publishes its new children as soon as they are read.
+     */
+    private void reloadChildNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, boolean reflect)
+        throws DBException
+    {
+        final int workerCount = Math.min(nodes.size() - 1, MAX_PARALLEL_RELOADS);
+        final DBSInstance instance = DBUtils.getObjectOwnerInstance(getObject());
+        if (workerCount <= 0 || instance == null || RELOAD_WORKER.get() != null || !DBExecUtils.isParallelMetadataReadAllowed(getDataSourceContainer())) {
+            for (DBNDatabaseNode node : nodes) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                node.reloadChildren(monitor, reflect);
+            }
+            return;
+        }
+        final Queue<DBNDatabaseNode> queue = new ConcurrentLinkedQueue<>(nodes);
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        final List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            AbstractJob job = new AbstractJob("Reload " + getNodeName()) {
+                {
+                    setSystem(true);
+                    setUser(false);
+                }
+                @Override
+                protected IStatus run(DBRProgressMonitor jobMonitor) {
+                    final DBCExecutionContext context;
+                    try {
+                        context = instance.openIsolatedContext(jobMonitor, "Navigator reload");
+                    } catch (DBException e) {
+                        // Default metadata context can't be shared between threads. Leave nodes to the current thread.
+                        log.debug("Can't open isolated context, nodes will be reloaded sequentially", e);
+                        return Status.OK_STATUS;
+                    }
+                    DBExecUtils.bindThreadMetaContext(context);
+                    try {
+                        reloadQueuedNodes(jobMonitor, queue, errors, reflect);
+                    } finally {
+                        DBExecUtils.bindThreadMetaContext(null);
+                        context.close();
+                    }
+                    return Status.OK_STATUS;
+                }
+            };
+            job.schedule();
+            jobs.add(job);
+        }
+        // Current thread reloads nodes too (in default metadata context)
+        reloadQueuedNodes(monitor, queue, errors, reflect);
+
+        for (Job job : jobs) {
+            while (job.getState() != Job.NONE) {
+                if (monitor.isCanceled()) {
+                    job.cancel();
+                }
+                RuntimeUtils.pause(RELOAD_WAIT_PAUSE);
+            }
+        }
+        if (!errors.isEmpty()) {
+            Throwable error = errors.get(0);
+            if (error instanceof DBException) {
+                throw (DBException) error;
+            }
+            throw new DBException("Error reloading children of '" + getNodeName() + "'", error);
+        }
+    }
+
+    private static void reloadQueuedNodes(DBRProgressMonitor monitor, Queue<DBNDatabaseNode> queue, List<Throwable> errors, boolean reflect)
+    {
+        RELOAD_WORKER.set(Boolean.TRUE);
+        try {
+            for (DBNDatabaseNode node = queue.poll(); node != null && !monitor.isCanceled(); node = queue.poll()) {
+                try {
+                    node.reloadChildren(monitor, reflect);
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }
+        } finally {
+            RELOAD_WORKER.remove();
+        }
+    }
+
     /**
      * Extract items using reflect api
      * @param monitor progress monitor
@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBIconComposite;
 import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.app.DBPPlatform;
@@ -41,6 +42,7 @@ import org.jkiss.utils.CommonUtils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -76,6 +78,7 @@ public class DBNModel implements IResourceChangeListener {
     private transient INavigatorListener[] listenersCopy = null;
     private final transient List<DBNEvent> eventCache = new ArrayList<>();
     private final Map<DBSObject, Object> nodeMap = new HashMap<>();
+    private final Map<DBPDataSourceContainer, DBNNameIndex> nameIndexes = new IdentityHashMap<>();
 
     public DBNModel(DBPPlatform platform) {
         this.platform = platform;
@@ -108,6 +111,7 @@ public class DBNModel implements IResourceChangeListener {
         this.root.dispose(false);
         synchronized (nodeMap) {
             this.nodeMap.clear();
+            this.nameIndexes.clear();
         }
         synchronized (this.listeners) {
             if (!listeners.isEmpty()) {
@@ -121,6 +125,17 @@ public class DBNModel implements IResourceChangeListener {
         this.root = null;
     }
 
+    /**
+     * Returns index of names of objects loaded in navigator for the specified data source
+     */
+    @Nullable
+    public DBNNameIndex getNameIndex(@NotNull DBPDataSourceContainer container)
+    {
+        synchronized (nodeMap) {
+            return nameIndexes.get(container);
+        }
+    }
+
     public DBNRoot getRoot()
     {
         return root;
@@ -448,6 +463,12 @@ public class DBNModel implements IResourceChangeListener {
                 List<DBNNode> nodeList = (List<DBNNode>) obj;
                 nodeList.add(node);
             }
+            if (node instanceof DBNDatabaseItem) {
+                DBPDataSourceContainer container = node.getDataSourceContainer();
+                if (container != null) {
+                    nameIndexes.computeIfAbsent(container, c -> new DBNNameIndex()).addObject(node.getObject());
+                }
+            }
         }
         if (reflect) {
             this.fireNodeEvent(new DBNEvent(this, DBNEvent.Action.ADD, DBNEvent.NodeChange.LOAD, node));
@@ -478,6 +499,12 @@ public class DBNModel implements IResourceChangeListener {
                     nodeMap.remove(node.getObject());
                 }
             }
+            if (!badNode && node instanceof DBNDatabaseItem && !nodeMap.containsKey(node.getObject())) {
+                DBNNameIndex nameIndex = nameIndexes.get(node.getDataSourceContainer());
+                if (nameIndex != null) {
+                    nameIndex.removeObject(node.getObject());
+                }
+            }
         }
         if (badNode) {
             log.warn("Remove unregistered meta node object " + node.getNodeName());
@@ -0,0 +1,176 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.navigator;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.util.*;
+
+/**
+ * Index of names of database objects loaded in navigator model (one index per data source).
+ * It is updated when navigator nodes are added or removed, so it always reflects cached metadata.
+ * Lookups do not touch the database, thus the index may be incomplete.
+ */
+public class DBNNameIndex {
+
+    public enum MatchType {
+        /**
+         * Name starts with the specified part
+         */
+        PREFIX,
+        /**
+         * Name contains the specified part
+         */
+        CONTAINS,
+        /**
+         * Name contains all characters of the specified part in the same order (e.g. "ordit" matches "ORDER_ITEMS")
+         */
+        FUZZY
+    }
+
+    // Upper-cased name -> objects with this name
+    private final NavigableMap<String, List<DBSObject>> names = new TreeMap<>();
+    // Object -> its key. Object name may change while it is indexed.
+    private final Map<DBSObject, String> objectKeys = new IdentityHashMap<>();
+
+    DBNNameIndex() {
+    }
+
+    synchronized void addObject(@NotNull DBSObject object) {
+        String name = object.getName();
+        if (name == null || objectKeys.containsKey(object)) {
+            return;
+        }
+        String key = makeKey(name);
+        objectKeys.put(object, key);
+        names.computeIfAbsent(key, k -> new ArrayList<>(1)).add(object);
+    }
+
+    synchronized void removeObject(@NotNull DBSObject object) {
+        String key = objectKeys.remove(object);
+        if (key == null) {
+            return;
+        }
+        List<DBSObject> objects = names.get(key);
+        if (objects != null && objects.remove(object) && objects.isEmpty()) {
+            names.remove(key);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return names.isEmpty();
+    }
+
+    /**
+     * Finds objects by name
+     *
+     * @param namePart    name part (case insensitive)
+     * @param matchType   name match type
+     * @param types       object classes to search. Objects of other classes are skipped.
+     * @param maxResults  maximum number of results
+     * @return matched objects ordered by name
+     */
+    @NotNull
+    public synchronized List<DBSObject> findObjects(
+        @NotNull String namePart,
+        @NotNull MatchType matchType,
+        @Nullable Collection<Class<?>> types,
+        int maxResults)
+    {
+        List<DBSObject> result = new ArrayList<>();
+        if (maxResults <= 0) {
+            return result;
+        }
+        final String key = makeKey(namePart);
+        final Map<String, List<DBSObject>> candidates;
+        if (matchType == MatchType.PREFIX) {
+            // Sorted map - all names with this prefix are located in one range
+            candidates = key.isEmpty() ? names : names.subMap(key, true, key + Character.MAX_VALUE, true);
+        } else {
+            candidates = names;
+        }
+        for (Map.Entry<String, List<DBSObject>> entry : candidates.entrySet()) {
+            if (matchType != MatchType.PREFIX && !nameMatches(entry.getKey(), key, matchType)) {
+                continue;
+            }
+            for (DBSObject object : entry.getValue()) {
+                if (types != null && !isInstanceOf(object, types)) {
+                    continue;
+                }
+                result.add(object);
+                if (result.size() >= maxResults) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds objects with exactly the specified name (case insensitive)
+     */
+    @NotNull
+    public synchronized List<DBSObject> findObjectsByName(@NotNull String name, @Nullable Collection<Class<?>> types) {
+        List<DBSObject> objects = names.get(makeKey(name));
+        if (objects == null) {
+            return Collections.emptyList();
+        }
+        List<DBSObject> result = new ArrayList<>(objects.size());
+        for (DBSObject object : objects) {
+            if (types == null || isInstanceOf(object, types)) {
+                result.add(object);
+            }
+        }
+        return result;
+    }
+
+    private static boolean nameMatches(String name, String part, MatchType matchType) {
+        switch (matchType) {
+            case CONTAINS:
+                return name.contains(part);
+            case FUZZY: {
+                int pos = 0;
+                for (int i = 0; i < part.length(); i++) {
+                    pos = name.indexOf(part.charAt(i), pos);
+                    if (pos == -1) {
+                        return false;
+                    }
+                    pos++;
+                }
+                return true;
+            }
+            default:
+                return name.startsWith(part);
+        }
+    }
+
+    private static boolean isInstanceOf(DBSObject object, Collection<Class<?>> types) {
+        for (Class<?> type : types) {
+            if (type.isInstance(object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String makeKey(String name) {
+        return name.toUpperCase(Locale.ENGLISH);
+    }
+
+}
@@ -222,6 +222,11 @@ public interface SQLDialect {
 
     boolean supportsTableDropCascade();
 
+    /**
+     * Checks whether dialect supports GROUP BY ROLLUP(...) and GROUPING SETS(...)
+     */
+    boolean supportsGroupingSets();
+
     /**
      * Check whether dialect support plain comment queries (queries which contains only comments)
      */
@@ -0,0 +1,47 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+/**
+ * Bulk data loader.
+ * Optional data manipulator feature. Loads big amount of rows much faster than row-by-row inserts
+ * (using native loader protocols or multi-row statements).
+ *
+ * Unlike {@link DBSDataManipulator#insertData} bulk loaders do not skip NULL values (so column defaults are not applied)
+ * and do not return generated keys.
+ */
+public interface DBSDataBulkLoader {
+
+    /**
+     * Creates bulk insert batch.
+     * @return batch or null if bulk load isn't supported by database or for the specified attributes
+     */
+    @Nullable
+    DBSDataManipulator.ExecuteBatch insertDataBulk(
+        @NotNull DBCSession session,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source)
+        throws DBCException;
+
+}
@@ -40,6 +40,14 @@ public interface DBSDataManipulator extends DBSDataContainer {
     int DATA_TRUNCATE       = 1 << 19;
 
     interface ExecuteBatch extends AutoCloseable {
+        /**
+         * Switches batch to streaming mode: rows are bound to statement right in {@link #add}.
+         * Rows are sent to database on {@link #execute}. Row values are kept until successful execute,
+         * so failed execute can be repeated. Persist actions can't be generated in streaming mode.
+         * @return false if batch doesn't support streaming
+         */
+        boolean enableStreaming(@NotNull DBCSession session);
+
         void add(@NotNull Object[] attributeValues) throws DBCException;
 
         @NotNull